@@ -0,0 +1,84 @@
+package com.lukianchykov.bookingsystem.config.cache;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+/**
+ * Measures cache reads racing evictions on the {@link TwoLevelCache} the services cache through. {@code memory}
+ * is the L1-only setup of the memory cache type; {@code remote} adds an L2 that copies values by serialization
+ * like Redis does, without the network round trip.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TwoLevelCacheBenchmark {
+
+    private static final int KEYS = 1024;
+
+    @Param({"memory", "remote"})
+    private String cacheType;
+
+    private TwoLevelCacheManager cacheManager;
+
+    private Cache cache;
+
+    @Setup(Level.Trial)
+    public void createCache() {
+        ConcurrentMapCacheManager remote = null;
+        if ("remote".equals(cacheType)) {
+            remote = new ConcurrentMapCacheManager();
+            remote.setStoreByValue(true);
+        }
+        cacheManager = new TwoLevelCacheManager(remote, new InMemoryCacheInvalidationBus().node(), null,
+            new SimpleMeterRegistry(), new TwoLevelCacheSettings(10_000, Duration.ofMinutes(1), Duration.ofSeconds(5),
+            Duration.ofSeconds(2)));
+        cache = cacheManager.getCache("benchmark");
+        for (long key = 0; key < KEYS; key++) {
+            cache.put(key, key);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void closeCache() {
+        cacheManager.destroy();
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(3)
+    public Long get() {
+        long key = ThreadLocalRandom.current().nextInt(KEYS);
+        return cache.get(key, () -> key);
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(1)
+    public void evict() {
+        cache.evict((long) ThreadLocalRandom.current().nextInt(KEYS));
+    }
+}
@@ -0,0 +1,112 @@
+package com.lukianchykov.bookingsystem.config.lock;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.lukianchykov.bookingsystem.config.cache.InMemoryCacheLease;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Lock, short critical section and release of a random unit out of {@code units} by 8 threads at once, for each
+ * {@link UnitLockProvider}: fewer units mean more contention. {@code lease} runs against the in-memory lease store,
+ * so it shows the cost of polling without the Redis round trip. {@code postgres} needs a database and is not part
+ * of the default run; add it with {@code -p provider=striped,lease,postgres} and pass the
+ * {@code booking.benchmark.jdbc-url}, {@code jdbc-username} and {@code jdbc-password} system properties to the fork
+ * with {@code -jvmArgsAppend}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class UnitLockBenchmark {
+
+    private static final Duration MAX_WAIT = Duration.ofSeconds(30);
+
+    @Param({"striped", "lease"})
+    private String provider;
+
+    @Param({"1", "64", "4096"})
+    private int units;
+
+    @Param({"200"})
+    private int criticalSectionTokens;
+
+    private UnitLockProvider lockProvider;
+
+    private TransactionTemplate transactionTemplate;
+
+    @Setup(Level.Trial)
+    public void createProvider() {
+        PlatformTransactionManager transactionManager = new NoDatabaseTransactionManager();
+        lockProvider = switch (provider) {
+            case "striped" -> new StripedUnitLockProvider(1024, MAX_WAIT);
+            case "lease" -> new LeaseUnitLockProvider(new InMemoryCacheLease(),
+                new StripedUnitLockProvider(1024, MAX_WAIT), Duration.ofSeconds(30), MAX_WAIT);
+            case "postgres" -> {
+                DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                    System.getProperty("booking.benchmark.jdbc-url", "jdbc:postgresql://localhost:5432/booking_system"),
+                    System.getProperty("booking.benchmark.jdbc-username", "booking_user"),
+                    System.getProperty("booking.benchmark.jdbc-password", "booking_password"));
+                transactionManager = new DataSourceTransactionManager(dataSource);
+                yield new PostgresAdvisoryUnitLockProvider(new JdbcTemplate(dataSource), MAX_WAIT);
+            }
+            default -> throw new IllegalArgumentException(provider);
+        };
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Benchmark
+    public void lockUnit() {
+        long unitId = ThreadLocalRandom.current().nextInt(units);
+        transactionTemplate.executeWithoutResult(status -> {
+            lockProvider.lock(unitId);
+            Blackhole.consumeCPU(criticalSectionTokens);
+        });
+    }
+
+    private static final class NoDatabaseTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.lukianchykov.bookingsystem.controller;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lukianchykov.bookingsystem.domain.AccommodationType;
+import com.lukianchykov.bookingsystem.dto.UnitResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Measures the Jackson serialization of a unit search page as {@link UnitController} returns it, with an object
+ * mapper configured like the one Spring Boot builds.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UnitPageSerializationBenchmark {
+
+    @Param({"10", "100"})
+    private int pageSize;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private Page<UnitResponse> page;
+
+    @Setup(Level.Trial)
+    public void createPage() {
+        List<UnitResponse> content = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            content.add(UnitResponse.builder()
+                .id((long) i)
+                .numberOfRooms(1 + i % 4)
+                .accommodationType(AccommodationType.values()[i % AccommodationType.values().length])
+                .floor(i % 12)
+                .baseCost(new BigDecimal("100.00"))
+                .finalCost(new BigDecimal("115.00"))
+                .description("Unit number " + i)
+                .ownerName("Owner " + i % 7)
+                .createdAt(LocalDateTime.of(2030, 1, 1, 12, 0).plusMinutes(i))
+                .available(true)
+                .build());
+        }
+        page = new PageImpl<>(content, PageRequest.of(0, pageSize), 10_000);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
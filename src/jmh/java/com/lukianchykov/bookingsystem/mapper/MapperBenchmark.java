@@ -0,0 +1,80 @@
+package com.lukianchykov.bookingsystem.mapper;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import com.lukianchykov.bookingsystem.domain.AccommodationType;
+import com.lukianchykov.bookingsystem.domain.Booking;
+import com.lukianchykov.bookingsystem.domain.BookingStatus;
+import com.lukianchykov.bookingsystem.domain.Unit;
+import com.lukianchykov.bookingsystem.domain.User;
+import com.lukianchykov.bookingsystem.dto.BookingResponse;
+import com.lukianchykov.bookingsystem.dto.UnitResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the generated MapStruct mappers from entities to responses.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private final UnitMapper unitMapper = new UnitMapperImpl();
+
+    private final BookingMapper bookingMapper = new BookingMapperImpl();
+
+    private final User owner = User.builder()
+        .id(1L)
+        .name("Owner")
+        .email("owner@example.com")
+        .createdAt(LocalDateTime.of(2030, 1, 1, 12, 0))
+        .build();
+
+    private final Unit unit = Unit.builder()
+        .id(42L)
+        .numberOfRooms(2)
+        .accommodationType(AccommodationType.FLAT)
+        .floor(3)
+        .baseCost(new BigDecimal("100.00"))
+        .finalCost(new BigDecimal("115.00"))
+        .description("Two-room flat")
+        .owner(owner)
+        .createdAt(LocalDateTime.of(2030, 1, 1, 12, 0))
+        .build();
+
+    private final Booking booking = Booking.builder()
+        .id(7L)
+        .unit(unit)
+        .user(owner)
+        .startDate(LocalDate.of(2030, 6, 1))
+        .endDate(LocalDate.of(2030, 6, 4))
+        .totalCost(new BigDecimal("345.00"))
+        .status(BookingStatus.PENDING)
+        .createdAt(LocalDateTime.of(2030, 5, 1, 12, 0))
+        .expiresAt(LocalDateTime.of(2030, 5, 1, 12, 15))
+        .build();
+
+    @Benchmark
+    public UnitResponse unitToResponse() {
+        return unitMapper.toResponse(unit);
+    }
+
+    @Benchmark
+    public BookingResponse bookingToResponse() {
+        return bookingMapper.toResponse(booking);
+    }
+}
@@ -0,0 +1,82 @@
+package com.lukianchykov.bookingsystem.service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.lukianchykov.bookingsystem.domain.Booking;
+import com.lukianchykov.bookingsystem.domain.Unit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the conflict check {@code BookingService.createBooking} runs before it writes anything: the interval
+ * index lookup for a unit holding {@code bookingsPerUnit} active two-night bookings, for a conflicting and for a
+ * free range, and a claim of a free range that is released again.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingConflictBenchmark {
+
+    private static final Long UNIT_ID = 1L;
+
+    private static final LocalDate FIRST_NIGHT = LocalDate.of(2030, 1, 1);
+
+    @Param({"10", "1000"})
+    private int bookingsPerUnit;
+
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    private LocalDate conflictingStart;
+
+    private LocalDate freeStart;
+
+    @Setup(Level.Trial)
+    public void registerBookings() {
+        bookingIntervalIndex = new BookingIntervalIndex(null, List.of());
+        Unit unit = Unit.builder().id(UNIT_ID).build();
+        for (int i = 0; i < bookingsPerUnit; i++) {
+            LocalDate startDate = FIRST_NIGHT.plusDays(3L * i);
+            bookingIntervalIndex.register(Booking.builder()
+                .id((long) i)
+                .unit(unit)
+                .startDate(startDate)
+                .endDate(startDate.plusDays(1))
+                .build());
+        }
+        conflictingStart = FIRST_NIGHT.plusDays(3L * (bookingsPerUnit / 2) + 1);
+        freeStart = FIRST_NIGHT.plusDays(3L * (bookingsPerUnit / 2) + 2);
+    }
+
+    @Benchmark
+    public boolean conflictingRange() {
+        return bookingIntervalIndex.hasConflict(UNIT_ID, conflictingStart, conflictingStart.plusDays(1));
+    }
+
+    @Benchmark
+    public boolean freeRange() {
+        return bookingIntervalIndex.hasConflict(UNIT_ID, freeStart, freeStart);
+    }
+
+    @Benchmark
+    public BookingIntervalIndex.Reservation reserveAndRelease() {
+        BookingIntervalIndex.Reservation reservation = bookingIntervalIndex.tryReserve(UNIT_ID, freeStart, freeStart);
+        bookingIntervalIndex.bind(reservation, -1L);
+        bookingIntervalIndex.release(UNIT_ID, -1L);
+        return reservation;
+    }
+}
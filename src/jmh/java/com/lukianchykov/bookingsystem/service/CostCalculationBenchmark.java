@@ -0,0 +1,48 @@
+package com.lukianchykov.bookingsystem.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the {@link BigDecimal} cost math on the write paths: the marked-up final cost of a unit and the total
+ * cost of a booking.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CostCalculationBenchmark {
+
+    private BigDecimal baseCost = new BigDecimal("137.45");
+
+    private BigDecimal finalCost = new BigDecimal("158.07");
+
+    private LocalDate startDate = LocalDate.of(2030, 6, 1);
+
+    private LocalDate endDate = LocalDate.of(2030, 6, 8);
+
+    @Benchmark
+    public BigDecimal finalCost() {
+        return UnitService.calculateFinalCost(baseCost);
+    }
+
+    @Benchmark
+    public BigDecimal bookingTotalCost() {
+        long days = ChronoUnit.DAYS.between(startDate, endDate);
+        return finalCost.multiply(BigDecimal.valueOf(days));
+    }
+}
@@ -0,0 +1,73 @@
+package com.lukianchykov.bookingsystem.service;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the vector and scalar scan kernels on the predicates of a typical search: one equality filter on an
+ * int column and one range filter on the cost column.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class UnitScanKernelBenchmark {
+
+    @Param({"100000", "1000000"})
+    private int rows;
+
+    private final UnitScanKernel vector = UnitScanKernel.preferred(true);
+
+    private final UnitScanKernel scalar = new ScalarUnitScanKernel();
+
+    private int[] floor;
+
+    private long[] finalCostCents;
+
+    private long[] selection;
+
+    @Setup(Level.Trial)
+    public void createColumns() {
+        Random random = new Random(42);
+        floor = random.ints(rows, 0, 30).toArray();
+        finalCostCents = random.longs(rows, 1_000, 100_000).toArray();
+        selection = new long[(rows + 63) >>> 6];
+    }
+
+    @Setup(Level.Invocation)
+    public void selectAll() {
+        Arrays.fill(selection, -1L);
+    }
+
+    @Benchmark
+    public long[] vector() {
+        return scan(vector);
+    }
+
+    @Benchmark
+    public long[] scalar() {
+        return scan(scalar);
+    }
+
+    private long[] scan(UnitScanKernel kernel) {
+        kernel.retainEqual(floor, 7, selection, rows);
+        kernel.retainBetween(finalCostCents, 10_000, 40_000, selection, rows);
+        return selection;
+    }
+}
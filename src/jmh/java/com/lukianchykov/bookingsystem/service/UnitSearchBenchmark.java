@@ -0,0 +1,146 @@
+package com.lukianchykov.bookingsystem.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.lukianchykov.bookingsystem.BookingSystemApplication;
+import com.lukianchykov.bookingsystem.domain.AccommodationType;
+import com.lukianchykov.bookingsystem.domain.Unit;
+import com.lukianchykov.bookingsystem.domain.User;
+import com.lukianchykov.bookingsystem.dto.UnitResponse;
+import com.lukianchykov.bookingsystem.dto.UnitSearchRequest;
+import com.lukianchykov.bookingsystem.repository.UnitRepository;
+import com.lukianchykov.bookingsystem.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Compares a filtered, cost-sorted search page answered by the database query with the same page answered by the
+ * columnar scan plus the lookup of its rows by id, and with the scan alone. Runs against an in-memory H2 database
+ * with one owner per hundred units.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class UnitSearchBenchmark {
+
+    @Param({"10000", "100000"})
+    private int units;
+
+    private ConfigurableApplicationContext context;
+
+    private UnitRepository unitRepository;
+
+    private ColumnarUnitSearch columnarUnitSearch;
+
+    private UnitSearchRequest request;
+
+    private PageRequest pageable;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        SpringApplication application = new SpringApplication(BookingSystemApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        context = application.run(
+            "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+            "--spring.datasource.driver-class-name=org.h2.Driver",
+            "--spring.datasource.username=sa",
+            "--spring.datasource.password=",
+            "--spring.jpa.hibernate.ddl-auto=create-drop",
+            "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+            "--spring.jpa.properties.hibernate.jdbc.batch_size=1000",
+            "--spring.liquibase.enabled=false",
+            "--cache.type=memory",
+            "--logging.level.root=WARN");
+        unitRepository = context.getBean(UnitRepository.class);
+        columnarUnitSearch = context.getBean(ColumnarUnitSearch.class);
+
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        List<User> owners = new ArrayList<>();
+        for (int i = 0; i < units / 100; i++) {
+            owners.add(User.builder()
+                .name("Benchmark Owner " + i)
+                .email("benchmark-owner-" + i + "@example.com")
+                .createdAt(LocalDateTime.now())
+                .build());
+        }
+        owners = userRepository.saveAll(owners);
+        Random random = new Random(42);
+        List<Unit> batch = new ArrayList<>();
+        for (int i = 0; i < units; i++) {
+            BigDecimal baseCost = BigDecimal.valueOf(20 + random.nextInt(400));
+            batch.add(Unit.builder()
+                .numberOfRooms(1 + random.nextInt(5))
+                .accommodationType(AccommodationType.values()[random.nextInt(AccommodationType.values().length)])
+                .floor(random.nextInt(30))
+                .baseCost(baseCost)
+                .finalCost(UnitService.calculateFinalCost(baseCost))
+                .description("Benchmark unit " + i)
+                .owner(owners.get(i % owners.size()))
+                .createdAt(LocalDateTime.now())
+                .build());
+            if (batch.size() == 1000) {
+                unitRepository.saveAll(batch);
+                batch.clear();
+            }
+        }
+        unitRepository.saveAll(batch);
+        columnarUnitSearch.rebuild();
+
+        request = new UnitSearchRequest();
+        request.setNumberOfRooms(2);
+        request.setMinCost(new BigDecimal("100"));
+        request.setMaxCost(new BigDecimal("300"));
+        request.setSortBy("finalCost");
+        request.setSortDirection("DESC");
+        request.setSize(20);
+        pageable = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "finalCost"));
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<UnitResponse> databaseQuery() {
+        return unitRepository.findAvailableUnits(request.getNumberOfRooms(), null, null, request.getMinCost(),
+            request.getMaxCost(), null, null, pageable);
+    }
+
+    @Benchmark
+    public UnitSearchCache.Result columnarScanOnly() {
+        return columnarUnitSearch.search(request, List.of()).orElseThrow();
+    }
+
+    @Benchmark
+    public List<UnitResponse> columnarScan() {
+        UnitSearchCache.Result result = columnarUnitSearch.search(request, List.of()).orElseThrow();
+        return unitRepository.findResponsesByIds(result.unitIds());
+    }
+}
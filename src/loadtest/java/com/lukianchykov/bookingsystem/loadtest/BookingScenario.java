@@ -0,0 +1,161 @@
+package com.lukianchykov.bookingsystem.loadtest;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lukianchykov.bookingsystem.domain.AccommodationType;
+import com.lukianchykov.bookingsystem.dto.BookingCreateRequest;
+import com.lukianchykov.bookingsystem.dto.BookingResponse;
+import com.lukianchykov.bookingsystem.dto.PaymentRequest;
+import com.lukianchykov.bookingsystem.dto.UnitSearchRequest;
+
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Sends the search, book, pay and cancel calls of the load mix. Unit ids seen in search results feed the bookings,
+ * and created bookings queue up to be paid and cancelled, so the calls follow each other the way real clients chain
+ * them. A call whose input is not available yet, such as a payment before any booking exists, is replaced by the
+ * call that produces it.
+ */
+class BookingScenario {
+
+    private static final int UNIT_POOL_SIZE = 4096;
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient client;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private final LoadOptions options;
+
+    private final LocalDate today = LocalDate.now();
+
+    private final AtomicLongArray unitPool = new AtomicLongArray(UNIT_POOL_SIZE);
+
+    private final AtomicInteger unitsSeen = new AtomicInteger();
+
+    private final Queue<Long> unpaidBookings = new ConcurrentLinkedQueue<>();
+
+    private final Queue<Long> paidBookings = new ConcurrentLinkedQueue<>();
+
+    BookingScenario(HttpClient client, LoadOptions options) {
+        this.client = client;
+        this.options = options;
+    }
+
+    record Outcome(Operation operation, int status) {
+    }
+
+    Outcome execute(Operation planned, SplittableRandom random) throws IOException, InterruptedException {
+        return switch (planned) {
+            case SEARCH -> new Outcome(Operation.SEARCH, search(random));
+            case BOOK -> book(random);
+            case PAY -> {
+                Long bookingId = unpaidBookings.poll();
+                yield bookingId == null ? book(random) : new Outcome(Operation.PAY, pay(bookingId));
+            }
+            case CANCEL -> {
+                Long bookingId = random.nextBoolean() ? paidBookings.poll() : unpaidBookings.poll();
+                yield bookingId == null ? book(random) : new Outcome(Operation.CANCEL, cancel(bookingId));
+            }
+        };
+    }
+
+    private int search(SplittableRandom random) throws IOException, InterruptedException {
+        UnitSearchRequest request = new UnitSearchRequest();
+        if (random.nextInt(100) < 50) {
+            request.setNumberOfRooms(1 + random.nextInt(5));
+        }
+        if (random.nextInt(100) < 30) {
+            AccommodationType[] types = AccommodationType.values();
+            request.setAccommodationType(types[random.nextInt(types.length)]);
+        }
+        if (random.nextInt(100) < 30) {
+            int min = 50 + 25 * random.nextInt(8);
+            request.setMinCost(BigDecimal.valueOf(min));
+            request.setMaxCost(BigDecimal.valueOf(min + 100));
+        }
+        if (random.nextInt(100) < 60) {
+            LocalDate startDate = today.plusDays(1 + random.nextInt(options.searchHorizonDays()));
+            request.setStartDate(startDate);
+            request.setEndDate(startDate.plusDays(1 + random.nextInt(7)));
+        }
+        if (random.nextInt(100) < 40) {
+            request.setSortBy("finalCost");
+            request.setSortDirection(random.nextBoolean() ? "ASC" : "DESC");
+        }
+        request.setPage(random.nextInt(100) < 90 ? 0 : 1 + random.nextInt(4));
+        request.setSize(20);
+
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/api/units/search"))
+            .POST(json(request)));
+        if (response.statusCode() == 200) {
+            for (JsonNode unit : objectMapper.readTree(response.body()).path("content")) {
+                unitPool.set(Math.floorMod(unitsSeen.getAndIncrement(), UNIT_POOL_SIZE), unit.path("id").asLong());
+            }
+        }
+        return response.statusCode();
+    }
+
+    private Outcome book(SplittableRandom random) throws IOException, InterruptedException {
+        int known = Math.min(unitsSeen.get(), UNIT_POOL_SIZE);
+        if (known == 0) {
+            return new Outcome(Operation.SEARCH, search(random));
+        }
+        LocalDate startDate = today.plusDays(1 + random.nextInt(options.searchHorizonDays()));
+        BookingCreateRequest request = BookingCreateRequest.builder()
+            .unitId(unitPool.get(random.nextInt(known)))
+            .userId(random.nextLong(options.firstUserId(), options.lastUserId() + 1))
+            .startDate(startDate)
+            .endDate(startDate.plusDays(1 + random.nextInt(7)))
+            .build();
+
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/api/bookings")).POST(json(request)));
+        if (response.statusCode() == 201 || response.statusCode() == 200) {
+            unpaidBookings.add(objectMapper.readValue(response.body(), BookingResponse.class).getId());
+        }
+        return new Outcome(Operation.BOOK, response.statusCode());
+    }
+
+    private int pay(Long bookingId) throws IOException, InterruptedException {
+        PaymentRequest request = new PaymentRequest(bookingId, "CARD");
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/api/payments/process"))
+            .POST(json(request)));
+        if (response.statusCode() == 200) {
+            paidBookings.add(bookingId);
+        }
+        return response.statusCode();
+    }
+
+    private int cancel(Long bookingId) throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(uri("/api/bookings/" + bookingId + "/cancel"))
+            .PUT(HttpRequest.BodyPublishers.noBody())).statusCode();
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return client.send(request.timeout(REQUEST_TIMEOUT).header("Content-Type", "application/json").build(),
+            HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest.BodyPublisher json(Object body) throws IOException {
+        return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+    }
+
+    private URI uri(String path) {
+        return options.baseUrl().resolve(path);
+    }
+}
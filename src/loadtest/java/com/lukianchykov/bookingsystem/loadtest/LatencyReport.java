@@ -0,0 +1,118 @@
+package com.lukianchykov.bookingsystem.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Per-endpoint latency histograms and outcome counters of one measured run. Responses with a 4xx status are counted
+ * as rejected rather than failed: a booking that loses the race for a unit is an expected outcome under load.
+ */
+class LatencyReport {
+
+    private static final long MAX_TRACKED_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final Map<Operation, Endpoint> endpoints = new EnumMap<>(Operation.class);
+
+    private final LongAdder dropped = new LongAdder();
+
+    LatencyReport() {
+        for (Operation operation : Operation.values()) {
+            endpoints.put(operation, new Endpoint());
+        }
+    }
+
+    void record(Operation operation, int status, long latencyNanos) {
+        Endpoint endpoint = endpoints.get(operation);
+        endpoint.latencies.recordValue(Math.min(MAX_TRACKED_MICROS, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+        if (status >= 200 && status < 300) {
+            endpoint.succeeded.increment();
+        } else if (status >= 400 && status < 500) {
+            endpoint.rejected.increment();
+        } else {
+            endpoint.failed.increment();
+        }
+    }
+
+    void recordDropped() {
+        dropped.increment();
+    }
+
+    void print(PrintStream out, Duration measured) {
+        out.printf("%-32s %9s %9s %9s %9s %10s %9s %9s %9s %9s%n", "endpoint", "requests", "ok", "rejected",
+            "failed", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map<String, Object> row : rows(measured)) {
+            out.printf("%-32s %9d %9d %9d %9d %10.1f %9.2f %9.2f %9.2f %9.2f%n", row.get("endpoint"),
+                row.get("requests"), row.get("ok"), row.get("rejected"), row.get("failed"), row.get("throughput"),
+                row.get("p50Ms"), row.get("p99Ms"), row.get("p999Ms"), row.get("maxMs"));
+        }
+        if (dropped.sum() > 0) {
+            out.printf("%d arrivals dropped at the in-flight limit%n", dropped.sum());
+        }
+    }
+
+    void write(Path path, LoadOptions options, Duration measured) throws IOException {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("model", options.model());
+        report.put("concurrency", options.concurrency());
+        report.put("rate", options.rate());
+        report.put("seed", options.seed());
+        report.put("durationSeconds", measured.toMillis() / 1000.0);
+        report.put("dropped", dropped.sum());
+        report.put("endpoints", rows(measured));
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(path.toFile(), report);
+    }
+
+    private List<Map<String, Object>> rows(Duration measured) {
+        double seconds = Math.max(1, measured.toMillis()) / 1000.0;
+        List<Map<String, Object>> rows = new ArrayList<>();
+        endpoints.forEach((operation, endpoint) -> {
+            Histogram latencies = endpoint.latencies;
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("endpoint", operation.endpoint());
+            row.put("requests", latencies.getTotalCount());
+            row.put("ok", endpoint.succeeded.sum());
+            row.put("rejected", endpoint.rejected.sum());
+            row.put("failed", endpoint.failed.sum());
+            row.put("throughput", latencies.getTotalCount() / seconds);
+            row.put("p50Ms", millis(latencies.getValueAtPercentile(50)));
+            row.put("p99Ms", millis(latencies.getValueAtPercentile(99)));
+            row.put("p999Ms", millis(latencies.getValueAtPercentile(99.9)));
+            row.put("maxMs", millis(latencies.getMaxValue()));
+            rows.add(row);
+        });
+        return rows;
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static final class Endpoint {
+
+        private final Histogram latencies = new ConcurrentHistogram(MAX_TRACKED_MICROS, 3);
+
+        private final LongAdder succeeded = new LongAdder();
+
+        private final LongAdder rejected = new LongAdder();
+
+        private final LongAdder failed = new LongAdder();
+    }
+}
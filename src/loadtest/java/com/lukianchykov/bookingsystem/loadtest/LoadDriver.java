@@ -0,0 +1,168 @@
+package com.lukianchykov.bookingsystem.loadtest;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays a seeded mix of search, book, pay and cancel calls against a running booking service and reports latency
+ * percentiles and throughput per endpoint.
+ * <p>
+ * The closed model keeps {@code --concurrency} workers busy, each sending its next call when the previous one has
+ * completed, and measures every call from when it was sent. The open model schedules calls at exponentially
+ * distributed intervals averaging {@code --rate} per second and measures every call from when it was scheduled,
+ * so time spent waiting behind a slow service counts towards its latency instead of silently lowering the load.
+ * Calls scheduled during the warmup are sent but not recorded.
+ */
+public final class LoadDriver {
+
+    private final LoadOptions options;
+
+    private final BookingScenario scenario;
+
+    private final LatencyReport report = new LatencyReport();
+
+    private final Operation[] operations;
+
+    private final int[] cumulativeWeights;
+
+    private long measureFrom;
+
+    private long measureUntil;
+
+    private LoadDriver(LoadOptions options, HttpClient client) {
+        this.options = options;
+        this.scenario = new BookingScenario(client, options);
+        this.operations = options.mix().keySet().toArray(Operation[]::new);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += options.mix().get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("The operation mix needs a positive weight");
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (Arrays.asList(args).contains("--help")) {
+            System.out.print(LoadOptions.USAGE);
+            return;
+        }
+        LoadOptions options = LoadOptions.parse(args);
+        HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+        LoadDriver driver = new LoadDriver(options, client);
+        System.out.printf("Running the %s model against %s for %s after a %s warmup, mix %s%n",
+            options.model().name().toLowerCase(), options.baseUrl(), options.duration(), options.warmup(),
+            options.mix());
+        driver.run();
+
+        driver.report.print(System.out, options.duration());
+        if (options.report() != null) {
+            driver.report.write(options.report(), options, options.duration());
+            System.out.println("Report written to " + options.report().toAbsolutePath());
+        }
+    }
+
+    private void run() throws InterruptedException {
+        measureFrom = System.nanoTime() + options.warmup().toNanos();
+        measureUntil = measureFrom + options.duration().toNanos();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            switch (options.model()) {
+                case CLOSED -> runClosed(executor);
+                case OPEN -> runOpen(executor);
+            }
+        }
+    }
+
+    private void runClosed(ExecutorService executor) {
+        for (int worker = 0; worker < options.concurrency(); worker++) {
+            SplittableRandom random = random(worker);
+            executor.execute(() -> {
+                while (System.nanoTime() < measureUntil && !Thread.currentThread().isInterrupted()) {
+                    call(random, System.nanoTime());
+                    if (!options.thinkTime().isZero()) {
+                        LockSupport.parkNanos(options.thinkTime().toNanos());
+                    }
+                }
+            });
+        }
+    }
+
+    private void runOpen(ExecutorService executor) throws InterruptedException {
+        SplittableRandom arrivals = random(-1);
+        Semaphore inFlight = new Semaphore(options.maxInFlight());
+        double meanIntervalNanos = 1e9 / options.rate();
+        long scheduled = System.nanoTime();
+        for (long sequence = 0; ; sequence++) {
+            scheduled += (long) (-Math.log(1 - arrivals.nextDouble()) * meanIntervalNanos);
+            if (scheduled >= measureUntil) {
+                return;
+            }
+            for (long wait = scheduled - System.nanoTime(); wait > 0; wait = scheduled - System.nanoTime()) {
+                LockSupport.parkNanos(wait);
+            }
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            if (!inFlight.tryAcquire()) {
+                if (scheduled >= measureFrom) {
+                    report.recordDropped();
+                }
+                continue;
+            }
+
+            long intendedStart = scheduled;
+            SplittableRandom random = random(sequence);
+            executor.execute(() -> {
+                try {
+                    call(random, intendedStart);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        }
+    }
+
+    private void call(SplittableRandom random, long startedAt) {
+        Operation planned = pick(random);
+        BookingScenario.Outcome outcome;
+        try {
+            outcome = scenario.execute(planned, random);
+        } catch (IOException e) {
+            outcome = new BookingScenario.Outcome(planned, 0);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        long finishedAt = System.nanoTime();
+        if (startedAt >= measureFrom && startedAt < measureUntil) {
+            report.record(outcome.operation(), outcome.status(), finishedAt - startedAt);
+        }
+    }
+
+    private Operation pick(SplittableRandom random) {
+        int roll = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    private SplittableRandom random(long stream) {
+        return new SplittableRandom(options.seed() * 0x9E3779B97F4A7C15L + stream * 0xBF58476D1CE4E5B9L);
+    }
+}
@@ -0,0 +1,95 @@
+package com.lukianchykov.bookingsystem.loadtest;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command line options of the {@link LoadDriver}, given as {@code --name=value}.
+ */
+record LoadOptions(URI baseUrl, Model model, int concurrency, double rate, int maxInFlight, Duration duration,
+                   Duration warmup, Duration thinkTime, Map<Operation, Integer> mix, long seed, long firstUserId,
+                   long lastUserId, int searchHorizonDays, Path report) {
+
+    enum Model {
+        /**
+         * A fixed number of workers that each send the next request when the previous one has completed.
+         */
+        CLOSED,
+        /**
+         * Requests arrive at a fixed average rate regardless of how fast the service answers them.
+         */
+        OPEN
+    }
+
+    static final String USAGE = """
+        Options:
+          --base-url=http://localhost:8080
+          --model=closed|open                closed: --concurrency workers; open: Poisson arrivals at --rate
+          --concurrency=32                   workers of the closed model
+          --think-time=0ms                   pause between the requests of a closed-model worker
+          --rate=200                         requests per second of the open model
+          --max-in-flight=10000              open-model requests beyond this many outstanding ones are dropped
+          --duration=60s                     measured run time
+          --warmup=10s                       run time before measuring
+          --mix=search:70,book:15,pay:10,cancel:5
+          --seed=42
+          --users=1-10000                    user ids to book as, e.g. the ids the loadgen profile logged
+          --search-horizon-days=180          how far ahead searched and booked stays start
+          --report=build/reports/loadtest/results.json
+        """;
+
+    static LoadOptions parse(String... args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        String[] users = values.getOrDefault("users", "1-10000").split("-");
+        String report = values.get("report");
+        return new LoadOptions(
+            URI.create(values.getOrDefault("base-url", "http://localhost:8080")),
+            Model.valueOf(values.getOrDefault("model", "closed").toUpperCase()),
+            Integer.parseInt(values.getOrDefault("concurrency", "32")),
+            Double.parseDouble(values.getOrDefault("rate", "200")),
+            Integer.parseInt(values.getOrDefault("max-in-flight", "10000")),
+            duration(values.getOrDefault("duration", "60s")),
+            duration(values.getOrDefault("warmup", "10s")),
+            duration(values.getOrDefault("think-time", "0ms")),
+            mix(values.getOrDefault("mix", "search:70,book:15,pay:10,cancel:5")),
+            Long.parseLong(values.getOrDefault("seed", "42")),
+            Long.parseLong(users[0]),
+            Long.parseLong(users[users.length - 1]),
+            Integer.parseInt(values.getOrDefault("search-horizon-days", "180")),
+            report == null ? null : Path.of(report));
+    }
+
+    private static Duration duration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(value));
+    }
+
+    private static Map<Operation, Integer> mix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.split(":");
+            mix.put(Operation.valueOf(parts[0].trim().toUpperCase()), Integer.parseInt(parts[1].trim()));
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,22 @@
+package com.lukianchykov.bookingsystem.loadtest;
+
+/**
+ * The calls the {@link LoadDriver} replays, each reported as its own endpoint.
+ */
+enum Operation {
+
+    SEARCH("POST /api/units/search"),
+    BOOK("POST /api/bookings"),
+    PAY("POST /api/payments/process"),
+    CANCEL("PUT /api/bookings/{id}/cancel");
+
+    private final String endpoint;
+
+    Operation(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    String endpoint() {
+        return endpoint;
+    }
+}
@@ -0,0 +1,89 @@
+package com.lukianchykov.bookingsystem.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Prints the throughput and p99 of each endpoint side by side for reports written by the {@link LoadDriver}, e.g.
+ * one run against the application on platform threads and one on virtual threads. Each report is labelled with its
+ * file name and compared with the first one.
+ */
+public final class ReportComparison {
+
+    private ReportComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: ReportComparison <baseline.json> <other.json>...");
+            return;
+        }
+        Map<String, JsonNode> reports = new LinkedHashMap<>();
+        ObjectMapper objectMapper = new ObjectMapper();
+        for (String file : args) {
+            Path path = Path.of(file);
+            reports.put(path.getFileName().toString().replaceFirst("\\.json$", ""),
+                objectMapper.readTree(path.toFile()));
+        }
+        print(System.out, reports);
+    }
+
+    static void print(PrintStream out, Map<String, JsonNode> reports) {
+        out.printf("%-32s %-16s %10s %9s %9s %12s %9s%n", "endpoint", "run", "req/s", "p99 ms", "failed",
+            "req/s change", "p99 change");
+        for (String endpoint : endpoints(reports.values())) {
+            JsonNode baseline = null;
+            for (Map.Entry<String, JsonNode> report : reports.entrySet()) {
+                JsonNode row = row(report.getValue(), endpoint);
+                if (row == null) {
+                    continue;
+                }
+                double throughput = row.path("throughput").asDouble();
+                double p99 = row.path("p99Ms").asDouble();
+                if (baseline == null) {
+                    baseline = row;
+                    out.printf("%-32s %-16s %10.1f %9.2f %9d%n", endpoint, report.getKey(), throughput, p99,
+                        row.path("failed").asLong());
+                } else {
+                    out.printf("%-32s %-16s %10.1f %9.2f %9d %11s %10s%n", "", report.getKey(), throughput, p99,
+                        row.path("failed").asLong(), change(baseline.path("throughput").asDouble(), throughput),
+                        change(baseline.path("p99Ms").asDouble(), p99));
+                }
+            }
+        }
+    }
+
+    private static List<String> endpoints(Iterable<JsonNode> reports) {
+        List<String> endpoints = new ArrayList<>();
+        for (JsonNode report : reports) {
+            for (JsonNode row : report.path("endpoints")) {
+                String endpoint = row.path("endpoint").asText();
+                if (row.path("requests").asLong() > 0 && !endpoints.contains(endpoint)) {
+                    endpoints.add(endpoint);
+                }
+            }
+        }
+        return endpoints;
+    }
+
+    private static JsonNode row(JsonNode report, String endpoint) {
+        for (JsonNode row : report.path("endpoints")) {
+            if (endpoint.equals(row.path("endpoint").asText())) {
+                return row;
+            }
+        }
+        return null;
+    }
+
+    private static String change(double baseline, double value) {
+        return baseline == 0 ? "n/a" : String.format("%+.1f%%", (value - baseline) * 100 / baseline);
+    }
+}
@@ -2,10 +2,21 @@ package com.lukianchykov.bookingsystem.config;
 
 import java.time.Duration;
 
+import com.lukianchykov.bookingsystem.config.cache.CacheInvalidationBus;
+import com.lukianchykov.bookingsystem.config.cache.CacheLease;
+import com.lukianchykov.bookingsystem.config.cache.InMemoryCacheInvalidationBus;
+import com.lukianchykov.bookingsystem.config.cache.RedisCacheInvalidationBus;
+import com.lukianchykov.bookingsystem.config.cache.RedisCacheLease;
+import com.lukianchykov.bookingsystem.config.cache.TwoLevelCacheManager;
+import com.lukianchykov.bookingsystem.config.cache.TwoLevelCacheSettings;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
@@ -14,6 +25,8 @@ import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
@@ -21,6 +34,20 @@ import org.springframework.data.redis.serializer.StringRedisSerializer;
 @EnableCaching
 public class CacheConfig {
 
+    public static final String UNITS_CACHE = "units";
+
+    @Value("${cache.local.maximum-size:10000}")
+    private long localMaximumSize;
+
+    @Value("${cache.local.time-to-live:60s}")
+    private Duration localTimeToLive;
+
+    @Value("${cache.stale-grace:5s}")
+    private Duration staleGrace;
+
+    @Value("${cache.lease.time-to-live:2s}")
+    private Duration leaseTimeToLive;
+
     @Bean
     @ConditionalOnProperty(name = "cache.type", havingValue = "redis", matchIfMissing = true)
     public RedisConnectionFactory redisConnectionFactory() {
@@ -40,22 +67,54 @@ public class CacheConfig {
         return template;
     }
 
+    @Bean
+    @ConditionalOnProperty(name = "cache.type", havingValue = "redis", matchIfMissing = true)
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "cache.type", havingValue = "redis", matchIfMissing = true)
+    public CacheInvalidationBus redisCacheInvalidationBus(RedisTemplate<String, Object> redisTemplate,
+        RedisMessageListenerContainer cacheInvalidationListenerContainer) {
+        return new RedisCacheInvalidationBus(redisTemplate, cacheInvalidationListenerContainer);
+    }
+
+    @Bean
+    @ConditionalOnExpression("${cache.lease.enabled:false} and '${cache.type:redis}' == 'redis'")
+    public CacheLease redisCacheLease(StringRedisTemplate stringRedisTemplate) {
+        return new RedisCacheLease(stringRedisTemplate);
+    }
+
     @Bean
     @Primary
     @ConditionalOnProperty(name = "cache.type", havingValue = "redis", matchIfMissing = true)
-    public CacheManager redisCacheManager(RedisConnectionFactory connectionFactory) {
+    public CacheManager redisCacheManager(RedisConnectionFactory connectionFactory,
+        CacheInvalidationBus redisCacheInvalidationBus, ObjectProvider<CacheLease> cacheLease,
+        MeterRegistry meterRegistry) {
         RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
             .entryTtl(Duration.ofMinutes(5))
             .disableCachingNullValues();
 
-        return RedisCacheManager.builder(connectionFactory)
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
             .cacheDefaults(config)
             .build();
+        redisCacheManager.initializeCaches();
+
+        return new TwoLevelCacheManager(redisCacheManager, redisCacheInvalidationBus, cacheLease.getIfAvailable(),
+            meterRegistry, settings());
     }
 
     @Bean
     @ConditionalOnProperty(name = "cache.type", havingValue = "memory")
-    public CacheManager memoryCacheManager() {
-        return new ConcurrentMapCacheManager("availableUnitsCount");
+    public CacheManager memoryCacheManager(MeterRegistry meterRegistry) {
+        return new TwoLevelCacheManager(null, new InMemoryCacheInvalidationBus().node(), null, meterRegistry,
+            settings());
+    }
+
+    private TwoLevelCacheSettings settings() {
+        return new TwoLevelCacheSettings(localMaximumSize, localTimeToLive, staleGrace, leaseTimeToLive);
     }
 }
@@ -0,0 +1,43 @@
+package com.lukianchykov.bookingsystem.config;
+
+import java.time.Duration;
+import javax.sql.DataSource;
+
+import com.lukianchykov.bookingsystem.config.datasource.BulkheadDataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+@Configuration
+public class DataSourceConfig {
+
+    /**
+     * Puts the connection pool behind a {@link BulkheadDataSource}; on by default with virtual threads, where the
+     * number of concurrent requests is no longer bounded by the servlet container's thread pool. With a read replica
+     * each pool gets its own bulkhead, while the router in front of them is left alone.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "booking.datasource.bulkhead.enabled", havingValue = "true")
+    static BeanPostProcessor bulkheadDataSourcePostProcessor(
+        @Value("${booking.datasource.bulkhead.permits:${spring.datasource.hikari.maximum-pool-size:10}}") int permits,
+        @Value("${booking.datasource.bulkhead.max-wait:60s}") Duration maxWait,
+        @Value("${booking.datasource.bulkhead.max-waiting:10000}") int maxWaiting,
+        @Value("${booking.datasource.replica.bulkhead-permits:"
+            + "${booking.datasource.replica.hikari.maximum-pool-size:10}}") int replicaPermits) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof BulkheadDataSource)
+                    && !(bean instanceof LazyConnectionDataSourceProxy)) {
+                    int limit = ReplicaDataSourceConfig.REPLICA.equals(beanName) ? replicaPermits : permits;
+                    return new BulkheadDataSource(dataSource, beanName, limit, maxWait, maxWaiting);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,47 @@
+package com.lukianchykov.bookingsystem.config;
+
+import java.time.Duration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lukianchykov.bookingsystem.config.idempotency.IdempotencyFilter;
+import com.lukianchykov.bookingsystem.config.idempotency.IdempotencyStore;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+@Configuration
+public class IdempotencyConfig {
+
+    @Value("${booking.idempotency.local-maximum-size:10000}")
+    private long localMaximumSize;
+
+    @Value("${booking.idempotency.time-to-live:24h}")
+    private Duration timeToLive;
+
+    @Value("${booking.idempotency.claim-time-to-live:30s}")
+    private Duration claimTimeToLive;
+
+    @Value("${booking.idempotency.wait-timeout:10s}")
+    private Duration waitTimeout;
+
+    @Bean
+    public IdempotencyStore idempotencyStore(ObjectProvider<StringRedisTemplate> redisTemplate,
+        ObjectMapper objectMapper, @Value("${cache.type:redis}") String cacheType) {
+        return new IdempotencyStore("redis".equals(cacheType) ? redisTemplate.getIfAvailable() : null, objectMapper,
+            localMaximumSize, timeToLive, claimTimeToLive);
+    }
+
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(IdempotencyStore idempotencyStore,
+        ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>(
+            new IdempotencyFilter(idempotencyStore, objectMapper, meterRegistry, waitTimeout));
+        registration.addUrlPatterns("/api/bookings", "/api/bookings/admit", "/api/payments/process");
+        return registration;
+    }
+}
@@ -0,0 +1,97 @@
+package com.lukianchykov.bookingsystem.config;
+
+import java.time.Clock;
+import java.time.Duration;
+import javax.sql.DataSource;
+
+import com.lukianchykov.bookingsystem.config.datasource.ConsistencyTokenFilter;
+import com.lukianchykov.bookingsystem.config.datasource.LagWindowReplicaConsistency;
+import com.lukianchykov.bookingsystem.config.datasource.PostgresLsnReplicaConsistency;
+import com.lukianchykov.bookingsystem.config.datasource.ReplicaConsistency;
+import com.lukianchykov.bookingsystem.config.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Replaces the auto-configured pool with a primary and a replica pool behind a {@link ReplicaRoutingDataSource}.
+ * The replica defaults to the primary's database, which still keeps reads from queueing behind writes for
+ * connections; point {@code booking.datasource.replica.url} at a streaming replica to move them off the primary.
+ */
+@Configuration
+@ConditionalOnProperty(name = "booking.datasource.replica.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    static final String PRIMARY = "primaryDataSource";
+
+    static final String REPLICA = "replicaDataSource";
+
+    @Bean(PRIMARY)
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean(REPLICA)
+    @ConfigurationProperties("booking.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties primary,
+        @Value("${booking.datasource.replica.url:}") String url,
+        @Value("${booking.datasource.replica.username:}") String username,
+        @Value("${booking.datasource.replica.password:}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+            .type(HikariDataSource.class)
+            .driverClassName(primary.determineDriverClassName())
+            .url(url.isBlank() ? primary.determineUrl() : url)
+            .username(username.isBlank() ? primary.determineUsername() : username)
+            .password(password.isBlank() ? primary.determinePassword() : password)
+            .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    /**
+     * {@code lag-window} keeps a client on the primary for {@code max-lag} after its last write;
+     * {@code postgres-lsn} keeps it there until the streaming replica has replayed that write.
+     */
+    @Bean
+    public ReplicaConsistency replicaConsistency(
+        @Value("${booking.datasource.replica.consistency:lag-window}") String consistency,
+        @Value("${booking.datasource.replica.max-lag:1s}") Duration maxLag,
+        @Qualifier(REPLICA) DataSource replica) {
+        return switch (consistency) {
+            case "lag-window" -> new LagWindowReplicaConsistency(Clock.systemUTC(), maxLag);
+            case "postgres-lsn" -> new PostgresLsnReplicaConsistency(new JdbcTemplate(replica));
+            default -> throw new IllegalStateException("Unknown booking.datasource.replica.consistency "
+                + consistency + ", expected lag-window or postgres-lsn");
+        };
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier(PRIMARY) DataSource primary, @Qualifier(REPLICA) DataSource replica,
+        ReplicaConsistency replicaConsistency, MeterRegistry meterRegistry) {
+        return ReplicaRoutingDataSource.lazy(primary, replica, replicaConsistency, meterRegistry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ConsistencyTokenFilter> consistencyTokenFilter() {
+        FilterRegistrationBean<ConsistencyTokenFilter> registration = new FilterRegistrationBean<>(
+            new ConsistencyTokenFilter());
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
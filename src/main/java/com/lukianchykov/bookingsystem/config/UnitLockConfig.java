@@ -0,0 +1,47 @@
+package com.lukianchykov.bookingsystem.config;
+
+import java.time.Duration;
+
+import com.lukianchykov.bookingsystem.config.cache.RedisCacheLease;
+import com.lukianchykov.bookingsystem.config.lock.LeaseUnitLockProvider;
+import com.lukianchykov.bookingsystem.config.lock.PostgresAdvisoryUnitLockProvider;
+import com.lukianchykov.bookingsystem.config.lock.StripedUnitLockProvider;
+import com.lukianchykov.bookingsystem.config.lock.UnitLockProvider;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@Configuration
+public class UnitLockConfig {
+
+    @Value("${booking.lock.stripes:1024}")
+    private int stripes;
+
+    @Value("${booking.lock.max-wait:5s}")
+    private Duration maxWait;
+
+    @Value("${booking.lock.lease-time:30s}")
+    private Duration leaseTime;
+
+    /**
+     * {@code none} leaves exclusion to the database's overlap constraint; {@code striped} only excludes within one
+     * node; {@code postgres} and {@code redis} exclude across nodes.
+     */
+    @Bean
+    public UnitLockProvider unitLockProvider(@Value("${booking.lock.provider:none}") String provider,
+        ObjectProvider<JdbcTemplate> jdbcTemplate, ObjectProvider<StringRedisTemplate> redisTemplate) {
+        return switch (provider) {
+            case "none" -> UnitLockProvider.NONE;
+            case "striped" -> new StripedUnitLockProvider(stripes, maxWait);
+            case "postgres" -> new PostgresAdvisoryUnitLockProvider(jdbcTemplate.getObject(), maxWait);
+            case "redis" -> new LeaseUnitLockProvider(new RedisCacheLease(redisTemplate.getObject(), false),
+                new StripedUnitLockProvider(stripes, maxWait), leaseTime, maxWait);
+            default -> throw new IllegalStateException("Unknown booking.lock.provider " + provider
+                + ", expected none, striped, postgres or redis");
+        };
+    }
+}
@@ -0,0 +1,14 @@
+package com.lukianchykov.bookingsystem.config.cache;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Broadcasts L1 invalidations to the other nodes. A {@code null} key means the whole cache was cleared.
+ * Implementations must not deliver a node's own messages back to it.
+ */
+public interface CacheInvalidationBus {
+
+    void publish(String cacheName, String key);
+
+    void subscribe(BiConsumer<String, String> listener);
+}
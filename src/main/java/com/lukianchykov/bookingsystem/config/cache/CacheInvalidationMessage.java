@@ -0,0 +1,17 @@
+package com.lukianchykov.bookingsystem.config.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheInvalidationMessage {
+
+    private String origin;
+
+    private String cacheName;
+
+    private String key;
+}
@@ -0,0 +1,13 @@
+package com.lukianchykov.bookingsystem.config.cache;
+
+import java.time.Duration;
+
+/**
+ * Short cluster-wide lease used to let a single node recompute a value while the others wait for it.
+ */
+public interface CacheLease {
+
+    boolean tryAcquire(String name, Duration timeToLive);
+
+    void release(String name);
+}
@@ -0,0 +1,39 @@
+package com.lukianchykov.bookingsystem.config.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+
+/**
+ * Stand-in for the Redis channel when running without Redis. Each {@link #node()} view behaves like a separate
+ * application instance attached to the same channel.
+ */
+public class InMemoryCacheInvalidationBus {
+
+    private final List<Node> nodes = new CopyOnWriteArrayList<>();
+
+    public CacheInvalidationBus node() {
+        Node node = new Node();
+        nodes.add(node);
+        return node;
+    }
+
+    private final class Node implements CacheInvalidationBus {
+
+        private final List<BiConsumer<String, String>> listeners = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void publish(String cacheName, String key) {
+            for (Node node : nodes) {
+                if (node != this) {
+                    node.listeners.forEach(listener -> listener.accept(cacheName, key));
+                }
+            }
+        }
+
+        @Override
+        public void subscribe(BiConsumer<String, String> listener) {
+            listeners.add(listener);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.lukianchykov.bookingsystem.config.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Stand-in for {@link RedisCacheLease} when running without Redis: leases live in a map of expiry times, as if
+ * every user of one instance were a node sharing the same Redis. Expired leases are taken over like keys whose
+ * {@code PX} ran out.
+ */
+public class InMemoryCacheLease implements CacheLease {
+
+    private final ConcurrentMap<String, Long> expiries = new ConcurrentHashMap<>();
+
+    private final Clock clock;
+
+    public InMemoryCacheLease() {
+        this(Clock.systemUTC());
+    }
+
+    public InMemoryCacheLease(Clock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public boolean tryAcquire(String name, Duration timeToLive) {
+        long now = clock.millis();
+        long expiry = now + timeToLive.toMillis();
+        boolean[] acquired = new boolean[1];
+        expiries.compute(name, (key, current) -> {
+            if (current != null && current > now) {
+                return current;
+            }
+            acquired[0] = true;
+            return expiry;
+        });
+        return acquired[0];
+    }
+
+    @Override
+    public void release(String name) {
+        expiries.remove(name);
+    }
+}
@@ -0,0 +1,58 @@
+package com.lukianchykov.bookingsystem.config.cache;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+@Slf4j
+public class RedisCacheInvalidationBus implements CacheInvalidationBus, MessageListener {
+
+    public static final String CHANNEL = "cache:invalidation";
+
+    private final String origin = UUID.randomUUID().toString();
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    private final GenericJackson2JsonRedisSerializer serializer = new GenericJackson2JsonRedisSerializer();
+
+    private final List<BiConsumer<String, String>> listeners = new CopyOnWriteArrayList<>();
+
+    public RedisCacheInvalidationBus(RedisTemplate<String, Object> redisTemplate,
+        RedisMessageListenerContainer listenerContainer) {
+        this.redisTemplate = redisTemplate;
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    @Override
+    public void publish(String cacheName, String key) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, new CacheInvalidationMessage(origin, cacheName, key));
+        } catch (RuntimeException e) {
+            log.warn("Failed to broadcast invalidation of {}::{}", cacheName, key, e);
+        }
+    }
+
+    @Override
+    public void subscribe(BiConsumer<String, String> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        Object payload = serializer.deserialize(message.getBody());
+        if (!(payload instanceof CacheInvalidationMessage invalidation) || origin.equals(invalidation.getOrigin())) {
+            return;
+        }
+        listeners.forEach(listener -> listener.accept(invalidation.getCacheName(), invalidation.getKey()));
+    }
+}
@@ -0,0 +1,64 @@
+package com.lukianchykov.bookingsystem.config.cache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+/**
+ * {@link CacheLease} on a Redis key set with {@code SET NX PX}. By default a lease is granted when Redis cannot be
+ * reached, so callers compute locally instead of waiting; with {@code grantOnError} off it is refused instead, for
+ * callers that rely on the lease for mutual exclusion.
+ */
+@Slf4j
+public class RedisCacheLease implements CacheLease {
+
+    private static final String KEY_PREFIX = "cache:lease:";
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+        "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+        Long.class);
+
+    private final String owner = UUID.randomUUID().toString();
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final boolean grantOnError;
+
+    public RedisCacheLease(StringRedisTemplate redisTemplate) {
+        this(redisTemplate, true);
+    }
+
+    public RedisCacheLease(StringRedisTemplate redisTemplate, boolean grantOnError) {
+        this.redisTemplate = redisTemplate;
+        this.grantOnError = grantOnError;
+    }
+
+    @Override
+    public boolean tryAcquire(String name, Duration timeToLive) {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(KEY_PREFIX + name, owner, timeToLive));
+        } catch (RuntimeException e) {
+            if (grantOnError) {
+                log.warn("Failed to acquire cache lease {}, computing locally", name, e);
+            } else {
+                log.warn("Failed to acquire cache lease {}", name, e);
+            }
+            return grantOnError;
+        }
+    }
+
+    @Override
+    public void release(String name) {
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(KEY_PREFIX + name), owner);
+        } catch (RuntimeException e) {
+            log.warn("Failed to release cache lease {}, it will expire on its own", name, e);
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.lukianchykov.bookingsystem.config.cache;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+/**
+ * Bounded in-process L1 in front of an optional shared L2. Writes and evictions go to L2 first, then drop the
+ * L1 entry here and, through the {@link CacheInvalidationBus}, on every other node. L1 entries are keyed by the
+ * string form of the cache key, which is also what travels over the bus.
+ * <p>
+ * Loads through {@link #get(Object, Callable)} are coalesced per key on this node and, when a {@link CacheLease}
+ * is configured, across nodes. A value dropped by an eviction is kept for the stale grace window and served while
+ * a single background load replaces it, or until that load fails.
+ */
+@Slf4j
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+
+    private static final long LEASE_POLL_MILLIS = 25;
+
+    private final String name;
+
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> local;
+
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> stale;
+
+    private final Cache remote;
+
+    private final CacheInvalidationBus invalidationBus;
+
+    private final CacheLease lease;
+
+    private final Duration leaseTimeToLive;
+
+    private final Executor refreshExecutor;
+
+    private final SingleFlight<String, Object> loads = new SingleFlight<>();
+
+    private final Counter localHits;
+
+    private final Counter localMisses;
+
+    private final Counter remoteHits;
+
+    private final Counter remoteMisses;
+
+    private final Counter staleHits;
+
+    public TwoLevelCache(String name, com.github.benmanes.caffeine.cache.Cache<String, Object> local,
+        com.github.benmanes.caffeine.cache.Cache<String, Object> stale, Cache remote,
+        CacheInvalidationBus invalidationBus, CacheLease lease, Duration leaseTimeToLive, Executor refreshExecutor,
+        MeterRegistry meterRegistry) {
+        super(true);
+        this.name = name;
+        this.local = local;
+        this.stale = stale;
+        this.remote = remote;
+        this.invalidationBus = invalidationBus;
+        this.lease = lease;
+        this.leaseTimeToLive = leaseTimeToLive;
+        this.refreshExecutor = refreshExecutor;
+        this.localHits = counter(meterRegistry, "l1", "hit");
+        this.localMisses = counter(meterRegistry, "l1", "miss");
+        this.remoteHits = counter(meterRegistry, "l2", "hit");
+        this.remoteMisses = counter(meterRegistry, "l2", "miss");
+        this.staleHits = counter(meterRegistry, "stale", "hit");
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        String localKey = localKey(key);
+        Object value = local.getIfPresent(localKey);
+        if (value != null) {
+            localHits.increment();
+            return value;
+        }
+        localMisses.increment();
+
+        if (remote == null) {
+            return null;
+        }
+        Cache.ValueWrapper wrapper = getRemote(key);
+        if (wrapper == null) {
+            remoteMisses.increment();
+            return null;
+        }
+        remoteHits.increment();
+        Object stored = toStoreValue(wrapper.get());
+        local.put(localKey, stored);
+        return stored;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object stored = lookup(key);
+        if (stored != null) {
+            return (T) fromStoreValue(stored);
+        }
+
+        String localKey = localKey(key);
+        Object previous = stale == null ? null : stale.getIfPresent(localKey);
+        if (previous != null) {
+            staleHits.increment();
+            loads.executeAsync(localKey, () -> reload(key, valueLoader), refreshExecutor);
+            return (T) fromStoreValue(previous);
+        }
+        return (T) fromStoreValue(loads.execute(localKey, () -> load(key, valueLoader)));
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (remote != null) {
+            putRemote(key, value);
+        }
+        String localKey = localKey(key);
+        local.put(localKey, toStoreValue(value));
+        if (stale != null) {
+            stale.invalidate(localKey);
+        }
+        invalidationBus.publish(name, localKey);
+    }
+
+    @Override
+    public void evict(Object key) {
+        if (remote != null) {
+            remote.evict(key);
+        }
+        String localKey = localKey(key);
+        invalidateLocal(localKey);
+        invalidationBus.publish(name, localKey);
+    }
+
+    @Override
+    public void clear() {
+        if (remote != null) {
+            remote.clear();
+        }
+        invalidateLocal(null);
+        invalidationBus.publish(name, null);
+    }
+
+    void invalidateLocal(String localKey) {
+        if (localKey == null) {
+            if (stale != null) {
+                stale.putAll(local.asMap());
+            }
+            local.invalidateAll();
+            return;
+        }
+        Object dropped = local.asMap().remove(localKey);
+        if (dropped != null && stale != null) {
+            stale.put(localKey, dropped);
+        }
+    }
+
+    private Object load(Object key, Callable<?> valueLoader) {
+        Object stored = local.getIfPresent(localKey(key));
+        if (stored != null) {
+            return stored;
+        }
+
+        String leaseName = name + "::" + localKey(key);
+        boolean leased = lease == null || lease.tryAcquire(leaseName, leaseTimeToLive);
+        try {
+            if (!leased) {
+                stored = awaitLeaseHolder(key);
+                if (stored != null) {
+                    return stored;
+                }
+            }
+            Object value;
+            try {
+                value = valueLoader.call();
+            } catch (Exception e) {
+                throw new ValueRetrievalException(key, valueLoader, e);
+            }
+            put(key, value);
+            return toStoreValue(value);
+        } finally {
+            if (leased && lease != null) {
+                lease.release(leaseName);
+            }
+        }
+    }
+
+    /**
+     * Replaces a stale value in the background. When the load fails, e.g. because the entry no longer exists, the
+     * stale value is dropped so the next caller loads it and sees the failure.
+     */
+    private Object reload(Object key, Callable<?> valueLoader) {
+        try {
+            return load(key, valueLoader);
+        } catch (RuntimeException e) {
+            stale.invalidate(localKey(key));
+            throw e;
+        }
+    }
+
+    private Object awaitLeaseHolder(Object key) {
+        long deadline = System.nanoTime() + leaseTimeToLive.toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(LEASE_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            Cache.ValueWrapper wrapper = getRemote(key);
+            if (wrapper != null) {
+                Object stored = toStoreValue(wrapper.get());
+                local.put(localKey(key), stored);
+                return stored;
+            }
+        }
+        log.debug("Lease holder for {}::{} did not publish a value in time, loading locally", name, key);
+        return null;
+    }
+
+    private Cache.ValueWrapper getRemote(Object key) {
+        try {
+            return remote.get(key);
+        } catch (RuntimeException e) {
+            log.warn("L2 lookup failed for {}::{}, treating as miss", name, key, e);
+            return null;
+        }
+    }
+
+    private void putRemote(Object key, Object value) {
+        try {
+            remote.put(key, value);
+        } catch (RuntimeException e) {
+            log.warn("L2 write failed for {}::{}, keeping the value on this node only", name, key, e);
+        }
+    }
+
+    private static String localKey(Object key) {
+        return key.toString();
+    }
+
+    private Counter counter(MeterRegistry meterRegistry, String tier, String result) {
+        return Counter.builder("cache.tier.gets")
+            .tag("cache", name)
+            .tag("tier", tier)
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,90 @@
+package com.lukianchykov.bookingsystem.config.cache;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+/**
+ * Creates a {@link TwoLevelCache} per cache name on first use. When {@code remoteCacheManager} is {@code null}
+ * the caches are L1 only, which is what the memory cache type uses.
+ */
+public class TwoLevelCacheManager implements CacheManager, DisposableBean {
+
+    private final ConcurrentMap<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    private final CacheManager remoteCacheManager;
+
+    private final CacheInvalidationBus invalidationBus;
+
+    private final CacheLease lease;
+
+    private final MeterRegistry meterRegistry;
+
+    private final TwoLevelCacheSettings settings;
+
+    private final ExecutorService refreshExecutor = Executors.newFixedThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "cache-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public TwoLevelCacheManager(CacheManager remoteCacheManager, CacheInvalidationBus invalidationBus,
+        CacheLease lease, MeterRegistry meterRegistry, TwoLevelCacheSettings settings) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.invalidationBus = invalidationBus;
+        this.lease = lease;
+        this.meterRegistry = meterRegistry;
+        this.settings = settings;
+        invalidationBus.subscribe((cacheName, key) -> {
+            TwoLevelCache cache = caches.get(cacheName);
+            if (cache != null) {
+                cache.invalidateLocal(key);
+            }
+        });
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    @Override
+    public void destroy() {
+        refreshExecutor.shutdownNow();
+    }
+
+    private TwoLevelCache createCache(String name) {
+        com.github.benmanes.caffeine.cache.Cache<String, Object> local = Caffeine.newBuilder()
+            .maximumSize(settings.localMaximumSize())
+            .expireAfterWrite(settings.localTimeToLive())
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, local, name, "tier", "l1");
+
+        com.github.benmanes.caffeine.cache.Cache<String, Object> stale = settings.staleGrace().isZero() ? null
+            : Caffeine.newBuilder()
+                .maximumSize(settings.localMaximumSize())
+                .expireAfterWrite(settings.staleGrace())
+                .build();
+
+        Cache remote = remoteCacheManager == null ? null : remoteCacheManager.getCache(name);
+        return new TwoLevelCache(name, local, stale, remote, invalidationBus, lease, settings.leaseTimeToLive(),
+            refreshExecutor, meterRegistry);
+    }
+}
@@ -0,0 +1,11 @@
+package com.lukianchykov.bookingsystem.config.cache;
+
+import java.time.Duration;
+
+/**
+ * @param staleGrace how long an evicted value may still be served while it is being reloaded, zero disables it
+ * @param leaseTimeToLive how long other nodes wait for the lease holder before loading themselves
+ */
+public record TwoLevelCacheSettings(long localMaximumSize, Duration localTimeToLive, Duration staleGrace,
+                                    Duration leaseTimeToLive) {
+}
@@ -0,0 +1,156 @@
+package com.lukianchykov.bookingsystem.config.datasource;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import javax.sql.DataSource;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Lets at most {@code permits} connections out of the target pool at a time and queues the other callers in arrival
+ * order on a fair semaphore, so thousands of virtual threads wait their turn instead of racing for the pool and
+ * timing out on its {@code connection-timeout}. A caller gives up after {@code maxWait}, and is turned away at once
+ * when {@code maxWaiting} callers are already queued. The permit is returned when the connection is closed.
+ */
+public class BulkheadDataSource extends DelegatingDataSource implements MeterBinder {
+
+    static final String WAIT_TIMER = "booking.datasource.bulkhead.wait";
+
+    private final String pool;
+
+    private final Semaphore permits;
+
+    private final int maxPermits;
+
+    private final Duration maxWait;
+
+    private final int maxWaiting;
+
+    private final LongAdder rejected = new LongAdder();
+
+    private volatile Timer waitTimer;
+
+    public BulkheadDataSource(DataSource target, int permits, Duration maxWait, int maxWaiting) {
+        this(target, "dataSource", permits, maxWait, maxWaiting);
+    }
+
+    /**
+     * @param pool tags the meters, telling the bulkheads of the primary and replica pools apart
+     */
+    public BulkheadDataSource(DataSource target, String pool, int permits, Duration maxWait, int maxWaiting) {
+        super(target);
+        this.pool = pool;
+        this.permits = new Semaphore(permits, true);
+        this.maxPermits = permits;
+        this.maxWait = maxWait;
+        this.maxWaiting = maxWaiting;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return releasingOnClose(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return releasingOnClose(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        waitTimer = Timer.builder(WAIT_TIMER)
+            .description("Time spent queued for a database connection permit")
+            .tag("pool", pool)
+            .register(registry);
+        Gauge.builder("booking.datasource.bulkhead.waiting", permits, Semaphore::getQueueLength)
+            .description("Callers queued for a database connection permit")
+            .tag("pool", pool)
+            .register(registry);
+        Gauge.builder("booking.datasource.bulkhead.active", this, BulkheadDataSource::activePermits)
+            .description("Database connection permits in use")
+            .tag("pool", pool)
+            .register(registry);
+        FunctionCounter.builder("booking.datasource.bulkhead.rejected", rejected, LongAdder::sum)
+            .description("Callers turned away by the bulkhead")
+            .tag("pool", pool)
+            .register(registry);
+    }
+
+    int activePermits() {
+        return maxPermits - permits.availablePermits();
+    }
+
+    private void acquire() throws SQLException {
+        long started = System.nanoTime();
+        try {
+            // the untimed tryAcquire() would take a free permit ahead of queued callers despite the fair semaphore
+            if (permits.tryAcquire(0, TimeUnit.NANOSECONDS)) {
+                record(0);
+                return;
+            }
+            if (permits.getQueueLength() >= maxWaiting) {
+                rejected.increment();
+                throw new SQLTransientConnectionException("Database bulkhead is full: " + maxWaiting
+                    + " callers already waiting for " + maxPermits + " permits");
+            }
+            if (!permits.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS)) {
+                rejected.increment();
+                throw new SQLTransientConnectionException("Timed out after " + maxWait.toMillis()
+                    + "ms waiting for one of " + maxPermits + " database permits");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database permit", e);
+        }
+        record(System.nanoTime() - started);
+    }
+
+    private void record(long waitedNanos) {
+        Timer timer = waitTimer;
+        if (timer != null) {
+            timer.record(waitedNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Connection releasingOnClose(Connection target) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+            (proxy, method, args) -> {
+                try {
+                    return method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                } finally {
+                    if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+                        permits.release();
+                    }
+                }
+            });
+    }
+}
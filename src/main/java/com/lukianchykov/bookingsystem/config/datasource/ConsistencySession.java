@@ -0,0 +1,71 @@
+package com.lukianchykov.bookingsystem.config.datasource;
+
+import java.util.function.Consumer;
+
+/**
+ * The read-your-writes state of the request on the current thread: the token the client sent with its last write,
+ * replaced by a newer one when this request writes. Work outside a session, such as scheduled index rebuilds and
+ * startup, always uses the primary.
+ */
+public final class ConsistencySession implements AutoCloseable {
+
+    private static final ThreadLocal<ConsistencySession> CURRENT = new ThreadLocal<>();
+
+    private final Consumer<String> onWrite;
+
+    private String token;
+
+    private boolean positionUnknown;
+
+    private ConsistencySession(String token, Consumer<String> onWrite) {
+        this.token = token;
+        this.onWrite = onWrite;
+    }
+
+    /**
+     * Opens a session on the current thread. {@code onWrite} receives the new token after each write commits.
+     */
+    public static ConsistencySession open(String token, Consumer<String> onWrite) {
+        ConsistencySession session = new ConsistencySession(token, onWrite);
+        CURRENT.set(session);
+        return session;
+    }
+
+    /**
+     * Returns the session opened on the current thread, or {@code null} outside a request.
+     */
+    public static ConsistencySession current() {
+        return CURRENT.get();
+    }
+
+    public String token() {
+        return token;
+    }
+
+    /**
+     * Returns whether a read may go to the replica without missing one of this client's writes.
+     */
+    boolean allowsReplica(ReplicaConsistency consistency) {
+        return !positionUnknown && (token == null || consistency.caughtUp(token));
+    }
+
+    /**
+     * Records a write committed at {@code position}. A write whose position could not be read keeps the rest of the
+     * request on the primary.
+     */
+    void wrote(String position) {
+        if (position == null) {
+            positionUnknown = true;
+            return;
+        }
+        token = position;
+        onWrite.accept(position);
+    }
+
+    @Override
+    public void close() {
+        if (CURRENT.get() == this) {
+            CURRENT.remove();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.lukianchykov.bookingsystem.config.datasource;
+
+import java.io.IOException;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Opens a {@link ConsistencySession} for each request from the {@value #HEADER} header and sends the new token
+ * back in the same header when the request writes. The header is set when the write commits, which is before the
+ * controller writes the body. Writes committed on another thread, such as admitted bookings, do not issue one.
+ */
+public class ConsistencyTokenFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Consistency-Token";
+
+    private static final int MAX_TOKEN_LENGTH = 64;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+        throws ServletException, IOException {
+        String token = request.getHeader(HEADER);
+        if (token != null && (token.isBlank() || token.length() > MAX_TOKEN_LENGTH)) {
+            token = null;
+        }
+        try (ConsistencySession ignored = ConsistencySession.open(token, position -> {
+            if (!response.isCommitted()) {
+                response.setHeader(HEADER, position);
+            }
+        })) {
+            chain.doFilter(request, response);
+        }
+    }
+}
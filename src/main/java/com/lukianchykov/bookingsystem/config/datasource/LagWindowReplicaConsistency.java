@@ -0,0 +1,36 @@
+package com.lukianchykov.bookingsystem.config.datasource;
+
+import java.sql.Connection;
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Uses the commit time as the token and assumes the replica is never more than {@code maxLag} behind, so a client
+ * reads from the primary for {@code maxLag} after its last write. Works with any database, including a second H2
+ * database standing in for the replica.
+ */
+public class LagWindowReplicaConsistency implements ReplicaConsistency {
+
+    private final Clock clock;
+
+    private final Duration maxLag;
+
+    public LagWindowReplicaConsistency(Clock clock, Duration maxLag) {
+        this.clock = clock;
+        this.maxLag = maxLag;
+    }
+
+    @Override
+    public String position(Connection connection) {
+        return Long.toString(clock.millis());
+    }
+
+    @Override
+    public boolean caughtUp(String token) {
+        try {
+            return clock.millis() - Long.parseLong(token) >= maxLag.toMillis();
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
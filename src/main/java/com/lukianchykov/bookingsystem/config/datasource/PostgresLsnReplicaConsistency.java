@@ -0,0 +1,76 @@
+package com.lukianchykov.bookingsystem.config.datasource;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Uses the primary's WAL position as the token and compares it with the position the streaming replica has
+ * replayed. The highest replayed position seen is remembered, so the replica is only asked again for tokens
+ * beyond it. A replica that is not in recovery reports no position and counts as caught up.
+ */
+@Slf4j
+public class PostgresLsnReplicaConsistency implements ReplicaConsistency {
+
+    static final String CURRENT_POSITION = "SELECT pg_current_wal_lsn()::text";
+
+    private final JdbcTemplate replica;
+
+    private final AtomicLong replayed = new AtomicLong(-1);
+
+    public PostgresLsnReplicaConsistency(JdbcTemplate replica) {
+        this.replica = replica;
+    }
+
+    @Override
+    public String position(Connection connection) {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(CURRENT_POSITION)) {
+            return resultSet.next() ? resultSet.getString(1) : null;
+        } catch (SQLException e) {
+            log.warn("Failed to read the primary WAL position", e);
+            return null;
+        }
+    }
+
+    @Override
+    public boolean caughtUp(String token) {
+        long required;
+        try {
+            required = parse(token);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        if (required <= replayed.get()) {
+            return true;
+        }
+        try {
+            String position = replica.queryForObject("SELECT pg_last_wal_replay_lsn()::text", String.class);
+            if (position == null) {
+                return true;
+            }
+            return required <= replayed.accumulateAndGet(parse(position), Math::max);
+        } catch (DataAccessException | IllegalArgumentException e) {
+            log.warn("Failed to read the replica replay position", e);
+            return false;
+        }
+    }
+
+    /**
+     * Parses an LSN written as two hexadecimal halves, {@code 16/B374D848}.
+     */
+    static long parse(String lsn) {
+        int slash = lsn.indexOf('/');
+        if (slash <= 0 || slash > 8 || lsn.length() - slash - 1 > 8 || slash == lsn.length() - 1) {
+            throw new IllegalArgumentException("Invalid LSN " + lsn);
+        }
+        return Long.parseLong(lsn, 0, slash, 16) << 32 | Long.parseLong(lsn, slash + 1, lsn.length(), 16);
+    }
+}
@@ -0,0 +1,24 @@
+package com.lukianchykov.bookingsystem.config.datasource;
+
+import java.sql.Connection;
+
+/**
+ * Decides whether the replica has caught up with a write. A token is taken from the primary after a write commits
+ * and handed to the client, which sends it back on its next requests; reads carrying a token stay on the primary
+ * until the replica is known to have replayed it.
+ */
+public interface ReplicaConsistency {
+
+    /**
+     * Returns the position the primary has reached, read right after a commit on the connection that committed, or
+     * {@code null} if it could not be determined. The transaction still holds that connection, so no other one is
+     * taken from the pool for this.
+     */
+    String position(Connection connection);
+
+    /**
+     * Returns whether the replica has replayed everything up to {@code token}. Tokens come from clients, so one
+     * that cannot be parsed is never caught up.
+     */
+    boolean caughtUp(String token);
+}
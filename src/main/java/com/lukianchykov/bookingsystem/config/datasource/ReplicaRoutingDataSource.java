@@ -0,0 +1,105 @@
+package com.lukianchykov.bookingsystem.config.datasource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import javax.sql.DataSource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends the connections of read-only transactions opened inside a {@link ConsistencySession} to the replica, unless
+ * the session has a write the replica may not have replayed yet; everything else goes to the primary. Commits of
+ * read-write transactions in a session record a new token with the session, read on the transaction's own
+ * connection before it goes back to the pool.
+ * <p>
+ * The transaction is only known to be read-only once it has begun, so this has to sit behind a
+ * {@link LazyConnectionDataSourceProxy}, which fetches the connection on the first statement; see
+ * {@link #lazy(DataSource, DataSource, ReplicaConsistency, MeterRegistry)}.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String ROUTE_COUNTER = "booking.datasource.route";
+
+    public enum Target {
+        PRIMARY, REPLICA
+    }
+
+    private final ReplicaConsistency consistency;
+
+    private final Counter primaryRoutes;
+
+    private final Counter replicaRoutes;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaConsistency consistency,
+        MeterRegistry meterRegistry) {
+        this.consistency = consistency;
+        this.primaryRoutes = routeCounter(meterRegistry, Target.PRIMARY);
+        this.replicaRoutes = routeCounter(meterRegistry, Target.REPLICA);
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    public static LazyConnectionDataSourceProxy lazy(DataSource primary, DataSource replica,
+        ReplicaConsistency consistency, MeterRegistry meterRegistry) {
+        return new LazyConnectionDataSourceProxy(
+            new ReplicaRoutingDataSource(primary, replica, consistency, meterRegistry));
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return recordingWrites(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return recordingWrites(super.getConnection(username, password));
+    }
+
+    @Override
+    protected Target determineCurrentLookupKey() {
+        Target target = route();
+        (target == Target.REPLICA ? replicaRoutes : primaryRoutes).increment();
+        return target;
+    }
+
+    private Target route() {
+        ConsistencySession session = ConsistencySession.current();
+        if (session == null || !TransactionSynchronizationManager.isActualTransactionActive()) {
+            return Target.PRIMARY;
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return Target.PRIMARY;
+        }
+        return session.allowsReplica(consistency) ? Target.REPLICA : Target.PRIMARY;
+    }
+
+    private Connection recordingWrites(Connection connection) {
+        ConsistencySession session = ConsistencySession.current();
+        if (session != null && TransactionSynchronizationManager.isActualTransactionActive()
+            && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    session.wrote(consistency.position(connection));
+                }
+            });
+        }
+        return connection;
+    }
+
+    private static Counter routeCounter(MeterRegistry meterRegistry, Target target) {
+        return Counter.builder(ROUTE_COUNTER)
+            .description("Connections handed out by the read replica router")
+            .tag("target", target.name().toLowerCase())
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,303 @@
+package com.lukianchykov.bookingsystem.config.idempotency;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lukianchykov.bookingsystem.config.cache.SingleFlight;
+import com.lukianchykov.bookingsystem.dto.ErrorResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+/**
+ * Answers retries of a POST carrying an {@value #HEADER} header with the response of the first request that used
+ * the key, marked with {@value #REPLAYED_HEADER}, instead of running the request again. Keys are scoped to the
+ * request path and bound to the body they were first sent with; reusing one with a different body is rejected.
+ * Concurrent duplicates on a node wait for the request in flight, duplicates on other nodes poll the shared store
+ * until it answers, or get a 409 once {@code waitTimeout} passes. Server errors, 429s and responses carrying a
+ * {@code Retry-After} header, such as the 409 of a unit lock timeout, are not stored, so they can be retried.
+ * <p>
+ * When the handler completes asynchronously, the key stays claimed and the response is stored on the async
+ * dispatch that writes it.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    static final String OUTCOME_COUNTER = "booking.idempotency";
+
+    static final int MAX_KEY_LENGTH = 255;
+
+    private static final long POLL_INTERVAL_MILLIS = 50;
+
+    private static final String PENDING_ATTRIBUTE = IdempotencyFilter.class.getName() + ".PENDING";
+
+    private static final StoredResponse IN_PROGRESS = new StoredResponse("", HttpStatus.CONFLICT.value(), null,
+        new byte[0]);
+
+    private static final StoredResponse ASYNC = new StoredResponse("", HttpStatus.ACCEPTED.value(), null,
+        new byte[0]);
+
+    private final IdempotencyStore store;
+
+    private final ObjectMapper objectMapper;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Duration waitTimeout;
+
+    private final SingleFlight<String, StoredResponse> inFlight = new SingleFlight<>();
+
+    public IdempotencyFilter(IdempotencyStore store, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+        Duration waitTimeout) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.waitTimeout = waitTimeout;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.POST.matches(request.getMethod()) || request.getHeader(HEADER) == null;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+        throws ServletException, IOException {
+        if (isAsyncDispatch(request)) {
+            completeAsync(request, response, chain);
+            return;
+        }
+        String key = request.getHeader(HEADER);
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            writeError(request, response, HttpStatus.BAD_REQUEST,
+                HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+        String scope = request.getMethod() + " " + request.getRequestURI() + " " + key;
+        String fingerprint = fingerprint(cachedRequest.getBody());
+
+        boolean[] executed = {false};
+        StoredResponse stored = store.get(scope);
+        if (stored == null) {
+            try {
+                stored = inFlight.execute(scope, () -> {
+                    StoredResponse elsewhere = claimOrAwait(scope);
+                    if (elsewhere != null) {
+                        return elsewhere;
+                    }
+                    executed[0] = true;
+                    return execute(scope, fingerprint, cachedRequest, response, chain);
+                });
+            } catch (ChainFailure e) {
+                if (e.getCause() instanceof IOException ioException) {
+                    throw ioException;
+                }
+                throw (ServletException) e.getCause();
+            }
+        }
+        if (executed[0]) {
+            count("executed");
+            return;
+        }
+        if (stored == ASYNC) {
+            stored = awaitStored(scope);
+        }
+
+        if (stored == IN_PROGRESS) {
+            count("in-progress");
+            writeError(request, response, HttpStatus.CONFLICT, "A request with this " + HEADER + " is in progress");
+            return;
+        }
+        if (!stored.fingerprint().equals(fingerprint)) {
+            count("mismatch");
+            writeError(request, response, HttpStatus.UNPROCESSABLE_ENTITY,
+                HEADER + " was already used with a different request body");
+            return;
+        }
+        count("replayed");
+        replay(stored, response);
+    }
+
+    /**
+     * Claims the key for this node, or waits for the node holding the claim to store its response. Returns
+     * {@code null} when this node should execute the request.
+     */
+    private StoredResponse claimOrAwait(String scope) {
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        while (!store.tryClaim(scope)) {
+            StoredResponse stored = store.get(scope);
+            if (stored != null) {
+                return stored;
+            }
+            if (System.nanoTime() - deadline >= 0) {
+                return IN_PROGRESS;
+            }
+            try {
+                Thread.sleep(POLL_INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return IN_PROGRESS;
+            }
+        }
+        StoredResponse stored = store.get(scope);
+        if (stored != null) {
+            store.release(scope);
+        }
+        return stored;
+    }
+
+    /**
+     * Waits for a request on this node that went asynchronous with the key to store its response.
+     */
+    private StoredResponse awaitStored(String scope) {
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        StoredResponse stored;
+        while ((stored = store.get(scope)) == null) {
+            if (System.nanoTime() - deadline >= 0) {
+                return IN_PROGRESS;
+            }
+            try {
+                Thread.sleep(POLL_INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return IN_PROGRESS;
+            }
+        }
+        return stored;
+    }
+
+    private StoredResponse execute(String scope, String fingerprint, CachedBodyRequest request,
+        HttpServletResponse response, FilterChain chain) {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean async = false;
+        try {
+            chain.doFilter(request, wrapper);
+            if (request.isAsyncStarted()) {
+                request.setAttribute(PENDING_ATTRIBUTE, new Pending(scope, fingerprint));
+                async = true;
+                return ASYNC;
+            }
+            return storeResponse(scope, fingerprint, wrapper);
+        } catch (IOException | ServletException e) {
+            throw new ChainFailure(e);
+        } finally {
+            if (!async) {
+                store.release(scope);
+            }
+        }
+    }
+
+    /**
+     * Runs the async dispatch of a request that went asynchronous in {@link #execute}; the response wrapper passed to
+     * the handler comes back here, so the response can be stored once the dispatch completes it.
+     */
+    private void completeAsync(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+        throws ServletException, IOException {
+        Pending pending = (Pending) request.getAttribute(PENDING_ATTRIBUTE);
+        ContentCachingResponseWrapper wrapper = WebUtils.getNativeResponse(response,
+            ContentCachingResponseWrapper.class);
+        if (pending == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+            if (!request.isAsyncStarted() && wrapper != null) {
+                storeResponse(pending.scope(), pending.fingerprint(), wrapper);
+            }
+        } finally {
+            if (!request.isAsyncStarted()) {
+                request.removeAttribute(PENDING_ATTRIBUTE);
+                store.release(pending.scope());
+            }
+        }
+    }
+
+    private StoredResponse storeResponse(String scope, String fingerprint, ContentCachingResponseWrapper wrapper)
+        throws IOException {
+        StoredResponse stored = new StoredResponse(fingerprint, wrapper.getStatus(), wrapper.getContentType(),
+            wrapper.getContentAsByteArray());
+        if (!isRetryable(wrapper)) {
+            store.put(scope, stored);
+        }
+        wrapper.copyBodyToResponse();
+        return stored;
+    }
+
+    private static boolean isRetryable(HttpServletResponse response) {
+        return response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value()
+            || response.getStatus() == HttpStatus.TOO_MANY_REQUESTS.value()
+            || response.getHeader(HttpHeaders.RETRY_AFTER) != null;
+    }
+
+    private void replay(StoredResponse stored, HttpServletResponse response) throws IOException {
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private void writeError(HttpServletRequest request, HttpServletResponse response, HttpStatus status,
+        String message) throws IOException {
+        ErrorResponse error = ErrorResponse.builder()
+            .timestamp(LocalDateTime.now())
+            .status(status.value())
+            .error(status.getReasonPhrase())
+            .message(message)
+            .path(request.getRequestURI())
+            .build();
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter(OUTCOME_COUNTER, "outcome", outcome).increment();
+    }
+
+    static String fingerprint(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Pending(String scope, String fingerprint) {
+    }
+
+    private static class ChainFailure extends RuntimeException {
+
+        ChainFailure(Exception cause) {
+            super(cause);
+        }
+    }
+}
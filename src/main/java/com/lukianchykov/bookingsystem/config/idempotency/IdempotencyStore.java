@@ -0,0 +1,95 @@
+package com.lukianchykov.bookingsystem.config.idempotency;
+
+import java.time.Duration;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.lukianchykov.bookingsystem.config.cache.CacheLease;
+import com.lukianchykov.bookingsystem.config.cache.InMemoryCacheLease;
+import com.lukianchykov.bookingsystem.config.cache.RedisCacheLease;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * Stored responses by idempotency key in a bounded local cache and, when {@code redisTemplate} is set, in Redis
+ * under {@link #KEY_PREFIX} so a retry landing on another node is answered too. Claims mark a key as being
+ * executed somewhere; without Redis every claim succeeds and concurrent duplicates are left to the caller to
+ * coalesce. Redis errors degrade to the local store.
+ */
+@Slf4j
+public class IdempotencyStore {
+
+    static final String KEY_PREFIX = "idempotency:response:";
+
+    private static final String CLAIM_PREFIX = "idempotency:";
+
+    private final Cache<String, StoredResponse> local;
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final CacheLease claims;
+
+    private final ObjectMapper objectMapper;
+
+    private final Duration timeToLive;
+
+    private final Duration claimTimeToLive;
+
+    public IdempotencyStore(StringRedisTemplate redisTemplate, ObjectMapper objectMapper, long localMaximumSize,
+        Duration timeToLive, Duration claimTimeToLive) {
+        this.local = Caffeine.newBuilder()
+            .maximumSize(localMaximumSize)
+            .expireAfterWrite(timeToLive)
+            .build();
+        this.redisTemplate = redisTemplate;
+        this.claims = redisTemplate == null ? new InMemoryCacheLease() : new RedisCacheLease(redisTemplate);
+        this.objectMapper = objectMapper;
+        this.timeToLive = timeToLive;
+        this.claimTimeToLive = claimTimeToLive;
+    }
+
+    public StoredResponse get(String key) {
+        StoredResponse stored = local.getIfPresent(key);
+        if (stored != null || redisTemplate == null) {
+            return stored;
+        }
+        try {
+            String json = redisTemplate.opsForValue().get(KEY_PREFIX + key);
+            if (json == null) {
+                return null;
+            }
+            stored = objectMapper.readValue(json, StoredResponse.class);
+            local.put(key, stored);
+            return stored;
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Failed to read idempotent response {} from Redis, using local store", key, e);
+            return null;
+        }
+    }
+
+    public void put(String key, StoredResponse response) {
+        local.put(key, response);
+        if (redisTemplate == null) {
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().set(KEY_PREFIX + key, objectMapper.writeValueAsString(response), timeToLive);
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("Failed to write idempotent response {} to Redis, only this node will replay it", key, e);
+        }
+    }
+
+    /**
+     * Marks the key as being executed by this node for at most the claim time to live.
+     */
+    public boolean tryClaim(String key) {
+        return claims.tryAcquire(CLAIM_PREFIX + key, claimTimeToLive);
+    }
+
+    public void release(String key) {
+        claims.release(CLAIM_PREFIX + key);
+    }
+}
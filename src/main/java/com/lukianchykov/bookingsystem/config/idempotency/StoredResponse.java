@@ -0,0 +1,8 @@
+package com.lukianchykov.bookingsystem.config.idempotency;
+
+/**
+ * What a request carrying an idempotency key answered, kept so retries of the same key can be answered again
+ * without running the request. {@code fingerprint} is the hash of the request body the key was first used with.
+ */
+public record StoredResponse(String fingerprint, int status, String contentType, byte[] body) {
+}
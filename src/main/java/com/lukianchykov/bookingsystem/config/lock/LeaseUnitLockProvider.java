@@ -0,0 +1,76 @@
+package com.lukianchykov.bookingsystem.config.lock;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+import com.lukianchykov.bookingsystem.config.cache.CacheLease;
+
+import org.springframework.core.Ordered;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Unit locks on a {@link CacheLease}, i.e. a Redis {@code SET NX PX} key per unit for multi-node setups. Callers on
+ * one node first queue on a {@link StripedUnitLockProvider}, so only one of them at a time polls the lease, with
+ * jittered backoff, until {@code maxWait}. The lease is released when the transaction completes, before the local
+ * lock, and otherwise expires after {@code leaseTime}, which has to outlast the booking transaction.
+ */
+public class LeaseUnitLockProvider implements UnitLockProvider {
+
+    private static final String LEASE_PREFIX = "unit-lock:";
+
+    private static final long MIN_BACKOFF_NANOS = 1_000_000;
+
+    private static final long MAX_BACKOFF_NANOS = 50_000_000;
+
+    private final CacheLease lease;
+
+    private final StripedUnitLockProvider localLocks;
+
+    private final Duration leaseTime;
+
+    private final Duration maxWait;
+
+    public LeaseUnitLockProvider(CacheLease lease, StripedUnitLockProvider localLocks, Duration leaseTime,
+        Duration maxWait) {
+        this.lease = lease;
+        this.localLocks = localLocks;
+        this.leaseTime = leaseTime;
+        this.maxWait = maxWait;
+    }
+
+    @Override
+    public void lock(Long unitId) {
+        long deadline = System.nanoTime() + maxWait.toNanos();
+        localLocks.lock(unitId);
+
+        String name = LEASE_PREFIX + unitId;
+        long backoff = MIN_BACKOFF_NANOS;
+        while (!lease.tryAcquire(name, leaseTime)) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                throw new CannotAcquireLockException("Timed out after " + maxWait.toMillis()
+                    + "ms waiting for the lease of unit " + unitId);
+            }
+            LockSupport.parkNanos(Math.min(remaining, ThreadLocalRandom.current().nextLong(backoff / 2, backoff + 1)));
+            if (Thread.interrupted()) {
+                Thread.currentThread().interrupt();
+                throw new CannotAcquireLockException("Interrupted while waiting for the lease of unit " + unitId);
+            }
+            backoff = Math.min(MAX_BACKOFF_NANOS, backoff * 2);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public int getOrder() {
+                return Ordered.LOWEST_PRECEDENCE - 1;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                lease.release(name);
+            }
+        });
+    }
+}
@@ -0,0 +1,35 @@
+package com.lukianchykov.bookingsystem.config.lock;
+
+import java.time.Duration;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Unit locks taken with {@code pg_advisory_xact_lock(unit_id)} on the transaction's own connection, so they hold
+ * across nodes and PostgreSQL releases them at commit or rollback. The wait is bounded by setting
+ * {@code lock_timeout} around the call; a timeout is translated into a
+ * {@link org.springframework.dao.CannotAcquireLockException}. The previous timeout is only restored after the lock
+ * was taken: a timeout aborts the transaction, which discards the transaction-local setting anyway and would fail
+ * any further statement.
+ */
+public class PostgresAdvisoryUnitLockProvider implements UnitLockProvider {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Duration maxWait;
+
+    public PostgresAdvisoryUnitLockProvider(JdbcTemplate jdbcTemplate, Duration maxWait) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxWait = maxWait;
+    }
+
+    @Override
+    public void lock(Long unitId) {
+        StripedUnitLockProvider.requireTransaction();
+        String previousTimeout = jdbcTemplate.queryForObject("SELECT current_setting('lock_timeout')", String.class);
+        jdbcTemplate.queryForObject("SELECT set_config('lock_timeout', ?, true)", String.class,
+            maxWait.toMillis() + "ms");
+        jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(?)::text", String.class, unitId);
+        jdbcTemplate.queryForObject("SELECT set_config('lock_timeout', ?, true)", String.class, previousTimeout);
+    }
+}
@@ -0,0 +1,64 @@
+package com.lukianchykov.bookingsystem.config.lock;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * In-JVM unit locks: a fixed array of {@link ReentrantLock}s with units hashed onto them, so memory does not grow
+ * with the number of units and two units only contend when they share a stripe. Only excludes callers in this JVM.
+ */
+public class StripedUnitLockProvider implements UnitLockProvider {
+
+    private final ReentrantLock[] stripes;
+
+    private final Duration maxWait;
+
+    public StripedUnitLockProvider(int stripes, Duration maxWait) {
+        this.stripes = new ReentrantLock[Integer.highestOneBit(Math.max(1, stripes - 1)) << 1];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.maxWait = maxWait;
+    }
+
+    @Override
+    public void lock(Long unitId) {
+        requireTransaction();
+        ReentrantLock stripe = stripe(unitId);
+        try {
+            if (!stripe.tryLock(maxWait.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new CannotAcquireLockException("Timed out after " + maxWait.toMillis()
+                    + "ms waiting for the lock of unit " + unitId);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CannotAcquireLockException("Interrupted while waiting for the lock of unit " + unitId, e);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                stripe.unlock();
+            }
+        });
+    }
+
+    int stripeCount() {
+        return stripes.length;
+    }
+
+    private ReentrantLock stripe(Long unitId) {
+        long hash = unitId * 0x9E3779B97F4A7C15L;
+        return stripes[(int) (hash >>> 32) & (stripes.length - 1)];
+    }
+
+    static void requireTransaction() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Unit locks are held until the transaction completes and need one");
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.lukianchykov.bookingsystem.config.lock;
+
+/**
+ * Mutual exclusion per unit that lasts until the current transaction completes, so a booking's conflict check and
+ * its insert are not interleaved with those of another booking for the same unit, without serializing unrelated
+ * units. Implementations throw {@link org.springframework.dao.CannotAcquireLockException} when the lock cannot be
+ * taken within their wait limit.
+ */
+@FunctionalInterface
+public interface UnitLockProvider {
+
+    /**
+     * For deployments that rely on the database's overlap constraint alone.
+     */
+    UnitLockProvider NONE = unitId -> {
+    };
+
+    void lock(Long unitId);
+}
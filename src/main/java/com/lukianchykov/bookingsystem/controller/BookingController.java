@@ -1,7 +1,11 @@
 package com.lukianchykov.bookingsystem.controller;
 
+import java.util.concurrent.CompletableFuture;
+
 import com.lukianchykov.bookingsystem.dto.BookingCreateRequest;
 import com.lukianchykov.bookingsystem.dto.BookingResponse;
+import com.lukianchykov.bookingsystem.dto.HoldExtensionRequest;
+import com.lukianchykov.bookingsystem.service.BookingAdmissionEngine;
 import com.lukianchykov.bookingsystem.service.BookingService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -24,6 +28,8 @@ import org.springframework.web.bind.annotation.RestController;
 public class BookingController {
     
     private final BookingService bookingService;
+
+    private final BookingAdmissionEngine bookingAdmissionEngine;
     
     @PostMapping
     @Operation(summary = "Create a new booking")
@@ -32,6 +38,13 @@ public class BookingController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
     
+    @PostMapping("/admit")
+    @Operation(summary = "Create a new booking through the unit's admission mailbox")
+    public CompletableFuture<ResponseEntity<BookingResponse>> admitBooking(@RequestBody BookingCreateRequest request) {
+        return bookingAdmissionEngine.admit(request)
+            .thenApply(response -> ResponseEntity.status(HttpStatus.CREATED).body(response));
+    }
+    
     @PutMapping("/{id}/cancel")
     @Operation(summary = "Cancel a booking")
     public ResponseEntity<BookingResponse> cancelBooking(@PathVariable Long id) {
@@ -39,6 +52,14 @@ public class BookingController {
         return ResponseEntity.ok(response);
     }
     
+    @PutMapping("/{id}/extend-hold")
+    @Operation(summary = "Extend the hold of a pending booking")
+    public ResponseEntity<BookingResponse> extendHold(@PathVariable Long id,
+                                                      @RequestBody HoldExtensionRequest request) {
+        BookingResponse response = bookingService.extendHold(id, request.getMinutes());
+        return ResponseEntity.ok(response);
+    }
+    
     @GetMapping("/{id}")
     @Operation(summary = "Get booking by ID")
     public ResponseEntity<BookingResponse> getBooking(@PathVariable Long id) {
@@ -3,6 +3,8 @@ package com.lukianchykov.bookingsystem.controller;
 import java.util.Map;
 
 import com.lukianchykov.bookingsystem.dto.AvailabilityStatsResponse;
+import com.lukianchykov.bookingsystem.dto.LatencyStatsResponse;
+import com.lukianchykov.bookingsystem.service.BookingMetrics;
 import com.lukianchykov.bookingsystem.service.CacheService;
 import com.lukianchykov.bookingsystem.service.UnitService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -24,6 +26,8 @@ public class StatsController {
 
     private final UnitService unitService;
 
+    private final BookingMetrics bookingMetrics;
+
     @GetMapping("/availability")
     @Operation(summary = "Get availability statistics")
     public ResponseEntity<AvailabilityStatsResponse> getAvailabilityStats() {
@@ -50,6 +54,12 @@ public class StatsController {
         return ResponseEntity.ok(count);
     }
 
+    @GetMapping("/latency")
+    @Operation(summary = "Get latency percentiles of the booking pipeline and HTTP endpoints")
+    public ResponseEntity<LatencyStatsResponse> getLatencyStats() {
+        return ResponseEntity.ok(bookingMetrics.latencySummary());
+    }
+
     @GetMapping("/cache-health")
     @Operation(summary = "Check cache health status")
     public ResponseEntity<Map<String, Object>> getCacheHealth() {
@@ -1,9 +1,15 @@
 package com.lukianchykov.bookingsystem.controller;
 
+import java.io.InputStream;
+
 import com.lukianchykov.bookingsystem.dto.UnitCreateRequest;
+import com.lukianchykov.bookingsystem.dto.UnitFacetsResponse;
+import com.lukianchykov.bookingsystem.dto.UnitImportResponse;
 import com.lukianchykov.bookingsystem.dto.UnitResponse;
 import com.lukianchykov.bookingsystem.dto.UnitSearchRequest;
+import com.lukianchykov.bookingsystem.dto.UnitSliceResponse;
 import com.lukianchykov.bookingsystem.dto.UnitUpdateRequest;
+import com.lukianchykov.bookingsystem.service.UnitImportService;
 import com.lukianchykov.bookingsystem.service.UnitService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -29,6 +35,8 @@ public class UnitController {
 
     private final UnitService unitService;
 
+    private final UnitImportService unitImportService;
+
     @PostMapping
     @Operation(summary = "Create a new unit")
     public ResponseEntity<UnitResponse> createUnit(@RequestBody UnitCreateRequest request) {
@@ -36,6 +44,20 @@ public class UnitController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping(value = "/bulk", consumes = "application/x-ndjson")
+    @Operation(summary = "Import units from newline-delimited JSON")
+    public ResponseEntity<UnitImportResponse> importUnitsFromNdjson(InputStream body) {
+        UnitImportResponse response = unitImportService.importUnits(body, UnitImportService.Format.NDJSON);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    @Operation(summary = "Import units from CSV with a header row")
+    public ResponseEntity<UnitImportResponse> importUnitsFromCsv(InputStream body) {
+        UnitImportResponse response = unitImportService.importUnits(body, UnitImportService.Format.CSV);
+        return ResponseEntity.ok(response);
+    }
+
     @PostMapping("/search")
     @Operation(summary = "Search available units")
     public ResponseEntity<Page<UnitResponse>> searchUnits(
@@ -44,6 +66,21 @@ public class UnitController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping(value = "/search", params = "mode=cursor")
+    @Operation(summary = "Search available units page by page using an opaque cursor, without counting the total")
+    public ResponseEntity<UnitSliceResponse> scrollUnits(
+        @RequestBody UnitSearchRequest request) {
+        UnitSliceResponse response = unitService.scrollUnits(request);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/facets")
+    @Operation(summary = "Count available units per accommodation type, rooms, floor band and price bucket")
+    public ResponseEntity<UnitFacetsResponse> getFacets(@RequestBody UnitSearchRequest request) {
+        UnitFacetsResponse response = unitService.getFacets(request);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get unit by ID")
     public ResponseEntity<UnitResponse> getUnit(@PathVariable Long id) {
@@ -0,0 +1,8 @@
+package com.lukianchykov.bookingsystem.controller.exception;
+
+public class AdmissionOverloadedException extends BookingSystemException {
+
+    public AdmissionOverloadedException(Long unitId) {
+        super("Too many bookings are waiting for unit " + unitId + ", please retry later");
+    }
+}
@@ -0,0 +1,9 @@
+package com.lukianchykov.bookingsystem.controller.exception;
+
+public class InvalidHoldDurationException extends BusinessLogicException {
+
+    public InvalidHoldDurationException(int minutes, int maxMinutes) {
+        super("Hold of " + minutes + " minutes is not allowed, holds must be between 1 and " + maxMinutes
+            + " minutes");
+    }
+}
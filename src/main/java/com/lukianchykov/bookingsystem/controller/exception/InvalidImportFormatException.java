@@ -0,0 +1,8 @@
+package com.lukianchykov.bookingsystem.controller.exception;
+
+public class InvalidImportFormatException extends BusinessLogicException {
+
+    public InvalidImportFormatException(String reason) {
+        super("Invalid import: " + reason);
+    }
+}
@@ -0,0 +1,8 @@
+package com.lukianchykov.bookingsystem.controller.exception;
+
+public class InvalidSearchCursorException extends BusinessLogicException {
+
+    public InvalidSearchCursorException(String reason) {
+        super("Invalid search cursor: " + reason);
+    }
+}
@@ -8,6 +8,7 @@ import com.lukianchykov.bookingsystem.controller.BookingController;
 import com.lukianchykov.bookingsystem.controller.PaymentController;
 import com.lukianchykov.bookingsystem.controller.UnitController;
 import com.lukianchykov.bookingsystem.controller.UserController;
+import com.lukianchykov.bookingsystem.controller.exception.AdmissionOverloadedException;
 import com.lukianchykov.bookingsystem.controller.exception.BusinessLogicException;
 import com.lukianchykov.bookingsystem.controller.exception.ResourceNotFoundException;
 import com.lukianchykov.bookingsystem.controller.exception.UnitNotAvailableException;
@@ -15,6 +16,8 @@ import com.lukianchykov.bookingsystem.controller.exception.UserAlreadyExistsExce
 import com.lukianchykov.bookingsystem.dto.ErrorResponse;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -75,6 +78,42 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
     }
 
+    @ExceptionHandler(PessimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleLockingFailureException(
+        PessimisticLockingFailureException ex, WebRequest request) {
+        log.warn("Lock not acquired: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+            .timestamp(LocalDateTime.now())
+            .status(HttpStatus.CONFLICT.value())
+            .error("Unit Busy")
+            .message("The unit is being booked by another request, please retry")
+            .path(request.getDescription(false).replace("uri=", ""))
+            .build();
+
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+            .header(HttpHeaders.RETRY_AFTER, "1")
+            .body(errorResponse);
+    }
+
+    @ExceptionHandler(AdmissionOverloadedException.class)
+    public ResponseEntity<ErrorResponse> handleAdmissionOverloadedException(
+        AdmissionOverloadedException ex, WebRequest request) {
+        log.warn("Admission overloaded: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+            .timestamp(LocalDateTime.now())
+            .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+            .error("Service Unavailable")
+            .message(ex.getMessage())
+            .path(request.getDescription(false).replace("uri=", ""))
+            .build();
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, "1")
+            .body(errorResponse);
+    }
+
     @ExceptionHandler(UserAlreadyExistsException.class)
     public ResponseEntity<ErrorResponse> handleUserAlreadyExistsException(
         UserAlreadyExistsException ex, WebRequest request) {
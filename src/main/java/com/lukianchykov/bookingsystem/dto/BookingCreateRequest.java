@@ -25,4 +25,7 @@ public class BookingCreateRequest {
 
     @JsonProperty("end_date")
     private LocalDate endDate;
+
+    @JsonProperty("hold_minutes")
+    private Integer holdMinutes;
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.lukianchykov.bookingsystem.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class HoldExtensionRequest {
+
+    @JsonProperty("minutes")
+    private int minutes;
+}
@@ -0,0 +1,40 @@
+package com.lukianchykov.bookingsystem.dto;
+
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+@Data
+public class LatencyStatsResponse {
+
+    private List<TimerStats> timers;
+
+    private Map<String, Double> counters;
+
+    private Map<String, Double> gauges;
+
+    @Data
+    public static class TimerStats {
+
+        private String name;
+
+        private long count;
+
+        @JsonProperty("mean_ms")
+        private double meanMs;
+
+        @JsonProperty("p50_ms")
+        private double p50Ms;
+
+        @JsonProperty("p99_ms")
+        private double p99Ms;
+
+        @JsonProperty("p999_ms")
+        private double p999Ms;
+
+        @JsonProperty("max_ms")
+        private double maxMs;
+    }
+}
@@ -4,7 +4,11 @@ import java.math.BigDecimal;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.lukianchykov.bookingsystem.domain.AccommodationType;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -17,19 +21,28 @@ import lombok.NoArgsConstructor;
 public class UnitCreateRequest {
 
     @JsonProperty("number_of_rooms")
+    @NotNull
+    @Min(1)
     private Integer numberOfRooms;
 
     @JsonProperty("accommodation_type")
+    @NotNull
     private AccommodationType accommodationType;
 
+    @NotNull
+    @Min(0)
     private Integer floor;
 
     @JsonProperty("base_cost")
     @NotNull
+    @DecimalMin(value = "0.0", inclusive = false)
     private BigDecimal baseCost;
 
+    @NotBlank
+    @Size(max = 1000)
     private String description;
 
     @JsonProperty("owner_id")
+    @NotNull
     private Long ownerId;
 }
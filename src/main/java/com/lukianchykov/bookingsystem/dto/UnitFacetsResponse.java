@@ -0,0 +1,31 @@
+package com.lukianchykov.bookingsystem.dto;
+
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.lukianchykov.bookingsystem.domain.AccommodationType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UnitFacetsResponse {
+
+    private long total;
+
+    @JsonProperty("accommodation_types")
+    private Map<AccommodationType, Long> accommodationTypes;
+
+    @JsonProperty("number_of_rooms")
+    private Map<Integer, Long> numberOfRooms;
+
+    @JsonProperty("floor_bands")
+    private Map<String, Long> floorBands;
+
+    @JsonProperty("price_buckets")
+    private Map<String, Long> priceBuckets;
+}
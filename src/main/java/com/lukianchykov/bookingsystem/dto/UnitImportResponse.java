@@ -0,0 +1,28 @@
+package com.lukianchykov.bookingsystem.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UnitImportResponse {
+
+    @JsonProperty("import_id")
+    private Long importId;
+
+    private long imported;
+
+    private long rejected;
+
+    @JsonProperty("errors_truncated")
+    private boolean errorsTruncated;
+
+    private List<UnitImportRowError> errors;
+}
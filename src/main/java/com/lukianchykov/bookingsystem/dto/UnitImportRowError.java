@@ -0,0 +1,17 @@
+package com.lukianchykov.bookingsystem.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UnitImportRowError {
+
+    private long line;
+
+    private String message;
+}
@@ -1,5 +1,6 @@
 package com.lukianchykov.bookingsystem.dto;
 
+import java.io.Serializable;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
@@ -15,7 +16,7 @@ import lombok.NoArgsConstructor;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-public class UnitResponse {
+public class UnitResponse implements Serializable {
 
     private Long id;
 
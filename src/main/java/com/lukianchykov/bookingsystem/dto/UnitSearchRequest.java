@@ -45,4 +45,6 @@ public class UnitSearchRequest {
     private Integer page = 0;
 
     private Integer size = 10;
+
+    private String after;
 }
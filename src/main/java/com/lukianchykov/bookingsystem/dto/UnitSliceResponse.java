@@ -0,0 +1,26 @@
+package com.lukianchykov.bookingsystem.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UnitSliceResponse {
+
+    private List<UnitResponse> content;
+
+    private Integer size;
+
+    @JsonProperty("has_next")
+    private boolean hasNext;
+
+    @JsonProperty("next_cursor")
+    private String nextCursor;
+}
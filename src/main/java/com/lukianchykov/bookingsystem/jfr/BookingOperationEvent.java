@@ -0,0 +1,51 @@
+package com.lukianchykov.bookingsystem.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.lukianchykov.booking.BookingOperation")
+@Label("Booking Operation")
+@Category({"Booking System", "Bookings"})
+@Description("Creation or cancellation of a booking")
+public class BookingOperationEvent extends OperationEvent {
+
+    public static final String CREATE = "create";
+
+    public static final String CANCEL = "cancel";
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Unit Id")
+    long unitId;
+
+    @Label("Booking Id")
+    long bookingId;
+
+    @Label("Rows Written")
+    @Description("Booking and audit event rows written")
+    int rowsWritten;
+
+    public static BookingOperationEvent begin(String operation, Long unitId, Long bookingId) {
+        BookingOperationEvent event = new BookingOperationEvent();
+        event.operation = operation;
+        event.unitId = orZero(unitId);
+        event.bookingId = orZero(bookingId);
+        event.begin();
+        return event;
+    }
+
+    public void setUnitId(Long unitId) {
+        this.unitId = orZero(unitId);
+    }
+
+    public void setBookingId(Long bookingId) {
+        this.bookingId = orZero(bookingId);
+    }
+
+    public void addRowsWritten(int rows) {
+        rowsWritten += rows;
+    }
+}
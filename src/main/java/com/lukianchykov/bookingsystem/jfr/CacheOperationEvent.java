@@ -0,0 +1,39 @@
+package com.lukianchykov.bookingsystem.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.lukianchykov.booking.CacheOperation")
+@Label("Cache Operation")
+@Category({"Booking System", "Cache"})
+@Description("Read or eviction of a cached statistic")
+public class CacheOperationEvent extends OperationEvent {
+
+    public static final String GET = "get";
+
+    public static final String EVICT = "evict";
+
+    @Label("Cache")
+    String cache;
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Value")
+    @Description("Value read, or recounted after the eviction")
+    long value;
+
+    public static CacheOperationEvent begin(String cache, String operation) {
+        CacheOperationEvent event = new CacheOperationEvent();
+        event.cache = cache;
+        event.operation = operation;
+        event.begin();
+        return event;
+    }
+
+    public void setValue(Long value) {
+        this.value = orZero(value);
+    }
+}
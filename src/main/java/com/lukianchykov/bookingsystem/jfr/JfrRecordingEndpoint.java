@@ -0,0 +1,181 @@
+package com.lukianchykov.bookingsystem.jfr;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Starts and stops one in-process flight recording with the JDK default settings plus {@value #SETTINGS}, so
+ * the booking events land next to the GC, JIT and lock events. The recording is bounded by a duration and a size
+ * no larger than the configured maximums and is written to a file in {@code booking.jfr.directory} when it stops,
+ * either through {@code DELETE /actuator/jfr} or when its duration runs out. Only the newest
+ * {@code booking.jfr.max-files} recordings are kept in the directory.
+ */
+@Component
+@Endpoint(id = "jfr")
+@Slf4j
+public class JfrRecordingEndpoint {
+
+    static final String SETTINGS = "jfr/booking.jfc";
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private static final Pattern RECORDING_FILE = Pattern.compile("booking-\\d{8}-\\d{6}\\.jfr");
+
+    private final Path directory;
+
+    private final Duration maxDuration;
+
+    private final DataSize maxSize;
+
+    private final int maxFiles;
+
+    private Recording recording;
+
+    private Path destination;
+
+    public JfrRecordingEndpoint(@Value("${booking.jfr.directory:${java.io.tmpdir}/booking-jfr}") Path directory,
+        @Value("${booking.jfr.max-duration:10m}") Duration maxDuration,
+        @Value("${booking.jfr.max-size:256MB}") DataSize maxSize,
+        @Value("${booking.jfr.max-files:5}") int maxFiles) {
+        this.directory = directory;
+        this.maxDuration = maxDuration;
+        this.maxSize = maxSize;
+        this.maxFiles = maxFiles;
+    }
+
+    @ReadOperation
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        if (recording == null) {
+            status.put("state", "NONE");
+            return status;
+        }
+        status.put("state", recording.getState());
+        status.put("started", recording.getStartTime());
+        status.put("duration", recording.getDuration());
+        status.put("maxSizeBytes", recording.getMaxSize());
+        status.put("file", destination.toString());
+        return status;
+    }
+
+    /**
+     * Starts a recording bounded by the configured maximums, unless one is already running. Stop it earlier for a
+     * shorter one.
+     */
+    @WriteOperation
+    public synchronized Map<String, Object> start() {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            return status();
+        }
+        closeRecording();
+
+        try {
+            Files.createDirectories(directory);
+            deleteOldRecordings();
+            Path file = directory.resolve("booking-" + LocalDateTime.now().format(FILE_TIMESTAMP) + ".jfr");
+
+            Recording started = new Recording(settings());
+            started.setName("booking-system");
+            started.setToDisk(true);
+            started.setDuration(maxDuration);
+            started.setMaxSize(maxSize.toBytes());
+            started.setDestination(file);
+            started.start();
+            recording = started;
+            destination = file;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to start flight recording", e);
+        }
+        log.info("Started flight recording for {} into {}", maxDuration, destination);
+        return status();
+    }
+
+    /**
+     * Stops the current recording, writing it to its file, and returns where it was written.
+     */
+    @DeleteOperation
+    public synchronized Map<String, Object> stop() {
+        if (recording == null) {
+            return status();
+        }
+        if (recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+            log.info("Stopped flight recording into {}", destination);
+        }
+        Map<String, Object> status = status();
+        try {
+            status.put("sizeBytes", Files.exists(destination) ? Files.size(destination) : 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read flight recording " + destination, e);
+        }
+        closeRecording();
+        return status;
+    }
+
+    static Map<String, String> settings() throws IOException {
+        try {
+            Map<String, String> settings = new HashMap<>(Configuration.getConfiguration("default").getSettings());
+            try (Reader reader = new InputStreamReader(new ClassPathResource(SETTINGS).getInputStream(),
+                StandardCharsets.UTF_8)) {
+                settings.putAll(Configuration.create(reader).getSettings());
+            }
+            return settings;
+        } catch (ParseException e) {
+            throw new IOException("Invalid flight recorder settings", e);
+        }
+    }
+
+    /**
+     * Leaves room for the next recording within {@code maxFiles}; the timestamp in the name orders them.
+     */
+    private void deleteOldRecordings() throws IOException {
+        List<Path> recordings;
+        try (Stream<Path> files = Files.list(directory)) {
+            recordings = files.filter(file -> RECORDING_FILE.matcher(file.getFileName().toString()).matches())
+                .sorted(Comparator.reverseOrder())
+                .toList();
+        }
+        for (Path old : recordings.subList(Math.min(Math.max(maxFiles - 1, 0), recordings.size()),
+            recordings.size())) {
+            Files.deleteIfExists(old);
+            log.info("Deleted old flight recording {}", old);
+        }
+    }
+
+    private void closeRecording() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.lukianchykov.bookingsystem.jfr;
+
+import java.util.function.Supplier;
+
+import com.lukianchykov.bookingsystem.controller.exception.BusinessLogicException;
+import com.lukianchykov.bookingsystem.controller.exception.ResourceNotFoundException;
+import com.lukianchykov.bookingsystem.controller.exception.UnitNotAvailableException;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Base of the business operation events. An event is begun when it is created and committed with the outcome of
+ * the operation it wraps, so its duration is the time spent in the service method. Ids of entities not known to the
+ * operation are recorded as 0.
+ */
+@Category({"Booking System"})
+@StackTrace(false)
+public abstract class OperationEvent extends Event {
+
+    @Label("Outcome")
+    @Description("Result of the operation, or the kind of failure that ended it")
+    String outcome;
+
+    public <T> T record(String success, Supplier<T> operation) {
+        try {
+            T result = operation.get();
+            outcome = success;
+            return result;
+        } catch (RuntimeException e) {
+            outcome = outcomeOf(e);
+            throw e;
+        } finally {
+            commit();
+        }
+    }
+
+    public void record(String success, Runnable operation) {
+        record(success, () -> {
+            operation.run();
+            return null;
+        });
+    }
+
+    static String outcomeOf(RuntimeException e) {
+        if (e instanceof UnitNotAvailableException) {
+            return "conflict";
+        }
+        if (e instanceof ResourceNotFoundException) {
+            return "not-found";
+        }
+        if (e instanceof BusinessLogicException) {
+            return "rejected";
+        }
+        return "error";
+    }
+
+    static long orZero(Long value) {
+        return value == null ? 0 : value;
+    }
+}
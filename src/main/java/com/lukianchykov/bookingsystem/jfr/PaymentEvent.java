@@ -0,0 +1,43 @@
+package com.lukianchykov.bookingsystem.jfr;
+
+import com.lukianchykov.bookingsystem.domain.Booking;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.lukianchykov.booking.Payment")
+@Label("Payment")
+@Category({"Booking System", "Payments"})
+@Description("Payment of a pending booking")
+public class PaymentEvent extends OperationEvent {
+
+    @Label("Booking Id")
+    long bookingId;
+
+    @Label("Unit Id")
+    long unitId;
+
+    @Label("Amount")
+    double amount;
+
+    @Label("Rows Written")
+    @Description("Payment, booking and audit event rows written")
+    int rowsWritten;
+
+    public static PaymentEvent begin(Long bookingId) {
+        PaymentEvent event = new PaymentEvent();
+        event.bookingId = orZero(bookingId);
+        event.begin();
+        return event;
+    }
+
+    public void setBooking(Booking booking) {
+        unitId = booking.getUnit() == null ? 0 : orZero(booking.getUnit().getId());
+        amount = booking.getTotalCost() == null ? 0 : booking.getTotalCost().doubleValue();
+    }
+
+    public void addRowsWritten(int rows) {
+        rowsWritten += rows;
+    }
+}
@@ -0,0 +1,64 @@
+package com.lukianchykov.bookingsystem.jfr;
+
+import com.lukianchykov.bookingsystem.dto.UnitSearchRequest;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.lukianchykov.booking.UnitSearch")
+@Label("Unit Search")
+@Category({"Booking System", "Search"})
+@Description("Unit search page answered from the search cache, the columnar snapshot or the database")
+public class UnitSearchEvent extends OperationEvent {
+
+    public static final String CACHE = "cache";
+
+    public static final String COLUMNAR = "columnar";
+
+    public static final String DATABASE = "database";
+
+    @Label("Source")
+    String source;
+
+    @Label("Sort By")
+    String sortBy;
+
+    @Label("Page")
+    int page;
+
+    @Label("Page Size")
+    int size;
+
+    @Label("Date Filtered")
+    boolean dateFiltered;
+
+    @Label("Booked Units Excluded")
+    int bookedUnits;
+
+    @Label("Rows Returned")
+    int rows;
+
+    @Label("Total Matches")
+    long total;
+
+    public static UnitSearchEvent begin(UnitSearchRequest request) {
+        UnitSearchEvent event = new UnitSearchEvent();
+        event.sortBy = request.getSortBy();
+        event.page = request.getPage();
+        event.size = request.getSize();
+        event.dateFiltered = request.getStartDate() != null && request.getEndDate() != null;
+        event.begin();
+        return event;
+    }
+
+    public void setBookedUnits(int bookedUnits) {
+        this.bookedUnits = bookedUnits;
+    }
+
+    public void answered(String source, int rows, long total) {
+        this.source = source;
+        this.rows = rows;
+        this.total = total;
+    }
+}
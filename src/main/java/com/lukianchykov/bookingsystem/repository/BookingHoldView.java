@@ -0,0 +1,10 @@
+package com.lukianchykov.bookingsystem.repository;
+
+import java.time.LocalDateTime;
+
+public interface BookingHoldView {
+
+    Long getId();
+
+    LocalDateTime getExpiresAt();
+}
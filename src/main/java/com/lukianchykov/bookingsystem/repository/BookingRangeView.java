@@ -0,0 +1,14 @@
+package com.lukianchykov.bookingsystem.repository;
+
+import java.time.LocalDate;
+
+public interface BookingRangeView {
+
+    Long getId();
+
+    Long getUnitId();
+
+    LocalDate getStartDate();
+
+    LocalDate getEndDate();
+}
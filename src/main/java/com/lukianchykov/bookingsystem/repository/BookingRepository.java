@@ -1,11 +1,8 @@
 package com.lukianchykov.bookingsystem.repository;
 
-import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.util.List;
 
 import com.lukianchykov.bookingsystem.domain.Booking;
-import com.lukianchykov.bookingsystem.domain.BookingStatus;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -13,16 +10,18 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
     
-    @Query("SELECT b FROM Booking b WHERE b.unit.id = :unitId AND b.status IN ('PENDING', 'CONFIRMED') AND " +
-           "NOT (b.endDate < :startDate OR b.startDate > :endDate)")
-    List<Booking> findConflictingBookings(
-            @Param("unitId") Long unitId,
-            @Param("startDate") LocalDate startDate,
-            @Param("endDate") LocalDate endDate
-    );
-    
-    List<Booking> findByStatusAndExpiresAtBefore(BookingStatus status, LocalDateTime dateTime);
+    @Query("SELECT b.id AS id, b.unit.id AS unitId, b.startDate AS startDate, b.endDate AS endDate " +
+           "FROM Booking b WHERE b.status IN ('PENDING', 'CONFIRMED')")
+    List<BookingRangeView> findActiveBookingRanges();
+
+    @Query("SELECT b.id AS id, b.unit.id AS unitId, b.startDate AS startDate, b.endDate AS endDate " +
+           "FROM Booking b WHERE b.unit.id = :unitId AND b.status IN ('PENDING', 'CONFIRMED')")
+    List<BookingRangeView> findActiveBookingRanges(@Param("unitId") Long unitId);
+
+    @Query("SELECT b.id AS id, b.expiresAt AS expiresAt FROM Booking b " +
+           "WHERE b.status = 'PENDING' AND b.expiresAt IS NOT NULL")
+    List<BookingHoldView> findPendingHolds();
 }
 
@@ -0,0 +1,13 @@
+package com.lukianchykov.bookingsystem.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingRepositoryCustom {
+
+    /**
+     * Moves at most {@code limit} pending bookings whose hold ran out before {@code now} to EXPIRED in one
+     * statement and returns the rows it changed.
+     */
+    List<ExpiredBooking> expirePendingBookings(LocalDateTime now, int limit);
+}
@@ -0,0 +1,48 @@
+package com.lukianchykov.bookingsystem.repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+@RequiredArgsConstructor
+public class BookingRepositoryCustomImpl implements BookingRepositoryCustom {
+
+    private static final String EXPIRE_UPDATE =
+        "UPDATE bookings SET status = 'EXPIRED' WHERE id IN ("
+            + "SELECT id FROM bookings WHERE status = 'PENDING' AND expires_at < ? ORDER BY id LIMIT ?%s)";
+
+    private static final String POSTGRES_EXPIRE = EXPIRE_UPDATE.formatted(" FOR UPDATE SKIP LOCKED")
+        + " RETURNING id, unit_id";
+
+    private static final String DELTA_TABLE_EXPIRE =
+        "SELECT id, unit_id FROM FINAL TABLE (" + EXPIRE_UPDATE.formatted("") + ")";
+
+    private static final RowMapper<ExpiredBooking> EXPIRED_BOOKING_MAPPER = (rs, rowNum) ->
+        new ExpiredBooking(rs.getLong("id"), rs.getLong("unit_id"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile String expireStatement;
+
+    @Override
+    public List<ExpiredBooking> expirePendingBookings(LocalDateTime now, int limit) {
+        return jdbcTemplate.query(expireStatement(), EXPIRED_BOOKING_MAPPER, Timestamp.valueOf(now), limit);
+    }
+
+    private String expireStatement() {
+        String statement = expireStatement;
+        if (statement == null) {
+            String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            statement = "PostgreSQL".equalsIgnoreCase(product) ? POSTGRES_EXPIRE : DELTA_TABLE_EXPIRE;
+            expireStatement = statement;
+        }
+        return statement;
+    }
+}
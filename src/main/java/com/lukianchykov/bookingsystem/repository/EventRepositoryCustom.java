@@ -0,0 +1,13 @@
+package com.lukianchykov.bookingsystem.repository;
+
+import java.util.List;
+
+import com.lukianchykov.bookingsystem.domain.Event;
+
+public interface EventRepositoryCustom {
+
+    /**
+     * Inserts the events with multi-row INSERT statements, bypassing the persistence context.
+     */
+    int insertAll(List<Event> events);
+}
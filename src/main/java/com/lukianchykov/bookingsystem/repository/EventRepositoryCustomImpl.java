@@ -0,0 +1,59 @@
+package com.lukianchykov.bookingsystem.repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.lukianchykov.bookingsystem.domain.Event;
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@RequiredArgsConstructor
+public class EventRepositoryCustomImpl implements EventRepositoryCustom {
+
+    private static final int ROWS_PER_STATEMENT = 500;
+
+    private static final String INSERT_PREFIX =
+        "INSERT INTO events (event_type, entity_type, entity_id, event_data, created_at) VALUES ";
+
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int insertAll(List<Event> events) {
+        int inserted = 0;
+        for (int from = 0; from < events.size(); from += ROWS_PER_STATEMENT) {
+            List<Event> chunk = events.subList(from, Math.min(from + ROWS_PER_STATEMENT, events.size()));
+            inserted += jdbcTemplate.update(insertStatement(chunk.size()), parameters(chunk));
+        }
+        return inserted;
+    }
+
+    private static String insertStatement(int rows) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + rows * (ROW_PLACEHOLDERS.length() + 2));
+        sql.append(INSERT_PREFIX);
+        for (int row = 0; row < rows; row++) {
+            if (row > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW_PLACEHOLDERS);
+        }
+        return sql.toString();
+    }
+
+    private static Object[] parameters(List<Event> events) {
+        List<Object> parameters = new ArrayList<>(events.size() * 5);
+        for (Event event : events) {
+            LocalDateTime createdAt = event.getCreatedAt() != null ? event.getCreatedAt() : LocalDateTime.now();
+            parameters.add(event.getEventType());
+            parameters.add(event.getEntityType());
+            parameters.add(event.getEntityId());
+            parameters.add(event.getEventData());
+            parameters.add(Timestamp.valueOf(createdAt));
+        }
+        return parameters.toArray();
+    }
+}
@@ -0,0 +1,4 @@
+package com.lukianchykov.bookingsystem.repository;
+
+public record ExpiredBooking(Long id, Long unitId) {
+}
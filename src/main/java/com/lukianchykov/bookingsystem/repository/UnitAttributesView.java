@@ -0,0 +1,18 @@
+package com.lukianchykov.bookingsystem.repository;
+
+import java.math.BigDecimal;
+
+import com.lukianchykov.bookingsystem.domain.AccommodationType;
+
+public interface UnitAttributesView {
+
+    Long getId();
+
+    Integer getNumberOfRooms();
+
+    AccommodationType getAccommodationType();
+
+    Integer getFloor();
+
+    BigDecimal getFinalCost();
+}
@@ -2,22 +2,51 @@ package com.lukianchykov.bookingsystem.repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 import com.lukianchykov.bookingsystem.domain.AccommodationType;
 import com.lukianchykov.bookingsystem.domain.Unit;
+import com.lukianchykov.bookingsystem.dto.UnitResponse;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface UnitRepository extends JpaRepository<Unit, Long> {
+public interface UnitRepository extends JpaRepository<Unit, Long>, JpaSpecificationExecutor<Unit>,
+    UnitRepositoryCustom {
 
-    @Query("""
-           SELECT u FROM Unit u
+    @Query(value = """
+           SELECT new com.lukianchykov.bookingsystem.dto.UnitResponse(
+             u.id, u.numberOfRooms, u.accommodationType, u.floor, u.baseCost, u.finalCost, u.description,
+             o.name, u.createdAt, true)
+           FROM Unit u JOIN u.owner o
+           WHERE (:numberOfRooms IS NULL OR u.numberOfRooms = :numberOfRooms)
+             AND (:accommodationType IS NULL OR u.accommodationType = :accommodationType)
+             AND (:floor IS NULL OR u.floor = :floor)
+             AND (:minCost IS NULL OR u.finalCost >= :minCost)
+             AND (:maxCost IS NULL OR u.finalCost <= :maxCost)
+             AND (
+               (CAST(:startDate AS date) IS NOT NULL AND CAST(:endDate AS date) IS NOT NULL AND 
+                 u.id NOT IN (
+                   SELECT b.unit.id FROM Booking b
+                   WHERE b.status IN ('PENDING', 'CONFIRMED')
+                     AND NOT (
+                       b.endDate < CAST(:startDate AS date) OR b.startDate > CAST(:endDate AS date)
+                     )
+                 )
+               )
+               OR (CAST(:startDate AS date) IS NULL OR CAST(:endDate AS date) IS NULL)
+             )
+           """,
+        countQuery = """
+           SELECT COUNT(u) FROM Unit u
            WHERE (:numberOfRooms IS NULL OR u.numberOfRooms = :numberOfRooms)
              AND (:accommodationType IS NULL OR u.accommodationType = :accommodationType)
              AND (:floor IS NULL OR u.floor = :floor)
@@ -36,7 +65,7 @@ public interface UnitRepository extends JpaRepository<Unit, Long> {
                OR (CAST(:startDate AS date) IS NULL OR CAST(:endDate AS date) IS NULL)
              )
            """)
-    Page<Unit> findAvailableUnits(
+    Page<UnitResponse> findAvailableUnits(
         @Param("numberOfRooms") Integer numberOfRooms,
         @Param("accommodationType") AccommodationType accommodationType,
         @Param("floor") Integer floor,
@@ -47,6 +76,58 @@ public interface UnitRepository extends JpaRepository<Unit, Long> {
         Pageable pageable
     );
 
+    @Query(value = """
+           SELECT new com.lukianchykov.bookingsystem.dto.UnitResponse(
+             u.id, u.numberOfRooms, u.accommodationType, u.floor, u.baseCost, u.finalCost, u.description,
+             o.name, u.createdAt, true)
+           FROM Unit u JOIN u.owner o
+           WHERE (:numberOfRooms IS NULL OR u.numberOfRooms = :numberOfRooms)
+             AND (:accommodationType IS NULL OR u.accommodationType = :accommodationType)
+             AND (:floor IS NULL OR u.floor = :floor)
+             AND (:minCost IS NULL OR u.finalCost >= :minCost)
+             AND (:maxCost IS NULL OR u.finalCost <= :maxCost)
+             AND u.id NOT IN :excludedUnitIds
+           """,
+        countQuery = """
+           SELECT COUNT(u) FROM Unit u
+           WHERE (:numberOfRooms IS NULL OR u.numberOfRooms = :numberOfRooms)
+             AND (:accommodationType IS NULL OR u.accommodationType = :accommodationType)
+             AND (:floor IS NULL OR u.floor = :floor)
+             AND (:minCost IS NULL OR u.finalCost >= :minCost)
+             AND (:maxCost IS NULL OR u.finalCost <= :maxCost)
+             AND u.id NOT IN :excludedUnitIds
+           """)
+    Page<UnitResponse> findUnitsExcluding(
+        @Param("numberOfRooms") Integer numberOfRooms,
+        @Param("accommodationType") AccommodationType accommodationType,
+        @Param("floor") Integer floor,
+        @Param("minCost") BigDecimal minCost,
+        @Param("maxCost") BigDecimal maxCost,
+        @Param("excludedUnitIds") Collection<Long> excludedUnitIds,
+        Pageable pageable
+    );
+
+    @Query("""
+           SELECT new com.lukianchykov.bookingsystem.dto.UnitResponse(
+             u.id, u.numberOfRooms, u.accommodationType, u.floor, u.baseCost, u.finalCost, u.description,
+             o.name, u.createdAt, true)
+           FROM Unit u JOIN u.owner o
+           WHERE u.id = :id
+           """)
+    Optional<UnitResponse> findResponseById(@Param("id") Long id);
+
+    @Query("SELECT u.id AS id, u.numberOfRooms AS numberOfRooms, u.accommodationType AS accommodationType, " +
+        "u.floor AS floor, u.finalCost AS finalCost FROM Unit u")
+    List<UnitAttributesView> findAllAttributes();
+
+    @Query("SELECT u.id AS id, u.numberOfRooms AS numberOfRooms, u.accommodationType AS accommodationType, " +
+        "u.floor AS floor, u.finalCost AS finalCost FROM Unit u WHERE u.id = :id")
+    Optional<UnitAttributesView> findAttributesById(@Param("id") Long id);
+
+    @Query("SELECT DISTINCT b.unit.id FROM Booking b WHERE b.status IN ('PENDING', 'CONFIRMED') " +
+        "AND NOT (b.endDate < :startDate OR b.startDate > :endDate)")
+    List<Long> findBookedUnitIds(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
     @Query("SELECT COUNT(DISTINCT u.id) FROM Unit u WHERE " +
         "u.id NOT IN (SELECT b.unit.id FROM Booking b WHERE b.status IN ('PENDING', 'CONFIRMED'))")
     Long countAvailableUnits();
@@ -0,0 +1,27 @@
+package com.lukianchykov.bookingsystem.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import com.lukianchykov.bookingsystem.domain.Unit;
+import com.lukianchykov.bookingsystem.dto.UnitResponse;
+
+public interface UnitRepositoryCustom {
+
+    /**
+     * Inserts new units with one JDBC batch, bypassing the persistence context. Ids come from the column default.
+     */
+    int insertAll(List<Unit> units);
+
+    /**
+     * Draws the id of a new unit import from the {@code unit_imports_id_seq} sequence.
+     */
+    long nextImportId();
+
+    /**
+     * Loads the response rows of the given units, in no particular order, with one plain JDBC query. Used for
+     * pages whose ids are already known, where a JPQL {@code IN} over a collection parameter is re-translated on
+     * every call.
+     */
+    List<UnitResponse> findResponsesByIds(Collection<Long> ids);
+}
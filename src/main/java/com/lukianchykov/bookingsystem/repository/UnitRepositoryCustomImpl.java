@@ -0,0 +1,80 @@
+package com.lukianchykov.bookingsystem.repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import com.lukianchykov.bookingsystem.domain.AccommodationType;
+import com.lukianchykov.bookingsystem.domain.Unit;
+import com.lukianchykov.bookingsystem.dto.UnitResponse;
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@RequiredArgsConstructor
+public class UnitRepositoryCustomImpl implements UnitRepositoryCustom {
+
+    private static final String INSERT_UNIT = "INSERT INTO units (number_of_rooms, accommodation_type, floor_number, "
+        + "base_cost, final_cost, description, owner_id, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SELECT_RESPONSES = "SELECT u.id, u.number_of_rooms, u.accommodation_type, "
+        + "u.floor_number, u.base_cost, u.final_cost, u.description, o.name, u.created_at "
+        + "FROM units u JOIN users o ON o.id = u.owner_id WHERE u.id IN (";
+
+    private static final String NEXT_IMPORT_ID = "SELECT nextval('unit_imports_id_seq')";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int insertAll(List<Unit> units) {
+        if (units.isEmpty()) {
+            return 0;
+        }
+        List<Object[]> rows = new ArrayList<>(units.size());
+        for (Unit unit : units) {
+            LocalDateTime createdAt = unit.getCreatedAt() != null ? unit.getCreatedAt() : LocalDateTime.now();
+            rows.add(new Object[] {
+                unit.getNumberOfRooms(),
+                unit.getAccommodationType().name(),
+                unit.getFloor(),
+                unit.getBaseCost(),
+                unit.getFinalCost(),
+                unit.getDescription(),
+                unit.getOwner().getId(),
+                Timestamp.valueOf(createdAt)
+            });
+        }
+        jdbcTemplate.batchUpdate(INSERT_UNIT, rows);
+        return units.size();
+    }
+
+    @Override
+    public long nextImportId() {
+        return jdbcTemplate.queryForObject(NEXT_IMPORT_ID, Long.class);
+    }
+
+    @Override
+    public List<UnitResponse> findResponsesByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        String sql = SELECT_RESPONSES + String.join(", ", Collections.nCopies(ids.size(), "?")) + ")";
+        return jdbcTemplate.query(sql, (resultSet, rowNumber) -> {
+            Timestamp createdAt = resultSet.getTimestamp(9);
+            return new UnitResponse(
+                resultSet.getLong(1),
+                resultSet.getInt(2),
+                AccommodationType.valueOf(resultSet.getString(3)),
+                resultSet.getInt(4),
+                resultSet.getBigDecimal(5),
+                resultSet.getBigDecimal(6),
+                resultSet.getString(7),
+                resultSet.getString(8),
+                createdAt != null ? createdAt.toLocalDateTime() : null,
+                true);
+        }, ids.toArray());
+    }
+}
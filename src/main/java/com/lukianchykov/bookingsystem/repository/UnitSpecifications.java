@@ -0,0 +1,61 @@
+package com.lukianchykov.bookingsystem.repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+import com.lukianchykov.bookingsystem.domain.Booking;
+import com.lukianchykov.bookingsystem.domain.BookingStatus;
+import com.lukianchykov.bookingsystem.domain.Unit;
+import com.lukianchykov.bookingsystem.dto.UnitSearchRequest;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+
+import org.springframework.data.jpa.domain.Specification;
+
+public final class UnitSpecifications {
+
+    private UnitSpecifications() {
+    }
+
+    public static Specification<Unit> matchingAttributes(UnitSearchRequest request) {
+        return Specification.where(equalTo("numberOfRooms", request.getNumberOfRooms()))
+            .and(equalTo("accommodationType", request.getAccommodationType()))
+            .and(equalTo("floor", request.getFloor()))
+            .and((root, query, cb) -> request.getMinCost() == null ? null
+                : cb.greaterThanOrEqualTo(root.get("finalCost"), request.getMinCost()))
+            .and((root, query, cb) -> request.getMaxCost() == null ? null
+                : cb.lessThanOrEqualTo(root.get("finalCost"), request.getMaxCost()));
+    }
+
+    public static Specification<Unit> idNotIn(Collection<Long> unitIds) {
+        return (root, query, cb) -> unitIds.isEmpty() ? null : cb.not(root.get("id").in(unitIds));
+    }
+
+    public static Specification<Unit> notBookedBetween(LocalDate startDate, LocalDate endDate) {
+        return (root, query, cb) -> {
+            Subquery<Long> booked = query.subquery(Long.class);
+            Root<Booking> booking = booked.from(Booking.class);
+            booked.select(booking.get("unit").get("id"))
+                .where(
+                    booking.get("status").in(BookingStatus.PENDING, BookingStatus.CONFIRMED),
+                    cb.not(cb.or(
+                        cb.lessThan(booking.get("endDate"), startDate),
+                        cb.greaterThan(booking.get("startDate"), endDate))));
+            return cb.not(root.get("id").in(booked));
+        };
+    }
+
+    public static Specification<Unit> fetchingOwner() {
+        return (root, query, cb) -> {
+            if (!Long.class.equals(query.getResultType()) && !long.class.equals(query.getResultType())) {
+                root.fetch("owner", JoinType.INNER);
+            }
+            return null;
+        };
+    }
+
+    private static Specification<Unit> equalTo(String attribute, Object value) {
+        return (root, query, cb) -> value == null ? null : cb.equal(root.get(attribute), value);
+    }
+}
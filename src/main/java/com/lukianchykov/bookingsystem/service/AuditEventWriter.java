@@ -0,0 +1,201 @@
+package com.lukianchykov.bookingsystem.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import com.lukianchykov.bookingsystem.domain.Event;
+import com.lukianchykov.bookingsystem.repository.EventRepository;
+import com.lukianchykov.bookingsystem.utils.MpscRingBuffer;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+/**
+ * Buffers committed audit events in a bounded ring and writes them from a single background thread in batches of
+ * up to {@code flush-size} rows, waiting at most {@code max-latency-ms} for a batch to fill. When the ring is full
+ * the backpressure policy decides: write on the caller's thread, block the caller for a while, or drop the event.
+ * Once stopped, the buffer is written out after the background thread has exited and later events are written on
+ * the caller's thread.
+ */
+@Component
+@Slf4j
+public class AuditEventWriter implements SmartLifecycle {
+
+    public enum BackpressurePolicy {
+        CALLER_RUNS,
+        BLOCK,
+        DROP
+    }
+
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final EventRepository eventRepository;
+
+    private final MpscRingBuffer<Event> buffer;
+
+    private final int flushSize;
+
+    private final long maxLatencyNanos;
+
+    private final BackpressurePolicy backpressurePolicy;
+
+    private final long blockTimeoutNanos;
+
+    private final AtomicLong droppedEvents = new AtomicLong();
+
+    private volatile boolean running;
+
+    private volatile boolean stopped;
+
+    private volatile Thread worker;
+
+    public AuditEventWriter(EventRepository eventRepository,
+        @Value("${booking.events.buffer-capacity:8192}") int bufferCapacity,
+        @Value("${booking.events.flush-size:256}") int flushSize,
+        @Value("${booking.events.max-latency-ms:200}") long maxLatencyMillis,
+        @Value("${booking.events.backpressure:caller-runs}") String backpressurePolicy,
+        @Value("${booking.events.block-timeout-ms:1000}") long blockTimeoutMillis) {
+        this.eventRepository = eventRepository;
+        this.buffer = new MpscRingBuffer<>(bufferCapacity);
+        this.flushSize = flushSize;
+        this.maxLatencyNanos = TimeUnit.MILLISECONDS.toNanos(maxLatencyMillis);
+        this.backpressurePolicy = BackpressurePolicy.valueOf(
+            backpressurePolicy.replace('-', '_').toUpperCase(Locale.ROOT));
+        this.blockTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(blockTimeoutMillis);
+    }
+
+    public void enqueue(Event event) {
+        if (stopped) {
+            write(List.of(event));
+            return;
+        }
+        if (buffer.offer(event)) {
+            if (stopped) {
+                flushIfWorkerExited();
+            } else if (buffer.size() >= flushSize) {
+                LockSupport.unpark(worker);
+            }
+            return;
+        }
+
+        switch (backpressurePolicy) {
+            case DROP -> {
+                long dropped = droppedEvents.incrementAndGet();
+                log.warn("Audit event buffer full, dropped {} {} event (total dropped: {})",
+                    event.getEntityType(), event.getEventType(), dropped);
+            }
+            case BLOCK -> {
+                if (!offerWithin(event, blockTimeoutNanos)) {
+                    log.warn("Audit event buffer still full after {} ms, writing on caller thread",
+                        TimeUnit.NANOSECONDS.toMillis(blockTimeoutNanos));
+                    write(List.of(event));
+                }
+            }
+            case CALLER_RUNS -> write(List.of(event));
+        }
+    }
+
+    public long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+
+    public int getBufferedEvents() {
+        return buffer.size();
+    }
+
+    @Override
+    public void start() {
+        stopped = false;
+        running = true;
+        Thread thread = new Thread(this::runWriter, "audit-event-writer");
+        thread.setDaemon(true);
+        worker = thread;
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        stopped = true;
+        Thread thread = worker;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(TimeUnit.NANOSECONDS.toMillis(maxLatencyNanos) + 5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (thread.isAlive()) {
+                log.warn("Audit event writer thread did not stop, leaving {} buffered events unwritten",
+                    buffer.size());
+                return;
+            }
+        }
+        flushRemaining();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Drains the buffer on the calling thread. Only safe once the background thread is not draining it.
+     */
+    synchronized void flushRemaining() {
+        List<Event> batch = new ArrayList<>(flushSize);
+        while (buffer.drainTo(batch, flushSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void flushIfWorkerExited() {
+        Thread thread = worker;
+        if (thread == null || !thread.isAlive()) {
+            flushRemaining();
+        }
+    }
+
+    private void runWriter() {
+        List<Event> batch = new ArrayList<>(flushSize);
+        while (running) {
+            buffer.drainTo(batch, flushSize);
+            if (batch.size() < flushSize) {
+                LockSupport.parkNanos(this, maxLatencyNanos);
+                buffer.drainTo(batch, flushSize - batch.size());
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private boolean offerWithin(Event event, long timeoutNanos) {
+        long deadline = System.nanoTime() + timeoutNanos;
+        LockSupport.unpark(worker);
+        while (System.nanoTime() < deadline) {
+            if (buffer.offer(event)) {
+                return true;
+            }
+            LockSupport.parkNanos(BLOCK_PARK_NANOS);
+        }
+        return buffer.offer(event);
+    }
+
+    private void write(List<Event> events) {
+        try {
+            eventRepository.insertAll(events);
+            log.debug("Wrote {} audit events", events.size());
+        } catch (RuntimeException e) {
+            log.error("Failed to write {} audit events", events.size(), e);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.lukianchykov.bookingsystem.service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.lukianchykov.bookingsystem.config.cache.CacheLease;
+import com.lukianchykov.bookingsystem.config.cache.SingleFlight;
+import com.lukianchykov.bookingsystem.utils.AvailableUnitsChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Keeps the number of available units up to date by applying the deltas carried by
+ * {@link AvailableUnitsChangedEvent} instead of recounting. With the Redis cache the shared value lives under
+ * {@link #REDIS_KEY} so every node sees the deltas of the others; the local counter is used when Redis is
+ * disabled or unreachable. Drift from missed events is corrected by a periodic recount; concurrent recounts on a
+ * node share one query and, with a {@link CacheLease}, only one node per interval runs the scheduled one.
+ */
+@Service
+@Slf4j
+public class AvailableUnitsCounter {
+
+    static final String REDIS_KEY = "stats:available-units";
+
+    private static final String RECONCILE_LEASE = "available-units-reconcile";
+
+    private static final long UNKNOWN = Long.MIN_VALUE;
+
+    private final UnitService unitService;
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final CacheLease lease;
+
+    private final BookingMetrics bookingMetrics;
+
+    private final Duration reconcileLeaseTimeToLive;
+
+    private final AtomicLong localCount = new AtomicLong(UNKNOWN);
+
+    private final SingleFlight<String, Long> recounts = new SingleFlight<>();
+
+    public AvailableUnitsCounter(UnitService unitService, ObjectProvider<StringRedisTemplate> redisTemplate,
+        ObjectProvider<CacheLease> lease, BookingMetrics bookingMetrics, @Value("${cache.type:redis}") String cacheType,
+        @Value("${booking.available-units.reconcile-interval-ms:60000}") long reconcileIntervalMillis) {
+        this.unitService = unitService;
+        this.redisTemplate = "redis".equals(cacheType) ? redisTemplate.getIfAvailable() : null;
+        this.lease = this.redisTemplate == null ? null : lease.getIfAvailable();
+        this.bookingMetrics = bookingMetrics;
+        this.reconcileLeaseTimeToLive = Duration.ofMillis(reconcileIntervalMillis / 2);
+    }
+
+    public Long getAvailableUnitsCount() {
+        if (redisTemplate != null) {
+            try {
+                String shared = redisTemplate.opsForValue().get(REDIS_KEY);
+                if (shared != null) {
+                    return Long.parseLong(shared);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Failed to read available units counter from Redis, using local value", e);
+            }
+        }
+
+        long local = localCount.get();
+        return local != UNKNOWN ? local : reconcile();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleAvailableUnitsChanged(AvailableUnitsChangedEvent event) {
+        long started = System.nanoTime();
+        long delta = event.getDelta();
+        log.debug("Applying {} for units {} from {}: {}", event.getTransition(), event.getUnitIds(),
+            event.getSource().getClass().getSimpleName(), delta);
+
+        localCount.getAndUpdate(current -> current == UNKNOWN ? UNKNOWN : current + delta);
+        if (redisTemplate != null) {
+            try {
+                if (Boolean.TRUE.equals(redisTemplate.hasKey(REDIS_KEY))) {
+                    redisTemplate.opsForValue().increment(REDIS_KEY, delta);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Failed to apply available units delta {} in Redis", delta, e);
+            }
+        }
+        bookingMetrics.recordEviction("available-units", started);
+        bookingMetrics.recordPropagation(event);
+    }
+
+    @Scheduled(initialDelayString = "${booking.available-units.reconcile-interval-ms:60000}",
+        fixedDelayString = "${booking.available-units.reconcile-interval-ms:60000}")
+    public void scheduledReconcile() {
+        if (lease != null && !lease.tryAcquire(RECONCILE_LEASE, reconcileLeaseTimeToLive)) {
+            log.debug("Another node is reconciling the available units counter");
+            return;
+        }
+        reconcile();
+    }
+
+    public Long reconcile() {
+        return recounts.execute(REDIS_KEY, this::recount);
+    }
+
+    private Long recount() {
+        long counted = unitService.countAvailableUnitsFromDatabase();
+        long previous = localCount.getAndSet(counted);
+        if (previous != UNKNOWN && previous != counted) {
+            log.info("Available units counter drifted by {}, corrected to {}", counted - previous, counted);
+        }
+
+        if (redisTemplate != null) {
+            try {
+                redisTemplate.opsForValue().set(REDIS_KEY, Long.toString(counted));
+            } catch (RuntimeException e) {
+                log.warn("Failed to store reconciled available units count in Redis", e);
+            }
+        }
+        return counted;
+    }
+}
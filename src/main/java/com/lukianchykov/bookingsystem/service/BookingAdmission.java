@@ -0,0 +1,49 @@
+package com.lukianchykov.bookingsystem.service;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.lukianchykov.bookingsystem.dto.BookingCreateRequest;
+import com.lukianchykov.bookingsystem.dto.BookingResponse;
+
+/**
+ * One booking request waiting in a unit's admission mailbox, and the future its caller holds. Rejections complete
+ * the future right away; an accepted booking is only handed out by {@link #publish()} once its batch committed.
+ */
+public final class BookingAdmission {
+
+    private final BookingCreateRequest request;
+
+    private final CompletableFuture<BookingResponse> result = new CompletableFuture<>();
+
+    private volatile BookingResponse accepted;
+
+    BookingAdmission(BookingCreateRequest request) {
+        this.request = request;
+    }
+
+    public BookingCreateRequest getRequest() {
+        return request;
+    }
+
+    CompletableFuture<BookingResponse> getResult() {
+        return result;
+    }
+
+    boolean isDone() {
+        return result.isDone();
+    }
+
+    void reject(RuntimeException reason) {
+        result.completeExceptionally(reason);
+    }
+
+    void accept(BookingResponse response) {
+        accepted = response;
+    }
+
+    void publish() {
+        if (accepted != null) {
+            result.complete(accepted);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.lukianchykov.bookingsystem.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.lukianchykov.bookingsystem.controller.exception.AdmissionOverloadedException;
+import com.lukianchykov.bookingsystem.controller.exception.BusinessLogicException;
+import com.lukianchykov.bookingsystem.dto.BookingCreateRequest;
+import com.lukianchykov.bookingsystem.dto.BookingResponse;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Admits booking requests through one single-writer mailbox per unit. A unit's writer runs on a virtual thread
+ * while its mailbox has work and takes up to {@code maxBatchSize} requests per drain cycle: conflicts are decided
+ * in memory in arrival order, losers are rejected without touching the database and the winners are committed in
+ * one transaction by {@link BookingService#createAdmitted}. If that transaction fails, e.g. because another node
+ * booked the same dates, the undecided requests of the cycle fall back to {@link BookingService#createBooking}.
+ * Requests beyond {@code mailboxCapacity} waiting for one unit are turned away as overload straight away. A mailbox
+ * is dropped once its writer has drained it, so only units with requests in flight hold one.
+ */
+@Service
+@Slf4j
+public class BookingAdmissionEngine implements DisposableBean {
+
+    private final BookingService bookingService;
+
+    private final BookingMetrics bookingMetrics;
+
+    private final int maxBatchSize;
+
+    private final int mailboxCapacity;
+
+    private final ConcurrentMap<Long, Mailbox> mailboxes = new ConcurrentHashMap<>();
+
+    private final ExecutorService writers = Executors.newVirtualThreadPerTaskExecutor();
+
+    public BookingAdmissionEngine(BookingService bookingService, BookingMetrics bookingMetrics,
+        @Value("${booking.admission.max-batch-size:256}") int maxBatchSize,
+        @Value("${booking.admission.mailbox-capacity:4096}") int mailboxCapacity) {
+        this.bookingService = bookingService;
+        this.bookingMetrics = bookingMetrics;
+        this.maxBatchSize = maxBatchSize;
+        this.mailboxCapacity = mailboxCapacity;
+    }
+
+    public CompletableFuture<BookingResponse> admit(BookingCreateRequest request) {
+        if (request.getUnitId() == null || request.getUserId() == null || request.getStartDate() == null
+            || request.getEndDate() == null) {
+            return CompletableFuture.failedFuture(
+                new BusinessLogicException("unit_id, user_id, start_date and end_date are required"));
+        }
+        BookingAdmission admission = new BookingAdmission(request);
+        boolean[] accepted = {false};
+        Mailbox mailbox = mailboxes.compute(request.getUnitId(), (unitId, current) -> {
+            Mailbox target = current == null ? new Mailbox(unitId) : current;
+            accepted[0] = target.enqueue(admission);
+            return target;
+        });
+        if (accepted[0]) {
+            mailbox.scheduleDrain();
+        } else {
+            bookingMetrics.recordOutcome(BookingMetrics.Outcome.OVERLOADED);
+            admission.reject(new AdmissionOverloadedException(request.getUnitId()));
+        }
+        return admission.getResult();
+    }
+
+    int mailboxCount() {
+        return mailboxes.size();
+    }
+
+    @Override
+    public void destroy() {
+        writers.close();
+    }
+
+    private void commit(Long unitId, List<BookingAdmission> batch) {
+        bookingMetrics.recordAdmissionBatch(batch.size());
+        try {
+            bookingService.createAdmitted(unitId, batch);
+            batch.forEach(BookingAdmission::publish);
+        } catch (RuntimeException e) {
+            log.debug("Admission batch of {} for unit {} failed, creating its bookings one by one", batch.size(),
+                unitId, e);
+            for (BookingAdmission admission : batch) {
+                if (!admission.isDone()) {
+                    createAlone(admission);
+                }
+            }
+        }
+    }
+
+    private void createAlone(BookingAdmission admission) {
+        try {
+            admission.getResult().complete(bookingService.createBooking(admission.getRequest()));
+        } catch (RuntimeException e) {
+            admission.reject(e);
+        }
+    }
+
+    private final class Mailbox {
+
+        private final Long unitId;
+
+        private final Queue<BookingAdmission> queue = new ConcurrentLinkedQueue<>();
+
+        private final AtomicInteger size = new AtomicInteger();
+
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Mailbox(Long unitId) {
+            this.unitId = unitId;
+        }
+
+        /**
+         * Called under the map's lock for the unit, so it cannot interleave with {@link #retireIfIdle}.
+         */
+        private boolean enqueue(BookingAdmission admission) {
+            if (size.incrementAndGet() > mailboxCapacity) {
+                size.decrementAndGet();
+                return false;
+            }
+            queue.add(admission);
+            return true;
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                writers.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                for (List<BookingAdmission> batch = poll(); !batch.isEmpty(); batch = poll()) {
+                    commit(unitId, batch);
+                }
+            } finally {
+                draining.set(false);
+            }
+            if (!queue.isEmpty()) {
+                scheduleDrain();
+            } else {
+                retireIfIdle();
+            }
+        }
+
+        private void retireIfIdle() {
+            mailboxes.computeIfPresent(unitId, (id, current) ->
+                current == this && queue.isEmpty() && !draining.get() ? null : current);
+        }
+
+        private List<BookingAdmission> poll() {
+            List<BookingAdmission> batch = new ArrayList<>();
+            for (BookingAdmission next; batch.size() < maxBatchSize && (next = queue.poll()) != null; ) {
+                size.decrementAndGet();
+                batch.add(next);
+            }
+            return batch;
+        }
+    }
+}
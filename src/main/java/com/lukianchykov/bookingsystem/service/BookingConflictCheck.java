@@ -0,0 +1,82 @@
+package com.lukianchykov.bookingsystem.service;
+
+import com.lukianchykov.bookingsystem.config.lock.StripedUnitLockProvider;
+import com.lukianchykov.bookingsystem.config.lock.UnitLockProvider;
+import com.lukianchykov.bookingsystem.repository.BookingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reloads a unit's committed bookings into the interval index. The index does not see bookings written, cancelled
+ * or expired by other nodes until its next rebuild, so the unit is reloaded before a new range is claimed whenever
+ * a unit lock is configured, as the lock is already held and no other booking for the unit can commit before the
+ * claim, and on databases without the {@code bookings_no_overlap} constraint, where the index is the only conflict
+ * check. Otherwise it is reloaded only to confirm a conflict the index reported.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookingConflictCheck {
+
+    private static final String OVERLAP_CONSTRAINT_QUERY =
+        "SELECT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'bookings_no_overlap')";
+
+    private final BookingRepository bookingRepository;
+
+    private final BookingIntervalIndex bookingIntervalIndex;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final UnitLockProvider unitLockProvider;
+
+    private volatile Boolean required;
+
+    public void syncUnit(Long unitId) {
+        if (isRequired()) {
+            reload(unitId);
+        }
+    }
+
+    /**
+     * Reloads the unit after the index reported a conflict, unless {@link #syncUnit} already did before the claim.
+     * Returns whether it was reloaded, i.e. whether the claim is worth another try.
+     */
+    public boolean resyncAfterConflict(Long unitId) {
+        if (isRequired()) {
+            return false;
+        }
+        reload(unitId);
+        return true;
+    }
+
+    private void reload(Long unitId) {
+        long readFrom = bookingIntervalIndex.commitSequence();
+        bookingIntervalIndex.replaceCommitted(unitId, bookingRepository.findActiveBookingRanges(unitId), readFrom);
+    }
+
+    private boolean isRequired() {
+        Boolean result = required;
+        if (result == null) {
+            boolean constrained = hasOverlapConstraint();
+            if (!constrained && (unitLockProvider == UnitLockProvider.NONE
+                || unitLockProvider instanceof StripedUnitLockProvider)) {
+                log.warn("Database has no bookings_no_overlap constraint and booking.lock.provider does not lock "
+                    + "across nodes, bookings created on different nodes may overlap");
+            }
+            result = !constrained || unitLockProvider != UnitLockProvider.NONE;
+            required = result;
+        }
+        return result;
+    }
+
+    private boolean hasOverlapConstraint() {
+        String product = jdbcTemplate.execute(
+            (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        return "PostgreSQL".equalsIgnoreCase(product)
+            && Boolean.TRUE.equals(jdbcTemplate.queryForObject(OVERLAP_CONSTRAINT_QUERY, Boolean.class));
+    }
+}
@@ -1,41 +1,104 @@
 package com.lukianchykov.bookingsystem.service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
-import com.lukianchykov.bookingsystem.domain.Booking;
-import com.lukianchykov.bookingsystem.domain.BookingStatus;
 import com.lukianchykov.bookingsystem.repository.BookingRepository;
-import jakarta.transaction.Transactional;
-import lombok.RequiredArgsConstructor;
+import com.lukianchykov.bookingsystem.repository.ExpiredBooking;
+import com.lukianchykov.bookingsystem.utils.AvailableUnitsChangedEvent;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+/**
+ * Expires pending bookings whose hold ran out with set-based updates of at most {@code chunkSize} rows, each in
+ * its own short transaction, until a chunk comes back short. Holds known to this node are expired on time by
+ * {@link BookingHoldScheduler}; the periodic sweep catches the rest, e.g. holds of a node that went down.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
-@Transactional
 public class BookingExpirationService {
 
     private final BookingRepository bookingRepository;
 
-    private final CacheService cacheService;
+    private final ApplicationEventPublisher eventPublisher;
 
-    @Scheduled(fixedRate = 60000)
+    private final BookingIntervalIndex bookingIntervalIndex;
+
+    private final EventService eventService;
+
+    private final BookingMetrics bookingMetrics;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int chunkSize;
+
+    public BookingExpirationService(BookingRepository bookingRepository, ApplicationEventPublisher eventPublisher,
+        BookingIntervalIndex bookingIntervalIndex, EventService eventService, BookingMetrics bookingMetrics,
+        PlatformTransactionManager transactionManager,
+        @Value("${booking.expiration.chunk-size:500}") int chunkSize) {
+        this.bookingRepository = bookingRepository;
+        this.eventPublisher = eventPublisher;
+        this.bookingIntervalIndex = bookingIntervalIndex;
+        this.eventService = eventService;
+        this.bookingMetrics = bookingMetrics;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(fixedRateString = "${booking.expiration.sweep-interval-ms:300000}")
     public void expireBookings() {
-        List<Booking> expiredBookings = bookingRepository.findByStatusAndExpiresAtBefore(
-            BookingStatus.PENDING, LocalDateTime.now());
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        int expired;
+        do {
+            expired = transactionTemplate.execute(status -> expireChunk(now));
+            total += expired;
+        } while (expired == chunkSize);
+
+        if (total > 0) {
+            log.info("Expired {} bookings", total);
+        }
+    }
+
+    private int expireChunk(LocalDateTime now) {
+        List<ExpiredBooking> expiredBookings = bookingRepository.expirePendingBookings(now, chunkSize);
+        if (expiredBookings.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, Long> expiredPerUnit = expiredBookings.stream()
+            .collect(Collectors.groupingBy(ExpiredBooking::unitId, Collectors.counting()));
+        List<Long> freedUnitIds = new ArrayList<>();
+        expiredPerUnit.forEach((unitId, expired) -> {
+            if (bookingIntervalIndex.activeBookingCount(unitId) <= expired) {
+                freedUnitIds.add(unitId);
+            }
+        });
 
-        for (Booking booking : expiredBookings) {
-            booking.setStatus(BookingStatus.EXPIRED);
-            bookingRepository.save(booking);
-            log.info("Expired booking with id: {}", booking.getId());
+        Map<Long, String> auditEvents = new LinkedHashMap<>();
+        for (ExpiredBooking booking : expiredBookings) {
+            bookingIntervalIndex.release(booking.unitId(), booking.id());
+            auditEvents.put(booking.id(), "Booking expired for unit " + booking.unitId());
         }
+        bookingMetrics.time(BookingMetrics.EXPIRE, BookingMetrics.EVENT_WRITE,
+            () -> eventService.createEvents("BOOKING_EXPIRED", "Booking", auditEvents));
+        bookingMetrics.recordExpirationBatch(expiredBookings.size());
 
-        if (!expiredBookings.isEmpty()) {
-            cacheService.evictAvailableUnitsCache();
+        if (!freedUnitIds.isEmpty()) {
+            eventPublisher.publishEvent(new AvailableUnitsChangedEvent(this,
+                AvailableUnitsChangedEvent.Transition.UNIT_FREED, freedUnitIds));
         }
+        log.debug("Expired chunk of {} bookings across {} units", expiredBookings.size(), expiredPerUnit.size());
+        return expiredBookings.size();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,185 @@
+package com.lukianchykov.bookingsystem.service;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.lukianchykov.bookingsystem.controller.exception.InvalidHoldDurationException;
+import com.lukianchykov.bookingsystem.repository.BookingHoldView;
+import com.lukianchykov.bookingsystem.repository.BookingRepository;
+import com.lukianchykov.bookingsystem.utils.HashedTimingWheel;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Tracks the hold deadline of every pending booking known to this node in a {@link HashedTimingWheel} and runs
+ * the expiration sweep as soon as one of them passes, so a unit is released within about one tick of
+ * {@code expiresAt} instead of on the next periodic sweep.
+ */
+@Component
+@Slf4j
+public class BookingHoldScheduler implements SmartLifecycle, MeterBinder {
+
+    private final BookingRepository bookingRepository;
+
+    private final BookingExpirationService bookingExpirationService;
+
+    private final Clock clock;
+
+    private final long tickMillis;
+
+    private final int defaultHoldMinutes;
+
+    private final int maxHoldMinutes;
+
+    private final HashedTimingWheel<Long> wheel;
+
+    private volatile ScheduledExecutorService ticker;
+
+    @Autowired
+    public BookingHoldScheduler(BookingRepository bookingRepository, BookingExpirationService bookingExpirationService,
+        @Value("${booking.hold.tick-ms:1000}") long tickMillis,
+        @Value("${booking.hold.wheel-size:4096}") int wheelSize,
+        @Value("${booking.hold.default-minutes:15}") int defaultHoldMinutes,
+        @Value("${booking.hold.max-minutes:60}") int maxHoldMinutes) {
+        this(bookingRepository, bookingExpirationService, Clock.systemDefaultZone(), tickMillis, wheelSize,
+            defaultHoldMinutes, maxHoldMinutes);
+    }
+
+    BookingHoldScheduler(BookingRepository bookingRepository, BookingExpirationService bookingExpirationService,
+        Clock clock, long tickMillis, int wheelSize, int defaultHoldMinutes, int maxHoldMinutes) {
+        this.bookingRepository = bookingRepository;
+        this.bookingExpirationService = bookingExpirationService;
+        this.clock = clock;
+        this.tickMillis = tickMillis;
+        this.defaultHoldMinutes = defaultHoldMinutes;
+        this.maxHoldMinutes = maxHoldMinutes;
+        this.wheel = new HashedTimingWheel<>(tickMillis, wheelSize, clock.millis());
+    }
+
+    /**
+     * Returns the deadline of a new hold of {@code holdMinutes}, or of the default length when none is requested.
+     */
+    public LocalDateTime holdDeadline(Integer holdMinutes) {
+        int minutes = holdMinutes == null ? defaultHoldMinutes : holdMinutes;
+        if (minutes < 1 || minutes > maxHoldMinutes) {
+            throw new InvalidHoldDurationException(minutes, maxHoldMinutes);
+        }
+        return LocalDateTime.now(clock).plusMinutes(minutes);
+    }
+
+    /**
+     * Returns {@code expiresAt} pushed back by {@code minutes}; the extended hold may not end later than the
+     * longest hold that could be started now.
+     */
+    public LocalDateTime extendedDeadline(LocalDateTime expiresAt, int minutes) {
+        LocalDateTime extended = expiresAt.plusMinutes(minutes);
+        if (minutes < 1 || extended.isAfter(LocalDateTime.now(clock).plusMinutes(maxHoldMinutes))) {
+            throw new InvalidHoldDurationException(minutes, maxHoldMinutes);
+        }
+        return extended;
+    }
+
+    public boolean isExpired(LocalDateTime expiresAt) {
+        return !expiresAt.isAfter(LocalDateTime.now(clock));
+    }
+
+    /**
+     * Sets or moves the booking's deadline once the surrounding transaction commits.
+     */
+    public void schedule(Long bookingId, LocalDateTime expiresAt) {
+        long deadlineMillis = toEpochMilli(expiresAt);
+        afterCommit(() -> wheel.schedule(bookingId, deadlineMillis));
+    }
+
+    public void cancel(Long bookingId) {
+        afterCommit(() -> wheel.cancel(bookingId));
+    }
+
+    public void rebuild() {
+        List<BookingHoldView> holds = bookingRepository.findPendingHolds();
+        for (BookingHoldView hold : holds) {
+            wheel.schedule(hold.getId(), toEpochMilli(hold.getExpiresAt()));
+        }
+        log.info("Scheduled {} pending booking holds", holds.size());
+    }
+
+    int pendingHolds() {
+        return wheel.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder(BookingMetrics.PENDING_HOLDS_GAUGE, this, BookingHoldScheduler::pendingHolds)
+            .description("Pending booking holds scheduled on this node")
+            .register(registry);
+    }
+
+    void tick() {
+        List<Long> due = wheel.advance(clock.millis());
+        if (due.isEmpty()) {
+            return;
+        }
+        log.debug("Holds of {} bookings ran out, running expiration", due.size());
+        try {
+            bookingExpirationService.expireBookings();
+        } catch (RuntimeException e) {
+            log.error("Failed to expire bookings {}, leaving them to the periodic sweep", due, e);
+        }
+    }
+
+    @Override
+    public void start() {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "booking-hold-wheel");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        ticker = executor;
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService executor = ticker;
+        ticker = null;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return ticker != null;
+    }
+
+    private static long toEpochMilli(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,429 @@
+package com.lukianchykov.bookingsystem.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.lukianchykov.bookingsystem.domain.Booking;
+import com.lukianchykov.bookingsystem.repository.BookingRangeView;
+import com.lukianchykov.bookingsystem.repository.BookingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * In-memory index of active (PENDING/CONFIRMED) booking ranges per unit.
+ * Ranges are inclusive on both ends, matching the conflict rule used by the booking queries.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookingIntervalIndex {
+
+    private final BookingRepository bookingRepository;
+
+    private final List<BookingRangeListener> rangeListeners;
+
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+
+    private final Set<Reservation> uncommitted = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong commits = new AtomicLong();
+
+    private volatile Map<Long, UnitRanges> ranges = new ConcurrentHashMap<>();
+
+    private volatile Set<Long> releasedDuringRebuild;
+
+    @Scheduled(initialDelayString = "${booking.index.refresh-interval-ms:300000}",
+        fixedDelayString = "${booking.index.refresh-interval-ms:300000}")
+    public void rebuild() {
+        releasedDuringRebuild = ConcurrentHashMap.newKeySet();
+        try {
+            List<BookingRangeView> active = bookingRepository.findActiveBookingRanges();
+
+            Map<Long, List<Reservation>> byUnit = new HashMap<>();
+            Set<Long> bookingIds = new HashSet<>();
+            for (BookingRangeView range : active) {
+                bookingIds.add(range.getId());
+                Reservation reservation = new Reservation(range.getUnitId(),
+                    range.getStartDate().toEpochDay(), range.getEndDate().toEpochDay());
+                reservation.bookingId = range.getId();
+                byUnit.computeIfAbsent(range.getUnitId(), id -> new ArrayList<>()).add(reservation);
+            }
+
+            swapLock.writeLock().lock();
+            try {
+                for (Reservation reservation : uncommitted) {
+                    if (reservation.bookingId != null && bookingIds.contains(reservation.bookingId)) {
+                        continue;
+                    }
+                    byUnit.computeIfAbsent(reservation.unitId, id -> new ArrayList<>()).add(reservation);
+                }
+                Set<Long> released = releasedDuringRebuild;
+                Map<Long, UnitRanges> rebuilt = new ConcurrentHashMap<>();
+                byUnit.forEach((unitId, reservations) -> {
+                    reservations.removeIf(reservation ->
+                        reservation.bookingId != null && released.contains(reservation.bookingId));
+                    if (!reservations.isEmpty()) {
+                        rebuilt.put(unitId, UnitRanges.of(reservations));
+                    }
+                });
+                ranges = rebuilt;
+                notifyReloaded(rebuilt);
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+            log.info("Booking interval index rebuilt with {} active ranges across {} units",
+                active.size(), byUnit.size());
+        } finally {
+            releasedDuringRebuild = null;
+        }
+    }
+
+    public boolean hasConflict(Long unitId, LocalDate startDate, LocalDate endDate) {
+        UnitRanges unitRanges = ranges.get(unitId);
+        return unitRanges != null && unitRanges.overlaps(startDate.toEpochDay(), endDate.toEpochDay());
+    }
+
+    public int activeBookingCount(Long unitId) {
+        UnitRanges unitRanges = ranges.get(unitId);
+        return unitRanges == null ? 0 : unitRanges.size();
+    }
+
+    /**
+     * Atomically checks the unit for overlapping ranges and claims the range when it is free.
+     * Returns {@code null} on conflict. A claim made inside a transaction is dropped again if that transaction
+     * does not commit.
+     */
+    public Reservation tryReserve(Long unitId, LocalDate startDate, LocalDate endDate) {
+        Reservation reservation = new Reservation(unitId, startDate.toEpochDay(), endDate.toEpochDay());
+        boolean transactional = TransactionSynchronizationManager.isSynchronizationActive();
+        if (transactional) {
+            uncommitted.add(reservation);
+        } else {
+            reservation.committedAt = commits.incrementAndGet();
+        }
+
+        boolean[] reserved = new boolean[1];
+        swapLock.readLock().lock();
+        try {
+            ranges.compute(unitId, (id, current) -> {
+                UnitRanges unitRanges = current == null ? UnitRanges.EMPTY : current;
+                if (unitRanges.overlaps(reservation.start, reservation.end)) {
+                    return current;
+                }
+                reserved[0] = true;
+                reservation.firstForUnit = unitRanges.size() == 0;
+                return notifyChanged(unitId, reservation, unitRanges.with(reservation));
+            });
+        } finally {
+            swapLock.readLock().unlock();
+        }
+
+        if (!reserved[0]) {
+            uncommitted.remove(reservation);
+            return null;
+        }
+
+        if (transactional) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        reservation.committedAt = commits.incrementAndGet();
+                    }
+                    uncommitted.remove(reservation);
+                    if (status != STATUS_COMMITTED) {
+                        remove(reservation);
+                    }
+                }
+            });
+        }
+        return reservation;
+    }
+
+    /**
+     * Drops a claim that will not become a booking.
+     */
+    public void discard(Reservation reservation) {
+        remove(reservation);
+    }
+
+    public void bind(Reservation reservation, Long bookingId) {
+        reservation.bookingId = bookingId;
+    }
+
+    /**
+     * Adds an already persisted active booking if the index does not know it yet, e.g. when it was created
+     * on another node.
+     */
+    public void register(Booking booking) {
+        Long unitId = booking.getUnit().getId();
+        Reservation reservation = new Reservation(unitId,
+            booking.getStartDate().toEpochDay(), booking.getEndDate().toEpochDay());
+        reservation.bookingId = booking.getId();
+
+        swapLock.readLock().lock();
+        try {
+            ranges.compute(unitId, (id, current) -> {
+                UnitRanges unitRanges = current == null ? UnitRanges.EMPTY : current;
+                return unitRanges.containsBooking(booking.getId())
+                    ? current : notifyChanged(unitId, reservation, unitRanges.with(reservation));
+            });
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Position of the last claim committed on this node, to be taken before reading a unit's bookings for
+     * {@link #replaceCommitted}.
+     */
+    public long commitSequence() {
+        return commits.get();
+    }
+
+    /**
+     * Replaces the unit's committed ranges with {@code active}, the unit's active bookings as read from the
+     * database, so that bookings created, cancelled or expired on other nodes since the last rebuild are seen.
+     * Claims of transactions still running on this node are kept, as are claims committed here after
+     * {@code readFrom}, a {@link #commitSequence()} taken before the read, which the read may have missed.
+     */
+    public void replaceCommitted(Long unitId, List<BookingRangeView> active, long readFrom) {
+        Set<Long> activeIds = new HashSet<>();
+        active.forEach(range -> activeIds.add(range.getId()));
+        swapLock.readLock().lock();
+        try {
+            ranges.compute(unitId, (id, current) -> {
+                UnitRanges unitRanges = current == null ? UnitRanges.EMPTY : current;
+                for (Reservation entry : unitRanges.entries) {
+                    boolean kept = uncommitted.contains(entry) || entry.committedAt > readFrom
+                        || (entry.bookingId != null && activeIds.contains(entry.bookingId));
+                    if (!kept) {
+                        unitRanges = notifyChanged(unitId, entry, unitRanges.without(entry));
+                    }
+                }
+                for (BookingRangeView range : active) {
+                    if (!unitRanges.containsBooking(range.getId())) {
+                        Reservation reservation = new Reservation(unitId,
+                            range.getStartDate().toEpochDay(), range.getEndDate().toEpochDay());
+                        reservation.bookingId = range.getId();
+                        unitRanges = notifyChanged(unitId, reservation, unitRanges.with(reservation));
+                    }
+                }
+                return unitRanges.orNull();
+            });
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Drops the booking's range once the surrounding transaction commits, or immediately when there is none.
+     */
+    public void release(Booking booking) {
+        release(booking.getUnit().getId(), booking.getId());
+    }
+
+    public void release(Long unitId, Long bookingId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    removeBooking(unitId, bookingId);
+                }
+            });
+        } else {
+            removeBooking(unitId, bookingId);
+        }
+    }
+
+    private void removeBooking(Long unitId, Long bookingId) {
+        Set<Long> released = releasedDuringRebuild;
+        if (released != null) {
+            released.add(bookingId);
+        }
+        swapLock.readLock().lock();
+        try {
+            ranges.computeIfPresent(unitId, (id, current) -> {
+                Reservation removed = current.findBooking(bookingId);
+                return removed == null ? current : notifyChanged(unitId, removed, current.without(removed)).orNull();
+            });
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    private void remove(Reservation reservation) {
+        swapLock.readLock().lock();
+        try {
+            ranges.computeIfPresent(reservation.unitId, (id, current) -> {
+                UnitRanges updated = current.without(reservation);
+                return updated == current ? current : notifyChanged(reservation.unitId, reservation, updated).orNull();
+            });
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    private UnitRanges notifyChanged(Long unitId, Reservation changed, UnitRanges updated) {
+        if (!rangeListeners.isEmpty()) {
+            BookingRange changedRange = changed.toRange();
+            List<BookingRange> active = updated.toRanges();
+            for (BookingRangeListener listener : rangeListeners) {
+                listener.onRangesChanged(unitId, changedRange, active);
+            }
+        }
+        return updated;
+    }
+
+    private void notifyReloaded(Map<Long, UnitRanges> reloaded) {
+        if (!rangeListeners.isEmpty()) {
+            Map<Long, List<BookingRange>> active = new HashMap<>();
+            reloaded.forEach((unitId, unitRanges) -> active.put(unitId, unitRanges.toRanges()));
+            for (BookingRangeListener listener : rangeListeners) {
+                listener.onRangesReloaded(active);
+            }
+        }
+    }
+
+    public static final class Reservation {
+
+        private final Long unitId;
+
+        private final long start;
+
+        private final long end;
+
+        private volatile Long bookingId;
+
+        private volatile long committedAt;
+
+        private volatile boolean firstForUnit;
+
+        Reservation(Long unitId, long start, long end) {
+            this.unitId = unitId;
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * Whether the unit had no other active range when this one was claimed, i.e. the claim takes the unit
+         * out of the available set.
+         */
+        public boolean isFirstForUnit() {
+            return firstForUnit;
+        }
+
+        private BookingRange toRange() {
+            return new BookingRange(unitId, LocalDate.ofEpochDay(start), LocalDate.ofEpochDay(end));
+        }
+    }
+
+    /**
+     * Immutable ranges of one unit sorted by start day. {@code maxEnds[i]} is the largest end among entries
+     * {@code 0..i}, so an overlap test is one binary search even if stored ranges happen to overlap each other.
+     */
+    private static final class UnitRanges {
+
+        private static final UnitRanges EMPTY = new UnitRanges(new Reservation[0]);
+
+        private final Reservation[] entries;
+
+        private final long[] maxEnds;
+
+        static UnitRanges of(List<Reservation> reservations) {
+            Reservation[] sorted = reservations.toArray(Reservation[]::new);
+            Arrays.sort(sorted, Comparator.comparingLong(reservation -> reservation.start));
+            return new UnitRanges(sorted);
+        }
+
+        private UnitRanges(Reservation[] entries) {
+            this.entries = entries;
+            this.maxEnds = new long[entries.length];
+            long max = Long.MIN_VALUE;
+            for (int i = 0; i < entries.length; i++) {
+                max = Math.max(max, entries[i].end);
+                maxEnds[i] = max;
+            }
+        }
+
+        boolean overlaps(long start, long end) {
+            int index = lastStartingAtOrBefore(end);
+            return index >= 0 && maxEnds[index] >= start;
+        }
+
+        int size() {
+            return entries.length;
+        }
+
+        boolean containsBooking(Long bookingId) {
+            return findBooking(bookingId) != null;
+        }
+
+        Reservation findBooking(Long bookingId) {
+            for (Reservation entry : entries) {
+                if (bookingId.equals(entry.bookingId)) {
+                    return entry;
+                }
+            }
+            return null;
+        }
+
+        List<BookingRange> toRanges() {
+            List<BookingRange> result = new ArrayList<>(entries.length);
+            for (Reservation entry : entries) {
+                result.add(entry.toRange());
+            }
+            return result;
+        }
+
+        UnitRanges with(Reservation reservation) {
+            int insertAt = lastStartingAtOrBefore(reservation.start) + 1;
+            Reservation[] updated = new Reservation[entries.length + 1];
+            System.arraycopy(entries, 0, updated, 0, insertAt);
+            updated[insertAt] = reservation;
+            System.arraycopy(entries, insertAt, updated, insertAt + 1, entries.length - insertAt);
+            return new UnitRanges(updated);
+        }
+
+        UnitRanges without(Reservation reservation) {
+            Reservation[] kept = Arrays.stream(entries)
+                .filter(entry -> entry != reservation)
+                .toArray(Reservation[]::new);
+            return kept.length == entries.length ? this : new UnitRanges(kept);
+        }
+
+        UnitRanges orNull() {
+            return entries.length == 0 ? null : this;
+        }
+
+        private int lastStartingAtOrBefore(long day) {
+            int low = 0;
+            int high = entries.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (entries[mid].start <= day) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return high;
+        }
+    }
+}
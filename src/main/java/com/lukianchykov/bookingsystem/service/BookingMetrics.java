@@ -0,0 +1,225 @@
+package com.lukianchykov.bookingsystem.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.lukianchykov.bookingsystem.dto.LatencyStatsResponse;
+import com.lukianchykov.bookingsystem.utils.AvailableUnitsChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Micrometer meters of the booking pipeline. Every timer publishes a percentile histogram for Prometheus and the
+ * p50/p99/p99.9 values summarised by {@link #latencySummary()}.
+ */
+@Component
+public class BookingMetrics {
+
+    public static final String PIPELINE_TIMER = "booking.pipeline";
+
+    public static final String OUTCOME_COUNTER = "booking.outcome";
+
+    public static final String EXPIRATION_BATCH = "booking.expiration.batch";
+
+    public static final String ADMISSION_BATCH = "booking.admission.batch";
+
+    public static final String CACHE_EVICTION_TIMER = "booking.cache.eviction";
+
+    public static final String AVAILABILITY_PROPAGATION_TIMER = "booking.availability.propagation";
+
+    public static final String PENDING_HOLDS_GAUGE = "booking.holds.pending";
+
+    public static final String CREATE = "create";
+
+    public static final String CANCEL = "cancel";
+
+    public static final String PAYMENT = "payment";
+
+    public static final String EXPIRE = "expire";
+
+    public static final String UNIT_LOOKUP = "unit-lookup";
+
+    public static final String USER_LOOKUP = "user-lookup";
+
+    public static final String BOOKING_LOOKUP = "booking-lookup";
+
+    public static final String LOCK_WAIT = "lock-wait";
+
+    public static final String CONFLICT_CHECK = "conflict-check";
+
+    public static final String WRITE = "write";
+
+    public static final String EVENT_WRITE = "event-write";
+
+    private static final String HTTP_SERVER_REQUESTS = "http.server.requests";
+
+    private static final double[] PERCENTILES = {0.5, 0.99, 0.999};
+
+    private final MeterRegistry registry;
+
+    private final Map<List<String>, Timer> timers = new ConcurrentHashMap<>();
+
+    private final Map<Outcome, Counter> outcomes = new ConcurrentHashMap<>();
+
+    private final DistributionSummary expirationBatches;
+
+    private final DistributionSummary admissionBatches;
+
+    public BookingMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.expirationBatches = DistributionSummary.builder(EXPIRATION_BATCH)
+            .description("Bookings expired per chunk of the expiration sweep")
+            .baseUnit("bookings")
+            .publishPercentileHistogram()
+            .register(registry);
+        this.admissionBatches = DistributionSummary.builder(ADMISSION_BATCH)
+            .description("Booking requests decided per drain cycle of a unit's admission mailbox")
+            .baseUnit("bookings")
+            .publishPercentileHistogram()
+            .register(registry);
+    }
+
+    public enum Outcome {
+        CREATED, CONFLICT, NOT_FOUND, OVERLOADED;
+
+        private String tagValue() {
+            return name().toLowerCase().replace('_', '-');
+        }
+    }
+
+    public <T> T time(String operation, String stage, Supplier<T> step) {
+        return timer(PIPELINE_TIMER, "operation", operation, "stage", stage).record(step);
+    }
+
+    public void time(String operation, String stage, Runnable step) {
+        timer(PIPELINE_TIMER, "operation", operation, "stage", stage).record(step);
+    }
+
+    public void recordOutcome(Outcome outcome) {
+        recordOutcome(outcome, 1);
+    }
+
+    public void recordOutcome(Outcome outcome, int count) {
+        outcomes.computeIfAbsent(outcome, key -> Counter.builder(OUTCOME_COUNTER)
+                .description("Booking requests by outcome")
+                .tag("outcome", key.tagValue())
+                .register(registry))
+            .increment(count);
+    }
+
+    public void recordExpirationBatch(int expired) {
+        expirationBatches.record(expired);
+    }
+
+    public void recordAdmissionBatch(int admitted) {
+        admissionBatches.record(admitted);
+    }
+
+    public void recordEviction(String cache, long startedNanos) {
+        timer(CACHE_EVICTION_TIMER, "cache", cache).record(System.nanoTime() - startedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records how long after being published an {@link AvailableUnitsChangedEvent} has been applied, which
+     * includes the commit of the transaction that published it.
+     */
+    public void recordPropagation(AvailableUnitsChangedEvent event) {
+        timer(AVAILABILITY_PROPAGATION_TIMER, "transition", event.getTransition().name().toLowerCase())
+            .record(System.nanoTime() - event.getPublishedAtNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    public LatencyStatsResponse latencySummary() {
+        LatencyStatsResponse response = new LatencyStatsResponse();
+        List<LatencyStatsResponse.TimerStats> timerStats = new ArrayList<>();
+        Map<String, Double> counters = new LinkedHashMap<>();
+        Map<String, Double> gauges = new LinkedHashMap<>();
+
+        registry.getMeters().stream()
+            .filter(meter -> isSummarised(meter.getId().getName()))
+            .sorted(Comparator.comparing(BookingMetrics::describe))
+            .forEach(meter -> {
+                if (meter instanceof Timer timer) {
+                    timerStats.add(timerStats(timer));
+                } else if (meter instanceof Counter counter) {
+                    counters.put(describe(counter), counter.count());
+                } else if (meter instanceof Gauge gauge) {
+                    gauges.put(describe(gauge), gauge.value());
+                } else if (meter instanceof DistributionSummary summary) {
+                    counters.put(describe(summary) + ".count", (double) summary.count());
+                    counters.put(describe(summary) + ".total", summary.totalAmount());
+                }
+            });
+
+        response.setTimers(timerStats);
+        response.setCounters(counters);
+        response.setGauges(gauges);
+        return response;
+    }
+
+    private Timer timer(String name, String... tags) {
+        List<String> key = new ArrayList<>(tags.length + 1);
+        key.add(name);
+        key.addAll(List.of(tags));
+        return timers.computeIfAbsent(key, ignored -> Timer.builder(name)
+            .tags(tags)
+            .publishPercentileHistogram()
+            .publishPercentiles(PERCENTILES)
+            .minimumExpectedValue(Duration.ofNanos(10_000))
+            .maximumExpectedValue(Duration.ofSeconds(30))
+            .register(registry));
+    }
+
+    private static LatencyStatsResponse.TimerStats timerStats(Timer timer) {
+        HistogramSnapshot snapshot = timer.takeSnapshot();
+        LatencyStatsResponse.TimerStats stats = new LatencyStatsResponse.TimerStats();
+        stats.setName(describe(timer));
+        stats.setCount(snapshot.count());
+        stats.setMeanMs(snapshot.mean(TimeUnit.MILLISECONDS));
+        stats.setMaxMs(snapshot.max(TimeUnit.MILLISECONDS));
+        for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+            double millis = percentile.value(TimeUnit.MILLISECONDS);
+            if (percentile.percentile() == 0.5) {
+                stats.setP50Ms(millis);
+            } else if (percentile.percentile() == 0.99) {
+                stats.setP99Ms(millis);
+            } else if (percentile.percentile() == 0.999) {
+                stats.setP999Ms(millis);
+            }
+        }
+        return stats;
+    }
+
+    private static boolean isSummarised(String name) {
+        return name.startsWith("booking.") || name.equals(HTTP_SERVER_REQUESTS);
+    }
+
+    private static String describe(Meter meter) {
+        StringBuilder description = new StringBuilder(meter.getId().getName());
+        List<Tag> tags = meter.getId().getTags();
+        if (!tags.isEmpty()) {
+            description.append('{');
+            for (int i = 0; i < tags.size(); i++) {
+                description.append(i == 0 ? "" : ",").append(tags.get(i).getKey()).append('=')
+                    .append(tags.get(i).getValue());
+            }
+            description.append('}');
+        }
+        return description.toString();
+    }
+}
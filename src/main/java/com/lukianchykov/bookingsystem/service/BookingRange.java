@@ -0,0 +1,6 @@
+package com.lukianchykov.bookingsystem.service;
+
+import java.time.LocalDate;
+
+public record BookingRange(Long unitId, LocalDate startDate, LocalDate endDate) {
+}
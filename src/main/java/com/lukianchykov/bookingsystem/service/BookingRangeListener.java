@@ -0,0 +1,15 @@
+package com.lukianchykov.bookingsystem.service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Receives the active ranges of a unit whenever {@link BookingIntervalIndex} adds or removes one of them.
+ * Callbacks run while the unit's entry is locked, so they must be fast and must not call back into the index.
+ */
+public interface BookingRangeListener {
+
+    void onRangesChanged(Long unitId, BookingRange changed, List<BookingRange> active);
+
+    void onRangesReloaded(Map<Long, List<BookingRange>> active);
+}
@@ -1,9 +1,17 @@
 package com.lukianchykov.bookingsystem.service;
 
 import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import com.lukianchykov.bookingsystem.config.lock.UnitLockProvider;
 import com.lukianchykov.bookingsystem.controller.exception.BookingNotFoundException;
 import com.lukianchykov.bookingsystem.controller.exception.InvalidBookingStatusException;
 import com.lukianchykov.bookingsystem.controller.exception.UnitNotAvailableException;
@@ -15,17 +23,21 @@ import com.lukianchykov.bookingsystem.domain.Unit;
 import com.lukianchykov.bookingsystem.domain.User;
 import com.lukianchykov.bookingsystem.dto.BookingCreateRequest;
 import com.lukianchykov.bookingsystem.dto.BookingResponse;
+import com.lukianchykov.bookingsystem.jfr.BookingOperationEvent;
 import com.lukianchykov.bookingsystem.mapper.BookingMapper;
 import com.lukianchykov.bookingsystem.repository.BookingRepository;
 import com.lukianchykov.bookingsystem.repository.UnitRepository;
 import com.lukianchykov.bookingsystem.repository.UserRepository;
 import com.lukianchykov.bookingsystem.utils.AvailableUnitsChangedEvent;
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Service
 @RequiredArgsConstructor
@@ -33,6 +45,10 @@ import org.springframework.stereotype.Service;
 @Slf4j
 public class BookingService {
 
+    private static final String EXCLUSION_VIOLATION_SQL_STATE = "23P01";
+
+    private static final String NO_OVERLAP_CONSTRAINT = "bookings_no_overlap";
+
     private final BookingRepository bookingRepository;
 
     private final UnitRepository unitRepository;
@@ -45,69 +61,285 @@ public class BookingService {
 
     private final BookingMapper bookingMapper;
 
+    private final BookingIntervalIndex bookingIntervalIndex;
+
+    private final BookingHoldScheduler bookingHoldScheduler;
+
+    private final BookingMetrics bookingMetrics;
+
+    private final UnitLockProvider unitLockProvider;
+
+    private final BookingConflictCheck bookingConflictCheck;
+
     public BookingResponse createBooking(BookingCreateRequest request) {
-        Unit unit = unitRepository.findById(request.getUnitId())
-            .orElseThrow(() -> new UnitNotFoundException(request.getUnitId()));
+        BookingOperationEvent jfrEvent = BookingOperationEvent.begin(BookingOperationEvent.CREATE,
+            request.getUnitId(), null);
+        return jfrEvent.record("created", () -> create(request, jfrEvent));
+    }
+
+    public BookingResponse cancelBooking(Long bookingId) {
+        BookingOperationEvent jfrEvent = BookingOperationEvent.begin(BookingOperationEvent.CANCEL, null, bookingId);
+        return jfrEvent.record("cancelled", () -> cancel(bookingId, jfrEvent));
+    }
+
+    private BookingResponse create(BookingCreateRequest request, BookingOperationEvent jfrEvent) {
+        Unit unit = bookingMetrics.time(BookingMetrics.CREATE, BookingMetrics.UNIT_LOOKUP,
+                () -> unitRepository.findById(request.getUnitId()))
+            .orElseThrow(() -> rejected(BookingMetrics.Outcome.NOT_FOUND,
+                new UnitNotFoundException(request.getUnitId())));
+
+        User user = bookingMetrics.time(BookingMetrics.CREATE, BookingMetrics.USER_LOOKUP,
+                () -> userRepository.findById(request.getUserId()))
+            .orElseThrow(() -> rejected(BookingMetrics.Outcome.NOT_FOUND,
+                new UserNotFoundException(request.getUserId())));
 
-        User user = userRepository.findById(request.getUserId())
-            .orElseThrow(() -> new UserNotFoundException(request.getUserId()));
+        LocalDateTime expiresAt = bookingHoldScheduler.holdDeadline(request.getHoldMinutes());
 
-        List<Booking> conflicts = bookingRepository.findConflictingBookings(
-            request.getUnitId(), request.getStartDate(), request.getEndDate());
+        bookingMetrics.time(BookingMetrics.CREATE, BookingMetrics.LOCK_WAIT,
+            () -> unitLockProvider.lock(request.getUnitId()));
+        BookingIntervalIndex.Reservation reservation = bookingMetrics.time(BookingMetrics.CREATE,
+            BookingMetrics.CONFLICT_CHECK, () -> {
+                bookingConflictCheck.syncUnit(request.getUnitId());
+                BookingIntervalIndex.Reservation claimed = bookingIntervalIndex.tryReserve(request.getUnitId(),
+                    request.getStartDate(), request.getEndDate());
+                if (claimed == null && bookingConflictCheck.resyncAfterConflict(request.getUnitId())) {
+                    claimed = bookingIntervalIndex.tryReserve(request.getUnitId(), request.getStartDate(),
+                        request.getEndDate());
+                }
+                return claimed;
+            });
 
-        if (!conflicts.isEmpty()) {
-            throw new UnitNotAvailableException();
+        if (reservation == null) {
+            throw rejected(BookingMetrics.Outcome.CONFLICT, new UnitNotAvailableException());
         }
 
         long days = ChronoUnit.DAYS.between(request.getStartDate(), request.getEndDate());
         BigDecimal totalCost = unit.getFinalCost().multiply(BigDecimal.valueOf(days));
 
-        Booking booking = Booking.builder()
+        Booking pending = Booking.builder()
             .unit(unit)
             .user(user)
             .startDate(request.getStartDate())
             .endDate(request.getEndDate())
             .totalCost(totalCost)
             .status(BookingStatus.PENDING)
+            .expiresAt(expiresAt)
             .build();
 
-        booking = bookingRepository.save(booking);
+        Booking booking;
+        try {
+            booking = bookingMetrics.time(BookingMetrics.CREATE, BookingMetrics.WRITE,
+                () -> bookingRepository.saveAndFlush(pending));
+        } catch (DataIntegrityViolationException e) {
+            if (isOverlapViolation(e)) {
+                log.debug("Booking for unit {} rejected by overlap constraint", unit.getId());
+                throw rejected(BookingMetrics.Outcome.CONFLICT, new UnitNotAvailableException());
+            }
+            throw e;
+        }
+        jfrEvent.setBookingId(booking.getId());
+        jfrEvent.addRowsWritten(1);
+        bookingIntervalIndex.bind(reservation, booking.getId());
+        bookingHoldScheduler.schedule(booking.getId(), booking.getExpiresAt());
 
-        eventService.createEvent("BOOKING_CREATED", "Booking", booking.getId(),
-            "Booking created for unit " + unit.getId());
+        bookingMetrics.time(BookingMetrics.CREATE, BookingMetrics.EVENT_WRITE,
+            () -> eventService.createEvent("BOOKING_CREATED", "Booking", booking.getId(),
+                "Booking created for unit " + unit.getId()));
+        jfrEvent.addRowsWritten(1);
+        recordCreatedOnCommit(1);
 
-        publishAvailableUnitsChangedEvent("Booking created");
+        if (reservation.isFirstForUnit()) {
+            publishAvailableUnitsChangedEvent(AvailableUnitsChangedEvent.Transition.UNIT_BOOKED, unit.getId());
+        }
 
         return bookingMapper.toResponse(booking);
     }
 
-    public BookingResponse cancelBooking(Long bookingId) {
-        Booking booking = bookingRepository.findById(bookingId)
+    /**
+     * Creates the bookings of one drain cycle of a unit's admission mailbox in a single transaction. Conflicts are
+     * decided against the interval index in arrival order before the database is read, and the losers are rejected
+     * right away; the winners are written together and handed out by the caller once the transaction committed.
+     */
+    public void createAdmitted(Long unitId, List<BookingAdmission> admissions) {
+        bookingMetrics.time(BookingMetrics.CREATE, BookingMetrics.LOCK_WAIT, () -> unitLockProvider.lock(unitId));
+        bookingMetrics.time(BookingMetrics.CREATE, BookingMetrics.CONFLICT_CHECK,
+            () -> bookingConflictCheck.syncUnit(unitId));
+        Map<BookingAdmission, BookingIntervalIndex.Reservation> winners = new LinkedHashMap<>();
+        boolean[] resynced = new boolean[1];
+        for (BookingAdmission admission : admissions) {
+            BookingCreateRequest request = admission.getRequest();
+            BookingIntervalIndex.Reservation reservation = bookingMetrics.time(BookingMetrics.CREATE,
+                BookingMetrics.CONFLICT_CHECK, () -> {
+                    BookingIntervalIndex.Reservation claimed = bookingIntervalIndex.tryReserve(unitId,
+                        request.getStartDate(), request.getEndDate());
+                    if (claimed == null && !resynced[0] && bookingConflictCheck.resyncAfterConflict(unitId)) {
+                        resynced[0] = true;
+                        claimed = bookingIntervalIndex.tryReserve(unitId, request.getStartDate(),
+                            request.getEndDate());
+                    }
+                    return claimed;
+                });
+            if (reservation == null) {
+                admission.reject(rejected(BookingMetrics.Outcome.CONFLICT, new UnitNotAvailableException()));
+            } else {
+                winners.put(admission, reservation);
+            }
+        }
+        if (winners.isEmpty()) {
+            return;
+        }
+
+        Unit unit = bookingMetrics.time(BookingMetrics.CREATE, BookingMetrics.UNIT_LOOKUP,
+                () -> unitRepository.findById(unitId))
+            .orElseThrow(() -> new UnitNotFoundException(unitId));
+        List<Long> userIds = winners.keySet().stream().map(admission -> admission.getRequest().getUserId()).toList();
+        Map<Long, User> users = bookingMetrics.time(BookingMetrics.CREATE, BookingMetrics.USER_LOOKUP,
+                () -> userRepository.findAllById(userIds)).stream()
+            .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        Map<BookingAdmission, Booking> pending = new LinkedHashMap<>();
+        winners.forEach((admission, reservation) -> {
+            BookingCreateRequest request = admission.getRequest();
+            User user = users.get(request.getUserId());
+            if (user == null) {
+                bookingIntervalIndex.discard(reservation);
+                admission.reject(rejected(BookingMetrics.Outcome.NOT_FOUND,
+                    new UserNotFoundException(request.getUserId())));
+                return;
+            }
+            long days = ChronoUnit.DAYS.between(request.getStartDate(), request.getEndDate());
+            pending.put(admission, Booking.builder()
+                .unit(unit)
+                .user(user)
+                .startDate(request.getStartDate())
+                .endDate(request.getEndDate())
+                .totalCost(unit.getFinalCost().multiply(BigDecimal.valueOf(days)))
+                .status(BookingStatus.PENDING)
+                .expiresAt(bookingHoldScheduler.holdDeadline(request.getHoldMinutes()))
+                .build());
+        });
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<Booking> bookings = bookingMetrics.time(BookingMetrics.CREATE, BookingMetrics.WRITE,
+            () -> bookingRepository.saveAllAndFlush(new ArrayList<>(pending.values())));
+        Map<Long, String> events = new LinkedHashMap<>();
+        boolean firstForUnit = false;
+        int index = 0;
+        for (BookingAdmission admission : pending.keySet()) {
+            Booking booking = bookings.get(index++);
+            BookingIntervalIndex.Reservation reservation = winners.get(admission);
+            bookingIntervalIndex.bind(reservation, booking.getId());
+            bookingHoldScheduler.schedule(booking.getId(), booking.getExpiresAt());
+            events.put(booking.getId(), "Booking created for unit " + unitId);
+            firstForUnit |= reservation.isFirstForUnit();
+            admission.accept(bookingMapper.toResponse(booking));
+        }
+        recordCreatedOnCommit(bookings.size());
+        bookingMetrics.time(BookingMetrics.CREATE, BookingMetrics.EVENT_WRITE,
+            () -> eventService.createEvents("BOOKING_CREATED", "Booking", events));
+
+        if (firstForUnit) {
+            publishAvailableUnitsChangedEvent(AvailableUnitsChangedEvent.Transition.UNIT_BOOKED, unitId);
+        }
+    }
+
+    private BookingResponse cancel(Long bookingId, BookingOperationEvent jfrEvent) {
+        Booking booking = bookingMetrics.time(BookingMetrics.CANCEL, BookingMetrics.BOOKING_LOOKUP,
+                () -> bookingRepository.findById(bookingId))
             .orElseThrow(() -> new BookingNotFoundException(bookingId));
 
         if (booking.getStatus() != BookingStatus.PENDING && booking.getStatus() != BookingStatus.CONFIRMED) {
             throw new InvalidBookingStatusException(booking.getStatus().toString(), "cancel");
         }
 
+        Long unitId = booking.getUnit().getId();
+        jfrEvent.setUnitId(unitId);
+        boolean lastActiveBooking = bookingIntervalIndex.activeBookingCount(unitId) <= 1;
+
         booking.setStatus(BookingStatus.CANCELLED);
-        booking = bookingRepository.save(booking);
+        Booking cancelled = bookingMetrics.time(BookingMetrics.CANCEL, BookingMetrics.WRITE,
+            () -> bookingRepository.save(booking));
+        bookingIntervalIndex.release(cancelled);
+        bookingHoldScheduler.cancel(cancelled.getId());
 
-        eventService.createEvent("BOOKING_CANCELLED", "Booking", booking.getId(),
-            "Booking cancelled");
+        bookingMetrics.time(BookingMetrics.CANCEL, BookingMetrics.EVENT_WRITE,
+            () -> eventService.createEvent("BOOKING_CANCELLED", "Booking", cancelled.getId(), "Booking cancelled"));
+        jfrEvent.addRowsWritten(2);
 
-        publishAvailableUnitsChangedEvent("Booking cancelled");
+        if (lastActiveBooking) {
+            publishAvailableUnitsChangedEvent(AvailableUnitsChangedEvent.Transition.UNIT_FREED, unitId);
+        }
+
+        return bookingMapper.toResponse(cancelled);
+    }
+
+    public BookingResponse extendHold(Long bookingId, int minutes) {
+        Booking booking = bookingRepository.findById(bookingId)
+            .orElseThrow(() -> new BookingNotFoundException(bookingId));
+
+        if (booking.getStatus() != BookingStatus.PENDING) {
+            throw new InvalidBookingStatusException(booking.getStatus().toString(), "extend hold of");
+        }
+        if (bookingHoldScheduler.isExpired(booking.getExpiresAt())) {
+            throw new InvalidBookingStatusException(BookingStatus.EXPIRED.toString(), "extend hold of");
+        }
+
+        booking.setExpiresAt(bookingHoldScheduler.extendedDeadline(booking.getExpiresAt(), minutes));
+        booking = bookingRepository.save(booking);
+        bookingHoldScheduler.schedule(booking.getId(), booking.getExpiresAt());
+
+        eventService.createEvent("BOOKING_HOLD_EXTENDED", "Booking", booking.getId(),
+            "Booking hold extended until " + booking.getExpiresAt());
 
         return bookingMapper.toResponse(booking);
     }
 
+    @Transactional(readOnly = true)
     public BookingResponse getBooking(Long id) {
         Booking booking = bookingRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Booking not found"));
         return bookingMapper.toResponse(booking);
     }
 
-    private void publishAvailableUnitsChangedEvent(String reason) {
-        log.debug("Publishing available units changed event from BookingService: {}", reason);
-        eventPublisher.publishEvent(new AvailableUnitsChangedEvent(this));
+    /**
+     * Counts created bookings once their transaction has committed, so that a booking rolled back after its insert,
+     * by a failed event write or commit, is not reported as created.
+     */
+    private void recordCreatedOnCommit(int created) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bookingMetrics.recordOutcome(BookingMetrics.Outcome.CREATED, created);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                bookingMetrics.recordOutcome(BookingMetrics.Outcome.CREATED, created);
+            }
+        });
+    }
+
+    private <E extends RuntimeException> E rejected(BookingMetrics.Outcome outcome, E exception) {
+        bookingMetrics.recordOutcome(outcome);
+        return exception;
+    }
+
+    private static boolean isOverlapViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException
+                && EXCLUSION_VIOLATION_SQL_STATE.equals(sqlException.getSQLState())) {
+                return true;
+            }
+            if (cause.getMessage() != null && cause.getMessage().contains(NO_OVERLAP_CONSTRAINT)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void publishAvailableUnitsChangedEvent(AvailableUnitsChangedEvent.Transition transition, Long unitId) {
+        log.debug("Publishing available units changed event from BookingService: {} {}", transition, unitId);
+        eventPublisher.publishEvent(new AvailableUnitsChangedEvent(this, transition, unitId));
     }
 }
\ No newline at end of file
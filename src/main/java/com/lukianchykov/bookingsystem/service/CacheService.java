@@ -1,36 +1,33 @@
 package com.lukianchykov.bookingsystem.service;
 
-import com.lukianchykov.bookingsystem.utils.AvailableUnitsChangedEvent;
+import com.lukianchykov.bookingsystem.jfr.CacheOperationEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
-import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class CacheService {
-    
-    private final UnitService unitService;
 
-    @Cacheable(value = "availableUnitsCount", key = "'available'")
+    private final AvailableUnitsCounter availableUnitsCounter;
+
+    private static final String AVAILABLE_UNITS = "available-units";
+
     public Long getAvailableUnitsCount() {
-        log.info("Cache miss - calculating available units count from database");
-        return unitService.countAvailableUnitsFromDatabase();
+        CacheOperationEvent jfrEvent = CacheOperationEvent.begin(AVAILABLE_UNITS, CacheOperationEvent.GET);
+        return jfrEvent.record("ok", () -> {
+            Long count = availableUnitsCounter.getAvailableUnitsCount();
+            jfrEvent.setValue(count);
+            return count;
+        });
     }
 
-    @CacheEvict(value = "availableUnitsCount", allEntries = true)
     public void evictAvailableUnitsCache() {
-        log.info("Evicting available units cache");
-    }
-
-    @EventListener
-    public void handleAvailableUnitsChanged(AvailableUnitsChangedEvent event) {
-        log.info("Available units changed event received from: {}", event.getSource().getClass().getSimpleName());
-        evictAvailableUnitsCache();
+        log.info("Recounting available units");
+        CacheOperationEvent jfrEvent = CacheOperationEvent.begin(AVAILABLE_UNITS, CacheOperationEvent.EVICT);
+        jfrEvent.record("ok", () -> jfrEvent.setValue(availableUnitsCounter.reconcile()));
     }
 
     public boolean isCacheHealthy() {
@@ -42,4 +39,4 @@ public class CacheService {
             return false;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,333 @@
+package com.lukianchykov.bookingsystem.service;
+
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.IntToLongFunction;
+
+import com.lukianchykov.bookingsystem.config.cache.CacheInvalidationBus;
+import com.lukianchykov.bookingsystem.dto.UnitSearchRequest;
+import com.lukianchykov.bookingsystem.repository.UnitRepository;
+import com.lukianchykov.bookingsystem.utils.UnitChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Answers unit searches from an in-memory {@link UnitColumns} snapshot instead of the database. The attribute
+ * filters narrow a selection bitset column by column through a {@link UnitScanKernel}, booked units are cleared
+ * from it, and the requested page is taken with a bounded heap of {@code (page + 1) * size} rows.
+ * <p>
+ * The snapshot is replaced copy-on-write on every {@link UnitChangedEvent} and reloaded from the database
+ * periodically and after bulk imports. Changed unit ids are announced on the {@link CacheInvalidationBus} when one
+ * is configured, and units announced by other nodes are read back from the database, so every node's snapshot
+ * follows writes made anywhere. Searches sorted by a property the snapshot does not hold are left to the database.
+ */
+@Component
+@Slf4j
+public class ColumnarUnitSearch {
+
+    static final String INVALIDATION_NAME = "unit-columns";
+
+    private static final Set<String> SORT_PROPERTIES = Set.of("id", "finalCost", "floor", "numberOfRooms");
+
+    private final UnitRepository unitRepository;
+
+    private final UnitScanKernel kernel;
+
+    private final boolean enabled;
+
+    private final CacheInvalidationBus invalidationBus;
+
+    private final Object rebuildLock = new Object();
+
+    private volatile UnitColumns columns;
+
+    private List<UnitChangedEvent.Change> changedDuringRebuild;
+
+    @Autowired
+    public ColumnarUnitSearch(UnitRepository unitRepository,
+        @Value("${booking.search.columnar.enabled:true}") boolean enabled,
+        @Value("${booking.search.columnar.vectorized:true}") boolean vectorized,
+        ObjectProvider<CacheInvalidationBus> invalidationBus) {
+        this(unitRepository, enabled, UnitScanKernel.preferred(vectorized), invalidationBus.getIfAvailable());
+        log.info("Columnar unit search {} with {}", enabled ? "enabled" : "disabled",
+            kernel.getClass().getSimpleName());
+    }
+
+    ColumnarUnitSearch(UnitRepository unitRepository, boolean enabled, UnitScanKernel kernel,
+        CacheInvalidationBus invalidationBus) {
+        this.unitRepository = unitRepository;
+        this.enabled = enabled;
+        this.kernel = kernel;
+        this.invalidationBus = enabled ? invalidationBus : null;
+        if (this.invalidationBus != null) {
+            this.invalidationBus.subscribe((name, key) -> {
+                if (INVALIDATION_NAME.equals(name)) {
+                    reload(key);
+                }
+            });
+        }
+    }
+
+    public boolean supports(UnitSearchRequest request) {
+        return enabled && columns != null && SORT_PROPERTIES.contains(request.getSortBy());
+    }
+
+    /**
+     * Returns the ids of the requested page and the total number of matching units that are not in
+     * {@code bookedUnitIds}, or an empty optional when the search is not {@linkplain #supports supported}.
+     */
+    public Optional<UnitSearchCache.Result> search(UnitSearchRequest request, Collection<Long> bookedUnitIds) {
+        UnitColumns current = columns;
+        if (!enabled || current == null || !SORT_PROPERTIES.contains(request.getSortBy())) {
+            return Optional.empty();
+        }
+
+        int size = current.size();
+        long[] selection = select(current, request);
+        for (Long unitId : bookedUnitIds) {
+            int row = current.rowOf(unitId);
+            if (row >= 0) {
+                UnitScanKernel.clear(selection, row);
+            }
+        }
+
+        long total = 0;
+        for (long word : selection) {
+            total += Long.bitCount(word);
+        }
+        long from = (long) request.getPage() * request.getSize();
+        if (from >= total) {
+            return Optional.of(new UnitSearchCache.Result(List.of(), total));
+        }
+        int limit = (int) Math.min(from + request.getSize(), total);
+        boolean descending = Sort.Direction.fromString(request.getSortDirection()).isDescending();
+
+        int[] rows = "id".equals(request.getSortBy())
+            ? firstRows(selection, size, limit, descending)
+            : topRows(selection, size, limit, sortKey(current, request.getSortBy()), descending);
+        List<Long> unitIds = new ArrayList<>(limit - (int) from);
+        for (int i = (int) from; i < limit; i++) {
+            unitIds.add(current.ids[rows[i]]);
+        }
+        return Optional.of(new UnitSearchCache.Result(unitIds, total));
+    }
+
+    @Scheduled(initialDelayString = "${booking.search.columnar.refresh-interval-ms:300000}",
+        fixedDelayString = "${booking.search.columnar.refresh-interval-ms:300000}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                changedDuringRebuild = new ArrayList<>();
+            }
+            UnitColumns rebuilt = null;
+            try {
+                rebuilt = UnitColumns.of(unitRepository.findAllAttributes());
+            } finally {
+                synchronized (this) {
+                    if (rebuilt != null) {
+                        for (UnitChangedEvent.Change change : changedDuringRebuild) {
+                            rebuilt = rebuilt.apply(change);
+                        }
+                        columns = rebuilt;
+                    }
+                    changedDuringRebuild = null;
+                }
+            }
+            log.info("Columnar unit snapshot rebuilt with {} units", rebuilt.size());
+        }
+    }
+
+    /**
+     * Rebuilds the snapshot and has the other nodes rebuild theirs, for writes such as bulk imports whose events
+     * carry no unit ids.
+     */
+    public void rebuildOnAllNodes() {
+        rebuild();
+        if (invalidationBus != null) {
+            invalidationBus.publish(INVALIDATION_NAME, null);
+        }
+    }
+
+    /**
+     * Applies the changes locally and announces them to the other nodes: a single unit by its id, anything larger
+     * as a full reload.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleUnitChanged(UnitChangedEvent event) {
+        List<UnitChangedEvent.Change> changes = event.getChanges().stream()
+            .filter(change -> change.unitId() != null)
+            .toList();
+        apply(changes);
+        if (invalidationBus != null && !changes.isEmpty()) {
+            invalidationBus.publish(INVALIDATION_NAME,
+                changes.size() == 1 ? changes.get(0).unitId().toString() : null);
+        }
+    }
+
+    private void reload(String unitId) {
+        if (unitId == null) {
+            rebuild();
+            return;
+        }
+        Long id = Long.valueOf(unitId);
+        UnitChangedEvent.Attributes after = unitRepository.findAttributesById(id)
+            .map(unit -> new UnitChangedEvent.Attributes(unit.getNumberOfRooms(), unit.getAccommodationType(),
+                unit.getFloor(), unit.getFinalCost()))
+            .orElse(null);
+        apply(List.of(new UnitChangedEvent.Change(id, null, after)));
+    }
+
+    private synchronized void apply(List<UnitChangedEvent.Change> changes) {
+        UnitColumns current = columns;
+        for (UnitChangedEvent.Change change : changes) {
+            if (current != null) {
+                current = current.apply(change);
+            }
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.add(change);
+            }
+        }
+        columns = current;
+    }
+
+    private long[] select(UnitColumns current, UnitSearchRequest request) {
+        int size = current.size();
+        long[] selection = new long[(size + 63) >>> 6];
+        Arrays.fill(selection, -1L);
+        if ((size & 63) != 0) {
+            selection[selection.length - 1] = (1L << size) - 1;
+        }
+
+        if (request.getNumberOfRooms() != null) {
+            kernel.retainEqual(current.rooms, request.getNumberOfRooms(), selection, size);
+        }
+        if (request.getAccommodationType() != null) {
+            kernel.retainEqual(current.typeOrdinal, (byte) request.getAccommodationType().ordinal(), selection, size);
+        }
+        if (request.getFloor() != null) {
+            kernel.retainEqual(current.floor, request.getFloor(), selection, size);
+        }
+        if (request.getMinCost() != null || request.getMaxCost() != null) {
+            long min = request.getMinCost() == null ? Long.MIN_VALUE
+                : UnitColumns.cents(request.getMinCost(), RoundingMode.CEILING);
+            long max = request.getMaxCost() == null ? Long.MAX_VALUE
+                : UnitColumns.cents(request.getMaxCost(), RoundingMode.FLOOR);
+            kernel.retainBetween(current.finalCostCents, min, max, selection, size);
+        }
+        return selection;
+    }
+
+    private static int[] firstRows(long[] selection, int size, int limit, boolean descending) {
+        int[] rows = new int[limit];
+        int found = 0;
+        for (int row = descending ? size - 1 : 0; found < limit; row += descending ? -1 : 1) {
+            if ((selection[row >>> 6] & (1L << row)) != 0) {
+                rows[found++] = row;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Keeps the {@code limit} best rows in a max-heap ordered so that the worst kept row is at the root, then sorts
+     * them. Ties on the sort key are broken by unit id.
+     */
+    private static int[] topRows(long[] selection, int size, int limit, IntToLongFunction key, boolean descending) {
+        RowOrder order = (left, right) -> {
+            int compared = Long.compare(key.applyAsLong(left), key.applyAsLong(right));
+            return compared != 0 ? (descending ? -compared : compared) : Integer.compare(left, right);
+        };
+
+        int[] heap = new int[limit];
+        int heapSize = 0;
+        for (int word = 0; word < selection.length; word++) {
+            long bits = selection[word];
+            while (bits != 0) {
+                int row = (word << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                if (heapSize < limit) {
+                    heap[heapSize] = row;
+                    siftUp(heap, heapSize++, order);
+                } else if (order.compare(row, heap[0]) < 0) {
+                    heap[0] = row;
+                    siftDown(heap, heapSize, order);
+                }
+            }
+        }
+
+        Integer[] sorted = new Integer[heapSize];
+        for (int i = 0; i < heapSize; i++) {
+            sorted[i] = heap[i];
+        }
+        Arrays.sort(sorted, order::compare);
+        int[] rows = new int[heapSize];
+        for (int i = 0; i < heapSize; i++) {
+            rows[i] = sorted[i];
+        }
+        return rows;
+    }
+
+    private static void siftUp(int[] heap, int index, RowOrder order) {
+        int row = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (order.compare(row, heap[parent]) <= 0) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = row;
+    }
+
+    private static void siftDown(int[] heap, int heapSize, RowOrder order) {
+        int row = heap[0];
+        int index = 0;
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && order.compare(heap[child + 1], heap[child]) > 0) {
+                child++;
+            }
+            if (order.compare(heap[child], row) <= 0) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = row;
+    }
+
+    private static IntToLongFunction sortKey(UnitColumns current, String sortBy) {
+        return switch (sortBy) {
+            case "finalCost" -> row -> current.finalCostCents[row];
+            case "floor" -> row -> current.floor[row];
+            case "numberOfRooms" -> row -> current.rooms[row];
+            default -> throw new IllegalArgumentException("Unsupported sort property " + sortBy);
+        };
+    }
+
+    @FunctionalInterface
+    private interface RowOrder {
+
+        int compare(int left, int right);
+    }
+}
@@ -1,6 +1,8 @@
 package com.lukianchykov.bookingsystem.service;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
 
 import com.lukianchykov.bookingsystem.domain.AccommodationType;
@@ -8,11 +10,14 @@ import com.lukianchykov.bookingsystem.domain.Unit;
 import com.lukianchykov.bookingsystem.domain.User;
 import com.lukianchykov.bookingsystem.repository.UnitRepository;
 import com.lukianchykov.bookingsystem.repository.UserRepository;
+import com.lukianchykov.bookingsystem.utils.AvailableUnitsChangedEvent;
+import com.lukianchykov.bookingsystem.utils.UnitChangedEvent;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -24,6 +29,8 @@ public class DataInitializationService implements CommandLineRunner {
 
     private final UserRepository userRepository;
 
+    private final ApplicationEventPublisher eventPublisher;
+
     @Override
     @Transactional
     public void run(String... args) {
@@ -46,6 +53,7 @@ public class DataInitializationService implements CommandLineRunner {
                 return userRepository.save(user);
             });
 
+        List<Unit> units = new ArrayList<>();
         for (int i = 0; i < 90; i++) {
             BigDecimal baseCost = BigDecimal.valueOf(50 + random.nextInt(950));
 
@@ -58,9 +66,17 @@ public class DataInitializationService implements CommandLineRunner {
                 .owner(defaultUser)
                 .build();
 
-            unitRepository.save(unit);
+            units.add(unit);
         }
+        List<Unit> saved = unitRepository.saveAll(units);
+        List<Long> unitIds = saved.stream()
+            .map(Unit::getId)
+            .toList();
 
         log.info("Successfully created 90 random units");
+        eventPublisher.publishEvent(new AvailableUnitsChangedEvent(this,
+            AvailableUnitsChangedEvent.Transition.UNIT_ADDED, unitIds));
+        eventPublisher.publishEvent(new UnitChangedEvent(this,
+            saved.stream().map(UnitChangedEvent.Change::created).toList()));
     }
 }
\ No newline at end of file
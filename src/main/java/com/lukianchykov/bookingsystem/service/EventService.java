@@ -1,27 +1,93 @@
 package com.lukianchykov.bookingsystem.service;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
 import com.lukianchykov.bookingsystem.domain.Event;
 import com.lukianchykov.bookingsystem.repository.EventRepository;
-import lombok.RequiredArgsConstructor;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+/**
+ * Records audit events. By default an event is handed to the {@link AuditEventWriter} once the surrounding
+ * transaction commits, so rolled back work leaves no trace and the business transaction does not pay for the
+ * insert. In {@code outbox} mode, and for {@link #createDurableEvent}, the event is written inside the caller's
+ * transaction instead and commits or rolls back with it.
+ */
 @Service
-@RequiredArgsConstructor
 @Transactional
 public class EventService {
 
     private final EventRepository eventRepository;
 
+    private final AuditEventWriter auditEventWriter;
+
+    private final boolean outbox;
+
+    public EventService(EventRepository eventRepository, AuditEventWriter auditEventWriter,
+        @Value("${booking.events.mode:async}") String mode) {
+        this.eventRepository = eventRepository;
+        this.auditEventWriter = auditEventWriter;
+        this.outbox = "outbox".equalsIgnoreCase(mode);
+    }
+
     public void createEvent(String eventType, String entityType, Long entityId, String eventData) {
-        Event event = Event.builder()
+        Event event = buildEvent(eventType, entityType, entityId, eventData);
+        if (outbox) {
+            eventRepository.save(event);
+        } else {
+            afterCommit(() -> auditEventWriter.enqueue(event));
+        }
+    }
+
+    /**
+     * Records one event per entry of {@code eventDataByEntityId}; in {@code outbox} mode they are written with
+     * a single batched insert.
+     */
+    public void createEvents(String eventType, String entityType, Map<Long, String> eventDataByEntityId) {
+        List<Event> events = new ArrayList<>(eventDataByEntityId.size());
+        eventDataByEntityId.forEach((entityId, eventData) ->
+            events.add(buildEvent(eventType, entityType, entityId, eventData)));
+        if (events.isEmpty()) {
+            return;
+        }
+        if (outbox) {
+            eventRepository.insertAll(events);
+        } else {
+            afterCommit(() -> events.forEach(auditEventWriter::enqueue));
+        }
+    }
+
+    public void createDurableEvent(String eventType, String entityType, Long entityId, String eventData) {
+        eventRepository.save(buildEvent(eventType, entityType, entityId, eventData));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static Event buildEvent(String eventType, String entityType, Long entityId, String eventData) {
+        return Event.builder()
             .eventType(eventType)
             .entityType(entityType)
             .entityId(entityId)
             .eventData(eventData)
+            .createdAt(LocalDateTime.now())
             .build();
-
-        eventRepository.save(event);
     }
-}
\ No newline at end of file
+}
@@ -7,13 +7,12 @@ import com.lukianchykov.bookingsystem.domain.Booking;
 import com.lukianchykov.bookingsystem.domain.BookingStatus;
 import com.lukianchykov.bookingsystem.domain.Payment;
 import com.lukianchykov.bookingsystem.dto.PaymentRequest;
+import com.lukianchykov.bookingsystem.jfr.PaymentEvent;
 import com.lukianchykov.bookingsystem.repository.BookingRepository;
 import com.lukianchykov.bookingsystem.repository.PaymentRepository;
-import com.lukianchykov.bookingsystem.utils.AvailableUnitsChangedEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
-import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,13 +26,24 @@ public class PaymentService {
 
     private final BookingRepository bookingRepository;
 
-    private final ApplicationEventPublisher eventPublisher;
-
     private final EventService eventService;
 
+    private final BookingIntervalIndex bookingIntervalIndex;
+
+    private final BookingHoldScheduler bookingHoldScheduler;
+
+    private final BookingMetrics bookingMetrics;
+
     public void processPayment(PaymentRequest request) {
-        Booking booking = bookingRepository.findById(request.getBookingId())
+        PaymentEvent jfrEvent = PaymentEvent.begin(request.getBookingId());
+        jfrEvent.record("paid", () -> pay(request, jfrEvent));
+    }
+
+    private void pay(PaymentRequest request, PaymentEvent jfrEvent) {
+        Booking booking = bookingMetrics.time(BookingMetrics.PAYMENT, BookingMetrics.BOOKING_LOOKUP,
+                () -> bookingRepository.findById(request.getBookingId()))
             .orElseThrow(() -> new BookingNotFoundException(request.getBookingId()));
+        jfrEvent.setBooking(booking);
 
         if (booking.getStatus() != BookingStatus.PENDING) {
             throw new RuntimeException("Cannot process payment for booking with status: " + booking.getStatus());
@@ -46,19 +56,18 @@ public class PaymentService {
             .transactionId(UUID.randomUUID().toString())
             .build();
 
-        paymentRepository.save(payment);
-
         booking.setStatus(BookingStatus.CONFIRMED);
-        bookingRepository.save(booking);
-
-        eventService.createEvent("PAYMENT_PROCESSED", "Payment", payment.getId(),
-            "Payment processed for booking " + booking.getId());
-
-        publishAvailableUnitsChangedEvent();
-    }
-
-    private void publishAvailableUnitsChangedEvent() {
-        log.debug("Publishing available units changed event: {}", "Payment created");
-        eventPublisher.publishEvent(new AvailableUnitsChangedEvent(this));
+        bookingMetrics.time(BookingMetrics.PAYMENT, BookingMetrics.WRITE, () -> {
+            paymentRepository.save(payment);
+            bookingRepository.save(booking);
+        });
+        jfrEvent.addRowsWritten(2);
+        bookingIntervalIndex.register(booking);
+        bookingHoldScheduler.cancel(booking.getId());
+
+        bookingMetrics.time(BookingMetrics.PAYMENT, BookingMetrics.EVENT_WRITE,
+            () -> eventService.createEvent("PAYMENT_PROCESSED", "Payment", payment.getId(),
+                "Payment processed for booking " + booking.getId()));
+        jfrEvent.addRowsWritten(1);
     }
 }
\ No newline at end of file
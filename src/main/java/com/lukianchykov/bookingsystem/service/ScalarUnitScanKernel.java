@@ -0,0 +1,31 @@
+package com.lukianchykov.bookingsystem.service;
+
+final class ScalarUnitScanKernel implements UnitScanKernel {
+
+    @Override
+    public void retainEqual(int[] column, int value, long[] selection, int size) {
+        for (int row = 0; row < size; row++) {
+            if (column[row] != value) {
+                UnitScanKernel.clear(selection, row);
+            }
+        }
+    }
+
+    @Override
+    public void retainEqual(byte[] column, byte value, long[] selection, int size) {
+        for (int row = 0; row < size; row++) {
+            if (column[row] != value) {
+                UnitScanKernel.clear(selection, row);
+            }
+        }
+    }
+
+    @Override
+    public void retainBetween(long[] column, long min, long max, long[] selection, int size) {
+        for (int row = 0; row < size; row++) {
+            if (column[row] < min || column[row] > max) {
+                UnitScanKernel.clear(selection, row);
+            }
+        }
+    }
+}
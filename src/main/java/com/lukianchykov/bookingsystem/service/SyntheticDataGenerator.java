@@ -0,0 +1,356 @@
+package com.lukianchykov.bookingsystem.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.lukianchykov.bookingsystem.domain.AccommodationType;
+import com.lukianchykov.bookingsystem.domain.BookingStatus;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+/**
+ * Bulk-loads synthetic users, units and historical bookings for load tests, before the in-memory indexes are
+ * built on startup. Every user, unit and unit booking history is derived from its own random stream seeded by
+ * {@code seed} and its index, so the data is the same for the same settings however the chunks are spread over
+ * the {@code threads} workers.
+ * <p>
+ * Owners and guests are skewed towards a few heavy users and units get an exponentially distributed share of the
+ * bookings. Booking starts follow a summer peak, weekend arrivals and growth towards the anchor date; bookings of
+ * a unit never overlap, so {@code bookings} is a target that crowded units fall short of. Rows are inserted with
+ * explicit ids by JDBC batches and the id sequences are moved past them afterwards. Generation is skipped when
+ * generated users already exist.
+ */
+@Service
+@Profile("loadgen")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class SyntheticDataGenerator implements CommandLineRunner {
+
+    static final String EMAIL_DOMAIN = "@loadgen.example";
+
+    private static final long USER_STREAM = 1;
+
+    private static final long UNIT_STREAM = 2;
+
+    private static final long BOOKING_STREAM = 3;
+
+    private static final int MAX_NIGHTS = 21;
+
+    private static final int[] ROOM_WEIGHTS = {25, 35, 25, 10, 5};
+
+    private static final String INSERT_USER = "INSERT INTO users (id, email, name, created_at) VALUES (?, ?, ?, ?)";
+
+    private static final String INSERT_UNIT = "INSERT INTO units (id, number_of_rooms, accommodation_type, "
+        + "floor_number, base_cost, final_cost, description, owner_id, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_BOOKING = "INSERT INTO bookings (id, unit_id, user_id, start_date, end_date, "
+        + "total_cost, status, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final long seed;
+
+    private final int users;
+
+    private final int units;
+
+    private final long bookings;
+
+    private final int threads;
+
+    private final int chunkSize;
+
+    private final LocalDate anchorDate;
+
+    private final LocalDate firstDay;
+
+    private final int windowDays;
+
+    public SyntheticDataGenerator(JdbcTemplate jdbcTemplate,
+        @Value("${booking.loadgen.seed:42}") long seed,
+        @Value("${booking.loadgen.users:10000}") int users,
+        @Value("${booking.loadgen.units:100000}") int units,
+        @Value("${booking.loadgen.bookings:1000000}") long bookings,
+        @Value("${booking.loadgen.threads:0}") int threads,
+        @Value("${booking.loadgen.chunk-size:5000}") int chunkSize,
+        @Value("${booking.loadgen.anchor-date:}") String anchorDate,
+        @Value("${booking.loadgen.history-days:730}") int historyDays,
+        @Value("${booking.loadgen.future-days:180}") int futureDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.seed = seed;
+        this.users = users;
+        this.units = units;
+        this.bookings = bookings;
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.chunkSize = chunkSize;
+        this.anchorDate = StringUtils.hasText(anchorDate) ? LocalDate.parse(anchorDate) : LocalDate.now();
+        this.firstDay = this.anchorDate.minusDays(historyDays);
+        this.windowDays = historyDays + futureDays;
+    }
+
+    @Override
+    public void run(String... args) throws InterruptedException {
+        Long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE email LIKE ?", Long.class,
+            "%" + EMAIL_DOMAIN);
+        if (existing != null && existing > 0) {
+            log.info("Found {} generated users, skipping synthetic data generation", existing);
+            return;
+        }
+        if (users == 0 || units == 0) {
+            return;
+        }
+        generate();
+    }
+
+    private void generate() throws InterruptedException {
+        long started = System.currentTimeMillis();
+        log.info("Generating {} users, {} units and about {} bookings with seed {} on {} threads", users, units,
+            bookings, seed, threads);
+
+        long firstUserId = nextId("users");
+        long firstUnitId = nextId("units");
+        long firstBookingId = nextId("bookings");
+
+        int unitChunks = (units + chunkSize - 1) / chunkSize;
+        long[] firstBookingOfChunk = new long[unitChunks + 1];
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        try {
+            inChunks(workers, units, (chunk, from, to) -> {
+                for (int unit = from; unit < to; unit++) {
+                    firstBookingOfChunk[chunk + 1] += planBookings(unit).size();
+                }
+            });
+            Arrays.parallelPrefix(firstBookingOfChunk, Long::sum);
+
+            inChunks(workers, users, (chunk, from, to) -> insertUsers(firstUserId, from, to));
+            log.info("Inserted {} users", users);
+            inChunks(workers, units, (chunk, from, to) -> insertUnits(firstUnitId, firstUserId, from, to));
+            log.info("Inserted {} units", units);
+            inChunks(workers, units, (chunk, from, to) -> insertBookings(firstBookingId + firstBookingOfChunk[chunk],
+                firstUnitId, firstUserId, from, to));
+            log.info("Inserted {} bookings", firstBookingOfChunk[unitChunks]);
+        } finally {
+            workers.shutdownNow();
+        }
+
+        restartSequence("users_id_seq", firstUserId + users);
+        restartSequence("units_id_seq", firstUnitId + units);
+        restartSequence("bookings_id_seq", firstBookingId + firstBookingOfChunk[unitChunks]);
+        log.info("Synthetic data generated in {} ms: users {}..{}, units {}..{}", System.currentTimeMillis() - started,
+            firstUserId, firstUserId + users - 1, firstUnitId, firstUnitId + units - 1);
+    }
+
+    private void insertUsers(long firstUserId, int from, int to) {
+        List<Object[]> rows = new ArrayList<>(to - from);
+        for (int user = from; user < to; user++) {
+            SplittableRandom random = newRandom(USER_STREAM, user);
+            long id = firstUserId + user;
+            LocalDateTime createdAt = firstDay.minusDays(random.nextInt(365)).atStartOfDay()
+                .plusSeconds(random.nextInt(86_400));
+            rows.add(new Object[] {id, "user" + id + EMAIL_DOMAIN, "Load Test User " + id,
+                Timestamp.valueOf(createdAt)});
+        }
+        jdbcTemplate.batchUpdate(INSERT_USER, rows);
+    }
+
+    private void insertUnits(long firstUnitId, long firstUserId, int from, int to) {
+        List<Object[]> rows = new ArrayList<>(to - from);
+        for (int index = from; index < to; index++) {
+            PlannedUnit unit = planUnit(index);
+            rows.add(new Object[] {firstUnitId + index, unit.numberOfRooms(), unit.accommodationType().name(),
+                unit.floor(), unit.baseCost(), unit.finalCost(), unit.description(), firstUserId + unit.ownerIndex(),
+                Timestamp.valueOf(firstDay.atStartOfDay())});
+        }
+        jdbcTemplate.batchUpdate(INSERT_UNIT, rows);
+    }
+
+    private void insertBookings(long firstBookingId, long firstUnitId, long firstUserId, int from, int to) {
+        List<Object[]> rows = new ArrayList<>(chunkSize);
+        long id = firstBookingId;
+        for (int index = from; index < to; index++) {
+            BigDecimal finalCost = planUnit(index).finalCost();
+            for (PlannedBooking booking : planBookings(index)) {
+                long nights = ChronoUnit.DAYS.between(booking.startDate(), booking.endDate());
+                rows.add(new Object[] {id++, firstUnitId + index, firstUserId + booking.userIndex(),
+                    Date.valueOf(booking.startDate()), Date.valueOf(booking.endDate()),
+                    finalCost.multiply(BigDecimal.valueOf(nights)), booking.status().name(),
+                    Timestamp.valueOf(booking.createdAt())});
+                if (rows.size() == chunkSize) {
+                    jdbcTemplate.batchUpdate(INSERT_BOOKING, rows);
+                    rows.clear();
+                }
+            }
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_BOOKING, rows);
+        }
+    }
+
+    PlannedUnit planUnit(int index) {
+        SplittableRandom random = newRandom(UNIT_STREAM, index);
+        int numberOfRooms = 1 + weighted(random, ROOM_WEIGHTS);
+        int typeRoll = random.nextInt(100);
+        AccommodationType type = typeRoll < 55 ? AccommodationType.FLAT
+            : typeRoll < 85 ? AccommodationType.APARTMENTS : AccommodationType.HOME;
+        int floor = type == AccommodationType.HOME ? random.nextInt(3)
+            : 1 + (int) (24 * Math.pow(random.nextDouble(), 2));
+        double cost = (40 + 35 * numberOfRooms) * Math.exp(0.35 * gaussian(random));
+        BigDecimal baseCost = BigDecimal.valueOf(Math.min(9_999, Math.max(20, cost))).setScale(2, RoundingMode.HALF_UP);
+        int ownerIndex = (int) (users * Math.pow(random.nextDouble(), 3));
+        return new PlannedUnit(numberOfRooms, type, floor, baseCost, UnitService.calculateFinalCost(baseCost),
+            ownerIndex, numberOfRooms + "-room " + type.name().toLowerCase() + " on floor " + floor);
+    }
+
+    /**
+     * Plans the booking history of one unit, ordered by start date and without overlaps.
+     */
+    List<PlannedBooking> planBookings(int unitIndex) {
+        SplittableRandom random = newRandom(BOOKING_STREAM, unitIndex);
+        int count = bookingCount(random);
+        int[] starts = new int[count];
+        for (int i = 0; i < count; i++) {
+            starts[i] = skewedDay(random);
+        }
+        Arrays.sort(starts);
+
+        List<PlannedBooking> planned = new ArrayList<>(count);
+        int nextFree = 0;
+        for (int start : starts) {
+            int nights = Math.min(MAX_NIGHTS, 1 + (int) (Math.log(1 - random.nextDouble()) / Math.log(0.65)));
+            int first = Math.max(start, nextFree);
+            if (first + nights >= windowDays) {
+                break;
+            }
+            nextFree = first + nights + 1;
+
+            LocalDate startDate = firstDay.plusDays(first);
+            LocalDate endDate = startDate.plusDays(nights);
+            int userIndex = (int) (users * Math.pow(random.nextDouble(), 2));
+            int statusRoll = random.nextInt(100);
+            BookingStatus status;
+            if (endDate.isBefore(anchorDate)) {
+                status = statusRoll < 85 ? BookingStatus.CONFIRMED
+                    : statusRoll < 95 ? BookingStatus.CANCELLED : BookingStatus.EXPIRED;
+            } else if (startDate.isAfter(anchorDate)) {
+                status = statusRoll < 90 ? BookingStatus.CONFIRMED : BookingStatus.CANCELLED;
+            } else {
+                status = BookingStatus.CONFIRMED;
+            }
+            int leadDays = (int) (Math.log(1 - random.nextDouble()) * -30);
+            LocalDateTime createdAt = startDate.minusDays(leadDays).atStartOfDay().plusSeconds(random.nextInt(86_400));
+            if (createdAt.isAfter(anchorDate.atStartOfDay())) {
+                createdAt = anchorDate.atStartOfDay().minusSeconds(random.nextInt(86_400));
+            }
+            planned.add(new PlannedBooking(startDate, endDate, userIndex, status, createdAt));
+        }
+        return planned;
+    }
+
+    /**
+     * Draws the number of booking attempts of a unit, exponentially distributed around the configured average.
+     */
+    private int bookingCount(SplittableRandom random) {
+        double average = (double) bookings / units;
+        double share = -Math.log(1 - random.nextDouble());
+        return (int) Math.min(windowDays / 2, Math.round(average * share));
+    }
+
+    private int skewedDay(SplittableRandom random) {
+        while (true) {
+            int day = random.nextInt(windowDays);
+            LocalDate date = firstDay.plusDays(day);
+            double season = 1 + 0.6 * Math.cos(2 * Math.PI * (date.getDayOfYear() - 196) / 365.0);
+            double weekday = date.getDayOfWeek() == DayOfWeek.FRIDAY || date.getDayOfWeek() == DayOfWeek.SATURDAY
+                ? 1.4 : 1;
+            double growth = 0.5 + 0.5 * Math.min(1, (double) day / (windowDays - 1));
+            if (random.nextDouble() * 2.24 < season * weekday * growth) {
+                return day;
+            }
+        }
+    }
+
+    private SplittableRandom newRandom(long stream, long index) {
+        long mixed = seed * 0x9E3779B97F4A7C15L + stream * 0xBF58476D1CE4E5B9L + index * 0x94D049BB133111EBL;
+        return new SplittableRandom(mixed);
+    }
+
+    private static int weighted(SplittableRandom random, int[] weights) {
+        int roll = random.nextInt(Arrays.stream(weights).sum());
+        for (int i = 0; i < weights.length; i++) {
+            roll -= weights[i];
+            if (roll < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    private static double gaussian(SplittableRandom random) {
+        double u = 1 - random.nextDouble();
+        return Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+
+    private void inChunks(ExecutorService workers, int count, ChunkTask task) throws InterruptedException {
+        List<Future<?>> futures = new ArrayList<>();
+        for (int from = 0, chunk = 0; from < count; from += chunkSize, chunk++) {
+            int start = from;
+            int end = Math.min(count, from + chunkSize);
+            int index = chunk;
+            futures.add(workers.submit(() -> task.run(index, start, end)));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                futures.forEach(pending -> pending.cancel(true));
+                throw new IllegalStateException("Synthetic data generation failed", e.getCause());
+            }
+        }
+    }
+
+    private long nextId(String table) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        return (maxId == null ? 0 : maxId) + 1;
+    }
+
+    private void restartSequence(String sequence, long firstFreeId) {
+        // Pooled id generators hand out the 50 ids below each sequence value, so skip a full block.
+        jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (firstFreeId + 50));
+    }
+
+    @FunctionalInterface
+    private interface ChunkTask {
+
+        void run(int chunk, int from, int to);
+    }
+
+    record PlannedUnit(int numberOfRooms, AccommodationType accommodationType, int floor, BigDecimal baseCost,
+                       BigDecimal finalCost, int ownerIndex, String description) {
+    }
+
+    record PlannedBooking(LocalDate startDate, LocalDate endDate, int userIndex, BookingStatus status,
+                          LocalDateTime createdAt) {
+    }
+}
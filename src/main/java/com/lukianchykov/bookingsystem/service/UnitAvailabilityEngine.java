@@ -0,0 +1,125 @@
+package com.lukianchykov.bookingsystem.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps one bitset of booked days per unit for a rolling horizon starting at the day of the last reload.
+ * Bit {@code i} of a unit's bitmap is set when day {@code baseDay + i} is held by an active booking.
+ */
+@Component
+@Slf4j
+public class UnitAvailabilityEngine implements BookingRangeListener {
+
+    private final int horizonDays;
+
+    private final int wordCount;
+
+    private volatile Snapshot snapshot;
+
+    public UnitAvailabilityEngine(@Value("${booking.availability.horizon-days:730}") int horizonDays) {
+        this.horizonDays = horizonDays;
+        this.wordCount = (horizonDays + 63) >>> 6;
+    }
+
+    /**
+     * Returns the ids of units holding at least one booked day in {@code [startDate, endDate]}, or an empty
+     * optional when the range is outside the horizon or the bitmaps have not been loaded yet.
+     */
+    public Optional<List<Long>> findBookedUnitIds(LocalDate startDate, LocalDate endDate) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return Optional.empty();
+        }
+
+        long from = startDate.toEpochDay() - current.baseDay;
+        long to = endDate.toEpochDay() - current.baseDay;
+        if (from < 0 || to >= horizonDays || from > to) {
+            return Optional.empty();
+        }
+
+        int firstWord = (int) (from >>> 6);
+        int lastWord = (int) (to >>> 6);
+        long[] mask = new long[wordCount];
+        fill(mask, from, to);
+
+        List<Long> booked = new ArrayList<>();
+        for (Map.Entry<Long, long[]> entry : current.bitmaps.entrySet()) {
+            long[] bitmap = entry.getValue();
+            long hits = 0;
+            for (int word = firstWord; word <= lastWord; word++) {
+                hits |= bitmap[word] & mask[word];
+            }
+            if (hits != 0) {
+                booked.add(entry.getKey());
+            }
+        }
+        return Optional.of(booked);
+    }
+
+    @Override
+    public void onRangesChanged(Long unitId, BookingRange changed, List<BookingRange> active) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return;
+        }
+        long[] bitmap = toBitmap(active, current.baseDay);
+        if (bitmap == null) {
+            current.bitmaps.remove(unitId);
+        } else {
+            current.bitmaps.put(unitId, bitmap);
+        }
+    }
+
+    @Override
+    public void onRangesReloaded(Map<Long, List<BookingRange>> active) {
+        long baseDay = LocalDate.now().toEpochDay();
+        Map<Long, long[]> bitmaps = new ConcurrentHashMap<>();
+        active.forEach((unitId, ranges) -> {
+            long[] bitmap = toBitmap(ranges, baseDay);
+            if (bitmap != null) {
+                bitmaps.put(unitId, bitmap);
+            }
+        });
+        snapshot = new Snapshot(baseDay, bitmaps);
+        log.debug("Availability bitmaps reloaded for {} units from {}", bitmaps.size(), LocalDate.ofEpochDay(baseDay));
+    }
+
+    private long[] toBitmap(List<BookingRange> ranges, long baseDay) {
+        long[] bitmap = null;
+        for (BookingRange range : ranges) {
+            long from = Math.max(range.startDate().toEpochDay() - baseDay, 0);
+            long to = Math.min(range.endDate().toEpochDay() - baseDay, horizonDays - 1);
+            if (from > to) {
+                continue;
+            }
+            if (bitmap == null) {
+                bitmap = new long[wordCount];
+            }
+            fill(bitmap, from, to);
+        }
+        return bitmap;
+    }
+
+    private static void fill(long[] words, long from, long to) {
+        int firstWord = (int) (from >>> 6);
+        int lastWord = (int) (to >>> 6);
+        for (int word = firstWord; word <= lastWord; word++) {
+            long low = word == firstWord ? -1L << (from & 63) : -1L;
+            long high = word == lastWord ? -1L >>> (63 - (to & 63)) : -1L;
+            words[word] |= low & high;
+        }
+    }
+
+    private record Snapshot(long baseDay, Map<Long, long[]> bitmaps) {
+    }
+}
@@ -0,0 +1,33 @@
+package com.lukianchykov.bookingsystem.service;
+
+import com.lukianchykov.bookingsystem.config.CacheConfig;
+import com.lukianchykov.bookingsystem.utils.UnitChangedEvent;
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Evicts updated and deleted units from the {@value CacheConfig#UNITS_CACHE} cache once their transaction commits.
+ * The cache passes each eviction on to the other nodes, and an evicted unit may still be served for
+ * {@code cache.stale-grace} while a single load replaces it.
+ */
+@Component
+@RequiredArgsConstructor
+public class UnitCacheEvictor {
+
+    private final CacheManager cacheManager;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleUnitChanged(UnitChangedEvent event) {
+        Cache cache = cacheManager.getCache(CacheConfig.UNITS_CACHE);
+        for (UnitChangedEvent.Change change : event.getChanges()) {
+            if (change.unitId() != null && change.before() != null) {
+                cache.evict(change.unitId());
+            }
+        }
+    }
+}
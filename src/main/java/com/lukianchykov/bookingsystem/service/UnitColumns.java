@@ -0,0 +1,132 @@
+package com.lukianchykov.bookingsystem.service;
+
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import com.lukianchykov.bookingsystem.repository.UnitAttributesView;
+import com.lukianchykov.bookingsystem.utils.UnitChangedEvent;
+
+/**
+ * Immutable column-oriented copy of the searchable unit attributes, one array per attribute and one row per unit,
+ * ordered by unit id. Changes produce a new instance.
+ */
+final class UnitColumns {
+
+    static final UnitColumns EMPTY = new UnitColumns(new long[0], new int[0], new int[0], new long[0], new byte[0]);
+
+    final long[] ids;
+
+    final int[] rooms;
+
+    final int[] floor;
+
+    final long[] finalCostCents;
+
+    final byte[] typeOrdinal;
+
+    private UnitColumns(long[] ids, int[] rooms, int[] floor, long[] finalCostCents, byte[] typeOrdinal) {
+        this.ids = ids;
+        this.rooms = rooms;
+        this.floor = floor;
+        this.finalCostCents = finalCostCents;
+        this.typeOrdinal = typeOrdinal;
+    }
+
+    static UnitColumns of(List<? extends UnitAttributesView> units) {
+        List<? extends UnitAttributesView> sorted = units.stream()
+            .sorted(Comparator.comparing(UnitAttributesView::getId))
+            .toList();
+        int size = sorted.size();
+        UnitColumns columns = new UnitColumns(new long[size], new int[size], new int[size], new long[size],
+            new byte[size]);
+        for (int row = 0; row < size; row++) {
+            UnitAttributesView unit = sorted.get(row);
+            columns.ids[row] = unit.getId();
+            columns.set(row, new UnitChangedEvent.Attributes(unit.getNumberOfRooms(), unit.getAccommodationType(),
+                unit.getFloor(), unit.getFinalCost()));
+        }
+        return columns;
+    }
+
+    int size() {
+        return ids.length;
+    }
+
+    int rowOf(long unitId) {
+        return Arrays.binarySearch(ids, unitId);
+    }
+
+    UnitColumns apply(UnitChangedEvent.Change change) {
+        int row = rowOf(change.unitId());
+        if (row >= 0 && change.after() == null) {
+            return without(row);
+        }
+        if (change.after() == null) {
+            return this;
+        }
+
+        UnitColumns changed;
+        if (row >= 0) {
+            changed = new UnitColumns(ids, rooms.clone(), floor.clone(), finalCostCents.clone(), typeOrdinal.clone());
+        } else {
+            row = -row - 1;
+            changed = withGap(row);
+            changed.ids[row] = change.unitId();
+        }
+        changed.set(row, change.after());
+        return changed;
+    }
+
+    static long cents(BigDecimal cost, RoundingMode rounding) {
+        return cost.setScale(2, rounding).unscaledValue().longValueExact();
+    }
+
+    private void set(int row, UnitChangedEvent.Attributes attributes) {
+        rooms[row] = attributes.numberOfRooms();
+        floor[row] = attributes.floor();
+        finalCostCents[row] = cents(attributes.finalCost(), RoundingMode.HALF_UP);
+        typeOrdinal[row] = (byte) attributes.accommodationType().ordinal();
+    }
+
+    private UnitColumns withGap(int row) {
+        int size = size() + 1;
+        UnitColumns copy = new UnitColumns(new long[size], new int[size], new int[size], new long[size],
+            new byte[size]);
+        copyAround(ids, copy.ids, row, 1);
+        copyAround(rooms, copy.rooms, row, 1);
+        copyAround(floor, copy.floor, row, 1);
+        copyAround(finalCostCents, copy.finalCostCents, row, 1);
+        copyAround(typeOrdinal, copy.typeOrdinal, row, 1);
+        return copy;
+    }
+
+    private UnitColumns without(int row) {
+        int size = size() - 1;
+        UnitColumns copy = new UnitColumns(new long[size], new int[size], new int[size], new long[size],
+            new byte[size]);
+        copyAround(ids, copy.ids, row, -1);
+        copyAround(rooms, copy.rooms, row, -1);
+        copyAround(floor, copy.floor, row, -1);
+        copyAround(finalCostCents, copy.finalCostCents, row, -1);
+        copyAround(typeOrdinal, copy.typeOrdinal, row, -1);
+        return copy;
+    }
+
+    /**
+     * Copies {@code source} into {@code target}, opening ({@code shift == 1}) or closing ({@code shift == -1}) a
+     * one-row gap at {@code row}.
+     */
+    private static void copyAround(Object source, Object target, int row, int shift) {
+        int sourceLength = Array.getLength(source);
+        System.arraycopy(source, 0, target, 0, row);
+        if (shift > 0) {
+            System.arraycopy(source, row, target, row + 1, sourceLength - row);
+        } else {
+            System.arraycopy(source, row + 1, target, row, sourceLength - row - 1);
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.lukianchykov.bookingsystem.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntFunction;
+
+import com.lukianchykov.bookingsystem.domain.AccommodationType;
+import com.lukianchykov.bookingsystem.dto.UnitFacetsResponse;
+import com.lukianchykov.bookingsystem.dto.UnitSearchRequest;
+import com.lukianchykov.bookingsystem.repository.UnitAttributesView;
+import com.lukianchykov.bookingsystem.repository.UnitRepository;
+import com.lukianchykov.bookingsystem.utils.UnitChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Inverted index over unit attributes: one compressed bitmap of unit ids per accommodation type, number of rooms,
+ * floor and price bucket. Facet counts for a search are the cardinalities of each value bitmap intersected with
+ * the bitmap of units matching the search filters and free for its dates.
+ * <p>
+ * The index follows {@link UnitChangedEvent}s after commit and is reloaded from the database periodically and
+ * after bulk imports, whose units carry no id in their events. Changes that arrive while a reload is reading the
+ * database are applied again on top of the reloaded index.
+ */
+@Component
+@Slf4j
+public class UnitFacetIndex {
+
+    private static final RoaringBitmap EMPTY = new RoaringBitmap();
+
+    private final UnitRepository unitRepository;
+
+    private final int floorBandSize;
+
+    private final BigDecimal priceBucketSize;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private State state = new State();
+
+    private List<UnitChangedEvent.Change> changedDuringRebuild;
+
+    public UnitFacetIndex(UnitRepository unitRepository,
+        @Value("${booking.facets.floor-band-size:5}") int floorBandSize,
+        @Value("${booking.facets.price-bucket-size:50}") BigDecimal priceBucketSize) {
+        this.unitRepository = unitRepository;
+        this.floorBandSize = floorBandSize;
+        this.priceBucketSize = priceBucketSize;
+    }
+
+    @Scheduled(initialDelayString = "${booking.facets.refresh-interval-ms:300000}",
+        fixedDelayString = "${booking.facets.refresh-interval-ms:300000}")
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        State rebuilt = new State();
+        boolean loaded = false;
+        try {
+            for (UnitAttributesView unit : unitRepository.findAllAttributes()) {
+                rebuilt.add(toIndex(unit.getId()), new UnitChangedEvent.Attributes(unit.getNumberOfRooms(),
+                    unit.getAccommodationType(), unit.getFloor(), unit.getFinalCost()));
+            }
+            loaded = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (loaded) {
+                    changedDuringRebuild.forEach(rebuilt::apply);
+                    state = rebuilt;
+                }
+                changedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        log.info("Unit facet index rebuilt with {} units", rebuilt.attributes.size());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleUnitChanged(UnitChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            for (UnitChangedEvent.Change change : event.getChanges()) {
+                if (change.unitId() == null) {
+                    continue;
+                }
+                state.apply(change);
+                if (changedDuringRebuild != null) {
+                    changedDuringRebuild.add(change);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Counts every facet over the units matching the attribute filters of {@code request} that are not in
+     * {@code bookedUnitIds}.
+     */
+    public UnitFacetsResponse count(UnitSearchRequest request, Collection<Long> bookedUnitIds) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap matching = matching(state, request);
+            if (!bookedUnitIds.isEmpty()) {
+                RoaringBitmap booked = new RoaringBitmap();
+                bookedUnitIds.forEach(unitId -> booked.add(toIndex(unitId)));
+                matching.andNot(booked);
+            }
+
+            Map<Integer, Long> floorBands = new TreeMap<>();
+            state.byFloor.forEach((floor, units) -> floorBands.merge(Math.floorDiv(floor, floorBandSize),
+                (long) RoaringBitmap.andCardinality(matching, units), Long::sum));
+
+            return UnitFacetsResponse.builder()
+                .total(matching.getLongCardinality())
+                .accommodationTypes(counts(state.byType, matching))
+                .numberOfRooms(counts(state.byRooms, matching))
+                .floorBands(labelled(floorBands, this::floorBandLabel))
+                .priceBuckets(labelled(counts(state.byPriceBucket, matching), this::priceBucketLabel))
+                .build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private RoaringBitmap matching(State current, UnitSearchRequest request) {
+        RoaringBitmap matching = current.all.clone();
+        if (request.getAccommodationType() != null) {
+            matching.and(current.byType.getOrDefault(request.getAccommodationType(), EMPTY));
+        }
+        if (request.getNumberOfRooms() != null) {
+            matching.and(current.byRooms.getOrDefault(request.getNumberOfRooms(), EMPTY));
+        }
+        if (request.getFloor() != null) {
+            matching.and(current.byFloor.getOrDefault(request.getFloor(), EMPTY));
+        }
+        if (request.getMinCost() != null || request.getMaxCost() != null) {
+            matching.and(costRange(current, request.getMinCost(), request.getMaxCost()));
+        }
+        return matching;
+    }
+
+    private RoaringBitmap costRange(State current, BigDecimal minCost, BigDecimal maxCost) {
+        RoaringBitmap inRange = new RoaringBitmap();
+        current.byPriceBucket.forEach((bucket, units) -> {
+            BigDecimal low = priceBucketSize.multiply(BigDecimal.valueOf(bucket));
+            BigDecimal high = low.add(priceBucketSize);
+            if ((minCost != null && high.compareTo(minCost) <= 0)
+                || (maxCost != null && low.compareTo(maxCost) > 0)) {
+                return;
+            }
+            if ((minCost == null || low.compareTo(minCost) >= 0)
+                && (maxCost == null || high.compareTo(maxCost) <= 0)) {
+                inRange.or(units);
+                return;
+            }
+            units.forEach((int unit) -> {
+                BigDecimal finalCost = current.attributes.get(unit).finalCost();
+                if ((minCost == null || finalCost.compareTo(minCost) >= 0)
+                    && (maxCost == null || finalCost.compareTo(maxCost) <= 0)) {
+                    inRange.add(unit);
+                }
+            });
+        });
+        return inRange;
+    }
+
+    private static <K> Map<K, Long> counts(Map<K, RoaringBitmap> index, RoaringBitmap matching) {
+        Map<K, Long> counts = new LinkedHashMap<>();
+        index.forEach((value, units) -> counts.put(value, (long) RoaringBitmap.andCardinality(matching, units)));
+        return counts;
+    }
+
+    private static Map<String, Long> labelled(Map<Integer, Long> counts,
+        IntFunction<String> label) {
+        Map<String, Long> labelled = new LinkedHashMap<>();
+        counts.forEach((key, count) -> labelled.put(label.apply(key), count));
+        return labelled;
+    }
+
+    private String floorBandLabel(int band) {
+        int low = band * floorBandSize;
+        return low + "-" + (low + floorBandSize - 1);
+    }
+
+    private String priceBucketLabel(int bucket) {
+        BigDecimal low = priceBucketSize.multiply(BigDecimal.valueOf(bucket));
+        return low.toPlainString() + "-" + low.add(priceBucketSize).toPlainString();
+    }
+
+    private int priceBucket(BigDecimal finalCost) {
+        return finalCost.divide(priceBucketSize, 0, RoundingMode.FLOOR).intValueExact();
+    }
+
+    private static <K> void removeFrom(Map<K, RoaringBitmap> index, K value, int unit) {
+        RoaringBitmap units = index.get(value);
+        units.remove(unit);
+        if (units.isEmpty()) {
+            index.remove(value);
+        }
+    }
+
+    private static int toIndex(Long unitId) {
+        return Math.toIntExact(unitId);
+    }
+
+    private final class State {
+
+        private final RoaringBitmap all = new RoaringBitmap();
+
+        private final Map<AccommodationType, RoaringBitmap> byType = new EnumMap<>(AccommodationType.class);
+
+        private final Map<Integer, RoaringBitmap> byRooms = new TreeMap<>();
+
+        private final Map<Integer, RoaringBitmap> byFloor = new TreeMap<>();
+
+        private final Map<Integer, RoaringBitmap> byPriceBucket = new TreeMap<>();
+
+        private final Map<Integer, UnitChangedEvent.Attributes> attributes = new HashMap<>();
+
+        private void apply(UnitChangedEvent.Change change) {
+            int unit = toIndex(change.unitId());
+            remove(unit);
+            if (change.after() != null) {
+                add(unit, change.after());
+            }
+        }
+
+        private void add(int unit, UnitChangedEvent.Attributes unitAttributes) {
+            attributes.put(unit, unitAttributes);
+            all.add(unit);
+            byType.computeIfAbsent(unitAttributes.accommodationType(), value -> new RoaringBitmap()).add(unit);
+            byRooms.computeIfAbsent(unitAttributes.numberOfRooms(), value -> new RoaringBitmap()).add(unit);
+            byFloor.computeIfAbsent(unitAttributes.floor(), value -> new RoaringBitmap()).add(unit);
+            byPriceBucket.computeIfAbsent(priceBucket(unitAttributes.finalCost()), value -> new RoaringBitmap())
+                .add(unit);
+        }
+
+        private void remove(int unit) {
+            UnitChangedEvent.Attributes previous = attributes.remove(unit);
+            if (previous == null) {
+                return;
+            }
+            all.remove(unit);
+            removeFrom(byType, previous.accommodationType(), unit);
+            removeFrom(byRooms, previous.numberOfRooms(), unit);
+            removeFrom(byFloor, previous.floor(), unit);
+            removeFrom(byPriceBucket, priceBucket(previous.finalCost()), unit);
+        }
+    }
+}
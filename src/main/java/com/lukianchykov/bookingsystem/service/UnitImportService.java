@@ -0,0 +1,300 @@
+package com.lukianchykov.bookingsystem.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lukianchykov.bookingsystem.controller.exception.InvalidImportFormatException;
+import com.lukianchykov.bookingsystem.controller.exception.UserNotFoundException;
+import com.lukianchykov.bookingsystem.domain.Unit;
+import com.lukianchykov.bookingsystem.domain.User;
+import com.lukianchykov.bookingsystem.dto.UnitCreateRequest;
+import com.lukianchykov.bookingsystem.dto.UnitImportResponse;
+import com.lukianchykov.bookingsystem.dto.UnitImportRowError;
+import com.lukianchykov.bookingsystem.repository.UnitRepository;
+import com.lukianchykov.bookingsystem.repository.UserRepository;
+import com.lukianchykov.bookingsystem.utils.CsvLineParser;
+import com.lukianchykov.bookingsystem.utils.UnitChangedEvent;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Imports units from an NDJSON or CSV stream. Rows are read one at a time, validated against the
+ * {@link UnitCreateRequest} constraints and inserted in chunks of {@code chunkSize}, each chunk with one JDBC batch
+ * in its own transaction. Owners are looked up once per import. Rejected rows are reported by line number; the
+ * import as a whole records one audit event, one available-units recount and one reload of the facet index and
+ * the columnar search snapshot.
+ */
+@Service
+@Slf4j
+public class UnitImportService {
+
+    public enum Format {
+        NDJSON,
+        CSV
+    }
+
+    private static final Set<String> CSV_COLUMNS = Set.of(
+        "number_of_rooms", "accommodation_type", "floor", "base_cost", "description", "owner_id");
+
+    private final UnitRepository unitRepository;
+
+    private final UserRepository userRepository;
+
+    private final EventService eventService;
+
+    private final AvailableUnitsCounter availableUnitsCounter;
+
+    private final UnitFacetIndex unitFacetIndex;
+
+    private final ColumnarUnitSearch columnarUnitSearch;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Validator validator;
+
+    private final ObjectMapper objectMapper;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int chunkSize;
+
+    private final int maxReportedErrors;
+
+    public UnitImportService(UnitRepository unitRepository, UserRepository userRepository, EventService eventService,
+        AvailableUnitsCounter availableUnitsCounter, UnitFacetIndex unitFacetIndex,
+        ColumnarUnitSearch columnarUnitSearch, ApplicationEventPublisher eventPublisher, Validator validator,
+        ObjectMapper objectMapper,
+        PlatformTransactionManager transactionManager,
+        @Value("${booking.units.import.chunk-size:1000}") int chunkSize,
+        @Value("${booking.units.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.unitRepository = unitRepository;
+        this.userRepository = userRepository;
+        this.eventService = eventService;
+        this.availableUnitsCounter = availableUnitsCounter;
+        this.unitFacetIndex = unitFacetIndex;
+        this.columnarUnitSearch = columnarUnitSearch;
+        this.eventPublisher = eventPublisher;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public UnitImportResponse importUnits(InputStream body, Format format) {
+        ImportRun run = new ImportRun(unitRepository.nextImportId());
+        boolean completed = false;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            List<String> header = null;
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == Format.CSV && header == null) {
+                    header = parseHeader(line);
+                    continue;
+                }
+                UnitCreateRequest request = parseRow(run, lineNumber, line, format, header);
+                if (request != null) {
+                    run.pending.put(lineNumber, request);
+                    if (run.pending.size() >= chunkSize) {
+                        flush(run);
+                    }
+                }
+            }
+            if (!run.pending.isEmpty()) {
+                flush(run);
+            }
+            completed = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read unit import", e);
+        } finally {
+            finish(run, completed);
+        }
+
+        return UnitImportResponse.builder()
+            .importId(run.importId)
+            .imported(run.imported)
+            .rejected(run.rejected)
+            .errorsTruncated(run.rejected > run.errors.size())
+            .errors(run.errors)
+            .build();
+    }
+
+    private UnitCreateRequest parseRow(ImportRun run, long lineNumber, String line, Format format,
+        List<String> header) {
+        UnitCreateRequest request;
+        try {
+            request = format == Format.NDJSON
+                ? objectMapper.readValue(line, UnitCreateRequest.class)
+                : objectMapper.convertValue(csvRecord(header, line), UnitCreateRequest.class);
+        } catch (JsonProcessingException e) {
+            run.reject(lineNumber, "Malformed row: " + e.getOriginalMessage());
+            return null;
+        } catch (IllegalArgumentException e) {
+            run.reject(lineNumber, "Malformed row: " + e.getMessage());
+            return null;
+        }
+
+        Set<ConstraintViolation<UnitCreateRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            run.reject(lineNumber, violations.stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; ")));
+            return null;
+        }
+        return request;
+    }
+
+    private static List<String> parseHeader(String line) {
+        List<String> header = CsvLineParser.parse(line);
+        if (!CSV_COLUMNS.containsAll(header) || !new HashSet<>(header).containsAll(CSV_COLUMNS)) {
+            throw new InvalidImportFormatException("CSV header must name the columns " + CSV_COLUMNS);
+        }
+        return header;
+    }
+
+    private static Map<String, String> csvRecord(List<String> header, String line) {
+        List<String> fields = CsvLineParser.parse(line);
+        if (fields.size() != header.size()) {
+            throw new IllegalArgumentException("expected " + header.size() + " fields but found " + fields.size());
+        }
+        Map<String, String> record = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String value = fields.get(i);
+            record.put(header.get(i), value.isEmpty() ? null : value);
+        }
+        return record;
+    }
+
+    private void flush(ImportRun run) {
+        Set<Long> unknownOwners = run.pending.values().stream()
+            .map(UnitCreateRequest::getOwnerId)
+            .filter(ownerId -> !run.owners.containsKey(ownerId))
+            .collect(Collectors.toSet());
+        if (!unknownOwners.isEmpty()) {
+            Set<Long> existing = new HashSet<>(userRepository.findExistingIds(unknownOwners));
+            unknownOwners.forEach(ownerId -> run.owners.put(ownerId, existing.contains(ownerId)));
+        }
+
+        List<Long> lines = new ArrayList<>(run.pending.size());
+        List<Unit> units = new ArrayList<>(run.pending.size());
+        LocalDateTime now = LocalDateTime.now();
+        run.pending.forEach((lineNumber, request) -> {
+            if (!run.owners.get(request.getOwnerId())) {
+                run.reject(lineNumber, new UserNotFoundException(request.getOwnerId()).getMessage());
+                return;
+            }
+            lines.add(lineNumber);
+            units.add(toUnit(request, now));
+        });
+        run.pending.clear();
+
+        if (units.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> unitRepository.insertAll(units));
+            run.imported += units.size();
+            eventPublisher.publishEvent(new UnitChangedEvent(this,
+                units.stream().map(UnitChangedEvent.Change::created).toList()));
+        } catch (DataAccessException e) {
+            log.warn("Import {} failed to insert a chunk of {} units", run.importId, units.size(), e);
+            lines.forEach(lineNumber -> run.reject(lineNumber,
+                "Insert failed: " + e.getMostSpecificCause().getMessage()));
+        }
+    }
+
+    /**
+     * Records the outcome of the run. An import that stopped on an error keeps the chunks committed before it and
+     * drops the rows read since, and is recorded as failed whether or not anything was imported.
+     */
+    private void finish(ImportRun run, boolean completed) {
+        if (completed) {
+            log.info("Import {} finished: {} units imported, {} rows rejected", run.importId, run.imported,
+                run.rejected);
+            if (run.imported == 0) {
+                return;
+            }
+            eventService.createEvent("UNITS_IMPORTED", "UnitImport", run.importId,
+                "Imported " + run.imported + " units, rejected " + run.rejected + " rows");
+        } else {
+            log.warn("Import {} failed: {} units imported, {} rows rejected", run.importId, run.imported,
+                run.rejected);
+            eventService.createEvent("UNITS_IMPORT_FAILED", "UnitImport", run.importId,
+                "Failed after importing " + run.imported + " units, rejected " + run.rejected + " rows");
+            if (run.imported == 0) {
+                return;
+            }
+        }
+        availableUnitsCounter.reconcile();
+        unitFacetIndex.rebuild();
+        columnarUnitSearch.rebuildOnAllNodes();
+    }
+
+    private static Unit toUnit(UnitCreateRequest request, LocalDateTime createdAt) {
+        return Unit.builder()
+            .numberOfRooms(request.getNumberOfRooms())
+            .accommodationType(request.getAccommodationType())
+            .floor(request.getFloor())
+            .baseCost(request.getBaseCost())
+            .finalCost(UnitService.calculateFinalCost(request.getBaseCost()))
+            .description(request.getDescription())
+            .owner(User.builder().id(request.getOwnerId()).build())
+            .createdAt(createdAt)
+            .build();
+    }
+
+    private final class ImportRun {
+
+        private final long importId;
+
+        private final Map<Long, UnitCreateRequest> pending = new LinkedHashMap<>();
+
+        private final Map<Long, Boolean> owners = new HashMap<>();
+
+        private final List<UnitImportRowError> errors = new ArrayList<>();
+
+        private long imported;
+
+        private long rejected;
+
+        private ImportRun(long importId) {
+            this.importId = importId;
+        }
+
+        private void reject(long lineNumber, String message) {
+            rejected++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new UnitImportRowError(lineNumber, message));
+            }
+        }
+    }
+}
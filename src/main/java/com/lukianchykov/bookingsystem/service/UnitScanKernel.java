@@ -0,0 +1,30 @@
+package com.lukianchykov.bookingsystem.service;
+
+/**
+ * Narrows a selection bitset over the rows of a {@link UnitColumns} column. Bit {@code i} of {@code selection}
+ * stands for row {@code i}; each method clears the bits of the rows that fail its predicate and leaves the others
+ * untouched.
+ */
+interface UnitScanKernel {
+
+    void retainEqual(int[] column, int value, long[] selection, int size);
+
+    void retainEqual(byte[] column, byte value, long[] selection, int size);
+
+    void retainBetween(long[] column, long min, long max, long[] selection, int size);
+
+    /**
+     * Returns the vector kernel when {@code vectorized} is set and the JVM was started with
+     * {@code --add-modules jdk.incubator.vector}, the scalar kernel otherwise.
+     */
+    static UnitScanKernel preferred(boolean vectorized) {
+        if (vectorized && ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            return new VectorUnitScanKernel();
+        }
+        return new ScalarUnitScanKernel();
+    }
+
+    static void clear(long[] selection, int row) {
+        selection[row >>> 6] &= ~(1L << row);
+    }
+}
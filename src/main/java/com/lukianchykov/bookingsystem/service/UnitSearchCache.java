@@ -0,0 +1,185 @@
+package com.lukianchykov.bookingsystem.service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.lukianchykov.bookingsystem.domain.AccommodationType;
+import com.lukianchykov.bookingsystem.dto.UnitSearchRequest;
+import com.lukianchykov.bookingsystem.utils.UnitChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Caches the unit ids and total count of a search page under a canonical form of the request. Entries are
+ * evicted selectively: a booking range change drops only the date-filtered searches whose window overlaps it,
+ * a unit change only the searches whose attribute filters match the unit before or after the change. Changes
+ * made on other nodes are picked up when the booking index is rebuilt and, for units, bounded by the entry
+ * time-to-live.
+ * <p>
+ * A result is only kept when no eviction ran while it was being loaded, so a search that raced a change cannot
+ * put back what the change removed.
+ */
+@Component
+@Slf4j
+public class UnitSearchCache implements BookingRangeListener {
+
+    private final Cache<Key, Result> entries;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Map<Long, Set<BookingRange>> knownRanges = new ConcurrentHashMap<>();
+
+    private final BookingMetrics bookingMetrics;
+
+    public UnitSearchCache(BookingMetrics bookingMetrics,
+        @Value("${booking.search-cache.maximum-size:1000}") long maximumSize,
+        @Value("${booking.search-cache.time-to-live-ms:30000}") long timeToLiveMillis) {
+        this.bookingMetrics = bookingMetrics;
+        this.entries = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(Duration.ofMillis(timeToLiveMillis))
+            .build();
+    }
+
+    public Result get(Key key) {
+        return entries.getIfPresent(key);
+    }
+
+    /**
+     * Returns the eviction generation to pass to {@link #put} for a result loaded from now on.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    public void put(Key key, long loadedAt, List<Long> unitIds, long total) {
+        entries.put(key, new Result(List.copyOf(unitIds), total));
+        if (generation.get() != loadedAt) {
+            entries.invalidate(key);
+        }
+    }
+
+    public long size() {
+        return entries.estimatedSize();
+    }
+
+    @Override
+    public void onRangesChanged(Long unitId, BookingRange changed, List<BookingRange> active) {
+        if (active.isEmpty()) {
+            knownRanges.remove(unitId);
+        } else {
+            knownRanges.put(unitId, new HashSet<>(active));
+        }
+        evictOverlapping(List.of(changed));
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictOverlapping(List.of(changed));
+                }
+            });
+        }
+    }
+
+    @Override
+    public void onRangesReloaded(Map<Long, List<BookingRange>> active) {
+        List<BookingRange> changed = new ArrayList<>();
+        Set<Long> unitIds = new HashSet<>(knownRanges.keySet());
+        unitIds.addAll(active.keySet());
+        for (Long unitId : unitIds) {
+            Set<BookingRange> before = knownRanges.getOrDefault(unitId, Set.of());
+            Set<BookingRange> after = new HashSet<>(active.getOrDefault(unitId, List.of()));
+            if (!before.equals(after)) {
+                before.stream().filter(range -> !after.contains(range)).forEach(changed::add);
+                after.stream().filter(range -> !before.contains(range)).forEach(changed::add);
+            }
+            if (after.isEmpty()) {
+                knownRanges.remove(unitId);
+            } else {
+                knownRanges.put(unitId, after);
+            }
+        }
+        if (!changed.isEmpty()) {
+            log.debug("Booking index reload changed {} ranges", changed.size());
+            evictOverlapping(changed);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleUnitChanged(UnitChangedEvent event) {
+        List<UnitChangedEvent.Attributes> attributes = event.getAttributes();
+        evict(key -> attributes.stream().anyMatch(key::matches));
+    }
+
+    private void evictOverlapping(List<BookingRange> ranges) {
+        evict(key -> ranges.stream().anyMatch(key::overlaps));
+    }
+
+    private void evict(Predicate<Key> affected) {
+        long started = System.nanoTime();
+        generation.incrementAndGet();
+        entries.asMap().keySet().removeIf(affected);
+        bookingMetrics.recordEviction("unit-search", started);
+    }
+
+    public record Result(List<Long> unitIds, long total) {
+    }
+
+    public record Key(Integer numberOfRooms, AccommodationType accommodationType, Integer floor, BigDecimal minCost,
+                      BigDecimal maxCost, LocalDate startDate, LocalDate endDate, String sortBy,
+                      Sort.Direction direction, int page, int size) {
+
+        public static Key of(UnitSearchRequest request) {
+            boolean dated = request.getStartDate() != null && request.getEndDate() != null;
+            return new Key(
+                request.getNumberOfRooms(),
+                request.getAccommodationType(),
+                request.getFloor(),
+                normalize(request.getMinCost()),
+                normalize(request.getMaxCost()),
+                dated ? request.getStartDate() : null,
+                dated ? request.getEndDate() : null,
+                request.getSortBy(),
+                Sort.Direction.fromString(request.getSortDirection()),
+                request.getPage(),
+                request.getSize());
+        }
+
+        boolean overlaps(BookingRange range) {
+            return startDate != null
+                && !range.endDate().isBefore(startDate)
+                && !range.startDate().isAfter(endDate);
+        }
+
+        boolean matches(UnitChangedEvent.Attributes unit) {
+            return (numberOfRooms == null || numberOfRooms.equals(unit.numberOfRooms()))
+                && (accommodationType == null || accommodationType == unit.accommodationType())
+                && (floor == null || floor.equals(unit.floor()))
+                && (minCost == null || unit.finalCost() == null || unit.finalCost().compareTo(minCost) >= 0)
+                && (maxCost == null || unit.finalCost() == null || unit.finalCost().compareTo(maxCost) <= 0);
+        }
+
+        private static BigDecimal normalize(BigDecimal cost) {
+            return cost == null ? null : cost.stripTrailingZeros();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.lukianchykov.bookingsystem.service;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lukianchykov.bookingsystem.controller.exception.InvalidSearchCursorException;
+import com.lukianchykov.bookingsystem.domain.Unit;
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Encodes keyset positions of the unit search as opaque URL-safe tokens. A token pins the sort property and
+ * direction it was issued for, so it cannot be replayed against a differently sorted search.
+ */
+@Component
+@RequiredArgsConstructor
+public class UnitSearchCursorCodec {
+
+    private static final String ID = "id";
+
+    private final ObjectMapper objectMapper;
+
+    public String encode(String sortBy, String sortDirection, KeysetScrollPosition position) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("s", sortBy);
+        payload.put("d", sortDirection.toUpperCase());
+        payload.put("v", position.getKeys().get(sortBy));
+        payload.put(ID, position.getKeys().get(ID));
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(payload));
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode search cursor", e);
+        }
+    }
+
+    public KeysetScrollPosition decode(String cursor, String sortBy, String sortDirection) {
+        JsonNode payload;
+        try {
+            payload = objectMapper.readTree(Base64.getUrlDecoder().decode(cursor));
+        } catch (IllegalArgumentException | IOException e) {
+            throw new InvalidSearchCursorException("malformed token");
+        }
+
+        if (!sortBy.equals(payload.path("s").asText()) || !sortDirection.equalsIgnoreCase(payload.path("d").asText())) {
+            throw new InvalidSearchCursorException("issued for a different sort order");
+        }
+        if (!payload.path(ID).canConvertToLong()) {
+            throw new InvalidSearchCursorException("missing id");
+        }
+
+        Map<String, Object> keys = new LinkedHashMap<>();
+        if (!ID.equals(sortBy)) {
+            keys.put(sortBy, objectMapper.convertValue(payload.path("v"), sortPropertyType(sortBy)));
+        }
+        keys.put(ID, payload.path(ID).asLong());
+        return ScrollPosition.forward(keys);
+    }
+
+    public Class<?> sortPropertyType(String sortBy) {
+        Field field = ReflectionUtils.findField(Unit.class, sortBy);
+        if (field == null || !Comparable.class.isAssignableFrom(field.getType())) {
+            throw new InvalidSearchCursorException("unsupported sort property " + sortBy);
+        }
+        return field.getType();
+    }
+}
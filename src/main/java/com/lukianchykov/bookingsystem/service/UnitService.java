@@ -2,29 +2,48 @@ package com.lukianchykov.bookingsystem.service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.lukianchykov.bookingsystem.config.CacheConfig;
 import com.lukianchykov.bookingsystem.controller.exception.UnitNotFoundException;
 import com.lukianchykov.bookingsystem.controller.exception.UserNotFoundException;
+import com.lukianchykov.bookingsystem.domain.BookingStatus;
 import com.lukianchykov.bookingsystem.domain.Unit;
 import com.lukianchykov.bookingsystem.domain.User;
 import com.lukianchykov.bookingsystem.dto.UnitCreateRequest;
+import com.lukianchykov.bookingsystem.dto.UnitFacetsResponse;
 import com.lukianchykov.bookingsystem.dto.UnitResponse;
 import com.lukianchykov.bookingsystem.dto.UnitSearchRequest;
+import com.lukianchykov.bookingsystem.dto.UnitSliceResponse;
 import com.lukianchykov.bookingsystem.dto.UnitUpdateRequest;
+import com.lukianchykov.bookingsystem.jfr.UnitSearchEvent;
 import com.lukianchykov.bookingsystem.mapper.UnitMapper;
 import com.lukianchykov.bookingsystem.repository.UnitRepository;
+import com.lukianchykov.bookingsystem.repository.UnitSpecifications;
 import com.lukianchykov.bookingsystem.repository.UserRepository;
 import com.lukianchykov.bookingsystem.utils.AvailableUnitsChangedEvent;
-import jakarta.transaction.Transactional;
+import com.lukianchykov.bookingsystem.utils.UnitChangedEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
@@ -34,6 +53,8 @@ public class UnitService {
 
     private static final BigDecimal MARKUP_PERCENTAGE = new BigDecimal("0.15");
 
+    private static final int MAX_EXCLUDED_UNIT_IDS = 5000;
+
     private final UnitRepository unitRepository;
 
     private final UserRepository userRepository;
@@ -44,6 +65,16 @@ public class UnitService {
 
     private final ApplicationEventPublisher eventPublisher;
 
+    private final UnitAvailabilityEngine unitAvailabilityEngine;
+
+    private final UnitSearchCursorCodec unitSearchCursorCodec;
+
+    private final UnitSearchCache unitSearchCache;
+
+    private final UnitFacetIndex unitFacetIndex;
+
+    private final ColumnarUnitSearch columnarUnitSearch;
+
     public UnitResponse createUnit(UnitCreateRequest request) {
         User owner = userRepository.findById(request.getOwnerId())
             .orElseThrow(() -> new UserNotFoundException(request.getOwnerId()));
@@ -65,22 +96,167 @@ public class UnitService {
         eventService.createEvent("UNIT_CREATED", "Unit", unit.getId(),
             "Unit created with " + unit.getNumberOfRooms() + " rooms");
 
-        publishAvailableUnitsChangedEvent("Unit created");
+        publishAvailableUnitsChangedEvent(AvailableUnitsChangedEvent.Transition.UNIT_ADDED, unit.getId());
+        publishUnitChangedEvent(UnitChangedEvent.Change.created(unit));
 
         return unitMapper.toResponse(unit);
     }
 
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.UNITS_CACHE, sync = true)
     public UnitResponse getUnit(Long id) {
-        Unit unit = unitRepository.findById(id)
+        return unitRepository.findResponseById(id)
             .orElseThrow(() -> new UnitNotFoundException(id));
-        return unitMapper.toResponse(unit);
     }
 
+    @Transactional(readOnly = true)
     public Page<UnitResponse> searchUnits(UnitSearchRequest request) {
+        UnitSearchEvent jfrEvent = UnitSearchEvent.begin(request);
+        return jfrEvent.record("ok", () -> search(request, jfrEvent));
+    }
+
+    private Page<UnitResponse> search(UnitSearchRequest request, UnitSearchEvent jfrEvent) {
         Sort sort = Sort.by(Sort.Direction.fromString(request.getSortDirection()), request.getSortBy());
         Pageable pageable = PageRequest.of(request.getPage(), request.getSize(), sort);
 
-        Page<Unit> units = unitRepository.findAvailableUnits(
+        UnitSearchCache.Key key = UnitSearchCache.Key.of(request);
+        UnitSearchCache.Result cached = unitSearchCache.get(key);
+        if (cached != null) {
+            jfrEvent.answered(UnitSearchEvent.CACHE, cached.unitIds().size(), cached.total());
+            return pageOf(cached, pageable);
+        }
+        if (columnarUnitSearch.supports(request)) {
+            List<Long> bookedUnitIds = bookedUnitIds(request);
+            jfrEvent.setBookedUnits(bookedUnitIds.size());
+            Optional<UnitSearchCache.Result> scanned = columnarUnitSearch.search(request, bookedUnitIds);
+            if (scanned.isPresent()) {
+                jfrEvent.answered(UnitSearchEvent.COLUMNAR, scanned.get().unitIds().size(), scanned.get().total());
+                return pageOf(scanned.get(), pageable);
+            }
+        }
+
+        long generation = unitSearchCache.generation();
+        Page<UnitResponse> page = findUnits(request, pageable);
+        unitSearchCache.put(key, generation, page.map(UnitResponse::getId).getContent(), page.getTotalElements());
+        jfrEvent.answered(UnitSearchEvent.DATABASE, page.getNumberOfElements(), page.getTotalElements());
+        return page;
+    }
+
+    @Transactional(readOnly = true)
+    public UnitFacetsResponse getFacets(UnitSearchRequest request) {
+        return unitFacetIndex.count(request, bookedUnitIds(request));
+    }
+
+    private List<Long> bookedUnitIds(UnitSearchRequest request) {
+        if (request.getStartDate() == null || request.getEndDate() == null) {
+            return List.of();
+        }
+        return unitAvailabilityEngine.findBookedUnitIds(request.getStartDate(), request.getEndDate())
+            .orElseGet(() -> unitRepository.findBookedUnitIds(request.getStartDate(), request.getEndDate()));
+    }
+
+    /**
+     * Loads the rows of a page answered by unit id. Units deleted since the ids were selected are missing from it
+     * and are taken off the total as well.
+     */
+    private Page<UnitResponse> pageOf(UnitSearchCache.Result result, Pageable pageable) {
+        List<UnitResponse> content = findResponsesInOrder(result.unitIds());
+        long missing = result.unitIds().size() - content.size();
+        return new PageImpl<>(content, pageable, result.total() - missing);
+    }
+
+    private List<UnitResponse> findResponsesInOrder(List<Long> unitIds) {
+        if (unitIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, UnitResponse> byId = unitRepository.findResponsesByIds(unitIds).stream()
+            .collect(Collectors.toMap(UnitResponse::getId, Function.identity()));
+        return unitIds.stream()
+            .map(byId::get)
+            .filter(Objects::nonNull)
+            .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public UnitSliceResponse scrollUnits(UnitSearchRequest request) {
+        String sortBy = request.getSortBy();
+        Sort.Direction direction = Sort.Direction.fromString(request.getSortDirection());
+        unitSearchCursorCodec.sortPropertyType(sortBy);
+
+        Sort sort = Sort.by(direction, sortBy);
+        if (!"id".equals(sortBy)) {
+            sort = sort.and(Sort.by(direction, "id"));
+        }
+        KeysetScrollPosition position = request.getAfter() == null
+            ? ScrollPosition.keyset()
+            : unitSearchCursorCodec.decode(request.getAfter(), sortBy, request.getSortDirection());
+
+        Specification<Unit> specification = UnitSpecifications.matchingAttributes(request)
+            .and(availabilitySpecification(request))
+            .and(UnitSpecifications.fetchingOwner());
+        Sort keysetSort = sort;
+        Window<Unit> window = unitRepository.findBy(specification,
+            query -> query.sortBy(keysetSort).limit(request.getSize()).scroll(position));
+
+        String nextCursor = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            nextCursor = unitSearchCursorCodec.encode(sortBy, request.getSortDirection(),
+                (KeysetScrollPosition) window.positionAt(window.size() - 1));
+        }
+
+        return UnitSliceResponse.builder()
+            .content(window.map(unitMapper::toResponse).getContent())
+            .size(request.getSize())
+            .hasNext(window.hasNext())
+            .nextCursor(nextCursor)
+            .build();
+    }
+
+    private Specification<Unit> availabilitySpecification(UnitSearchRequest request) {
+        if (request.getStartDate() == null || request.getEndDate() == null) {
+            return null;
+        }
+        Optional<List<Long>> bookedUnitIds = unitAvailabilityEngine.findBookedUnitIds(
+            request.getStartDate(), request.getEndDate());
+        if (bookedUnitIds.isPresent() && bookedUnitIds.get().size() <= MAX_EXCLUDED_UNIT_IDS) {
+            return UnitSpecifications.idNotIn(bookedUnitIds.get());
+        }
+        return UnitSpecifications.notBookedBetween(request.getStartDate(), request.getEndDate());
+    }
+
+    private Page<UnitResponse> findUnits(UnitSearchRequest request, Pageable pageable) {
+        if (request.getStartDate() != null && request.getEndDate() != null) {
+            Optional<List<Long>> bookedUnitIds = unitAvailabilityEngine.findBookedUnitIds(
+                request.getStartDate(), request.getEndDate());
+
+            if (bookedUnitIds.isPresent() && bookedUnitIds.get().isEmpty()) {
+                return unitRepository.findAvailableUnits(
+                    request.getNumberOfRooms(),
+                    request.getAccommodationType(),
+                    request.getFloor(),
+                    request.getMinCost(),
+                    request.getMaxCost(),
+                    null,
+                    null,
+                    pageable
+                );
+            }
+            if (bookedUnitIds.isPresent() && bookedUnitIds.get().size() <= MAX_EXCLUDED_UNIT_IDS) {
+                return unitRepository.findUnitsExcluding(
+                    request.getNumberOfRooms(),
+                    request.getAccommodationType(),
+                    request.getFloor(),
+                    request.getMinCost(),
+                    request.getMaxCost(),
+                    bookedUnitIds.get(),
+                    pageable
+                );
+            }
+            log.debug("Availability bitmaps not usable for {} - {}, using database anti-join",
+                request.getStartDate(), request.getEndDate());
+        }
+
+        return unitRepository.findAvailableUnits(
             request.getNumberOfRooms(),
             request.getAccommodationType(),
             request.getFloor(),
@@ -90,8 +266,6 @@ public class UnitService {
             request.getEndDate(),
             pageable
         );
-
-        return units.map(unitMapper::toResponse);
     }
 
     public UnitResponse updateUnit(Long id, UnitUpdateRequest request) {
@@ -101,6 +275,7 @@ public class UnitService {
         User owner = userRepository.findById(request.getOwnerId())
             .orElseThrow(() -> new UserNotFoundException(request.getOwnerId()));
 
+        UnitChangedEvent.Attributes before = UnitChangedEvent.Attributes.of(unit);
         BigDecimal finalCost = request.getFinalCost() != null ?
             request.getFinalCost() : calculateFinalCost(request.getBaseCost());
 
@@ -117,7 +292,7 @@ public class UnitService {
         eventService.createEvent("UNIT_UPDATED", "Unit", unit.getId(),
             "Unit updated");
 
-        publishAvailableUnitsChangedEvent("Unit updated");
+        publishUnitChangedEvent(UnitChangedEvent.Change.updated(before, unit));
 
         return unitMapper.toResponse(unit);
     }
@@ -126,12 +301,19 @@ public class UnitService {
         Unit unit = unitRepository.findById(id)
             .orElseThrow(() -> new UnitNotFoundException(id));
 
+        boolean available = unit.getBookings() == null || unit.getBookings().stream()
+            .noneMatch(booking -> booking.getStatus() == BookingStatus.PENDING
+                || booking.getStatus() == BookingStatus.CONFIRMED);
+
         unitRepository.delete(unit);
 
         eventService.createEvent("UNIT_DELETED", "Unit", id,
             "Unit deleted");
 
-        publishAvailableUnitsChangedEvent("Unit deleted");
+        if (available) {
+            publishAvailableUnitsChangedEvent(AvailableUnitsChangedEvent.Transition.UNIT_REMOVED, id);
+        }
+        publishUnitChangedEvent(UnitChangedEvent.Change.deleted(unit));
     }
 
     public Long countAvailableUnitsFromDatabase() {
@@ -139,20 +321,25 @@ public class UnitService {
         return unitRepository.countAvailableUnits();
     }
 
+    @Transactional(readOnly = true)
     public Long countTotalUnits() {
         log.debug("Querying database for total units count");
         return unitRepository.count();
     }
 
-    private BigDecimal calculateFinalCost(BigDecimal baseCost) {
+    static BigDecimal calculateFinalCost(BigDecimal baseCost) {
         BigDecimal markup = baseCost.multiply(MARKUP_PERCENTAGE);
         BigDecimal finalCost = baseCost.add(markup);
 
         return finalCost.setScale(2, RoundingMode.HALF_UP);
     }
 
-    private void publishAvailableUnitsChangedEvent(String reason) {
-        log.debug("Publishing available units changed event: {}", reason);
-        eventPublisher.publishEvent(new AvailableUnitsChangedEvent(this));
+    private void publishAvailableUnitsChangedEvent(AvailableUnitsChangedEvent.Transition transition, Long unitId) {
+        log.debug("Publishing available units changed event: {} {}", transition, unitId);
+        eventPublisher.publishEvent(new AvailableUnitsChangedEvent(this, transition, unitId));
+    }
+
+    private void publishUnitChangedEvent(UnitChangedEvent.Change change) {
+        eventPublisher.publishEvent(new UnitChangedEvent(this, change));
     }
 }
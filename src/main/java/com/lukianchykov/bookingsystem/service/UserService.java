@@ -7,10 +7,10 @@ import com.lukianchykov.bookingsystem.dto.UserCreateRequest;
 import com.lukianchykov.bookingsystem.dto.UserResponse;
 import com.lukianchykov.bookingsystem.mapper.UserMapper;
 import com.lukianchykov.bookingsystem.repository.UserRepository;
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
@@ -41,6 +41,7 @@ public class UserService {
         return userMapper.toResponse(user);
     }
 
+    @Transactional(readOnly = true)
     public UserResponse getUser(Long id) {
         User user = userRepository.findById(id)
             .orElseThrow(() -> new UserNotFoundException(id));
@@ -0,0 +1,73 @@
+package com.lukianchykov.bookingsystem.service;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD version of {@link ScalarUnitScanKernel}. Each loop compares one vector of rows at a time and turns the
+ * comparison mask into bits of the selection; species lengths are powers of two of at most 64 lanes, so a vector's
+ * bits never straddle two selection words. Rows past the last full vector are compared one by one.
+ * <p>
+ * Only loaded when the {@code jdk.incubator.vector} module is present, see {@link UnitScanKernel#preferred}.
+ */
+final class VectorUnitScanKernel implements UnitScanKernel {
+
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+
+    private static final VectorSpecies<Byte> BYTES = ByteVector.SPECIES_PREFERRED;
+
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+
+    @Override
+    public void retainEqual(int[] column, int value, long[] selection, int size) {
+        int bound = INTS.loopBound(size);
+        for (int row = 0; row < bound; row += INTS.length()) {
+            long matching = IntVector.fromArray(INTS, column, row).compare(VectorOperators.EQ, value).toLong();
+            clearFailing(selection, row, matching, INTS.length());
+        }
+        for (int row = bound; row < size; row++) {
+            if (column[row] != value) {
+                UnitScanKernel.clear(selection, row);
+            }
+        }
+    }
+
+    @Override
+    public void retainEqual(byte[] column, byte value, long[] selection, int size) {
+        int bound = BYTES.loopBound(size);
+        for (int row = 0; row < bound; row += BYTES.length()) {
+            long matching = ByteVector.fromArray(BYTES, column, row).compare(VectorOperators.EQ, value).toLong();
+            clearFailing(selection, row, matching, BYTES.length());
+        }
+        for (int row = bound; row < size; row++) {
+            if (column[row] != value) {
+                UnitScanKernel.clear(selection, row);
+            }
+        }
+    }
+
+    @Override
+    public void retainBetween(long[] column, long min, long max, long[] selection, int size) {
+        int bound = LONGS.loopBound(size);
+        for (int row = 0; row < bound; row += LONGS.length()) {
+            LongVector values = LongVector.fromArray(LONGS, column, row);
+            long matching = values.compare(VectorOperators.GE, min)
+                .and(values.compare(VectorOperators.LE, max))
+                .toLong();
+            clearFailing(selection, row, matching, LONGS.length());
+        }
+        for (int row = bound; row < size; row++) {
+            if (column[row] < min || column[row] > max) {
+                UnitScanKernel.clear(selection, row);
+            }
+        }
+    }
+
+    private static void clearFailing(long[] selection, int row, long matching, int lanes) {
+        long laneMask = lanes == Long.SIZE ? -1L : (1L << lanes) - 1;
+        selection[row >>> 6] &= ~((~matching & laneMask) << (row & 63));
+    }
+}
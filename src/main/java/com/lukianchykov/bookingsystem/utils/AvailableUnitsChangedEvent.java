@@ -1,10 +1,44 @@
 package com.lukianchykov.bookingsystem.utils;
 
+import java.util.Collection;
+import java.util.List;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
 import org.springframework.context.ApplicationEvent;
 
+@Getter
 public class AvailableUnitsChangedEvent extends ApplicationEvent {
 
-    public AvailableUnitsChangedEvent(Object source) {
+    private final Transition transition;
+
+    private final List<Long> unitIds;
+
+    private final long publishedAtNanos = System.nanoTime();
+
+    public AvailableUnitsChangedEvent(Object source, Transition transition, Long unitId) {
+        this(source, transition, List.of(unitId));
+    }
+
+    public AvailableUnitsChangedEvent(Object source, Transition transition, Collection<Long> unitIds) {
         super(source);
+        this.transition = transition;
+        this.unitIds = List.copyOf(unitIds);
+    }
+
+    public long getDelta() {
+        return (long) transition.getDelta() * unitIds.size();
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public enum Transition {
+        UNIT_BOOKED(-1),
+        UNIT_FREED(1),
+        UNIT_ADDED(1),
+        UNIT_REMOVED(-1);
+
+        private final int delta;
     }
 }
@@ -0,0 +1,27 @@
+package com.lukianchykov.bookingsystem.utils;
+
+import com.lukianchykov.bookingsystem.service.BookingHoldScheduler;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookingHoldInitializer implements ApplicationRunner {
+
+    private final BookingHoldScheduler bookingHoldScheduler;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            log.info("Scheduling pending booking holds on application startup");
+            bookingHoldScheduler.rebuild();
+        } catch (Exception e) {
+            log.error("Failed to schedule pending booking holds, they will expire on the periodic sweep", e);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.lukianchykov.bookingsystem.utils;
+
+import com.lukianchykov.bookingsystem.service.BookingIntervalIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookingIndexInitializer implements ApplicationRunner {
+
+    private final BookingIntervalIndex bookingIntervalIndex;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            log.info("Loading booking interval index on application startup");
+            bookingIntervalIndex.rebuild();
+        } catch (Exception e) {
+            log.error("Failed to load booking interval index, will retry on next scheduled refresh", e);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.lukianchykov.bookingsystem.utils;
+
+import com.lukianchykov.bookingsystem.service.ColumnarUnitSearch;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ColumnarUnitSearchInitializer implements ApplicationRunner {
+
+    private final ColumnarUnitSearch columnarUnitSearch;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            log.info("Loading columnar unit search snapshot on application startup");
+            columnarUnitSearch.rebuild();
+        } catch (Exception e) {
+            log.error("Failed to load columnar unit search snapshot, will retry on next scheduled refresh", e);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.lukianchykov.bookingsystem.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hashed timing wheel keyed by an identifier. A deadline is rounded up to the next tick and its entry is linked
+ * into bucket {@code tick & mask}; scheduling, rescheduling and cancelling are O(1). {@link #advance(long)} walks
+ * the buckets passed since the previous call and returns the keys whose deadline tick has been reached. Entries
+ * further away than one rotation stay in their bucket until the wheel comes round to their tick.
+ */
+public class HashedTimingWheel<K> {
+
+    private final long tickMillis;
+
+    private final int mask;
+
+    private final Entry<K>[] buckets;
+
+    private final Map<K, Entry<K>> entries = new HashMap<>();
+
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    public HashedTimingWheel(long tickMillis, int requestedSize, long nowMillis) {
+        int size = Integer.highestOneBit(Math.max(1, requestedSize - 1)) << 1;
+        this.tickMillis = tickMillis;
+        this.mask = size - 1;
+        this.buckets = new Entry[size];
+        this.currentTick = nowMillis / tickMillis;
+    }
+
+    /**
+     * Schedules {@code key} to fire at {@code deadlineMillis}, replacing any deadline it already had. Deadlines
+     * that are already due fire on the next tick.
+     */
+    public synchronized void schedule(K key, long deadlineMillis) {
+        Entry<K> entry = entries.get(key);
+        if (entry == null) {
+            entry = new Entry<>(key);
+            entries.put(key, entry);
+        } else {
+            unlink(entry);
+        }
+        entry.deadlineTick = Math.max(Math.ceilDiv(deadlineMillis, tickMillis), currentTick + 1);
+        link(entry);
+    }
+
+    public synchronized boolean cancel(K key) {
+        Entry<K> entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        unlink(entry);
+        return true;
+    }
+
+    public synchronized List<K> advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        List<K> expired = new ArrayList<>();
+        if (targetTick <= currentTick) {
+            return expired;
+        }
+
+        long fromTick = targetTick - currentTick > buckets.length ? targetTick - mask : currentTick + 1;
+        for (long tick = fromTick; tick <= targetTick; tick++) {
+            Entry<K> entry = buckets[(int) (tick & mask)];
+            while (entry != null) {
+                Entry<K> next = entry.next;
+                if (entry.deadlineTick <= targetTick) {
+                    unlink(entry);
+                    entries.remove(entry.key);
+                    expired.add(entry.key);
+                }
+                entry = next;
+            }
+        }
+        currentTick = targetTick;
+        return expired;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void link(Entry<K> entry) {
+        int bucket = (int) (entry.deadlineTick & mask);
+        Entry<K> head = buckets[bucket];
+        entry.prev = null;
+        entry.next = head;
+        if (head != null) {
+            head.prev = entry;
+        }
+        buckets[bucket] = entry;
+    }
+
+    private void unlink(Entry<K> entry) {
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        } else {
+            buckets[(int) (entry.deadlineTick & mask)] = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        }
+        entry.prev = null;
+        entry.next = null;
+    }
+
+    private static final class Entry<K> {
+
+        private final K key;
+
+        private long deadlineTick;
+
+        private Entry<K> prev;
+
+        private Entry<K> next;
+
+        private Entry(K key) {
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.lukianchykov.bookingsystem.utils;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free queue for many producers and a single consumer. Producers claim a slot by CAS on the
+ * producer index and publish the element into it; the consumer reads slots in order and treats an empty slot as
+ * "not yet published". Capacity is rounded up to a power of two.
+ */
+public class MpscRingBuffer<E> {
+
+    private final AtomicReferenceArray<E> slots;
+
+    private final int mask;
+
+    private final AtomicLong producerIndex = new AtomicLong();
+
+    private final AtomicLong consumerIndex = new AtomicLong();
+
+    public MpscRingBuffer(int requestedCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(1, requestedCapacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    public boolean offer(E element) {
+        while (true) {
+            long produced = producerIndex.get();
+            if (produced - consumerIndex.get() >= slots.length()) {
+                return false;
+            }
+            if (producerIndex.compareAndSet(produced, produced + 1)) {
+                slots.lazySet((int) (produced & mask), element);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Moves up to {@code limit} published elements into {@code target}. Must only be called by the consumer.
+     */
+    public int drainTo(Collection<? super E> target, int limit) {
+        long consumed = consumerIndex.get();
+        int drained = 0;
+        while (drained < limit) {
+            int slot = (int) (consumed & mask);
+            E element = slots.get(slot);
+            if (element == null) {
+                break;
+            }
+            slots.lazySet(slot, null);
+            target.add(element);
+            consumed++;
+            drained++;
+            consumerIndex.lazySet(consumed);
+        }
+        return drained;
+    }
+
+    public int size() {
+        return (int) Math.max(0, producerIndex.get() - consumerIndex.get());
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+}
@@ -0,0 +1,64 @@
+package com.lukianchykov.bookingsystem.utils;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import com.lukianchykov.bookingsystem.domain.AccommodationType;
+import com.lukianchykov.bookingsystem.domain.Unit;
+import lombok.Getter;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published when units are created, updated or deleted. Each change carries the searchable attributes the unit
+ * had before and after it, {@code null} on the side where the unit did not exist. Units inserted in bulk have no
+ * id yet.
+ */
+@Getter
+public class UnitChangedEvent extends ApplicationEvent {
+
+    private final List<Change> changes;
+
+    public UnitChangedEvent(Object source, Change change) {
+        this(source, List.of(change));
+    }
+
+    public UnitChangedEvent(Object source, Collection<Change> changes) {
+        super(source);
+        this.changes = List.copyOf(changes);
+    }
+
+    public List<Attributes> getAttributes() {
+        return changes.stream()
+            .flatMap(change -> Stream.of(change.before(), change.after()))
+            .filter(Objects::nonNull)
+            .toList();
+    }
+
+    public record Change(Long unitId, Attributes before, Attributes after) {
+
+        public static Change created(Unit unit) {
+            return new Change(unit.getId(), null, Attributes.of(unit));
+        }
+
+        public static Change updated(Attributes before, Unit unit) {
+            return new Change(unit.getId(), before, Attributes.of(unit));
+        }
+
+        public static Change deleted(Unit unit) {
+            return new Change(unit.getId(), Attributes.of(unit), null);
+        }
+    }
+
+    public record Attributes(Integer numberOfRooms, AccommodationType accommodationType, Integer floor,
+                             BigDecimal finalCost) {
+
+        public static Attributes of(Unit unit) {
+            return new Attributes(unit.getNumberOfRooms(), unit.getAccommodationType(), unit.getFloor(),
+                unit.getFinalCost());
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.lukianchykov.bookingsystem.utils;
+
+import com.lukianchykov.bookingsystem.service.UnitFacetIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UnitFacetIndexInitializer implements ApplicationRunner {
+
+    private final UnitFacetIndex unitFacetIndex;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            log.info("Loading unit facet index on application startup");
+            unitFacetIndex.rebuild();
+        } catch (Exception e) {
+            log.error("Failed to load unit facet index, will retry on next scheduled refresh", e);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+--liquibase formatted sql
+
+--changeset booking-system:bookings-no-overlap dbms:postgresql
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE bookings
+    ADD COLUMN stay_range DATERANGE GENERATED ALWAYS AS (daterange(start_date, end_date, '[]')) STORED;
+
+ALTER TABLE bookings
+    ADD CONSTRAINT bookings_no_overlap
+        EXCLUDE USING gist (unit_id WITH =, stay_range WITH &&)
+        WHERE (status IN ('PENDING', 'CONFIRMED'));
+--rollback ALTER TABLE bookings DROP CONSTRAINT bookings_no_overlap;
+--rollback ALTER TABLE bookings DROP COLUMN stay_range;
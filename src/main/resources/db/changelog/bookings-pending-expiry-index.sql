@@ -0,0 +1,5 @@
+--liquibase formatted sql
+
+--changeset booking-system:bookings-pending-expiry-index dbms:postgresql
+CREATE INDEX bookings_pending_expiry_idx ON bookings (expires_at, id) WHERE status = 'PENDING';
+--rollback DROP INDEX bookings_pending_expiry_idx;
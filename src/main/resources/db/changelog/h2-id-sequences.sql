@@ -0,0 +1,23 @@
+--liquibase formatted sql
+
+--changeset booking-system:h2-id-sequences dbms:h2
+CREATE SEQUENCE users_id_seq START WITH 60 INCREMENT BY 50;
+CREATE SEQUENCE units_id_seq START WITH 60 INCREMENT BY 50;
+CREATE SEQUENCE bookings_id_seq START WITH 60 INCREMENT BY 50;
+CREATE SEQUENCE payments_id_seq START WITH 60 INCREMENT BY 50;
+CREATE SEQUENCE events_id_seq START WITH 60 INCREMENT BY 50;
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE units ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE bookings ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE payments ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE events ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE users ALTER COLUMN id SET DEFAULT NEXT VALUE FOR users_id_seq;
+ALTER TABLE units ALTER COLUMN id SET DEFAULT NEXT VALUE FOR units_id_seq;
+ALTER TABLE bookings ALTER COLUMN id SET DEFAULT NEXT VALUE FOR bookings_id_seq;
+ALTER TABLE payments ALTER COLUMN id SET DEFAULT NEXT VALUE FOR payments_id_seq;
+ALTER TABLE events ALTER COLUMN id SET DEFAULT NEXT VALUE FOR events_id_seq;
+--rollback DROP SEQUENCE users_id_seq;
+--rollback DROP SEQUENCE units_id_seq;
+--rollback DROP SEQUENCE bookings_id_seq;
+--rollback DROP SEQUENCE payments_id_seq;
+--rollback DROP SEQUENCE events_id_seq;
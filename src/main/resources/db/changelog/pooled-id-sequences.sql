@@ -0,0 +1,13 @@
+--liquibase formatted sql
+
+--changeset booking-system:pooled-id-sequences dbms:postgresql
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
+ALTER SEQUENCE units_id_seq INCREMENT BY 50;
+ALTER SEQUENCE bookings_id_seq INCREMENT BY 50;
+ALTER SEQUENCE payments_id_seq INCREMENT BY 50;
+ALTER SEQUENCE events_id_seq INCREMENT BY 50;
+--rollback ALTER SEQUENCE users_id_seq INCREMENT BY 1;
+--rollback ALTER SEQUENCE units_id_seq INCREMENT BY 1;
+--rollback ALTER SEQUENCE bookings_id_seq INCREMENT BY 1;
+--rollback ALTER SEQUENCE payments_id_seq INCREMENT BY 1;
+--rollback ALTER SEQUENCE events_id_seq INCREMENT BY 1;
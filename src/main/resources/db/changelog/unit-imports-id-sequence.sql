@@ -0,0 +1,5 @@
+--liquibase formatted sql
+
+--changeset booking-system:unit-imports-id-sequence
+CREATE SEQUENCE unit_imports_id_seq;
+--rollback DROP SEQUENCE unit_imports_id_seq;
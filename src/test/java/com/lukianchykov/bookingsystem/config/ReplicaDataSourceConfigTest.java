@@ -0,0 +1,36 @@
+package com.lukianchykov.bookingsystem.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReplicaDataSourceConfigTest {
+
+    private final ReplicaDataSourceConfig config = new ReplicaDataSourceConfig();
+
+    @Test
+    void replicaDataSource_InheritsEachBlankCredentialFromThePrimary() {
+        try (HikariDataSource replica = config.replicaDataSource(primary(), "", "replica_user", "")) {
+            assertEquals("jdbc:h2:mem:primary", replica.getJdbcUrl());
+            assertEquals("replica_user", replica.getUsername());
+            assertEquals("primary_secret", replica.getPassword());
+        }
+        try (HikariDataSource replica = config.replicaDataSource(primary(), "jdbc:h2:mem:replica", "",
+            "replica_secret")) {
+            assertEquals("jdbc:h2:mem:replica", replica.getJdbcUrl());
+            assertEquals("primary_user", replica.getUsername());
+            assertEquals("replica_secret", replica.getPassword());
+        }
+    }
+
+    private static DataSourceProperties primary() {
+        DataSourceProperties properties = new DataSourceProperties();
+        properties.setUrl("jdbc:h2:mem:primary");
+        properties.setUsername("primary_user");
+        properties.setPassword("primary_secret");
+        return properties;
+    }
+}
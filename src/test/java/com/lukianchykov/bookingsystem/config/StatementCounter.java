@@ -0,0 +1,30 @@
+package com.lukianchykov.bookingsystem.config;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class StatementCounter {
+
+    private final Map<String, AtomicInteger> executions = new ConcurrentHashMap<>();
+
+    void record(String sql) {
+        executions.computeIfAbsent(sql.toLowerCase(Locale.ROOT), key -> new AtomicInteger()).incrementAndGet();
+    }
+
+    public int executions(String sqlPrefix) {
+        return executions.entrySet().stream()
+            .filter(entry -> entry.getKey().startsWith(sqlPrefix))
+            .mapToInt(entry -> entry.getValue().get())
+            .sum();
+    }
+
+    public int total() {
+        return executions.values().stream().mapToInt(AtomicInteger::get).sum();
+    }
+
+    public void reset() {
+        executions.clear();
+    }
+}
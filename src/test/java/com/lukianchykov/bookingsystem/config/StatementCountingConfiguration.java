@@ -0,0 +1,78 @@
+package com.lukianchykov.bookingsystem.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.Set;
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+@TestConfiguration
+public class StatementCountingConfiguration {
+
+    private static final Set<String> EXECUTE_METHODS = Set.of("executeBatch", "executeUpdate", "executeQuery",
+        "execute");
+
+    @Bean
+    StatementCounter statementCounter() {
+        return new StatementCounter();
+    }
+
+    @Bean
+    static BeanPostProcessor statementCountingDataSourcePostProcessor(
+        ObjectProvider<StatementCounter> statementCounter) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource) {
+                    return countingDataSource(dataSource, statementCounter);
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static DataSource countingDataSource(DataSource target,
+        ObjectProvider<StatementCounter> statementCounter) {
+        return proxy(DataSource.class, target, (method, args, result) -> result instanceof Connection connection
+            ? countingConnection(connection, statementCounter)
+            : result);
+    }
+
+    private static Connection countingConnection(Connection target,
+        ObjectProvider<StatementCounter> statementCounter) {
+        return proxy(Connection.class, target, (method, args, result) -> {
+            if (result instanceof PreparedStatement statement && "prepareStatement".equals(method)) {
+                String sql = (String) args[0];
+                return proxy(PreparedStatement.class, statement, (statementMethod, statementArgs, executed) -> {
+                    if (EXECUTE_METHODS.contains(statementMethod)) {
+                        statementCounter.getObject().record(sql);
+                    }
+                    return executed;
+                });
+            }
+            return result;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, ResultDecorator decorator) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+            try {
+                return decorator.decorate(method.getName(), args, method.invoke(target, args));
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        });
+    }
+
+    private interface ResultDecorator {
+
+        Object decorate(String method, Object[] args, Object result) throws Exception;
+    }
+}
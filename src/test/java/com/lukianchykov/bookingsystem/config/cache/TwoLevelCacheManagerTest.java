@@ -0,0 +1,228 @@
+package com.lukianchykov.bookingsystem.config.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TwoLevelCacheManagerTest {
+
+    private static final TwoLevelCacheSettings SETTINGS = new TwoLevelCacheSettings(100, Duration.ofMinutes(1),
+        Duration.ofSeconds(30), Duration.ofMillis(200));
+
+    private ConcurrentMapCacheManager sharedRemote;
+
+    private MeterRegistry meterRegistry;
+
+    private TwoLevelCacheManager nodeA;
+
+    private TwoLevelCacheManager nodeB;
+
+    @BeforeEach
+    void setUp() {
+        sharedRemote = new ConcurrentMapCacheManager();
+        meterRegistry = new SimpleMeterRegistry();
+        InMemoryCacheInvalidationBus bus = new InMemoryCacheInvalidationBus();
+        nodeA = new TwoLevelCacheManager(sharedRemote, bus.node(), null, meterRegistry, SETTINGS);
+        nodeB = new TwoLevelCacheManager(sharedRemote, bus.node(), null, new SimpleMeterRegistry(), SETTINGS);
+    }
+
+    @Test
+    void get_ServesRepeatedReadsFromLocalTier() {
+        sharedRemote.getCache("units").put("k", 5L);
+        Cache cache = nodeA.getCache("units");
+
+        assertEquals(5L, cache.get("k").get());
+        sharedRemote.getCache("units").put("k", 6L);
+        assertEquals(5L, cache.get("k").get());
+
+        assertEquals(1.0, count("l1", "hit"));
+        assertEquals(1.0, count("l1", "miss"));
+        assertEquals(1.0, count("l2", "hit"));
+    }
+
+    @Test
+    void put_DropsStaleLocalEntryOnOtherNodes() {
+        nodeA.getCache("units").put("k", 1L);
+        assertEquals(1L, nodeB.getCache("units").get("k").get());
+
+        nodeA.getCache("units").put("k", 2L);
+
+        assertEquals(2L, nodeB.getCache("units").get("k").get());
+    }
+
+    @Test
+    void evictAndClear_AreBroadcast() {
+        nodeA.getCache("units").put("a", 1L);
+        nodeA.getCache("units").put("b", 2L);
+        nodeB.getCache("units").get("a");
+        nodeB.getCache("units").get("b");
+
+        nodeA.getCache("units").evict("a");
+        assertNull(nodeB.getCache("units").get("a"));
+
+        sharedRemote.getCache("units").put("b", 3L);
+        nodeA.getCache("units").clear();
+        assertNull(nodeB.getCache("units").get("b"));
+    }
+
+    @Test
+    void get_WithLoader_PopulatesBothTiers() {
+        Long value = nodeA.getCache("units").get("k", () -> 7L);
+
+        assertEquals(7L, value);
+        assertEquals(7L, sharedRemote.getCache("units").get("k").get());
+        assertEquals(7L, nodeA.getCache("units").get("k", () -> 8L));
+    }
+
+    @Test
+    void memoryMode_WorksWithoutRemoteTier() {
+        TwoLevelCacheManager local = new TwoLevelCacheManager(null, new InMemoryCacheInvalidationBus().node(), null,
+            meterRegistry, new TwoLevelCacheSettings(1, Duration.ofMinutes(1), Duration.ZERO, Duration.ZERO));
+
+        local.getCache("units").put("k", 1L);
+
+        assertEquals(1L, local.getCache("units").get("k").get());
+        assertNull(local.getCache("units").get("missing"));
+    }
+
+    @Test
+    void get_WithLoader_CoalescesConcurrentLoadsOfSameKey() throws Exception {
+        Cache cache = nodeA.getCache("units");
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoader = new CountDownLatch(1);
+        Callable<Long> loader = () -> {
+            loads.incrementAndGet();
+            loaderStarted.countDown();
+            releaseLoader.await();
+            return 42L;
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            results.add(executor.submit(() -> cache.get("k", loader)));
+            loaderStarted.await();
+            for (int i = 0; i < 7; i++) {
+                results.add(executor.submit(() -> cache.get("k", loader)));
+            }
+            Thread.sleep(100);
+            releaseLoader.countDown();
+
+            for (Future<Long> result : results) {
+                assertEquals(42L, result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_WithLoader_ServesStaleValueWhileReloadingEvictedEntry() throws Exception {
+        Cache cache = nodeA.getCache("units");
+        cache.put("k", 1L);
+        cache.evict("k");
+
+        CountDownLatch reloaded = new CountDownLatch(1);
+        Long served = cache.get("k", () -> {
+            reloaded.countDown();
+            return 2L;
+        });
+
+        assertEquals(1L, served);
+        assertTrue(reloaded.await(5, TimeUnit.SECONDS));
+        awaitValue(cache, 2L);
+    }
+
+    @Test
+    void get_WithLoader_DropsStaleValueWhenReloadFails() {
+        Cache cache = nodeA.getCache("units");
+        cache.put("k", 1L);
+        cache.evict("k");
+        Callable<Long> failing = () -> {
+            throw new IllegalStateException("gone");
+        };
+
+        assertEquals(1L, cache.get("k", failing));
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                cache.get("k", failing);
+            } catch (Cache.ValueRetrievalException e) {
+                return;
+            }
+            sleep(10);
+        }
+        throw new AssertionError("stale value was still served");
+    }
+
+    @Test
+    void get_WithLoader_WaitsForLeaseHolderInsteadOfLoading() {
+        CacheLease heldElsewhere = mock(CacheLease.class);
+        when(heldElsewhere.tryAcquire(any(), any())).thenReturn(false);
+        TwoLevelCacheManager node = new TwoLevelCacheManager(sharedRemote, new InMemoryCacheInvalidationBus().node(),
+            heldElsewhere, meterRegistry, SETTINGS);
+
+        new Thread(() -> {
+            sleep(50);
+            sharedRemote.getCache("units").put("k", 9L);
+        }).start();
+        Long value = node.getCache("units").get("k", () -> 10L);
+
+        assertEquals(9L, value);
+        verify(heldElsewhere, never()).release(any());
+    }
+
+    private static void awaitValue(Cache cache, Long expected) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            Cache.ValueWrapper wrapper = cache.get("k");
+            if (wrapper != null && expected.equals(wrapper.get())) {
+                return;
+            }
+            sleep(10);
+        }
+        throw new AssertionError("value was not refreshed");
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private double count(String tier, String result) {
+        return meterRegistry.get("cache.tier.gets")
+            .tags("cache", "units", "tier", tier, "result", result)
+            .counter()
+            .count();
+    }
+}
@@ -0,0 +1,137 @@
+package com.lukianchykov.bookingsystem.config.datasource;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BulkheadDataSourceTest {
+
+    private final DataSource pool = mock(DataSource.class);
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(pool.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+    }
+
+    @Test
+    void getConnection_TimesOutWhenAllPermitsAreInUse() throws Exception {
+        BulkheadDataSource bulkhead = bulkhead(2, Duration.ofMillis(50), 10);
+        bulkhead.getConnection();
+        bulkhead.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, bulkhead::getConnection);
+
+        verify(pool, times(2)).getConnection();
+        assertEquals(2, bulkhead.activePermits());
+        assertEquals(1.0, meterRegistry.get("booking.datasource.bulkhead.rejected").functionCounter().count());
+    }
+
+    @Test
+    void close_ReturnsThePermitOnceToTheNextWaiter() throws Exception {
+        BulkheadDataSource bulkhead = bulkhead(1, Duration.ofSeconds(5), 10);
+        Connection first = bulkhead.getConnection();
+
+        CompletableFuture<Connection> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return bulkhead.getConnection();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(100);
+        assertFalse(waiting.isDone());
+
+        first.close();
+        first.close();
+        waiting.get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, bulkhead.activePermits());
+        assertEquals(2, meterRegistry.get(BulkheadDataSource.WAIT_TIMER).timer().count());
+    }
+
+    @Test
+    void getConnection_LetsQueuedCallersGoBeforeNewcomers() throws Exception {
+        BulkheadDataSource bulkhead = bulkhead(1, Duration.ofSeconds(5), 10);
+        for (int round = 0; round < 50; round++) {
+            Connection held = bulkhead.getConnection();
+            List<String> served = Collections.synchronizedList(new ArrayList<>());
+            CompletableFuture<Void> queued = CompletableFuture.runAsync(() -> {
+                try (Connection connection = bulkhead.getConnection()) {
+                    served.add("queued");
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            while (meterRegistry.get("booking.datasource.bulkhead.waiting").gauge().value() < 1) {
+                Thread.onSpinWait();
+            }
+
+            held.close();
+            try (Connection connection = bulkhead.getConnection()) {
+                served.add("newcomer");
+            }
+            queued.get(5, TimeUnit.SECONDS);
+
+            assertEquals(List.of("queued", "newcomer"), served, "round " + round);
+        }
+    }
+
+    @Test
+    void getConnection_TurnsCallersAwayWhenTheQueueIsFull() throws Exception {
+        BulkheadDataSource bulkhead = bulkhead(1, Duration.ofSeconds(5), 1);
+        Connection held = bulkhead.getConnection();
+        List<CompletableFuture<Connection>> waiting = new ArrayList<>();
+        waiting.add(CompletableFuture.supplyAsync(() -> {
+            try {
+                return bulkhead.getConnection();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }));
+        Thread.sleep(100);
+
+        assertThrows(SQLTransientConnectionException.class, bulkhead::getConnection);
+
+        held.close();
+        waiting.get(0).get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void getConnection_ReturnsThePermitWhenThePoolFails() throws Exception {
+        BulkheadDataSource bulkhead = bulkhead(1, Duration.ofMillis(50), 10);
+        when(pool.getConnection()).thenThrow(new SQLTransientConnectionException("pool exhausted"))
+            .thenAnswer(invocation -> mock(Connection.class));
+
+        assertThrows(SQLTransientConnectionException.class, bulkhead::getConnection);
+        bulkhead.getConnection();
+
+        assertEquals(1, bulkhead.activePermits());
+    }
+
+    private BulkheadDataSource bulkhead(int permits, Duration maxWait, int maxWaiting) {
+        BulkheadDataSource bulkhead = new BulkheadDataSource(pool, permits, maxWait, maxWaiting);
+        bulkhead.bindTo(meterRegistry);
+        return bulkhead;
+    }
+}
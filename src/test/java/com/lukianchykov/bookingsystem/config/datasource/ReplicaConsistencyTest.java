@@ -0,0 +1,93 @@
+package com.lukianchykov.bookingsystem.config.datasource;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReplicaConsistencyTest {
+
+    private static final String REPLAY_POSITION = "SELECT pg_last_wal_replay_lsn()::text";
+
+    private final Connection primary = mock(Connection.class);
+
+    private final JdbcTemplate replica = mock(JdbcTemplate.class);
+
+    private final PostgresLsnReplicaConsistency lsn = new PostgresLsnReplicaConsistency(replica);
+
+    @Test
+    void lagWindow_IsCaughtUpOnceMaxLagHasPassedSinceTheWrite() {
+        Instant now = Instant.parse("2026-06-01T10:00:00Z");
+        ReplicaConsistency consistency = new LagWindowReplicaConsistency(Clock.fixed(now, ZoneOffset.UTC),
+            Duration.ofSeconds(1));
+
+        assertEquals(Long.toString(now.toEpochMilli()), consistency.position(mock(Connection.class)));
+        assertFalse(consistency.caughtUp(Long.toString(now.minusMillis(999).toEpochMilli())));
+        assertTrue(consistency.caughtUp(Long.toString(now.minusSeconds(1).toEpochMilli())));
+        assertFalse(consistency.caughtUp("16/B374D848"));
+    }
+
+    @Test
+    void postgresLsn_ComparesWithTheReplayedPositionAndRemembersIt() throws Exception {
+        Statement statement = mock(Statement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(primary.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(PostgresLsnReplicaConsistency.CURRENT_POSITION)).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getString(1)).thenReturn("16/B374D848");
+        when(replica.queryForObject(REPLAY_POSITION, String.class)).thenReturn("16/B3740000", "16/B374D900");
+
+        String token = lsn.position(primary);
+
+        assertEquals("16/B374D848", token);
+        assertFalse(lsn.caughtUp(token));
+        assertTrue(lsn.caughtUp(token));
+        assertTrue(lsn.caughtUp("16/B374D900"));
+        assertTrue(lsn.caughtUp("15/FFFFFFFF"));
+        verify(replica, times(2)).queryForObject(REPLAY_POSITION, String.class);
+    }
+
+    @Test
+    void postgresLsn_FallsBackToThePrimaryOnFailuresAndBadTokens() throws Exception {
+        when(primary.createStatement()).thenThrow(new SQLException("primary down"));
+        when(replica.queryForObject(REPLAY_POSITION, String.class))
+            .thenThrow(new DataAccessResourceFailureException("replica down"));
+
+        assertNull(lsn.position(primary));
+        assertFalse(lsn.caughtUp("0/1"));
+        assertFalse(lsn.caughtUp("not-an-lsn"));
+        assertFalse(lsn.caughtUp("1/"));
+    }
+
+    @Test
+    void postgresLsn_TreatsAReplicaOutOfRecoveryAsCaughtUp() {
+        assertTrue(lsn.caughtUp("0/1"));
+    }
+
+    @Test
+    void parse_CombinesBothHalves() {
+        assertEquals(0x16_B374D848L, PostgresLsnReplicaConsistency.parse("16/B374D848"));
+        assertEquals(0, PostgresLsnReplicaConsistency.parse("0/0"));
+        assertThrows(IllegalArgumentException.class, () -> PostgresLsnReplicaConsistency.parse("/1"));
+        assertThrows(IllegalArgumentException.class, () -> PostgresLsnReplicaConsistency.parse("123456789/1"));
+    }
+}
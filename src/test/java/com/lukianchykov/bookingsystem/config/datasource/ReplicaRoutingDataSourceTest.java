@@ -0,0 +1,208 @@
+package com.lukianchykov.bookingsystem.config.datasource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ReplicaRoutingDataSourceTest {
+
+    private final MutableClock clock = new MutableClock();
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AtomicInteger primaryConnections = new AtomicInteger();
+
+    private final DataSource router = ReplicaRoutingDataSource.lazy(database("primary"), database("replica"),
+        new LagWindowReplicaConsistency(clock, Duration.ofSeconds(1)), meterRegistry);
+
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(router);
+
+    private final TransactionTemplate writes = new TransactionTemplate(new DataSourceTransactionManager(router));
+
+    private final TransactionTemplate reads = readOnly(
+        new TransactionTemplate(new DataSourceTransactionManager(router)));
+
+    @AfterEach
+    void tearDown() {
+        ConsistencySession session = ConsistencySession.current();
+        if (session != null) {
+            session.close();
+        }
+    }
+
+    @Test
+    void readOnlyTransactions_UseTheReplicaOnlyInsideASession() {
+        assertEquals("primary", reads.execute(status -> database()));
+        assertEquals("primary", database());
+
+        ConsistencySession.open(null, token -> { });
+
+        assertEquals("replica", reads.execute(status -> database()));
+        assertEquals("primary", writes.execute(status -> database()));
+        assertEquals("primary", database());
+        assertEquals(1.0, meterRegistry.get(ReplicaRoutingDataSource.ROUTE_COUNTER).tag("target", "replica")
+            .counter().count());
+    }
+
+    @Test
+    void readsAfterAWrite_StayOnThePrimaryUntilTheReplicaHasCaughtUp() {
+        List<String> issued = new ArrayList<>();
+        ConsistencySession session = ConsistencySession.open(null, issued::add);
+
+        writes.executeWithoutResult(status -> jdbcTemplate.update("UPDATE marker SET writes = writes + 1"));
+
+        assertEquals(List.of(Long.toString(clock.millis())), issued);
+        assertEquals("primary", reads.execute(status -> database()));
+        session.close();
+
+        clock.advance(Duration.ofMillis(500));
+        ConsistencySession.open(issued.get(0), token -> { });
+        assertEquals("primary", reads.execute(status -> database()));
+
+        clock.advance(Duration.ofMillis(500));
+        assertEquals("replica", reads.execute(status -> database()));
+    }
+
+    @Test
+    void writes_ReadTheirPositionOnTheConnectionThatCommitted() {
+        DataSource primary = counting(database("primary"));
+        ReplicaConsistency consistency = new ReplicaConsistency() {
+            @Override
+            public String position(Connection connection) {
+                return new JdbcTemplate(new SingleConnectionDataSource(connection, true))
+                    .queryForObject("SELECT writes FROM marker", String.class);
+            }
+
+            @Override
+            public boolean caughtUp(String token) {
+                return true;
+            }
+        };
+        DataSource router = ReplicaRoutingDataSource.lazy(primary, database("replica"), consistency, meterRegistry);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(router);
+        jdbcTemplate.queryForObject("SELECT writes FROM marker", String.class);
+        primaryConnections.set(0);
+        List<String> issued = new ArrayList<>();
+        ConsistencySession.open(null, issued::add);
+
+        new TransactionTemplate(new DataSourceTransactionManager(router)).executeWithoutResult(status ->
+            jdbcTemplate.update("UPDATE marker SET writes = writes + 1"));
+
+        assertEquals(List.of("1"), issued);
+        assertEquals(1, primaryConnections.get());
+    }
+
+    @Test
+    void rolledBackWrites_DoNotIssueAToken() {
+        List<String> issued = new ArrayList<>();
+        ConsistencySession.open(null, issued::add);
+
+        writes.executeWithoutResult(status -> {
+            jdbcTemplate.update("UPDATE marker SET writes = writes + 1");
+            status.setRollbackOnly();
+        });
+
+        assertEquals(List.of(), issued);
+        assertEquals("replica", reads.execute(status -> database()));
+    }
+
+    @Test
+    void filter_ReadsTheTokenAndReturnsTheOneIssuedByAWrite() throws Exception {
+        ConsistencyTokenFilter filter = new ConsistencyTokenFilter();
+        MockHttpServletRequest read = new MockHttpServletRequest("GET", "/api/units/1");
+        read.addHeader(ConsistencyTokenFilter.HEADER, Long.toString(clock.millis()));
+        MockHttpServletResponse readResponse = new MockHttpServletResponse();
+        List<String> routed = new ArrayList<>();
+
+        filter.doFilter(read, readResponse, (request, response) -> routed.add(reads.execute(status -> database())));
+
+        MockHttpServletResponse writeResponse = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/bookings"), writeResponse, (request, response) -> {
+            writes.executeWithoutResult(status -> jdbcTemplate.update("UPDATE marker SET writes = writes + 1"));
+            routed.add(reads.execute(status -> database()));
+        });
+
+        assertEquals(List.of("primary", "primary"), routed);
+        assertNull(readResponse.getHeader(ConsistencyTokenFilter.HEADER));
+        assertEquals(Long.toString(clock.millis()), writeResponse.getHeader(ConsistencyTokenFilter.HEADER));
+        assertNull(ConsistencySession.current());
+    }
+
+    private String database() {
+        return jdbcTemplate.queryForObject("SELECT name FROM marker", String.class);
+    }
+
+    private DataSource counting(DataSource target) {
+        return new DelegatingDataSource(target) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                primaryConnections.incrementAndGet();
+                return super.getConnection();
+            }
+        };
+    }
+
+    private static TransactionTemplate readOnly(TransactionTemplate transactionTemplate) {
+        transactionTemplate.setReadOnly(true);
+        return transactionTemplate;
+    }
+
+    private static DataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE marker (name VARCHAR(16), writes INT)");
+        jdbcTemplate.update("INSERT INTO marker VALUES (?, 0)", name);
+        return dataSource;
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2026-06-01T10:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
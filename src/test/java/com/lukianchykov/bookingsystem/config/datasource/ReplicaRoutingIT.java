@@ -0,0 +1,67 @@
+package com.lukianchykov.bookingsystem.config.datasource;
+
+import com.lukianchykov.bookingsystem.config.BookingSystemTestConfiguration;
+import com.lukianchykov.bookingsystem.dto.UserCreateRequest;
+import com.lukianchykov.bookingsystem.dto.UserResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(locations = "classpath:application.yml", properties = {
+    "booking.datasource.replica.enabled=true",
+    "booking.datasource.replica.max-lag=1h"
+})
+@Import({BookingSystemTestConfiguration.class})
+@DirtiesContext
+class ReplicaRoutingIT {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void writes_IssueATokenThatKeepsTheClientsReadsOnThePrimary() {
+        ResponseEntity<UserResponse> created = restTemplate.postForEntity("/api/users", UserCreateRequest.builder()
+            .email("replica@test.com")
+            .name("Replica")
+            .build(), UserResponse.class);
+        String token = created.getHeaders().getFirst(ConsistencyTokenFilter.HEADER);
+        assertThat(created.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(token).isNotBlank();
+        Long userId = created.getBody().getId();
+
+        double replicaRoutes = routes("replica");
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(ConsistencyTokenFilter.HEADER, token);
+        ResponseEntity<UserResponse> ownRead = restTemplate.exchange("/api/users/" + userId, HttpMethod.GET,
+            new HttpEntity<>(headers), UserResponse.class);
+        assertThat(ownRead.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(ownRead.getBody().getEmail()).isEqualTo("replica@test.com");
+        assertThat(routes("replica")).isEqualTo(replicaRoutes);
+
+        ResponseEntity<UserResponse> otherRead = restTemplate.getForEntity("/api/users/" + userId,
+            UserResponse.class);
+        assertThat(otherRead.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(routes("replica")).isGreaterThan(replicaRoutes);
+    }
+
+    private double routes(String target) {
+        return meterRegistry.get(ReplicaRoutingDataSource.ROUTE_COUNTER).tag("target", target).counter().count();
+    }
+}
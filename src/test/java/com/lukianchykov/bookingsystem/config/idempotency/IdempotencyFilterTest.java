@@ -0,0 +1,270 @@
+package com.lukianchykov.bookingsystem.config.idempotency;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.lukianchykov.bookingsystem.controller.BookingController;
+import com.lukianchykov.bookingsystem.controller.handler.GlobalExceptionHandler;
+import com.lukianchykov.bookingsystem.dto.BookingCreateRequest;
+import com.lukianchykov.bookingsystem.dto.BookingResponse;
+import com.lukianchykov.bookingsystem.service.BookingAdmissionEngine;
+import com.lukianchykov.bookingsystem.service.BookingService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class IdempotencyFilterTest {
+
+    private static final String BOOKING = "{\"unitId\":1,\"userId\":2}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    private final IdempotencyFilter filter = filter(null);
+
+    @Test
+    void retry_ReplaysTheStoredResponseWithoutExecuting() throws Exception {
+        MockHttpServletResponse first = perform(filter, "key-1", BOOKING, created());
+        MockHttpServletResponse retry = perform(filter, "key-1", BOOKING, created());
+
+        assertEquals(1, executions.get());
+        assertEquals(201, retry.getStatus());
+        assertEquals(first.getContentAsString(), retry.getContentAsString());
+        assertEquals(MediaType.APPLICATION_JSON_VALUE, retry.getContentType());
+        assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertNull(first.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(1.0, meterRegistry.counter(IdempotencyFilter.OUTCOME_COUNTER, "outcome", "replayed").count());
+    }
+
+    @Test
+    void cachedBody_IsServedToAsyncReadListeners() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/bookings");
+        request.setContent(BOOKING.getBytes(StandardCharsets.UTF_8));
+        ServletInputStream input = new CachedBodyRequest(request).getInputStream();
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        List<String> calls = new ArrayList<>();
+
+        input.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                calls.add("data");
+                byte[] buffer = new byte[4];
+                while (input.isReady() && !input.isFinished()) {
+                    read.write(buffer, 0, input.read(buffer));
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                calls.add("done");
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                calls.add("error");
+            }
+        });
+
+        assertEquals(List.of("data", "done"), calls);
+        assertEquals(BOOKING, read.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void keyReusedWithAnotherBody_IsRejected() throws Exception {
+        perform(filter, "key-1", BOOKING, created());
+
+        MockHttpServletResponse reused = perform(filter, "key-1", "{\"unitId\":9,\"userId\":2}", created());
+
+        assertEquals(1, executions.get());
+        assertEquals(422, reused.getStatus());
+    }
+
+    @Test
+    void requestsWithoutKeyOrWithDifferentKeys_AreExecuted() throws Exception {
+        perform(filter, null, BOOKING, created());
+        perform(filter, null, BOOKING, created());
+        perform(filter, "key-1", BOOKING, created());
+        perform(filter, "key-2", BOOKING, created());
+
+        assertEquals(4, executions.get());
+        assertEquals(400, perform(filter, " ", BOOKING, created()).getStatus());
+    }
+
+    @Test
+    void serverErrors_AreNotStored() throws Exception {
+        FilterChain failing = (request, response) -> {
+            executions.incrementAndGet();
+            ((HttpServletResponse) response).setStatus(503);
+        };
+
+        perform(filter, "key-1", BOOKING, failing);
+        MockHttpServletResponse retry = perform(filter, "key-1", BOOKING, created());
+
+        assertEquals(2, executions.get());
+        assertEquals(201, retry.getStatus());
+    }
+
+    @Test
+    void lockTimeouts_AreNotStored() throws Exception {
+        BookingService bookingService = mock(BookingService.class);
+        when(bookingService.createBooking(any(BookingCreateRequest.class)))
+            .thenThrow(new PessimisticLockingFailureException("canceling statement due to lock timeout"))
+            .thenReturn(BookingResponse.builder().id(7L).build());
+        MockMvc mockMvc = MockMvcBuilders
+            .standaloneSetup(new BookingController(bookingService, mock(BookingAdmissionEngine.class)))
+            .setControllerAdvice(new GlobalExceptionHandler())
+            .addFilters(filter)
+            .build();
+
+        mockMvc.perform(post("/api/bookings")
+                .header(IdempotencyFilter.HEADER, "key-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(BOOKING))
+            .andExpect(status().isConflict())
+            .andExpect(jsonPath("$.error").value("Unit Busy"));
+        mockMvc.perform(post("/api/bookings")
+                .header(IdempotencyFilter.HEADER, "key-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(BOOKING))
+            .andExpect(status().isCreated())
+            .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER))
+            .andExpect(jsonPath("$.id").value(7));
+
+        verify(bookingService, times(2)).createBooking(any(BookingCreateRequest.class));
+    }
+
+    @Test
+    void tooManyRequests_AreNotStored() throws Exception {
+        FilterChain throttled = (request, response) -> {
+            executions.incrementAndGet();
+            ((HttpServletResponse) response).setStatus(429);
+        };
+
+        perform(filter, "key-1", BOOKING, throttled);
+        MockHttpServletResponse retry = perform(filter, "key-1", BOOKING, created());
+
+        assertEquals(2, executions.get());
+        assertEquals(201, retry.getStatus());
+    }
+
+    @Test
+    void concurrentDuplicates_WaitForTheRequestInFlight() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain slow = (request, response) -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            created().doFilter(request, response);
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<MockHttpServletResponse>> responses = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                responses.add(executor.submit(() -> perform(filter, "key-1", BOOKING, slow)));
+            }
+            Thread.sleep(200);
+            release.countDown();
+
+            for (Future<MockHttpServletResponse> response : responses) {
+                assertEquals(201, response.get(5, TimeUnit.SECONDS).getStatus());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void claimHeldByAnotherNode_WaitsForItsStoredResponse() throws Exception {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        @SuppressWarnings("unchecked")
+        ValueOperations<String, String> values = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(values);
+        when(values.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(false);
+        String stored = objectMapper.writeValueAsString(new StoredResponse(IdempotencyFilter.fingerprint(
+            BOOKING.getBytes(StandardCharsets.UTF_8)), 201, MediaType.APPLICATION_JSON_VALUE,
+            "{\"id\":7}".getBytes(StandardCharsets.UTF_8)));
+        when(values.get(eq(IdempotencyStore.KEY_PREFIX + "POST /api/bookings key-1")))
+            .thenReturn(null, null, stored);
+
+        MockHttpServletResponse response = perform(filter(redisTemplate), "key-1", BOOKING, created());
+
+        assertEquals(0, executions.get());
+        assertEquals(201, response.getStatus());
+        assertEquals("{\"id\":7}", response.getContentAsString());
+        assertEquals("true", response.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+    }
+
+    private IdempotencyFilter filter(StringRedisTemplate redisTemplate) {
+        IdempotencyStore store = new IdempotencyStore(redisTemplate, objectMapper, 100, Duration.ofMinutes(1),
+            Duration.ofSeconds(30));
+        return new IdempotencyFilter(store, objectMapper, meterRegistry, Duration.ofSeconds(2));
+    }
+
+    private FilterChain created() {
+        return (request, response) -> {
+            int execution = executions.incrementAndGet();
+            request.getInputStream().readAllBytes();
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            ((HttpServletResponse) response).setStatus(201);
+            response.getWriter().write("{\"id\":" + execution + "}");
+        };
+    }
+
+    private static MockHttpServletResponse perform(IdempotencyFilter filter, String key, String body,
+        FilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/bookings");
+        request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        if (key != null) {
+            request.addHeader(IdempotencyFilter.HEADER, key);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
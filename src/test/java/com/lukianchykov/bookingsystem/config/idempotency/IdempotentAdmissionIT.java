@@ -0,0 +1,86 @@
+package com.lukianchykov.bookingsystem.config.idempotency;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import com.lukianchykov.bookingsystem.config.BookingSystemTestConfiguration;
+import com.lukianchykov.bookingsystem.domain.AccommodationType;
+import com.lukianchykov.bookingsystem.dto.BookingCreateRequest;
+import com.lukianchykov.bookingsystem.dto.BookingResponse;
+import com.lukianchykov.bookingsystem.dto.UnitCreateRequest;
+import com.lukianchykov.bookingsystem.dto.UserCreateRequest;
+import com.lukianchykov.bookingsystem.repository.BookingRepository;
+import com.lukianchykov.bookingsystem.service.UnitService;
+import com.lukianchykov.bookingsystem.service.UserService;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(locations = "classpath:application.yml")
+@Import({BookingSystemTestConfiguration.class})
+@DirtiesContext
+class IdempotentAdmissionIT {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UnitService unitService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Test
+    void admit_ReplaysTheAsyncResponseForARetriedKey() {
+        Long ownerId = userService.createUser(UserCreateRequest.builder()
+            .email("admit-owner@test.com")
+            .name("Owner")
+            .build()).getId();
+        Long unitId = unitService.createUnit(UnitCreateRequest.builder()
+            .numberOfRooms(2)
+            .accommodationType(AccommodationType.FLAT)
+            .floor(1)
+            .baseCost(new BigDecimal("100.00"))
+            .description("Admitted unit")
+            .ownerId(ownerId)
+            .build()).getId();
+        BookingCreateRequest request = BookingCreateRequest.builder()
+            .unitId(unitId)
+            .userId(ownerId)
+            .startDate(LocalDate.now().plusDays(10))
+            .endDate(LocalDate.now().plusDays(12))
+            .build();
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(IdempotencyFilter.HEADER, "admit-key-1");
+
+        ResponseEntity<BookingResponse> first = restTemplate.postForEntity("/api/bookings/admit",
+            new HttpEntity<>(request, headers), BookingResponse.class);
+        ResponseEntity<BookingResponse> retry = restTemplate.postForEntity("/api/bookings/admit",
+            new HttpEntity<>(request, headers), BookingResponse.class);
+
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(first.getBody()).isNotNull();
+        assertThat(first.getBody().getId()).isNotNull();
+        assertThat(first.getHeaders().getFirst(IdempotencyFilter.REPLAYED_HEADER)).isNull();
+        assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(retry.getHeaders().getFirst(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(retry.getBody()).isNotNull();
+        assertThat(retry.getBody().getId()).isEqualTo(first.getBody().getId());
+        assertThat(bookingRepository.count()).isEqualTo(1);
+    }
+}
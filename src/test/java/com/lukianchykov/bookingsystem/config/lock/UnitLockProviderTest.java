@@ -0,0 +1,189 @@
+package com.lukianchykov.bookingsystem.config.lock;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.lukianchykov.bookingsystem.config.cache.InMemoryCacheLease;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UnitLockProviderTest {
+
+    private final TransactionTemplate transactionTemplate = new TransactionTemplate(new NoDatabaseTransactionManager());
+
+    @Test
+    void striped_ExcludesTheSameUnitUntilTheTransactionCompletes() throws Exception {
+        StripedUnitLockProvider provider = new StripedUnitLockProvider(64, Duration.ofSeconds(5));
+
+        assertHeldUntilCompletion(provider, provider);
+        assertEquals(64, provider.stripeCount());
+    }
+
+    @Test
+    void striped_TimesOutAndDoesNotBlockUnitsOnOtherStripes() throws Exception {
+        StripedUnitLockProvider provider = new StripedUnitLockProvider(1024, Duration.ofMillis(50));
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> holder = holdInBackground(provider, 1L, locked, release);
+        assertTrue(locked.await(5, TimeUnit.SECONDS));
+
+        assertThrows(CannotAcquireLockException.class,
+            () -> transactionTemplate.executeWithoutResult(status -> provider.lock(1L)));
+        transactionTemplate.executeWithoutResult(status -> provider.lock(2L));
+
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+        assertThrows(IllegalStateException.class, () -> provider.lock(1L));
+    }
+
+    @Test
+    void lease_ExcludesAcrossNodesSharingTheLeaseStore() throws Exception {
+        InMemoryCacheLease redis = new InMemoryCacheLease();
+        LeaseUnitLockProvider nodeA = leaseProvider(redis, Duration.ofSeconds(5));
+        LeaseUnitLockProvider nodeB = leaseProvider(redis, Duration.ofSeconds(5));
+
+        assertHeldUntilCompletion(nodeA, nodeB);
+    }
+
+    @Test
+    void lease_TimesOutWhileHeldElsewhereAndTakesOverExpiredLeases() {
+        Instant[] now = {Instant.parse("2026-01-01T00:00:00Z")};
+        InMemoryCacheLease redis = new InMemoryCacheLease(new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return now[0];
+            }
+        });
+        assertTrue(redis.tryAcquire("unit-lock:1", Duration.ofSeconds(30)));
+        LeaseUnitLockProvider node = leaseProvider(redis, Duration.ofMillis(30));
+
+        assertThrows(CannotAcquireLockException.class,
+            () -> transactionTemplate.executeWithoutResult(status -> node.lock(1L)));
+
+        now[0] = now[0].plusSeconds(31);
+        transactionTemplate.executeWithoutResult(status -> node.lock(1L));
+        assertTrue(redis.tryAcquire("unit-lock:1", Duration.ofSeconds(30)));
+    }
+
+    @Test
+    void postgres_BoundsTheAdvisoryLockWaitWithLockTimeout() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.queryForObject("SELECT current_setting('lock_timeout')", String.class)).thenReturn("0");
+        PostgresAdvisoryUnitLockProvider provider = new PostgresAdvisoryUnitLockProvider(jdbcTemplate,
+            Duration.ofSeconds(2));
+
+        transactionTemplate.executeWithoutResult(status -> provider.lock(42L));
+
+        InOrder order = inOrder(jdbcTemplate);
+        order.verify(jdbcTemplate).queryForObject("SELECT set_config('lock_timeout', ?, true)", String.class,
+            "2000ms");
+        order.verify(jdbcTemplate).queryForObject(eq("SELECT pg_advisory_xact_lock(?)::text"), eq(String.class),
+            eq(42L));
+        order.verify(jdbcTemplate).queryForObject("SELECT set_config('lock_timeout', ?, true)", String.class, "0");
+    }
+
+    @Test
+    void postgres_SurfacesTheLockTimeoutWithoutTouchingTheAbortedTransaction() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.queryForObject("SELECT current_setting('lock_timeout')", String.class)).thenReturn("0");
+        when(jdbcTemplate.queryForObject(eq("SELECT pg_advisory_xact_lock(?)::text"), eq(String.class), eq(42L)))
+            .thenThrow(new CannotAcquireLockException("canceling statement due to lock timeout"));
+        PostgresAdvisoryUnitLockProvider provider = new PostgresAdvisoryUnitLockProvider(jdbcTemplate,
+            Duration.ofSeconds(2));
+
+        assertThrows(CannotAcquireLockException.class,
+            () -> transactionTemplate.executeWithoutResult(status -> provider.lock(42L)));
+
+        verify(jdbcTemplate, never()).queryForObject("SELECT set_config('lock_timeout', ?, true)", String.class,
+            "0");
+    }
+
+    private void assertHeldUntilCompletion(UnitLockProvider holderProvider, UnitLockProvider waiterProvider)
+        throws Exception {
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> holder = holdInBackground(holderProvider, 7L, locked, release);
+        assertTrue(locked.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<Void> waiter = CompletableFuture.runAsync(
+            () -> transactionTemplate.executeWithoutResult(status -> waiterProvider.lock(7L)));
+        Thread.sleep(100);
+        assertFalse(waiter.isDone());
+
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+        waiter.get(5, TimeUnit.SECONDS);
+    }
+
+    private CompletableFuture<Void> holdInBackground(UnitLockProvider provider, Long unitId, CountDownLatch locked,
+        CountDownLatch release) {
+        return CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            provider.lock(unitId);
+            locked.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+    }
+
+    private static LeaseUnitLockProvider leaseProvider(InMemoryCacheLease lease, Duration maxWait) {
+        return new LeaseUnitLockProvider(lease, new StripedUnitLockProvider(64, maxWait), Duration.ofSeconds(30),
+            maxWait);
+    }
+
+    private static final class NoDatabaseTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
@@ -3,10 +3,13 @@ package com.lukianchykov.bookingsystem.controller;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lukianchykov.bookingsystem.controller.exception.AdmissionOverloadedException;
 import com.lukianchykov.bookingsystem.controller.exception.BookingNotFoundException;
 import com.lukianchykov.bookingsystem.controller.exception.InvalidBookingStatusException;
+import com.lukianchykov.bookingsystem.controller.exception.InvalidHoldDurationException;
 import com.lukianchykov.bookingsystem.controller.exception.UnitNotAvailableException;
 import com.lukianchykov.bookingsystem.controller.exception.UnitNotFoundException;
 import com.lukianchykov.bookingsystem.controller.exception.UserNotFoundException;
@@ -14,6 +17,8 @@ import com.lukianchykov.bookingsystem.controller.handler.GlobalExceptionHandler;
 import com.lukianchykov.bookingsystem.domain.BookingStatus;
 import com.lukianchykov.bookingsystem.dto.BookingCreateRequest;
 import com.lukianchykov.bookingsystem.dto.BookingResponse;
+import com.lukianchykov.bookingsystem.dto.HoldExtensionRequest;
+import com.lukianchykov.bookingsystem.service.BookingAdmissionEngine;
 import com.lukianchykov.bookingsystem.service.BookingService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -24,13 +29,17 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(BookingController.class)
@@ -43,6 +52,9 @@ class BookingControllerTest {
     @MockBean
     private BookingService bookingService;
 
+    @MockBean
+    private BookingAdmissionEngine bookingAdmissionEngine;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -112,6 +124,56 @@ class BookingControllerTest {
             .andExpect(jsonPath("$.message").value("User not found with ID: 1"));
     }
 
+    @Test
+    void shouldAdmitBookingAsynchronously() throws Exception {
+        when(bookingAdmissionEngine.admit(any(BookingCreateRequest.class)))
+            .thenReturn(CompletableFuture.completedFuture(bookingResponse));
+
+        MvcResult result = mockMvc.perform(post("/api/bookings/admit")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(createRequest)))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.id").value(1L))
+            .andExpect(jsonPath("$.status").value("PENDING"));
+    }
+
+    @Test
+    void shouldReturn409WhenAdmissionLosesTheUnit() throws Exception {
+        when(bookingAdmissionEngine.admit(any(BookingCreateRequest.class)))
+            .thenReturn(CompletableFuture.failedFuture(new UnitNotAvailableException()));
+
+        MvcResult result = mockMvc.perform(post("/api/bookings/admit")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(createRequest)))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isConflict())
+            .andExpect(jsonPath("$.status").value(409));
+    }
+
+    @Test
+    void shouldReturn503WhenTheAdmissionMailboxIsFull() throws Exception {
+        when(bookingAdmissionEngine.admit(any(BookingCreateRequest.class)))
+            .thenReturn(CompletableFuture.failedFuture(new AdmissionOverloadedException(1L)));
+
+        MvcResult result = mockMvc.perform(post("/api/bookings/admit")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(createRequest)))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isServiceUnavailable())
+            .andExpect(header().string("Retry-After", "1"))
+            .andExpect(jsonPath("$.status").value(503));
+    }
+
     @Test
     void shouldReturn409WhenUnitNotAvailable() throws Exception {
         when(bookingService.createBooking(any(BookingCreateRequest.class)))
@@ -191,4 +253,28 @@ class BookingControllerTest {
             .andExpect(jsonPath("$.error").value("Business Logic Error"))
             .andExpect(jsonPath("$.message").value("Cannot cancel booking with status: COMPLETED"));
     }
+
+    @Test
+    void shouldExtendHoldSuccessfully() throws Exception {
+        when(bookingService.extendHold(1L, 10)).thenReturn(bookingResponse);
+
+        mockMvc.perform(put("/api/bookings/1/extend-hold")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new HoldExtensionRequest(10))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").value(1L))
+            .andExpect(jsonPath("$.status").value("PENDING"));
+    }
+
+    @Test
+    void shouldReturn400WhenExtendingHoldBeyondLimit() throws Exception {
+        when(bookingService.extendHold(1L, 600)).thenThrow(new InvalidHoldDurationException(600, 60));
+
+        mockMvc.perform(put("/api/bookings/1/extend-hold")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new HoldExtensionRequest(600))))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message")
+                .value("Hold of 600 minutes is not allowed, holds must be between 1 and 60 minutes"));
+    }
 }
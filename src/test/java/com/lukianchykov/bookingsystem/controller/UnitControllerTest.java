@@ -4,15 +4,22 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lukianchykov.bookingsystem.controller.exception.InvalidSearchCursorException;
 import com.lukianchykov.bookingsystem.controller.exception.UnitNotFoundException;
 import com.lukianchykov.bookingsystem.controller.exception.UserNotFoundException;
 import com.lukianchykov.bookingsystem.controller.handler.GlobalExceptionHandler;
 import com.lukianchykov.bookingsystem.domain.AccommodationType;
 import com.lukianchykov.bookingsystem.dto.UnitCreateRequest;
+import com.lukianchykov.bookingsystem.dto.UnitFacetsResponse;
+import com.lukianchykov.bookingsystem.dto.UnitImportResponse;
+import com.lukianchykov.bookingsystem.dto.UnitImportRowError;
 import com.lukianchykov.bookingsystem.dto.UnitResponse;
 import com.lukianchykov.bookingsystem.dto.UnitSearchRequest;
+import com.lukianchykov.bookingsystem.dto.UnitSliceResponse;
+import com.lukianchykov.bookingsystem.service.UnitImportService;
 import com.lukianchykov.bookingsystem.service.UnitService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -27,6 +34,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -43,6 +51,9 @@ class UnitControllerTest {
     @MockBean
     private UnitService unitService;
 
+    @MockBean
+    private UnitImportService unitImportService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -156,4 +167,102 @@ class UnitControllerTest {
             .andExpect(jsonPath("$.message").value("An unexpected error occurred"))
             .andExpect(jsonPath("$.timestamp").exists());
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldScrollUnitsWithCursor() throws Exception {
+        UnitSliceResponse slice = UnitSliceResponse.builder()
+            .content(List.of(unitResponse))
+            .size(1)
+            .hasNext(true)
+            .nextCursor("eyJzIjoiaWQiLCJpZCI6MX0")
+            .build();
+        when(unitService.scrollUnits(any(UnitSearchRequest.class))).thenReturn(slice);
+
+        mockMvc.perform(post("/api/units/search")
+                .param("mode", "cursor")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"size\":1}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.content[0].id").value(1L))
+            .andExpect(jsonPath("$.has_next").value(true))
+            .andExpect(jsonPath("$.next_cursor").value("eyJzIjoiaWQiLCJpZCI6MX0"))
+            .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    void shouldRejectInvalidSearchCursor() throws Exception {
+        when(unitService.scrollUnits(any(UnitSearchRequest.class)))
+            .thenThrow(new InvalidSearchCursorException("malformed token"));
+
+        mockMvc.perform(post("/api/units/search")
+                .param("mode", "cursor")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"after\":\"???\"}"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("Invalid search cursor: malformed token"));
+    }
+
+    @Test
+    void shouldReturnFacetCounts() throws Exception {
+        UnitFacetsResponse facets = UnitFacetsResponse.builder()
+            .total(3)
+            .accommodationTypes(Map.of(AccommodationType.FLAT, 3L))
+            .numberOfRooms(Map.of(1, 1L, 2, 2L))
+            .floorBands(Map.of("0-4", 3L))
+            .priceBuckets(Map.of("100-150", 3L))
+            .build();
+        when(unitService.getFacets(any(UnitSearchRequest.class))).thenReturn(facets);
+
+        mockMvc.perform(post("/api/units/facets")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"accommodation_type\":\"FLAT\",\"start_date\":\"2030-06-01\",\"end_date\":\"2030-06-03\"}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.total").value(3))
+            .andExpect(jsonPath("$.accommodation_types.FLAT").value(3))
+            .andExpect(jsonPath("$.number_of_rooms.2").value(2))
+            .andExpect(jsonPath("$.floor_bands['0-4']").value(3))
+            .andExpect(jsonPath("$.price_buckets['100-150']").value(3));
+    }
+
+    @Test
+    void shouldImportUnitsFromNdjson() throws Exception {
+        UnitImportResponse importResponse = UnitImportResponse.builder()
+            .importId(42L)
+            .imported(2)
+            .rejected(1)
+            .errors(List.of(new UnitImportRowError(2, "floor must not be null")))
+            .build();
+        when(unitImportService.importUnits(any(), eq(UnitImportService.Format.NDJSON))).thenReturn(importResponse);
+
+        mockMvc.perform(post("/api/units/bulk")
+                .contentType("application/x-ndjson")
+                .content("{}\n{}\n{}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.import_id").value(42L))
+            .andExpect(jsonPath("$.imported").value(2))
+            .andExpect(jsonPath("$.rejected").value(1))
+            .andExpect(jsonPath("$.errors[0].line").value(2))
+            .andExpect(jsonPath("$.errors[0].message").value("floor must not be null"));
+    }
+
+    @Test
+    void shouldImportUnitsFromCsv() throws Exception {
+        when(unitImportService.importUnits(any(), eq(UnitImportService.Format.CSV)))
+            .thenReturn(UnitImportResponse.builder().importId(7L).imported(1).errors(List.of()).build());
+
+        mockMvc.perform(post("/api/units/bulk")
+                .contentType("text/csv")
+                .content("number_of_rooms,accommodation_type,floor,base_cost,description,owner_id\n"
+                    + "2,FLAT,3,100.00,Flat,1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.imported").value(1));
+    }
+
+    @Test
+    void shouldRejectBulkImportWithUnsupportedContentType() throws Exception {
+        mockMvc.perform(post("/api/units/bulk")
+                .contentType(MediaType.APPLICATION_XML)
+                .content("<units/>"))
+            .andExpect(status().isUnsupportedMediaType());
+    }
+}
@@ -0,0 +1,95 @@
+package com.lukianchykov.bookingsystem.jfr;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import com.lukianchykov.bookingsystem.controller.exception.UnitNotAvailableException;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.util.unit.DataSize;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JfrRecordingEndpointTest {
+
+    @TempDir
+    Path directory;
+
+    private JfrRecordingEndpoint endpoint;
+
+    @AfterEach
+    void tearDown() {
+        endpoint.stop();
+    }
+
+    @Test
+    void start_BoundsTheRecordingByTheConfiguredMaximums() {
+        endpoint = new JfrRecordingEndpoint(directory, Duration.ofMinutes(1), DataSize.ofMegabytes(10), 5);
+
+        Map<String, Object> status = endpoint.start();
+
+        assertEquals("RUNNING", status.get("state").toString());
+        assertEquals(Duration.ofMinutes(1), status.get("duration"));
+        assertEquals(DataSize.ofMegabytes(10).toBytes(), status.get("maxSizeBytes"));
+        assertEquals(status.get("file"), endpoint.start().get("file"));
+    }
+
+    @Test
+    void start_KeepsOnlyTheNewestRecordings() throws Exception {
+        Path oldest = Files.createFile(directory.resolve("booking-20260101-100000.jfr"));
+        Path older = Files.createFile(directory.resolve("booking-20260102-100000.jfr"));
+        Path newer = Files.createFile(directory.resolve("booking-20260103-100000.jfr"));
+        Path unrelated = Files.createFile(directory.resolve("notes.txt"));
+        endpoint = new JfrRecordingEndpoint(directory, Duration.ofMinutes(1), DataSize.ofMegabytes(10), 2);
+
+        Path started = Path.of((String) endpoint.start().get("file"));
+
+        assertFalse(Files.exists(oldest));
+        assertFalse(Files.exists(older));
+        assertTrue(Files.exists(newer));
+        assertTrue(Files.exists(unrelated));
+        assertEquals(directory, started.getParent());
+    }
+
+    @Test
+    void stop_WritesBusinessEventsToTheRecordingFile() throws Exception {
+        endpoint = new JfrRecordingEndpoint(directory, Duration.ofMinutes(1), DataSize.ofMegabytes(10), 5);
+        endpoint.start();
+
+        BookingOperationEvent created = BookingOperationEvent.begin(BookingOperationEvent.CREATE, 7L, null);
+        created.record("created", () -> {
+            created.setBookingId(42L);
+            created.addRowsWritten(2);
+        });
+        BookingOperationEvent conflict = BookingOperationEvent.begin(BookingOperationEvent.CREATE, 8L, null);
+        assertThrows(UnitNotAvailableException.class, () -> conflict.record("created", () -> {
+            throw new UnitNotAvailableException();
+        }));
+
+        Map<String, Object> stopped = endpoint.stop();
+
+        assertEquals("CLOSED", stopped.get("state").toString());
+        assertTrue((Long) stopped.get("sizeBytes") > 0);
+        List<RecordedEvent> events = RecordingFile.readAllEvents(Path.of((String) stopped.get("file"))).stream()
+            .filter(event -> event.getEventType().getName().equals("com.lukianchykov.booking.BookingOperation"))
+            .toList();
+        assertEquals(2, events.size());
+        assertEquals("created", events.get(0).getString("outcome"));
+        assertEquals(7L, events.get(0).getLong("unitId"));
+        assertEquals(42L, events.get(0).getLong("bookingId"));
+        assertEquals(2, events.get(0).getInt("rowsWritten"));
+        assertEquals("conflict", events.get(1).getString("outcome"));
+        assertEquals(8L, events.get(1).getLong("unitId"));
+        assertEquals("NONE", endpoint.status().get("state"));
+    }
+}
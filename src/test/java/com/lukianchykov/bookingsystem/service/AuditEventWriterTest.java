@@ -0,0 +1,152 @@
+package com.lukianchykov.bookingsystem.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.lukianchykov.bookingsystem.domain.Event;
+import com.lukianchykov.bookingsystem.repository.EventRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AuditEventWriterTest {
+
+    @Mock
+    private EventRepository eventRepository;
+
+    private AuditEventWriter writer;
+
+    @AfterEach
+    void tearDown() {
+        if (writer != null && writer.isRunning()) {
+            writer.stop();
+        }
+    }
+
+    @Test
+    void enqueue_WritesEventsInBatchesFromBackgroundThread() throws Exception {
+        List<Event> written = new CopyOnWriteArrayList<>();
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        when(eventRepository.insertAll(anyList())).thenAnswer(invocation -> {
+            List<Event> batch = invocation.getArgument(0);
+            written.addAll(batch);
+            batchSizes.add(batch.size());
+            return batch.size();
+        });
+        writer = new AuditEventWriter(eventRepository, 1024, 50, 20, "caller-runs", 100);
+        writer.start();
+
+        int producers = 4;
+        int perProducer = 250;
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch done = new CountDownLatch(producers);
+        for (int p = 0; p < producers; p++) {
+            long producer = p;
+            executor.execute(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    writer.enqueue(event(producer * perProducer + i));
+                }
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (written.size() < producers * perProducer && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(producers * perProducer, written.size());
+        assertEquals(producers * perProducer, written.stream().map(Event::getEntityId).distinct().count());
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 50));
+        assertTrue(batchSizes.size() < producers * perProducer);
+    }
+
+    @Test
+    void enqueue_WhenFullAndCallerRuns_WritesOnCallerThread() {
+        writer = new AuditEventWriter(eventRepository, 2, 100, 1000, "caller-runs", 0);
+
+        writer.enqueue(event(1));
+        writer.enqueue(event(2));
+        writer.enqueue(event(3));
+
+        verify(eventRepository).insertAll(List.of(event(3)));
+        assertEquals(2, writer.getBufferedEvents());
+    }
+
+    @Test
+    void enqueue_WhenFullAndDrop_CountsDroppedEvent() {
+        writer = new AuditEventWriter(eventRepository, 2, 100, 1000, "drop", 0);
+
+        writer.enqueue(event(1));
+        writer.enqueue(event(2));
+        writer.enqueue(event(3));
+
+        verify(eventRepository, never()).insertAll(anyList());
+        assertEquals(1, writer.getDroppedEvents());
+    }
+
+    @Test
+    void flushRemaining_WritesEverythingStillBuffered() {
+        List<Integer> batchSizes = new ArrayList<>();
+        when(eventRepository.insertAll(anyList())).thenAnswer(invocation -> {
+            List<Event> batch = invocation.getArgument(0);
+            batchSizes.add(batch.size());
+            return batch.size();
+        });
+        writer = new AuditEventWriter(eventRepository, 16, 4, 1000, "drop", 0);
+        for (int i = 0; i < 10; i++) {
+            writer.enqueue(event(i));
+        }
+
+        writer.flushRemaining();
+
+        assertEquals(List.of(4, 4, 2), batchSizes);
+        assertEquals(0, writer.getBufferedEvents());
+    }
+
+    @Test
+    void stop_WritesTheBufferAndThenWritesLateEventsOnCallerThread() {
+        List<Long> written = new CopyOnWriteArrayList<>();
+        when(eventRepository.insertAll(anyList())).thenAnswer(invocation -> {
+            List<Event> batch = invocation.getArgument(0);
+            batch.forEach(event -> written.add(event.getEntityId()));
+            return batch.size();
+        });
+        writer = new AuditEventWriter(eventRepository, 16, 100, 1000, "drop", 0);
+        writer.start();
+        writer.enqueue(event(1));
+        writer.enqueue(event(2));
+
+        writer.stop();
+        assertEquals(List.of(1L, 2L), written);
+        writer.enqueue(event(3));
+
+        assertEquals(List.of(1L, 2L, 3L), written);
+        assertEquals(0, writer.getBufferedEvents());
+    }
+
+    private static Event event(long entityId) {
+        return Event.builder()
+            .eventType("BOOKING_CREATED")
+            .entityType("Booking")
+            .entityId(entityId)
+            .build();
+    }
+}
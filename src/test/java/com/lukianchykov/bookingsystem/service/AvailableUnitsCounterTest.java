@@ -0,0 +1,166 @@
+package com.lukianchykov.bookingsystem.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import com.lukianchykov.bookingsystem.config.cache.CacheLease;
+import com.lukianchykov.bookingsystem.utils.AvailableUnitsChangedEvent;
+import com.lukianchykov.bookingsystem.utils.AvailableUnitsChangedEvent.Transition;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AvailableUnitsCounterTest {
+
+    @Mock
+    private UnitService unitService;
+
+    @Mock
+    private ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+
+    @Mock
+    private ObjectProvider<CacheLease> leaseProvider;
+
+    @Mock
+    private CacheLease lease;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final BookingMetrics bookingMetrics = new BookingMetrics(meterRegistry);
+
+    @Test
+    void getAvailableUnitsCount_CountsOnceThenAppliesDeltas() {
+        AvailableUnitsCounter counter = new AvailableUnitsCounter(unitService, redisTemplateProvider, leaseProvider,
+            bookingMetrics, "memory", 60000);
+        when(unitService.countAvailableUnitsFromDatabase()).thenReturn(10L);
+
+        assertEquals(10L, counter.getAvailableUnitsCount());
+
+        counter.handleAvailableUnitsChanged(new AvailableUnitsChangedEvent(this, Transition.UNIT_BOOKED, 1L));
+        counter.handleAvailableUnitsChanged(
+            new AvailableUnitsChangedEvent(this, Transition.UNIT_ADDED, List.of(2L, 3L)));
+        counter.handleAvailableUnitsChanged(new AvailableUnitsChangedEvent(this, Transition.UNIT_FREED, 1L));
+        counter.handleAvailableUnitsChanged(new AvailableUnitsChangedEvent(this, Transition.UNIT_REMOVED, 3L));
+
+        assertEquals(11L, counter.getAvailableUnitsCount());
+        verify(unitService, times(1)).countAvailableUnitsFromDatabase();
+        assertEquals(4, meterRegistry.get(BookingMetrics.AVAILABILITY_PROPAGATION_TIMER).timers().stream()
+            .mapToLong(Timer::count).sum());
+        assertEquals(4, meterRegistry.get(BookingMetrics.CACHE_EVICTION_TIMER).tag("cache", "available-units").timer()
+            .count());
+    }
+
+    @Test
+    void reconcile_CorrectsDrift() {
+        AvailableUnitsCounter counter = new AvailableUnitsCounter(unitService, redisTemplateProvider, leaseProvider,
+            bookingMetrics, "memory", 60000);
+        when(unitService.countAvailableUnitsFromDatabase()).thenReturn(10L, 7L);
+
+        counter.reconcile();
+        counter.handleAvailableUnitsChanged(new AvailableUnitsChangedEvent(this, Transition.UNIT_FREED, 1L));
+        counter.reconcile();
+
+        assertEquals(7L, counter.getAvailableUnitsCount());
+    }
+
+    @Test
+    void handleAvailableUnitsChanged_IncrementsSharedCounterInRedis() {
+        when(redisTemplateProvider.getIfAvailable()).thenReturn(redisTemplate);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(redisTemplate.hasKey(AvailableUnitsCounter.REDIS_KEY)).thenReturn(true);
+        when(valueOperations.get(AvailableUnitsCounter.REDIS_KEY)).thenReturn("25");
+        AvailableUnitsCounter counter = new AvailableUnitsCounter(unitService, redisTemplateProvider, leaseProvider,
+            bookingMetrics, "redis", 60000);
+
+        counter.handleAvailableUnitsChanged(
+            new AvailableUnitsChangedEvent(this, Transition.UNIT_BOOKED, List.of(1L, 2L)));
+
+        verify(valueOperations).increment(AvailableUnitsCounter.REDIS_KEY, -2L);
+        assertEquals(25L, counter.getAvailableUnitsCount());
+        verify(unitService, never()).countAvailableUnitsFromDatabase();
+    }
+
+    @Test
+    void getAvailableUnitsCount_FallsBackToDatabaseWhenRedisIsDown() {
+        when(redisTemplateProvider.getIfAvailable()).thenReturn(redisTemplate);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get(AvailableUnitsCounter.REDIS_KEY)).thenThrow(new IllegalStateException("down"));
+        when(unitService.countAvailableUnitsFromDatabase()).thenReturn(4L);
+        AvailableUnitsCounter counter = new AvailableUnitsCounter(unitService, redisTemplateProvider, leaseProvider,
+            bookingMetrics, "redis", 60000);
+
+        assertEquals(4L, counter.getAvailableUnitsCount());
+    }
+
+    @Test
+    void reconcile_ConcurrentCallersShareOneDatabaseCount() throws Exception {
+        AvailableUnitsCounter counter = new AvailableUnitsCounter(unitService, redisTemplateProvider, leaseProvider,
+            bookingMetrics, "memory", 60000);
+        CountDownLatch countStarted = new CountDownLatch(1);
+        CountDownLatch releaseCount = new CountDownLatch(1);
+        when(unitService.countAvailableUnitsFromDatabase()).thenAnswer(invocation -> {
+            countStarted.countDown();
+            releaseCount.await();
+            return 3L;
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            results.add(executor.submit(counter::getAvailableUnitsCount));
+            countStarted.await();
+            for (int i = 0; i < 3; i++) {
+                results.add(executor.submit(counter::getAvailableUnitsCount));
+            }
+            Thread.sleep(100);
+            releaseCount.countDown();
+
+            for (Future<Long> result : results) {
+                assertEquals(3L, result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(unitService, times(1)).countAvailableUnitsFromDatabase();
+    }
+
+    @Test
+    void scheduledReconcile_SkipsRecountWhileAnotherNodeHoldsLease() {
+        when(redisTemplateProvider.getIfAvailable()).thenReturn(redisTemplate);
+        when(leaseProvider.getIfAvailable()).thenReturn(lease);
+        when(lease.tryAcquire(any(), any())).thenReturn(false);
+        AvailableUnitsCounter counter = new AvailableUnitsCounter(unitService, redisTemplateProvider, leaseProvider,
+            bookingMetrics, "redis", 60000);
+
+        counter.scheduledReconcile();
+
+        verify(unitService, never()).countAvailableUnitsFromDatabase();
+    }
+}
@@ -0,0 +1,169 @@
+package com.lukianchykov.bookingsystem.service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.lukianchykov.bookingsystem.controller.exception.AdmissionOverloadedException;
+import com.lukianchykov.bookingsystem.controller.exception.BusinessLogicException;
+import com.lukianchykov.bookingsystem.controller.exception.UnitNotAvailableException;
+import com.lukianchykov.bookingsystem.dto.BookingCreateRequest;
+import com.lukianchykov.bookingsystem.dto.BookingResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.dao.DataIntegrityViolationException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookingAdmissionEngineTest {
+
+    private final BookingService bookingService = mock(BookingService.class);
+
+    private final BookingMetrics bookingMetrics = new BookingMetrics(new SimpleMeterRegistry());
+
+    private final BookingAdmissionEngine engine = new BookingAdmissionEngine(bookingService, bookingMetrics, 64, 100);
+
+    @AfterEach
+    void tearDown() {
+        engine.destroy();
+    }
+
+    @Test
+    void admit_DrainsOneUnitWithASingleWriterInBatches() throws Exception {
+        CountDownLatch firstBatchStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstBatch = new CountDownLatch(1);
+        AtomicInteger writing = new AtomicInteger();
+        AtomicInteger maxWriting = new AtomicInteger();
+        List<Integer> batchSizes = new ArrayList<>();
+        doAnswer(invocation -> {
+            maxWriting.accumulateAndGet(writing.incrementAndGet(), Math::max);
+            List<BookingAdmission> batch = invocation.getArgument(1);
+            synchronized (batchSizes) {
+                batchSizes.add(batch.size());
+            }
+            firstBatchStarted.countDown();
+            releaseFirstBatch.await(5, TimeUnit.SECONDS);
+            batch.forEach(admission -> admission.accept(response(admission.getRequest())));
+            writing.decrementAndGet();
+            return null;
+        }).when(bookingService).createAdmitted(eq(1L), anyList());
+
+        CompletableFuture<BookingResponse> first = engine.admit(request(1L, 1));
+        assertTrue(firstBatchStarted.await(5, TimeUnit.SECONDS));
+        List<CompletableFuture<BookingResponse>> queued = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            queued.add(engine.admit(request(1L, 10 + i)));
+        }
+        releaseFirstBatch.countDown();
+
+        assertEquals(1L, first.get(5, TimeUnit.SECONDS).getUserId());
+        for (int i = 0; i < queued.size(); i++) {
+            assertEquals(10L + i, queued.get(i).get(5, TimeUnit.SECONDS).getUserId());
+        }
+        assertEquals(1, maxWriting.get());
+        assertEquals(List.of(1, 10), batchSizes);
+    }
+
+    @Test
+    void admit_FallsBackToSingleBookingsWhenTheBatchFails() throws Exception {
+        doAnswer(invocation -> {
+            List<BookingAdmission> batch = invocation.getArgument(1);
+            batch.stream()
+                .filter(admission -> admission.getRequest().getUserId() == 1L)
+                .forEach(admission -> admission.reject(new UnitNotAvailableException()));
+            throw new DataIntegrityViolationException("bookings_no_overlap");
+        }).when(bookingService).createAdmitted(eq(1L), anyList());
+        when(bookingService.createBooking(any())).thenAnswer(invocation -> response(invocation.getArgument(0)));
+
+        CompletableFuture<BookingResponse> rejected = engine.admit(request(1L, 1));
+        assertInstanceOf(UnitNotAvailableException.class,
+            assertThrows(CompletionException.class, rejected::join).getCause());
+        BookingResponse created = engine.admit(request(1L, 2)).get(5, TimeUnit.SECONDS);
+
+        assertEquals(2L, created.getUserId());
+        verify(bookingService, times(1)).createBooking(any());
+    }
+
+    @Test
+    void admit_RejectsRequestsBeyondTheMailboxCapacityAndIncompleteRequests() throws Exception {
+        BookingAdmissionEngine small = new BookingAdmissionEngine(bookingService, bookingMetrics, 64, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(bookingService).createAdmitted(eq(2L), anyList());
+        try {
+            small.admit(request(2L, 1));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            small.admit(request(2L, 2));
+
+            CompletableFuture<BookingResponse> overflow = small.admit(request(2L, 3));
+
+            assertInstanceOf(AdmissionOverloadedException.class,
+                assertThrows(CompletionException.class, overflow::join).getCause());
+        } finally {
+            release.countDown();
+            small.destroy();
+        }
+
+        CompletableFuture<BookingResponse> incomplete = engine.admit(new BookingCreateRequest());
+        assertInstanceOf(BusinessLogicException.class,
+            assertThrows(CompletionException.class, incomplete::join).getCause());
+        verify(bookingService, never()).createAdmitted(eq(null), anyList());
+    }
+
+    @Test
+    void admit_DropsMailboxesOnceTheyHaveDrained() throws Exception {
+        doAnswer(invocation -> {
+            List<BookingAdmission> batch = invocation.getArgument(1);
+            batch.forEach(admission -> admission.accept(new BookingResponse()));
+            return null;
+        }).when(bookingService).createAdmitted(any(), anyList());
+        List<CompletableFuture<BookingResponse>> results = new ArrayList<>();
+        for (long unitId = 1; unitId <= 200; unitId++) {
+            results.add(engine.admit(request(unitId, 1)));
+        }
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (engine.mailboxCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, engine.mailboxCount());
+        verify(bookingService, times(200)).createAdmitted(any(), anyList());
+    }
+
+    private static BookingCreateRequest request(Long unitId, long userId) {
+        return new BookingCreateRequest(unitId, userId, LocalDate.now().plusDays(userId),
+            LocalDate.now().plusDays(userId + 1), null);
+    }
+
+    private static BookingResponse response(BookingCreateRequest request) {
+        return BookingResponse.builder()
+            .unitId(request.getUnitId())
+            .userId(request.getUserId())
+            .build();
+    }
+}
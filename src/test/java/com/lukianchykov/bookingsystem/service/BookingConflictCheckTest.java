@@ -0,0 +1,102 @@
+package com.lukianchykov.bookingsystem.service;
+
+import java.time.Duration;
+import java.util.List;
+
+import com.lukianchykov.bookingsystem.config.lock.StripedUnitLockProvider;
+import com.lukianchykov.bookingsystem.config.lock.UnitLockProvider;
+import com.lukianchykov.bookingsystem.repository.BookingRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingConflictCheckTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void syncUnit_SkipsTheQueryWhenTheConstraintExcludesAndNoLockIsHeld() {
+        database("PostgreSQL", true);
+        BookingConflictCheck check = new BookingConflictCheck(bookingRepository, bookingIntervalIndex, jdbcTemplate,
+            UnitLockProvider.NONE);
+
+        check.syncUnit(1L);
+
+        verify(bookingRepository, never()).findActiveBookingRanges(any());
+    }
+
+    @Test
+    void resyncAfterConflict_ReloadsOnlyUnitsNotSyncedBeforeTheClaim() {
+        database("PostgreSQL", true);
+        BookingConflictCheck check = new BookingConflictCheck(bookingRepository, bookingIntervalIndex, jdbcTemplate,
+            UnitLockProvider.NONE);
+        when(bookingIntervalIndex.commitSequence()).thenReturn(4L);
+        when(bookingRepository.findActiveBookingRanges(1L)).thenReturn(List.of());
+
+        assertTrue(check.resyncAfterConflict(1L));
+        verify(bookingIntervalIndex).replaceCommitted(1L, List.of(), 4L);
+
+        BookingConflictCheck locked = new BookingConflictCheck(bookingRepository, bookingIntervalIndex,
+            jdbcTemplate, new StripedUnitLockProvider(16, Duration.ofSeconds(1)));
+        assertFalse(locked.resyncAfterConflict(1L));
+        verify(bookingRepository, times(1)).findActiveBookingRanges(1L);
+    }
+
+    @Test
+    void syncUnit_LoadsTheUnitOnceItsLockIsHeld() {
+        database("PostgreSQL", true);
+        BookingConflictCheck check = new BookingConflictCheck(bookingRepository, bookingIntervalIndex, jdbcTemplate,
+            new StripedUnitLockProvider(16, Duration.ofSeconds(1)));
+        when(bookingRepository.findActiveBookingRanges(1L)).thenReturn(List.of());
+
+        check.syncUnit(1L);
+        check.syncUnit(1L);
+
+        verify(bookingIntervalIndex, times(2)).replaceCommitted(eq(1L), eq(List.of()), anyLong());
+        verify(jdbcTemplate).execute(ArgumentMatchers.<ConnectionCallback<String>>any());
+    }
+
+    @Test
+    void syncUnit_LoadsTheUnitWithoutTheConstraint() {
+        database("H2", false);
+        BookingConflictCheck check = new BookingConflictCheck(bookingRepository, bookingIntervalIndex, jdbcTemplate,
+            UnitLockProvider.NONE);
+        when(bookingRepository.findActiveBookingRanges(1L)).thenReturn(List.of());
+
+        check.syncUnit(1L);
+
+        verify(bookingIntervalIndex).replaceCommitted(eq(1L), any(), anyLong());
+        verify(jdbcTemplate, never()).queryForObject(anyString(), eq(Boolean.class));
+    }
+
+    private void database(String product, boolean constraint) {
+        when(jdbcTemplate.execute(ArgumentMatchers.<ConnectionCallback<String>>any())).thenReturn(product);
+        if (constraint) {
+            when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class))).thenReturn(true);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.lukianchykov.bookingsystem.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import com.lukianchykov.bookingsystem.repository.BookingRepository;
+import com.lukianchykov.bookingsystem.repository.ExpiredBooking;
+import com.lukianchykov.bookingsystem.utils.AvailableUnitsChangedEvent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingExpirationServiceTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    @Mock
+    private EventService eventService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private BookingExpirationService bookingExpirationService;
+
+    @BeforeEach
+    void setUp() {
+        bookingExpirationService = new BookingExpirationService(bookingRepository, eventPublisher,
+            bookingIntervalIndex, eventService, new BookingMetrics(meterRegistry), transactionManager, 2);
+    }
+
+    @Test
+    void expireBookings_ProcessesChunksUntilShortChunk() {
+        when(bookingRepository.expirePendingBookings(any(LocalDateTime.class), eq(2)))
+            .thenReturn(List.of(new ExpiredBooking(1L, 10L), new ExpiredBooking(2L, 10L)))
+            .thenReturn(List.of(new ExpiredBooking(3L, 20L)));
+        when(bookingIntervalIndex.activeBookingCount(10L)).thenReturn(3);
+        when(bookingIntervalIndex.activeBookingCount(20L)).thenReturn(1);
+
+        bookingExpirationService.expireBookings();
+
+        verify(bookingRepository, times(2)).expirePendingBookings(any(LocalDateTime.class), eq(2));
+        verify(transactionManager, times(2)).commit(any());
+        verify(bookingIntervalIndex).release(10L, 1L);
+        verify(bookingIntervalIndex).release(10L, 2L);
+        verify(bookingIntervalIndex).release(20L, 3L);
+        verify(eventService).createEvents("BOOKING_EXPIRED", "Booking",
+            Map.of(1L, "Booking expired for unit 10", 2L, "Booking expired for unit 10"));
+        verify(eventService).createEvents("BOOKING_EXPIRED", "Booking", Map.of(3L, "Booking expired for unit 20"));
+
+        ArgumentCaptor<AvailableUnitsChangedEvent> captor = ArgumentCaptor.forClass(AvailableUnitsChangedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertEquals(AvailableUnitsChangedEvent.Transition.UNIT_FREED, captor.getValue().getTransition());
+        assertEquals(List.of(20L), captor.getValue().getUnitIds());
+
+        DistributionSummary batches = meterRegistry.get(BookingMetrics.EXPIRATION_BATCH).summary();
+        assertEquals(2, batches.count());
+        assertEquals(3, batches.totalAmount());
+    }
+
+    @Test
+    void expireBookings_PublishesOneNotificationPerChunk() {
+        when(bookingRepository.expirePendingBookings(any(LocalDateTime.class), eq(2)))
+            .thenReturn(List.of(new ExpiredBooking(1L, 10L), new ExpiredBooking(2L, 20L)))
+            .thenReturn(List.of());
+        when(bookingIntervalIndex.activeBookingCount(10L)).thenReturn(1);
+        when(bookingIntervalIndex.activeBookingCount(20L)).thenReturn(1);
+
+        bookingExpirationService.expireBookings();
+
+        ArgumentCaptor<AvailableUnitsChangedEvent> captor = ArgumentCaptor.forClass(AvailableUnitsChangedEvent.class);
+        verify(eventPublisher).publishEvent(captor.capture());
+        assertEquals(2, captor.getValue().getDelta());
+        verify(eventService).createEvents(eq("BOOKING_EXPIRED"), eq("Booking"), anyMap());
+    }
+
+    @Test
+    void expireBookings_DoesNothingWhenNoBookingExpired() {
+        when(bookingRepository.expirePendingBookings(any(LocalDateTime.class), eq(2))).thenReturn(List.of());
+
+        bookingExpirationService.expireBookings();
+
+        verify(eventPublisher, never()).publishEvent(any());
+        verify(eventService, never()).createEvents(anyString(), anyString(), anyMap());
+    }
+}
@@ -0,0 +1,210 @@
+package com.lukianchykov.bookingsystem.service;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import com.lukianchykov.bookingsystem.controller.exception.InvalidHoldDurationException;
+import com.lukianchykov.bookingsystem.repository.BookingHoldView;
+import com.lukianchykov.bookingsystem.repository.BookingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingHoldSchedulerTest {
+
+    private static final Instant START = Instant.parse("2030-01-01T10:00:00.300Z");
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private BookingExpirationService bookingExpirationService;
+
+    private MutableClock clock;
+
+    private BookingHoldScheduler bookingHoldScheduler;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(START);
+        bookingHoldScheduler = new BookingHoldScheduler(bookingRepository, bookingExpirationService, clock,
+            1000, 8, 15, 60);
+    }
+
+    @Test
+    void tick_ExpiresWithinOneTickOfDeadline() {
+        bookingHoldScheduler.schedule(1L, now().plusSeconds(5));
+
+        clock.advanceMillis(4_000);
+        bookingHoldScheduler.tick();
+        verify(bookingExpirationService, never()).expireBookings();
+
+        clock.advanceMillis(1_700);
+        bookingHoldScheduler.tick();
+        verify(bookingExpirationService).expireBookings();
+        assertEquals(0, bookingHoldScheduler.pendingHolds());
+    }
+
+    @Test
+    void tick_KeepsDeadlinesBeyondOneRotationUntilTheyAreDue() {
+        bookingHoldScheduler.schedule(1L, now().plusSeconds(20));
+
+        for (int second = 0; second < 19; second++) {
+            clock.advanceMillis(1_000);
+            bookingHoldScheduler.tick();
+        }
+        verify(bookingExpirationService, never()).expireBookings();
+
+        clock.advanceMillis(1_700);
+        bookingHoldScheduler.tick();
+        verify(bookingExpirationService).expireBookings();
+    }
+
+    @Test
+    void tick_CatchesUpAfterLongPause() {
+        bookingHoldScheduler.schedule(1L, now().plusSeconds(3));
+        bookingHoldScheduler.schedule(2L, now().plusSeconds(30));
+        bookingHoldScheduler.schedule(3L, now().plusMinutes(10));
+
+        clock.advanceMillis(60_000);
+        bookingHoldScheduler.tick();
+
+        verify(bookingExpirationService, times(1)).expireBookings();
+        assertEquals(1, bookingHoldScheduler.pendingHolds());
+    }
+
+    @Test
+    void schedule_ReschedulingMovesDeadline() {
+        bookingHoldScheduler.schedule(1L, now().plusSeconds(2));
+        bookingHoldScheduler.schedule(1L, now().plusSeconds(10));
+
+        clock.advanceMillis(3_000);
+        bookingHoldScheduler.tick();
+        verify(bookingExpirationService, never()).expireBookings();
+
+        clock.advanceMillis(8_000);
+        bookingHoldScheduler.tick();
+        verify(bookingExpirationService).expireBookings();
+    }
+
+    @Test
+    void schedule_AppliesOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            bookingHoldScheduler.schedule(1L, now().plusSeconds(2));
+            assertEquals(0, bookingHoldScheduler.pendingHolds());
+
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCommit();
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(1, bookingHoldScheduler.pendingHolds());
+    }
+
+    @Test
+    void cancel_RemovesDeadline() {
+        bookingHoldScheduler.schedule(1L, now().plusSeconds(2));
+        bookingHoldScheduler.cancel(1L);
+
+        clock.advanceMillis(5_000);
+        bookingHoldScheduler.tick();
+
+        verify(bookingExpirationService, never()).expireBookings();
+    }
+
+    @Test
+    void rebuild_SchedulesPendingHoldsAndFiresOverdueOnes() {
+        when(bookingRepository.findPendingHolds()).thenReturn(List.of(
+            hold(1L, now().minusMinutes(1)),
+            hold(2L, now().plusMinutes(5))));
+
+        bookingHoldScheduler.rebuild();
+        clock.advanceMillis(1_000);
+        bookingHoldScheduler.tick();
+
+        verify(bookingExpirationService).expireBookings();
+        assertEquals(1, bookingHoldScheduler.pendingHolds());
+    }
+
+    @Test
+    void holdDeadline_UsesDefaultAndRejectsOutOfRangeHolds() {
+        assertEquals(now().plusMinutes(15), bookingHoldScheduler.holdDeadline(null));
+        assertEquals(now().plusMinutes(45), bookingHoldScheduler.holdDeadline(45));
+        assertThrows(InvalidHoldDurationException.class, () -> bookingHoldScheduler.holdDeadline(0));
+        assertThrows(InvalidHoldDurationException.class, () -> bookingHoldScheduler.holdDeadline(61));
+    }
+
+    @Test
+    void extendedDeadline_RejectsExtensionBeyondMaximumHold() {
+        LocalDateTime expiresAt = now().plusMinutes(50);
+
+        assertEquals(expiresAt.plusMinutes(10), bookingHoldScheduler.extendedDeadline(expiresAt, 10));
+        assertThrows(InvalidHoldDurationException.class,
+            () -> bookingHoldScheduler.extendedDeadline(expiresAt, 11));
+    }
+
+    private LocalDateTime now() {
+        return LocalDateTime.now(clock);
+    }
+
+    private static BookingHoldView hold(Long id, LocalDateTime expiresAt) {
+        return new BookingHoldView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public LocalDateTime getExpiresAt() {
+                return expiresAt;
+            }
+        };
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        private void advanceMillis(long millis) {
+            instant = instant.plusMillis(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.systemDefault();
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
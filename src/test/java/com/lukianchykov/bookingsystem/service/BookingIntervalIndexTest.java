@@ -0,0 +1,207 @@
+package com.lukianchykov.bookingsystem.service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.lukianchykov.bookingsystem.domain.Booking;
+import com.lukianchykov.bookingsystem.domain.Unit;
+import com.lukianchykov.bookingsystem.repository.BookingRangeView;
+import com.lukianchykov.bookingsystem.repository.BookingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingIntervalIndexTest {
+
+    private static final LocalDate BASE = LocalDate.of(2030, 1, 1);
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private BookingRangeListener rangeListener;
+
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    @BeforeEach
+    void setUp() {
+        bookingIntervalIndex = new BookingIntervalIndex(bookingRepository, List.of(rangeListener));
+    }
+
+    @Test
+    void rebuild_LoadsActiveRangesFromDatabase() {
+        when(bookingRepository.findActiveBookingRanges()).thenReturn(List.of(
+            range(1L, 10L, BASE.plusDays(5), BASE.plusDays(7)),
+            range(2L, 10L, BASE, BASE.plusDays(2)),
+            range(3L, 20L, BASE, BASE.plusDays(30))));
+
+        bookingIntervalIndex.rebuild();
+
+        assertTrue(bookingIntervalIndex.hasConflict(10L, BASE.plusDays(7), BASE.plusDays(9)));
+        assertTrue(bookingIntervalIndex.hasConflict(10L, BASE.minusDays(3), BASE));
+        assertFalse(bookingIntervalIndex.hasConflict(10L, BASE.plusDays(3), BASE.plusDays(4)));
+        assertTrue(bookingIntervalIndex.hasConflict(20L, BASE.plusDays(10), BASE.plusDays(11)));
+        assertFalse(bookingIntervalIndex.hasConflict(30L, BASE, BASE.plusDays(100)));
+        assertEquals(2, bookingIntervalIndex.activeBookingCount(10L));
+        verify(rangeListener).onRangesReloaded(argThat(active -> active.get(10L).size() == 2));
+    }
+
+    @Test
+    void hasConflict_DetectsRangeHiddenBehindLongerEarlierBooking() {
+        bookingIntervalIndex.register(booking(1L, 10L, BASE, BASE.plusDays(20)));
+        bookingIntervalIndex.register(booking(2L, 10L, BASE.plusDays(2), BASE.plusDays(3)));
+
+        assertTrue(bookingIntervalIndex.hasConflict(10L, BASE.plusDays(10), BASE.plusDays(12)));
+    }
+
+    @Test
+    void tryReserve_RejectsOverlappingRangeAndAcceptsAdjacentOne() {
+        assertNotNull(bookingIntervalIndex.tryReserve(10L, BASE, BASE.plusDays(3)));
+
+        assertNull(bookingIntervalIndex.tryReserve(10L, BASE.plusDays(3), BASE.plusDays(5)));
+        assertNotNull(bookingIntervalIndex.tryReserve(10L, BASE.plusDays(4), BASE.plusDays(5)));
+        assertNotNull(bookingIntervalIndex.tryReserve(11L, BASE, BASE.plusDays(3)));
+    }
+
+    @Test
+    void tryReserve_DropsReservationWhenTransactionRollsBack() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertNotNull(bookingIntervalIndex.tryReserve(10L, BASE, BASE.plusDays(3)));
+            assertTrue(bookingIntervalIndex.hasConflict(10L, BASE, BASE));
+
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertFalse(bookingIntervalIndex.hasConflict(10L, BASE, BASE.plusDays(3)));
+    }
+
+    @Test
+    void release_RemovesBookingOnlyAfterCommit() {
+        Booking booking = booking(1L, 10L, BASE, BASE.plusDays(3));
+        bookingIntervalIndex.register(booking);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            bookingIntervalIndex.release(booking);
+            assertTrue(bookingIntervalIndex.hasConflict(10L, BASE, BASE));
+
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCommit();
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertFalse(bookingIntervalIndex.hasConflict(10L, BASE, BASE.plusDays(3)));
+        assertEquals(0, bookingIntervalIndex.activeBookingCount(10L));
+        verify(rangeListener).onRangesChanged(10L, new BookingRange(10L, BASE, BASE.plusDays(3)), List.of());
+    }
+
+    @Test
+    void register_IsIdempotentPerBooking() {
+        Booking booking = booking(1L, 10L, BASE, BASE.plusDays(3));
+
+        bookingIntervalIndex.register(booking);
+        bookingIntervalIndex.register(booking);
+
+        assertEquals(1, bookingIntervalIndex.activeBookingCount(10L));
+    }
+
+    @Test
+    void replaceCommitted_TakesTheDatabaseRangesAndKeepsOpenClaims() {
+        bookingIntervalIndex.register(booking(1L, 10L, BASE, BASE.plusDays(3)));
+        bookingIntervalIndex.register(booking(2L, 10L, BASE.plusDays(5), BASE.plusDays(7)));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertNotNull(bookingIntervalIndex.tryReserve(10L, BASE.plusDays(20), BASE.plusDays(22)));
+
+            bookingIntervalIndex.replaceCommitted(10L, List.of(
+                range(1L, 10L, BASE, BASE.plusDays(3)),
+                range(3L, 10L, BASE.plusDays(10), BASE.plusDays(12))), bookingIntervalIndex.commitSequence());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(3, bookingIntervalIndex.activeBookingCount(10L));
+        assertNotNull(bookingIntervalIndex.tryReserve(10L, BASE.plusDays(5), BASE.plusDays(7)));
+        assertTrue(bookingIntervalIndex.hasConflict(10L, BASE.plusDays(11), BASE.plusDays(11)));
+        assertTrue(bookingIntervalIndex.hasConflict(10L, BASE.plusDays(21), BASE.plusDays(21)));
+        verify(rangeListener).onRangesChanged(eq(10L), eq(new BookingRange(10L, BASE.plusDays(5), BASE.plusDays(7))),
+            argThat(active -> !active.contains(new BookingRange(10L, BASE.plusDays(5), BASE.plusDays(7)))));
+    }
+
+    @Test
+    void replaceCommitted_KeepsClaimsCommittedAfterTheRead() {
+        long readFrom = bookingIntervalIndex.commitSequence();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertNotNull(bookingIntervalIndex.tryReserve(10L, BASE, BASE.plusDays(3)));
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        bookingIntervalIndex.replaceCommitted(10L, List.of(), readFrom);
+        assertTrue(bookingIntervalIndex.hasConflict(10L, BASE, BASE));
+
+        bookingIntervalIndex.replaceCommitted(10L, List.of(), bookingIntervalIndex.commitSequence());
+        assertFalse(bookingIntervalIndex.hasConflict(10L, BASE, BASE));
+    }
+
+    private static Booking booking(Long id, Long unitId, LocalDate startDate, LocalDate endDate) {
+        return Booking.builder()
+            .id(id)
+            .unit(Unit.builder().id(unitId).build())
+            .startDate(startDate)
+            .endDate(endDate)
+            .build();
+    }
+
+    private static BookingRangeView range(Long id, Long unitId, LocalDate startDate, LocalDate endDate) {
+        return new BookingRangeView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getUnitId() {
+                return unitId;
+            }
+
+            @Override
+            public LocalDate getStartDate() {
+                return startDate;
+            }
+
+            @Override
+            public LocalDate getEndDate() {
+                return endDate;
+            }
+        };
+    }
+}
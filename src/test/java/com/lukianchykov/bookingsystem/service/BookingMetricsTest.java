@@ -0,0 +1,49 @@
+package com.lukianchykov.bookingsystem.service;
+
+import java.util.concurrent.TimeUnit;
+
+import com.lukianchykov.bookingsystem.dto.LatencyStatsResponse;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookingMetricsTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final BookingMetrics bookingMetrics = new BookingMetrics(meterRegistry);
+
+    @Test
+    void latencySummary_ReportsPercentilesCountersAndGauges() {
+        bookingMetrics.time(BookingMetrics.CREATE, BookingMetrics.CONFLICT_CHECK, () -> { });
+        for (int millis = 1; millis <= 100; millis++) {
+            meterRegistry.timer(BookingMetrics.PIPELINE_TIMER, "operation", BookingMetrics.CREATE, "stage",
+                BookingMetrics.CONFLICT_CHECK).record(millis, TimeUnit.MILLISECONDS);
+        }
+        bookingMetrics.recordOutcome(BookingMetrics.Outcome.CONFLICT);
+        bookingMetrics.recordOutcome(BookingMetrics.Outcome.CONFLICT);
+        bookingMetrics.recordExpirationBatch(7);
+        Gauge.builder(BookingMetrics.PENDING_HOLDS_GAUGE, () -> 3).register(meterRegistry);
+        meterRegistry.counter("jvm.unrelated").increment();
+
+        LatencyStatsResponse summary = bookingMetrics.latencySummary();
+
+        assertEquals(1, summary.getTimers().size());
+        LatencyStatsResponse.TimerStats conflictCheck = summary.getTimers().get(0);
+        assertEquals("booking.pipeline{operation=create,stage=conflict-check}", conflictCheck.getName());
+        assertEquals(101, conflictCheck.getCount());
+        assertTrue(conflictCheck.getP99Ms() >= 90 && conflictCheck.getP99Ms() <= 110,
+            "p99 " + conflictCheck.getP99Ms());
+        assertTrue(conflictCheck.getMaxMs() >= 100);
+
+        assertEquals(2.0, summary.getCounters().get("booking.outcome{outcome=conflict}"));
+        assertEquals(1.0, summary.getCounters().get("booking.expiration.batch.count"));
+        assertEquals(7.0, summary.getCounters().get("booking.expiration.batch.total"));
+        assertEquals(3.0, summary.getGauges().get("booking.holds.pending"));
+        assertTrue(summary.getCounters().keySet().stream().allMatch(name -> name.startsWith("booking.")));
+    }
+}
@@ -1,12 +1,19 @@
 package com.lukianchykov.bookingsystem.service;
 
 import java.math.BigDecimal;
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletionException;
 
+import com.lukianchykov.bookingsystem.config.lock.UnitLockProvider;
+import com.lukianchykov.bookingsystem.controller.exception.InvalidBookingStatusException;
+import com.lukianchykov.bookingsystem.controller.exception.InvalidHoldDurationException;
+import com.lukianchykov.bookingsystem.controller.exception.UnitNotAvailableException;
+import com.lukianchykov.bookingsystem.controller.exception.UserNotFoundException;
 import com.lukianchykov.bookingsystem.domain.AccommodationType;
 import com.lukianchykov.bookingsystem.domain.Booking;
 import com.lukianchykov.bookingsystem.domain.BookingStatus;
@@ -19,20 +26,36 @@ import com.lukianchykov.bookingsystem.repository.BookingRepository;
 import com.lukianchykov.bookingsystem.repository.UnitRepository;
 import com.lukianchykov.bookingsystem.repository.UserRepository;
 import com.lukianchykov.bookingsystem.utils.AvailableUnitsChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -57,6 +80,22 @@ class BookingServiceTest {
     @Mock
     private EventService eventService;
 
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    @Mock
+    private BookingHoldScheduler bookingHoldScheduler;
+
+    @Mock
+    private UnitLockProvider unitLockProvider;
+
+    @Mock
+    private BookingConflictCheck bookingConflictCheck;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private BookingMetrics bookingMetrics = new BookingMetrics(meterRegistry);
 
     @InjectMocks
     private BookingService bookingService;
@@ -128,9 +167,8 @@ class BookingServiceTest {
 
         when(unitRepository.findById(1L)).thenReturn(Optional.of(testUnit));
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(bookingRepository.findConflictingBookings(any(), any(), any()))
-            .thenReturn(Collections.emptyList());
-        when(bookingRepository.save(any(Booking.class))).thenReturn(testBooking);
+        when(bookingIntervalIndex.tryReserve(any(), any(), any())).thenReturn(firstReservationForUnit());
+        when(bookingRepository.saveAndFlush(any(Booking.class))).thenReturn(testBooking);
         when(bookingMapper.toResponse(any(Booking.class))).thenReturn(testBookingResponse);
 
         BookingResponse result = bookingService.createBooking(testRequest);
@@ -141,8 +179,88 @@ class BookingServiceTest {
         assertEquals(1L, result.getUserId());
         assertEquals(BookingStatus.PENDING, result.getStatus());
 
-        verify(bookingRepository).save(any(Booking.class));
-        verify(eventPublisher).publishEvent(any(AvailableUnitsChangedEvent.class));
+        verify(bookingRepository).saveAndFlush(any(Booking.class));
+        verify(bookingIntervalIndex).bind(any(), eq(1L));
+        verify(eventPublisher).publishEvent(argThat((AvailableUnitsChangedEvent event) ->
+            event.getTransition() == AvailableUnitsChangedEvent.Transition.UNIT_BOOKED
+                && event.getUnitIds().equals(List.of(1L))));
+        assertEquals(1, outcomes("created"));
+        for (String stage : List.of(BookingMetrics.UNIT_LOOKUP, BookingMetrics.USER_LOOKUP,
+            BookingMetrics.CONFLICT_CHECK, BookingMetrics.WRITE, BookingMetrics.EVENT_WRITE)) {
+            assertEquals(1, meterRegistry.get(BookingMetrics.PIPELINE_TIMER)
+                .tags("operation", BookingMetrics.CREATE, "stage", stage).timer().count(), stage);
+        }
+    }
+
+    @Test
+    void createBooking_CountsTheCreatedOutcomeOnlyOnceCommitted() {
+
+        when(unitRepository.findById(1L)).thenReturn(Optional.of(testUnit));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(bookingIntervalIndex.tryReserve(any(), any(), any())).thenReturn(firstReservationForUnit());
+        when(bookingRepository.saveAndFlush(any(Booking.class))).thenReturn(testBooking);
+        when(bookingMapper.toResponse(any(Booking.class))).thenReturn(testBookingResponse);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            bookingService.createBooking(testRequest);
+
+            assertNull(meterRegistry.find(BookingMetrics.OUTCOME_COUNTER).tag("outcome", "created").counter());
+            TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+            assertEquals(1, outcomes("created"));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void createBooking_LocksAndSyncsTheUnitBeforeCheckingConflicts() {
+
+        when(unitRepository.findById(1L)).thenReturn(Optional.of(testUnit));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(bookingIntervalIndex.tryReserve(any(), any(), any())).thenReturn(null);
+
+        assertThrows(UnitNotAvailableException.class, () -> bookingService.createBooking(testRequest));
+
+        InOrder order = inOrder(unitLockProvider, bookingConflictCheck, bookingIntervalIndex);
+        order.verify(unitLockProvider).lock(1L);
+        order.verify(bookingConflictCheck).syncUnit(1L);
+        order.verify(bookingIntervalIndex).tryReserve(any(), any(), any());
+        assertEquals(1, meterRegistry.get(BookingMetrics.PIPELINE_TIMER)
+            .tags("operation", BookingMetrics.CREATE, "stage", BookingMetrics.LOCK_WAIT).timer().count());
+    }
+
+    @Test
+    void createBooking_IndexConflict_IsCheckedAgainstTheDatabaseBeforeRejecting() {
+
+        when(unitRepository.findById(1L)).thenReturn(Optional.of(testUnit));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(bookingIntervalIndex.tryReserve(any(), any(), any())).thenReturn(null, firstReservationForUnit());
+        when(bookingConflictCheck.resyncAfterConflict(1L)).thenReturn(true);
+        when(bookingRepository.saveAndFlush(any(Booking.class))).thenReturn(testBooking);
+        when(bookingMapper.toResponse(any(Booking.class))).thenReturn(testBookingResponse);
+
+        assertEquals(testBookingResponse, bookingService.createBooking(testRequest));
+
+        InOrder order = inOrder(bookingIntervalIndex, bookingConflictCheck);
+        order.verify(bookingIntervalIndex).tryReserve(any(), any(), any());
+        order.verify(bookingConflictCheck).resyncAfterConflict(1L);
+        order.verify(bookingIntervalIndex).tryReserve(any(), any(), any());
+    }
+
+    @Test
+    void createBooking_UnitAlreadyBookedOnOtherDates_DoesNotPublishTransition() {
+
+        when(unitRepository.findById(1L)).thenReturn(Optional.of(testUnit));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(bookingIntervalIndex.tryReserve(any(), any(), any()))
+            .thenReturn(new BookingIntervalIndex.Reservation(1L, 0, 0));
+        when(bookingRepository.saveAndFlush(any(Booking.class))).thenReturn(testBooking);
+        when(bookingMapper.toResponse(any(Booking.class))).thenReturn(testBookingResponse);
+
+        bookingService.createBooking(testRequest);
+
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
@@ -153,8 +271,9 @@ class BookingServiceTest {
         RuntimeException exception = assertThrows(RuntimeException.class,
             () -> bookingService.createBooking(testRequest));
         assertEquals("Unit not found with ID: 1", exception.getMessage());
+        assertEquals(1, outcomes("not-found"));
 
-        verify(bookingRepository, never()).save(any());
+        verify(bookingRepository, never()).saveAndFlush(any());
         verify(eventPublisher, never()).publishEvent(any());
     }
 
@@ -168,7 +287,7 @@ class BookingServiceTest {
             () -> bookingService.createBooking(testRequest));
         assertEquals("User not found with ID: 1", exception.getMessage());
 
-        verify(bookingRepository, never()).save(any());
+        verify(bookingRepository, never()).saveAndFlush(any());
         verify(eventPublisher, never()).publishEvent(any());
     }
 
@@ -177,17 +296,50 @@ class BookingServiceTest {
 
         when(unitRepository.findById(1L)).thenReturn(Optional.of(testUnit));
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(bookingRepository.findConflictingBookings(any(), any(), any()))
-            .thenReturn(List.of(testBooking));
+        when(bookingIntervalIndex.tryReserve(any(), any(), any())).thenReturn(null);
 
         RuntimeException exception = assertThrows(RuntimeException.class,
             () -> bookingService.createBooking(testRequest));
         assertEquals("Unit is not available for the selected dates", exception.getMessage());
+        assertEquals(1, outcomes("conflict"));
 
-        verify(bookingRepository, never()).save(any());
+        verify(bookingRepository, never()).saveAndFlush(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void createBooking_OverlapConstraintViolated_ThrowsException() {
+
+        when(unitRepository.findById(1L)).thenReturn(Optional.of(testUnit));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(bookingIntervalIndex.tryReserve(any(), any(), any()))
+            .thenReturn(new BookingIntervalIndex.Reservation(1L, 0, 0));
+        when(bookingRepository.saveAndFlush(any(Booking.class))).thenThrow(new DataIntegrityViolationException(
+            "could not execute statement", new SQLException("conflicting key value violates exclusion constraint "
+            + "\"bookings_no_overlap\"", "23P01")));
+
+        RuntimeException exception = assertThrows(UnitNotAvailableException.class,
+            () -> bookingService.createBooking(testRequest));
+        assertEquals("Unit is not available for the selected dates", exception.getMessage());
+        assertEquals(1, outcomes("conflict"));
+
+        verify(bookingIntervalIndex, never()).bind(any(), any());
         verify(eventPublisher, never()).publishEvent(any());
     }
 
+    @Test
+    void createBooking_OtherIntegrityViolation_IsRethrown() {
+
+        when(unitRepository.findById(1L)).thenReturn(Optional.of(testUnit));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(bookingIntervalIndex.tryReserve(any(), any(), any()))
+            .thenReturn(new BookingIntervalIndex.Reservation(1L, 0, 0));
+        when(bookingRepository.saveAndFlush(any(Booking.class))).thenThrow(new DataIntegrityViolationException(
+            "could not execute statement", new SQLException("null value in column \"unit_id\"", "23502")));
+
+        assertThrows(DataIntegrityViolationException.class, () -> bookingService.createBooking(testRequest));
+    }
+
     @Test
     void cancelBooking_Success_PendingStatus() {
 
@@ -203,7 +355,24 @@ class BookingServiceTest {
         assertEquals(BookingStatus.CANCELLED, result.getStatus());
 
         verify(bookingRepository).save(testBooking);
-        verify(eventPublisher).publishEvent(any(AvailableUnitsChangedEvent.class));
+        verify(bookingIntervalIndex).release(testBooking);
+        verify(eventPublisher).publishEvent(argThat((AvailableUnitsChangedEvent event) ->
+            event.getTransition() == AvailableUnitsChangedEvent.Transition.UNIT_FREED));
+    }
+
+    @Test
+    void cancelBooking_UnitStillHasOtherBookings_DoesNotPublishTransition() {
+
+        testBooking.setStatus(BookingStatus.PENDING);
+        when(bookingRepository.findById(1L)).thenReturn(Optional.of(testBooking));
+        when(bookingIntervalIndex.activeBookingCount(1L)).thenReturn(2);
+        when(bookingRepository.save(any(Booking.class))).thenReturn(testBooking);
+        when(bookingMapper.toResponse(any(Booking.class))).thenReturn(testBookingResponse);
+
+        bookingService.cancelBooking(1L);
+
+        verify(bookingIntervalIndex).release(testBooking);
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
@@ -275,4 +444,137 @@ class BookingServiceTest {
             () -> bookingService.getBooking(1L));
         assertEquals("Booking not found", exception.getMessage());
     }
-}
\ No newline at end of file
+
+    @Test
+    void createBooking_UsesRequestedHoldAndSchedulesExpiry() {
+        LocalDateTime deadline = LocalDateTime.now().plusMinutes(30);
+        testRequest.setHoldMinutes(30);
+        when(unitRepository.findById(1L)).thenReturn(Optional.of(testUnit));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(bookingHoldScheduler.holdDeadline(30)).thenReturn(deadline);
+        when(bookingIntervalIndex.tryReserve(any(), any(), any())).thenReturn(firstReservationForUnit());
+        when(bookingRepository.saveAndFlush(any(Booking.class))).thenAnswer(invocation -> {
+            Booking booking = invocation.getArgument(0);
+            booking.setId(1L);
+            return booking;
+        });
+        when(bookingMapper.toResponse(any(Booking.class))).thenReturn(testBookingResponse);
+
+        bookingService.createBooking(testRequest);
+
+        verify(bookingRepository).saveAndFlush(argThat(booking -> deadline.equals(booking.getExpiresAt())));
+        verify(bookingHoldScheduler).schedule(1L, deadline);
+    }
+
+    @Test
+    void createBooking_HoldTooLong_ThrowsException() {
+        testRequest.setHoldMinutes(600);
+        when(unitRepository.findById(1L)).thenReturn(Optional.of(testUnit));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(bookingHoldScheduler.holdDeadline(600)).thenThrow(new InvalidHoldDurationException(600, 60));
+
+        assertThrows(InvalidHoldDurationException.class, () -> bookingService.createBooking(testRequest));
+
+        verify(bookingIntervalIndex, never()).tryReserve(any(), any(), any());
+        verify(bookingRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void extendHold_Success_ReschedulesExpiry() {
+        LocalDateTime extended = testBooking.getExpiresAt().plusMinutes(10);
+        when(bookingRepository.findById(1L)).thenReturn(Optional.of(testBooking));
+        when(bookingHoldScheduler.isExpired(testBooking.getExpiresAt())).thenReturn(false);
+        when(bookingHoldScheduler.extendedDeadline(testBooking.getExpiresAt(), 10)).thenReturn(extended);
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(bookingMapper.toResponse(any(Booking.class))).thenReturn(testBookingResponse);
+
+        bookingService.extendHold(1L, 10);
+
+        assertEquals(extended, testBooking.getExpiresAt());
+        verify(bookingHoldScheduler).schedule(1L, extended);
+        verify(eventService).createEvent(eq("BOOKING_HOLD_EXTENDED"), eq("Booking"), eq(1L), any());
+    }
+
+    @Test
+    void extendHold_ConfirmedBooking_ThrowsException() {
+        testBooking.setStatus(BookingStatus.CONFIRMED);
+        when(bookingRepository.findById(1L)).thenReturn(Optional.of(testBooking));
+
+        InvalidBookingStatusException exception = assertThrows(InvalidBookingStatusException.class,
+            () -> bookingService.extendHold(1L, 10));
+        assertEquals("Cannot extend hold of booking with status: CONFIRMED", exception.getMessage());
+        verify(bookingHoldScheduler, never()).schedule(any(), any());
+    }
+
+    @Test
+    void extendHold_HoldAlreadyRanOut_ThrowsException() {
+        when(bookingRepository.findById(1L)).thenReturn(Optional.of(testBooking));
+        when(bookingHoldScheduler.isExpired(testBooking.getExpiresAt())).thenReturn(true);
+
+        assertThrows(InvalidBookingStatusException.class, () -> bookingService.extendHold(1L, 10));
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    void createAdmitted_RejectsLosersAndWritesWinnersInOneBatch() {
+        BookingAdmission winner = new BookingAdmission(testRequest);
+        BookingAdmission loser = new BookingAdmission(testRequest);
+        BookingCreateRequest unknownUserRequest = new BookingCreateRequest(1L, 99L,
+            LocalDate.now().plusDays(10), LocalDate.now().plusDays(12), null);
+        BookingAdmission unknownUser = new BookingAdmission(unknownUserRequest);
+        BookingIntervalIndex.Reservation unknownUserReservation = new BookingIntervalIndex.Reservation(1L, 10, 12);
+
+        when(bookingIntervalIndex.tryReserve(any(), any(), any()))
+            .thenReturn(firstReservationForUnit(), null, unknownUserReservation);
+        when(unitRepository.findById(1L)).thenReturn(Optional.of(testUnit));
+        when(userRepository.findAllById(List.of(1L, 99L))).thenReturn(List.of(testUser));
+        when(bookingRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> {
+            List<Booking> bookings = invocation.getArgument(0);
+            bookings.get(0).setId(1L);
+            return bookings;
+        });
+        when(bookingMapper.toResponse(any(Booking.class))).thenReturn(testBookingResponse);
+
+        bookingService.createAdmitted(1L, List.of(winner, loser, unknownUser));
+
+        assertInstanceOf(UnitNotAvailableException.class,
+            assertThrows(CompletionException.class, () -> loser.getResult().join()).getCause());
+        assertInstanceOf(UserNotFoundException.class,
+            assertThrows(CompletionException.class, () -> unknownUser.getResult().join()).getCause());
+        assertFalse(winner.isDone());
+        winner.publish();
+        assertEquals(testBookingResponse, winner.getResult().join());
+
+        verify(bookingRepository).saveAllAndFlush(argThat((List<Booking> bookings) -> bookings.size() == 1));
+        verify(bookingIntervalIndex).bind(any(), eq(1L));
+        verify(bookingIntervalIndex).discard(unknownUserReservation);
+        verify(eventService).createEvents("BOOKING_CREATED", "Booking", Map.of(1L, "Booking created for unit 1"));
+        verify(eventPublisher).publishEvent(argThat((AvailableUnitsChangedEvent event) ->
+            event.getTransition() == AvailableUnitsChangedEvent.Transition.UNIT_BOOKED));
+        assertEquals(1, outcomes("created"));
+        assertEquals(1, outcomes("conflict"));
+        assertEquals(1, outcomes("not-found"));
+    }
+
+    @Test
+    void createAdmitted_AllLosers_DoNotTouchTheDatabase() {
+        BookingAdmission first = new BookingAdmission(testRequest);
+        BookingAdmission second = new BookingAdmission(testRequest);
+        when(bookingIntervalIndex.tryReserve(any(), any(), any())).thenReturn(null);
+
+        bookingService.createAdmitted(1L, List.of(first, second));
+
+        assertTrue(first.isDone() && second.isDone());
+        verifyNoInteractions(unitRepository, userRepository, bookingRepository, eventService);
+        assertEquals(2, outcomes("conflict"));
+    }
+
+    private BookingIntervalIndex.Reservation firstReservationForUnit() {
+        return new BookingIntervalIndex(bookingRepository, List.of())
+            .tryReserve(1L, testRequest.getStartDate(), testRequest.getEndDate());
+    }
+
+    private double outcomes(String outcome) {
+        return meterRegistry.get(BookingMetrics.OUTCOME_COUNTER).tag("outcome", outcome).counter().count();
+    }
+}
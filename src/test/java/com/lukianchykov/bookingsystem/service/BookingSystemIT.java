@@ -1,23 +1,34 @@
 package com.lukianchykov.bookingsystem.service;
 
+import java.io.ByteArrayInputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 import com.lukianchykov.bookingsystem.config.BookingSystemTestConfiguration;
+import com.lukianchykov.bookingsystem.controller.exception.InvalidSearchCursorException;
 import com.lukianchykov.bookingsystem.domain.AccommodationType;
 import com.lukianchykov.bookingsystem.domain.Booking;
 import com.lukianchykov.bookingsystem.domain.BookingStatus;
+import com.lukianchykov.bookingsystem.domain.Event;
 import com.lukianchykov.bookingsystem.domain.Unit;
 import com.lukianchykov.bookingsystem.domain.User;
 import com.lukianchykov.bookingsystem.dto.BookingCreateRequest;
 import com.lukianchykov.bookingsystem.dto.BookingResponse;
 import com.lukianchykov.bookingsystem.dto.UnitCreateRequest;
+import com.lukianchykov.bookingsystem.dto.UnitImportResponse;
 import com.lukianchykov.bookingsystem.dto.UnitResponse;
+import com.lukianchykov.bookingsystem.dto.UnitSearchRequest;
+import com.lukianchykov.bookingsystem.dto.UnitSliceResponse;
 import com.lukianchykov.bookingsystem.dto.UserCreateRequest;
 import com.lukianchykov.bookingsystem.dto.UserResponse;
 import com.lukianchykov.bookingsystem.repository.BookingRepository;
+import com.lukianchykov.bookingsystem.repository.EventRepository;
+import com.lukianchykov.bookingsystem.repository.ExpiredBooking;
 import com.lukianchykov.bookingsystem.repository.UnitRepository;
 import com.lukianchykov.bookingsystem.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -60,6 +71,12 @@ class BookingSystemIT {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private UnitImportService unitImportService;
+
     private User testUser;
 
     private User testOwner;
@@ -280,6 +297,31 @@ class BookingSystemIT {
             .hasMessageContaining("Unit is not available for the selected dates");
     }
 
+    @Test
+    void testBookingServiceRejectsBookingTheIndexHasNotSeen() {
+        LocalDate startDate = LocalDate.now().plusDays(1);
+        LocalDate endDate = LocalDate.now().plusDays(3);
+        bookingRepository.saveAndFlush(Booking.builder()
+            .unit(testUnit)
+            .user(testUser)
+            .startDate(startDate)
+            .endDate(endDate)
+            .totalCost(new BigDecimal("200.00"))
+            .status(BookingStatus.CONFIRMED)
+            .build());
+
+        BookingCreateRequest conflictingRequest = BookingCreateRequest.builder()
+            .unitId(testUnit.getId())
+            .userId(testUser.getId())
+            .startDate(startDate.plusDays(1))
+            .endDate(endDate.plusDays(1))
+            .build();
+
+        assertThatThrownBy(() -> bookingService.createBooking(conflictingRequest))
+            .isInstanceOf(RuntimeException.class)
+            .hasMessageContaining("Unit is not available for the selected dates");
+    }
+
     @Test
     void testBookingServiceCancelBooking() {
         LocalDate startDate = LocalDate.now().plusDays(1);
@@ -378,4 +420,128 @@ class BookingSystemIT {
         List<Booking> bookings = bookingRepository.findAll();
         assertThat(bookings).isEmpty();
     }
-}
\ No newline at end of file
+
+    @Test
+    void testUnitServiceScrollUnitsWithCursor() {
+        for (BigDecimal baseCost : List.of(new BigDecimal("100.00"), new BigDecimal("80.00"),
+            new BigDecimal("120.00"))) {
+            unitService.createUnit(UnitCreateRequest.builder()
+                .numberOfRooms(2)
+                .accommodationType(AccommodationType.FLAT)
+                .floor(1)
+                .baseCost(baseCost)
+                .description("Scroll apartment")
+                .ownerId(testOwner.getId())
+                .build());
+        }
+
+        List<Long> seen = new ArrayList<>();
+        List<BigDecimal> costs = new ArrayList<>();
+        String after = null;
+        int pages = 0;
+        do {
+            UnitSliceResponse slice = unitService.scrollUnits(UnitSearchRequest.builder()
+                .numberOfRooms(2)
+                .sortBy("finalCost")
+                .sortDirection("ASC")
+                .size(2)
+                .after(after)
+                .build());
+            slice.getContent().forEach(unit -> {
+                seen.add(unit.getId());
+                costs.add(unit.getFinalCost());
+            });
+            after = slice.getNextCursor();
+            assertThat(slice.isHasNext()).isEqualTo(after != null);
+            pages++;
+        } while (after != null);
+
+        assertThat(pages).isEqualTo(2);
+        assertThat(seen).hasSize(4).doesNotHaveDuplicates();
+        assertThat(costs).isSorted();
+    }
+
+    @Test
+    void testUnitServiceScrollUnitsRejectsCursorFromDifferentSort() {
+        UnitCreateRequest unitRequest = UnitCreateRequest.builder()
+            .numberOfRooms(2)
+            .accommodationType(AccommodationType.FLAT)
+            .floor(1)
+            .baseCost(new BigDecimal("50.00"))
+            .description("Second apartment")
+            .ownerId(testOwner.getId())
+            .build();
+        unitService.createUnit(unitRequest);
+
+        UnitSliceResponse first = unitService.scrollUnits(UnitSearchRequest.builder()
+            .sortBy("id").sortDirection("ASC").size(1).build());
+
+        assertThat(first.getNextCursor()).isNotNull();
+        assertThatThrownBy(() -> unitService.scrollUnits(UnitSearchRequest.builder()
+            .sortBy("finalCost").sortDirection("ASC").size(1).after(first.getNextCursor()).build()))
+            .isInstanceOf(InvalidSearchCursorException.class);
+    }
+
+    @Test
+    void testEventRepositoryInsertAllWritesMultiRowBatch() {
+        long before = eventRepository.count();
+        List<Event> events = new ArrayList<>();
+        for (long i = 0; i < 501; i++) {
+            events.add(Event.builder()
+                .eventType("BOOKING_EXPIRED")
+                .entityType("Booking")
+                .entityId(i)
+                .eventData("Booking expired")
+                .build());
+        }
+
+        int inserted = eventRepository.insertAll(events);
+
+        assertThat(inserted).isEqualTo(501);
+        assertThat(eventRepository.count()).isEqualTo(before + 501);
+    }
+
+    @Test
+    void testBookingRepositoryExpiresPendingBookingsInChunks() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> expiredIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            BookingResponse response = bookingService.createBooking(BookingCreateRequest.builder()
+                .unitId(testUnit.getId())
+                .userId(testUser.getId())
+                .startDate(LocalDate.now().plusDays(10L * i + 1))
+                .endDate(LocalDate.now().plusDays(10L * i + 3))
+                .build());
+            Booking booking = bookingRepository.findById(response.getId()).orElseThrow();
+            booking.setExpiresAt(i < 2 ? now.minusMinutes(1) : now.plusMinutes(10));
+            expiredIds.add(booking.getId());
+        }
+        bookingRepository.flush();
+
+        List<ExpiredBooking> firstChunk = bookingRepository.expirePendingBookings(now, 1);
+        List<ExpiredBooking> secondChunk = bookingRepository.expirePendingBookings(now, 1);
+        List<ExpiredBooking> thirdChunk = bookingRepository.expirePendingBookings(now, 1);
+
+        assertThat(firstChunk).containsExactly(new ExpiredBooking(expiredIds.get(0), testUnit.getId()));
+        assertThat(secondChunk).containsExactly(new ExpiredBooking(expiredIds.get(1), testUnit.getId()));
+        assertThat(thirdChunk).isEmpty();
+    }
+
+    @Test
+    void testUnitImportServiceImportsCsvStream() {
+        long before = unitRepository.count();
+        String csv = "number_of_rooms,accommodation_type,floor,base_cost,description,owner_id\n"
+            + "2,FLAT,3,100.00,\"Imported flat, near park\"," + testOwner.getId() + "\n"
+            + "3,HOME,1,250.00,Imported home," + testOwner.getId() + "\n"
+            + "1,FLAT,2,90.00,Orphan flat,999999\n";
+
+        UnitImportResponse response = unitImportService.importUnits(
+            new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), UnitImportService.Format.CSV);
+
+        assertThat(response.getImported()).isEqualTo(2);
+        assertThat(response.getRejected()).isEqualTo(1);
+        assertThat(response.getErrors()).extracting("line").containsExactly(4L);
+        assertThat(unitRepository.count()).isEqualTo(before + 2);
+        assertThat(unitRepository.findAll()).extracting(Unit::getDescription).contains("Imported flat, near park");
+    }
+}
@@ -1,36 +1,51 @@
 package com.lukianchykov.bookingsystem.service;
 
-import com.lukianchykov.bookingsystem.utils.AvailableUnitsChangedEvent;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
+import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
-import static org.mockito.Mockito.doNothing;
-import static org.mockito.Mockito.spy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class CacheServiceTest {
 
+    @Mock
+    private AvailableUnitsCounter availableUnitsCounter;
+
     @InjectMocks
     private CacheService cacheService;
 
     @Test
-    void handleAvailableUnitsChanged_CallsEvictCache() {
-        AvailableUnitsChangedEvent event = new AvailableUnitsChangedEvent(this);
+    void getAvailableUnitsCount_ReadsCounter() {
+        when(availableUnitsCounter.getAvailableUnitsCount()).thenReturn(42L);
+
+        assertEquals(42L, cacheService.getAvailableUnitsCount());
+    }
+
+    @Test
+    void evictAvailableUnitsCache_RecountsFromDatabase() {
+        cacheService.evictAvailableUnitsCache();
 
-        CacheService spyCacheService = spy(cacheService);
-        doNothing().when(spyCacheService).evictAvailableUnitsCache();
+        verify(availableUnitsCounter).reconcile();
+    }
 
-        spyCacheService.handleAvailableUnitsChanged(event);
+    @Test
+    void isCacheHealthy_ReturnsFalseWhenCounterFails() {
+        when(availableUnitsCounter.getAvailableUnitsCount()).thenThrow(new IllegalStateException("down"));
 
-        verify(spyCacheService).evictAvailableUnitsCache();
+        assertFalse(cacheService.isCacheHealthy());
     }
 
     @Test
-    void evictAvailableUnitsCache_ExecutesWithoutException() {
-        assertDoesNotThrow(() -> cacheService.evictAvailableUnitsCache());
+    void isCacheHealthy_ReturnsTrueWhenCounterAnswers() {
+        when(availableUnitsCounter.getAvailableUnitsCount()).thenReturn(1L);
+
+        assertTrue(cacheService.isCacheHealthy());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,207 @@
+package com.lukianchykov.bookingsystem.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import com.lukianchykov.bookingsystem.config.cache.InMemoryCacheInvalidationBus;
+import com.lukianchykov.bookingsystem.domain.AccommodationType;
+import com.lukianchykov.bookingsystem.dto.UnitSearchRequest;
+import com.lukianchykov.bookingsystem.repository.UnitAttributesView;
+import com.lukianchykov.bookingsystem.repository.UnitRepository;
+import com.lukianchykov.bookingsystem.utils.UnitChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ColumnarUnitSearchTest {
+
+    @Mock
+    private UnitRepository unitRepository;
+
+    private ColumnarUnitSearch columnarUnitSearch;
+
+    @BeforeEach
+    void setUp() {
+        columnarUnitSearch = new ColumnarUnitSearch(unitRepository, true, UnitScanKernel.preferred(true), null);
+    }
+
+    @Test
+    void supports_OnlyLoadedSnapshotAndSortsHeldInColumns() {
+        UnitSearchRequest request = new UnitSearchRequest();
+        assertFalse(columnarUnitSearch.supports(request));
+
+        load();
+        assertTrue(columnarUnitSearch.supports(request));
+        request.setSortBy("createdAt");
+        assertFalse(columnarUnitSearch.supports(request));
+    }
+
+    @Test
+    void search_AppliesFiltersAndExcludesBookedUnits() {
+        load();
+        UnitSearchRequest request = new UnitSearchRequest();
+        request.setNumberOfRooms(2);
+
+        assertEquals(new UnitSearchCache.Result(List.of(2L), 1), columnarUnitSearch.search(request, List.of(3L))
+            .orElseThrow());
+
+        request.setNumberOfRooms(null);
+        request.setMinCost(new BigDecimal("100"));
+        request.setMaxCost(new BigDecimal("149.50"));
+        assertEquals(new UnitSearchCache.Result(List.of(2L, 3L, 5L), 3), columnarUnitSearch.search(request, List.of())
+            .orElseThrow());
+    }
+
+    @Test
+    void search_PagesByCostWithTiesInIdOrder() {
+        load();
+        UnitSearchRequest request = new UnitSearchRequest();
+        request.setSortBy("finalCost");
+        request.setSortDirection("desc");
+        request.setSize(2);
+
+        assertEquals(List.of(4L, 3L), columnarUnitSearch.search(request, List.of()).orElseThrow().unitIds());
+        request.setPage(1);
+        assertEquals(List.of(2L, 5L), columnarUnitSearch.search(request, List.of()).orElseThrow().unitIds());
+        request.setPage(3);
+        assertEquals(new UnitSearchCache.Result(List.of(), 5), columnarUnitSearch.search(request, List.of())
+            .orElseThrow());
+    }
+
+    @Test
+    void handleUnitChanged_InsertsUpdatesAndDeletesRows() {
+        load();
+        columnarUnitSearch.handleUnitChanged(new UnitChangedEvent(this, List.of(
+            new UnitChangedEvent.Change(1L, null, attributes(2, AccommodationType.FLAT, 2, "99.99")),
+            new UnitChangedEvent.Change(4L, attributes(3, AccommodationType.APARTMENTS, 12, "230.00"), null),
+            new UnitChangedEvent.Change(9L, null, attributes(2, AccommodationType.HOME, 1, "10.00")),
+            new UnitChangedEvent.Change(null, null, attributes(2, AccommodationType.FLAT, 1, "10.00")))));
+        UnitSearchRequest request = new UnitSearchRequest();
+        request.setNumberOfRooms(2);
+
+        assertEquals(new UnitSearchCache.Result(List.of(1L, 2L, 3L, 9L), 4),
+            columnarUnitSearch.search(request, List.of()).orElseThrow());
+    }
+
+    @Test
+    void handleUnitChanged_ReloadsTheChangedUnitsOnOtherNodes() {
+        InMemoryCacheInvalidationBus bus = new InMemoryCacheInvalidationBus();
+        columnarUnitSearch = new ColumnarUnitSearch(unitRepository, true, UnitScanKernel.preferred(true), bus.node());
+        ColumnarUnitSearch otherNode = new ColumnarUnitSearch(unitRepository, true, UnitScanKernel.preferred(true),
+            bus.node());
+        load();
+        otherNode.rebuild();
+        when(unitRepository.findAttributesById(1L))
+            .thenReturn(Optional.of(unit(1L, 2, AccommodationType.FLAT, 2, "99.99")));
+        when(unitRepository.findAttributesById(4L)).thenReturn(Optional.empty());
+
+        columnarUnitSearch.handleUnitChanged(new UnitChangedEvent(this, List.of(
+            new UnitChangedEvent.Change(1L, null, attributes(2, AccommodationType.FLAT, 2, "99.99")))));
+        columnarUnitSearch.handleUnitChanged(new UnitChangedEvent(this, List.of(
+            new UnitChangedEvent.Change(4L, attributes(3, AccommodationType.APARTMENTS, 12, "230.00"), null))));
+        UnitSearchRequest request = new UnitSearchRequest();
+        request.setNumberOfRooms(2);
+
+        assertEquals(new UnitSearchCache.Result(List.of(1L, 2L, 3L), 3),
+            otherNode.search(request, List.of()).orElseThrow());
+        assertEquals(4, otherNode.search(new UnitSearchRequest(), List.of()).orElseThrow().total());
+
+        columnarUnitSearch.handleUnitChanged(new UnitChangedEvent(this, List.of(
+            new UnitChangedEvent.Change(6L, null, attributes(1, AccommodationType.HOME, 1, "10.00")),
+            new UnitChangedEvent.Change(7L, null, attributes(1, AccommodationType.HOME, 1, "10.00")))));
+        verify(unitRepository, times(3)).findAllAttributes();
+    }
+
+    @Test
+    void kernels_ProduceTheSameSelection() {
+        UnitScanKernel vector = UnitScanKernel.preferred(true);
+        assertInstanceOf(VectorUnitScanKernel.class, vector);
+        UnitScanKernel scalar = new ScalarUnitScanKernel();
+
+        Random random = new Random(42);
+        for (int size : new int[] {0, 1, 63, 64, 65, 1000, 4099}) {
+            int[] floors = random.ints(size, 0, 8).toArray();
+            byte[] types = new byte[size];
+            random.nextBytes(types);
+            long[] costs = random.longs(size, 0, 50_000).toArray();
+
+            long[] expected = selection(size);
+            scalar.retainEqual(floors, 3, expected, size);
+            scalar.retainEqual(types, types.length == 0 ? 0 : types[0], expected, size);
+            scalar.retainBetween(costs, 10_000, 40_000, expected, size);
+
+            long[] actual = selection(size);
+            vector.retainEqual(floors, 3, actual, size);
+            vector.retainEqual(types, types.length == 0 ? 0 : types[0], actual, size);
+            vector.retainBetween(costs, 10_000, 40_000, actual, size);
+
+            assertArrayEquals(expected, actual, "rows: " + size);
+        }
+    }
+
+    private void load() {
+        List<UnitAttributesView> units = new ArrayList<>(List.of(
+            unit(5L, 1, AccommodationType.HOME, 3, "115.00"),
+            unit(1L, 1, AccommodationType.FLAT, 2, "99.99"),
+            unit(2L, 2, AccommodationType.FLAT, 4, "115.00"),
+            unit(3L, 2, AccommodationType.HOME, 7, "149.50"),
+            unit(4L, 3, AccommodationType.APARTMENTS, 12, "230.00")));
+        when(unitRepository.findAllAttributes()).thenReturn(units);
+        columnarUnitSearch.rebuild();
+    }
+
+    private static long[] selection(int size) {
+        long[] selection = new long[(size + 63) >>> 6];
+        Arrays.fill(selection, -1L);
+        return selection;
+    }
+
+    private static UnitChangedEvent.Attributes attributes(int rooms, AccommodationType type, int floor, String cost) {
+        return new UnitChangedEvent.Attributes(rooms, type, floor, new BigDecimal(cost));
+    }
+
+    private static UnitAttributesView unit(Long id, int rooms, AccommodationType type, int floor, String cost) {
+        return new UnitAttributesView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Integer getNumberOfRooms() {
+                return rooms;
+            }
+
+            @Override
+            public AccommodationType getAccommodationType() {
+                return type;
+            }
+
+            @Override
+            public Integer getFloor() {
+                return floor;
+            }
+
+            @Override
+            public BigDecimal getFinalCost() {
+                return new BigDecimal(cost);
+            }
+        };
+    }
+}
@@ -0,0 +1,102 @@
+package com.lukianchykov.bookingsystem.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.lukianchykov.bookingsystem.domain.Event;
+import com.lukianchykov.bookingsystem.repository.EventRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class EventServiceTest {
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @Mock
+    private AuditEventWriter auditEventWriter;
+
+    @Test
+    void createEvent_EnqueuesOnlyAfterCommit() {
+        EventService eventService = new EventService(eventRepository, auditEventWriter, "async");
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            eventService.createEvent("BOOKING_CREATED", "Booking", 1L, "Booking created for unit 2");
+            verify(auditEventWriter, never()).enqueue(any());
+
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCommit();
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(auditEventWriter).enqueue(argThat((Event event) ->
+            "BOOKING_CREATED".equals(event.getEventType()) && event.getCreatedAt() != null));
+        verify(eventRepository, never()).save(any());
+    }
+
+    @Test
+    void createEvent_DropsEventWhenTransactionRollsBack() {
+        EventService eventService = new EventService(eventRepository, auditEventWriter, "async");
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            eventService.createEvent("BOOKING_CREATED", "Booking", 1L, "Booking created for unit 2");
+
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(auditEventWriter, never()).enqueue(any());
+    }
+
+    @Test
+    void createEvent_InOutboxMode_SavesInCallerTransaction() {
+        EventService eventService = new EventService(eventRepository, auditEventWriter, "outbox");
+
+        eventService.createEvent("UNIT_CREATED", "Unit", 1L, "Unit created with 2 rooms");
+
+        verify(eventRepository).save(argThat(event -> "UNIT_CREATED".equals(event.getEventType())));
+        verify(auditEventWriter, never()).enqueue(any());
+    }
+
+    @Test
+    void createDurableEvent_SavesImmediately() {
+        EventService eventService = new EventService(eventRepository, auditEventWriter, "async");
+
+        eventService.createDurableEvent("PAYMENT_PROCESSED", "Payment", 1L, "Payment processed for booking 1");
+
+        verify(eventRepository).save(any(Event.class));
+        verify(auditEventWriter, never()).enqueue(any());
+    }
+
+    @Test
+    void createEvents_InOutboxMode_InsertsAllInOneBatch() {
+        EventService eventService = new EventService(eventRepository, auditEventWriter, "outbox");
+        Map<Long, String> eventData = new LinkedHashMap<>();
+        eventData.put(1L, "Booking expired for unit 3");
+        eventData.put(2L, "Booking expired for unit 4");
+
+        eventService.createEvents("BOOKING_EXPIRED", "Booking", eventData);
+
+        verify(eventRepository).insertAll(argThat(events -> events.size() == 2
+            && events.get(0).getEntityId() == 1L && events.get(1).getEntityId() == 2L));
+        verify(eventRepository, never()).save(any());
+    }
+}
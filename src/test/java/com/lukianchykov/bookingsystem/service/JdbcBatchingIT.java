@@ -0,0 +1,75 @@
+package com.lukianchykov.bookingsystem.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.lukianchykov.bookingsystem.config.BookingSystemTestConfiguration;
+import com.lukianchykov.bookingsystem.config.StatementCounter;
+import com.lukianchykov.bookingsystem.config.StatementCountingConfiguration;
+import com.lukianchykov.bookingsystem.domain.AccommodationType;
+import com.lukianchykov.bookingsystem.domain.Unit;
+import com.lukianchykov.bookingsystem.domain.User;
+import com.lukianchykov.bookingsystem.repository.UnitRepository;
+import com.lukianchykov.bookingsystem.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@TestPropertySource(locations = "classpath:application.yml")
+@Import({BookingSystemTestConfiguration.class, StatementCountingConfiguration.class})
+@DirtiesContext
+class JdbcBatchingIT {
+
+    @Autowired
+    private UnitRepository unitRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size}")
+    private int batchSize;
+
+    @Test
+    void testSavingUnitsIsSentInJdbcBatches() {
+        int unitCount = 2 * batchSize + 7;
+        User owner = userRepository.save(User.builder()
+            .email("batch-owner@test.com")
+            .name("Batch Owner")
+            .build());
+        List<Unit> units = new ArrayList<>();
+        for (int i = 0; i < unitCount; i++) {
+            units.add(Unit.builder()
+                .numberOfRooms(1 + i % 4)
+                .accommodationType(AccommodationType.FLAT)
+                .floor(i % 10)
+                .baseCost(BigDecimal.valueOf(100 + i))
+                .description("Batched unit #" + i)
+                .owner(owner)
+                .build());
+        }
+
+        statementCounter.reset();
+        transactionTemplate.executeWithoutResult(status -> unitRepository.saveAll(units));
+
+        assertThat(statementCounter.executions("insert into units"))
+            .isEqualTo((unitCount + batchSize - 1) / batchSize);
+        assertThat(units).allSatisfy(unit -> assertThat(unit.getId()).isNotNull());
+        assertThat(units.stream().map(Unit::getId).distinct()).hasSize(unitCount);
+    }
+}
@@ -9,16 +9,16 @@ import com.lukianchykov.bookingsystem.domain.Payment;
 import com.lukianchykov.bookingsystem.dto.PaymentRequest;
 import com.lukianchykov.bookingsystem.repository.BookingRepository;
 import com.lukianchykov.bookingsystem.repository.PaymentRepository;
-import com.lukianchykov.bookingsystem.utils.AvailableUnitsChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import org.springframework.context.ApplicationEventPublisher;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -41,10 +41,16 @@ class PaymentServiceTest {
     private BookingRepository bookingRepository;
 
     @Mock
-    private ApplicationEventPublisher eventPublisher;
+    private EventService eventService;
 
     @Mock
-    private EventService eventService;
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    @Mock
+    private BookingHoldScheduler bookingHoldScheduler;
+
+    @Spy
+    private BookingMetrics bookingMetrics = new BookingMetrics(new SimpleMeterRegistry());
 
     @InjectMocks
     private PaymentService paymentService;
@@ -88,6 +94,7 @@ class PaymentServiceTest {
         
         Booking savedBooking = bookingCaptor.getValue();
         assertEquals(BookingStatus.CONFIRMED, savedBooking.getStatus());
+        verify(bookingIntervalIndex).register(savedBooking);
 
         verify(eventService).createEvent(
                 eq("PAYMENT_PROCESSED"),
@@ -95,12 +102,6 @@ class PaymentServiceTest {
                 any(),
                 eq("Payment processed for booking 1")
         );
-
-        ArgumentCaptor<AvailableUnitsChangedEvent> eventCaptor = ArgumentCaptor.forClass(AvailableUnitsChangedEvent.class);
-        verify(eventPublisher).publishEvent(eventCaptor.capture());
-        
-        AvailableUnitsChangedEvent publishedEvent = eventCaptor.getValue();
-        assertEquals(paymentService, publishedEvent.getSource());
     }
 
     @Test
@@ -115,7 +116,6 @@ class PaymentServiceTest {
         verify(paymentRepository, never()).save(any(Payment.class));
         verify(bookingRepository, never()).save(any(Booking.class));
         verify(eventService, never()).createEvent(anyString(), anyString(), any(), anyString());
-        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
@@ -131,7 +131,6 @@ class PaymentServiceTest {
         verify(paymentRepository, never()).save(any(Payment.class));
         verify(bookingRepository, never()).save(any(Booking.class));
         verify(eventService, never()).createEvent(anyString(), anyString(), any(), anyString());
-        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
@@ -0,0 +1,71 @@
+package com.lukianchykov.bookingsystem.service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.lukianchykov.bookingsystem.domain.BookingStatus;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SyntheticDataGeneratorTest {
+
+    private static final LocalDate ANCHOR = LocalDate.of(2026, 6, 1);
+
+    private final SyntheticDataGenerator generator = generator(42);
+
+    @Test
+    void plans_AreReproducibleForTheSameSeed() {
+        SyntheticDataGenerator same = generator(42);
+        SyntheticDataGenerator other = generator(7);
+
+        for (int unit = 0; unit < 50; unit++) {
+            assertEquals(generator.planUnit(unit), same.planUnit(unit));
+            assertEquals(generator.planBookings(unit), same.planBookings(unit));
+        }
+        assertNotEquals(generator.planUnit(0), other.planUnit(0));
+    }
+
+    @Test
+    void planBookings_StayInsideTheWindowWithoutOverlaps() {
+        LocalDate firstDay = ANCHOR.minusDays(730);
+        LocalDate lastDay = ANCHOR.plusDays(180);
+        long planned = 0;
+
+        for (int unit = 0; unit < 200; unit++) {
+            List<SyntheticDataGenerator.PlannedBooking> bookings = generator.planBookings(unit);
+            planned += bookings.size();
+            LocalDate previousEnd = null;
+            for (SyntheticDataGenerator.PlannedBooking booking : bookings) {
+                assertTrue(booking.startDate().isBefore(booking.endDate()));
+                assertFalse(booking.startDate().isBefore(firstDay));
+                assertTrue(booking.endDate().isBefore(lastDay));
+                assertTrue(previousEnd == null || booking.startDate().isAfter(previousEnd));
+                assertNotEquals(BookingStatus.PENDING, booking.status());
+                assertTrue(booking.status() == BookingStatus.CONFIRMED || booking.startDate().isAfter(ANCHOR)
+                    || booking.endDate().isBefore(ANCHOR));
+                assertFalse(booking.createdAt().isAfter(ANCHOR.atStartOfDay()));
+                previousEnd = booking.endDate();
+            }
+        }
+
+        assertTrue(planned > 200 * 5 && planned <= 200 * 10, "planned " + planned);
+    }
+
+    @Test
+    void planUnit_KeepsOwnersAndCostsInRange() {
+        for (int unit = 0; unit < 200; unit++) {
+            SyntheticDataGenerator.PlannedUnit planned = generator.planUnit(unit);
+            assertTrue(planned.ownerIndex() >= 0 && planned.ownerIndex() < 100);
+            assertTrue(planned.numberOfRooms() >= 1 && planned.numberOfRooms() <= 5);
+            assertEquals(UnitService.calculateFinalCost(planned.baseCost()), planned.finalCost());
+        }
+    }
+
+    private static SyntheticDataGenerator generator(long seed) {
+        return new SyntheticDataGenerator(null, seed, 100, 1000, 10_000, 1, 100, ANCHOR.toString(), 730, 180);
+    }
+}
@@ -0,0 +1,152 @@
+package com.lukianchykov.bookingsystem.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import com.lukianchykov.bookingsystem.config.BookingSystemTestConfiguration;
+import com.lukianchykov.bookingsystem.config.lock.UnitLockProvider;
+import com.lukianchykov.bookingsystem.controller.exception.UnitNotAvailableException;
+import com.lukianchykov.bookingsystem.domain.AccommodationType;
+import com.lukianchykov.bookingsystem.dto.BookingCreateRequest;
+import com.lukianchykov.bookingsystem.dto.UnitCreateRequest;
+import com.lukianchykov.bookingsystem.dto.UserCreateRequest;
+import com.lukianchykov.bookingsystem.mapper.BookingMapper;
+import com.lukianchykov.bookingsystem.repository.BookingRepository;
+import com.lukianchykov.bookingsystem.repository.UnitRepository;
+import com.lukianchykov.bookingsystem.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs a second {@link BookingService} with its own interval index next to the application's one, both sharing
+ * the unit lock, as two nodes of one deployment would.
+ */
+@SpringBootTest
+@TestPropertySource(locations = "classpath:application.yml", properties = "booking.lock.provider=striped")
+@Import({BookingSystemTestConfiguration.class})
+@DirtiesContext
+class TwoNodeBookingIT {
+
+    @Autowired
+    private BookingService nodeA;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private UnitRepository unitRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private BookingMapper bookingMapper;
+
+    @Autowired
+    private BookingHoldScheduler bookingHoldScheduler;
+
+    @Autowired
+    private BookingMetrics bookingMetrics;
+
+    @Autowired
+    private UnitLockProvider unitLockProvider;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UnitService unitService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private BookingService nodeB;
+
+    private TransactionTemplate transactionTemplate;
+
+    private Long userId;
+
+    private Long unitId;
+
+    @BeforeEach
+    void setUp() {
+        BookingIntervalIndex nodeBIndex = new BookingIntervalIndex(bookingRepository, List.of());
+        nodeB = new BookingService(bookingRepository, unitRepository, userRepository, eventPublisher, eventService,
+            bookingMapper, nodeBIndex, bookingHoldScheduler, bookingMetrics, unitLockProvider,
+            new BookingConflictCheck(bookingRepository, nodeBIndex, jdbcTemplate, unitLockProvider));
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        userId = userService.createUser(UserCreateRequest.builder()
+            .email("two-nodes-" + UUID.randomUUID() + "@test.com")
+            .name("Two Nodes")
+            .build()).getId();
+        unitId = unitService.createUnit(UnitCreateRequest.builder()
+            .numberOfRooms(2)
+            .accommodationType(AccommodationType.FLAT)
+            .floor(1)
+            .baseCost(new BigDecimal("100.00"))
+            .description("Shared unit")
+            .ownerId(userId)
+            .build()).getId();
+    }
+
+    @Test
+    void createBooking_RejectsOverlapsCommittedByTheOtherNode() {
+        LocalDate start = LocalDate.now().plusDays(5);
+        nodeA.createBooking(request(start, start.plusDays(2)));
+
+        assertThatThrownBy(() -> transactionTemplate.execute(status ->
+            nodeB.createBooking(request(start.plusDays(1), start.plusDays(3)))))
+            .isInstanceOf(UnitNotAvailableException.class);
+
+        transactionTemplate.execute(status -> nodeB.createBooking(request(start.plusDays(10), start.plusDays(12))));
+
+        assertThatThrownBy(() -> nodeA.createBooking(request(start.plusDays(11), start.plusDays(13))))
+            .isInstanceOf(UnitNotAvailableException.class);
+        assertThat(bookingRepository.findActiveBookingRanges(unitId)).hasSize(2);
+    }
+
+    @Test
+    void createBooking_AcceptsDatesFreedByTheOtherNode() {
+        LocalDate start = LocalDate.now().plusDays(5);
+        Long bookingId = nodeA.createBooking(request(start, start.plusDays(2))).getId();
+
+        transactionTemplate.execute(status -> nodeB.cancelBooking(bookingId));
+
+        assertThat(nodeA.createBooking(request(start, start.plusDays(2))).getId()).isNotEqualTo(bookingId);
+        assertThat(bookingRepository.findActiveBookingRanges(unitId)).hasSize(1);
+    }
+
+    private BookingCreateRequest request(LocalDate startDate, LocalDate endDate) {
+        return BookingCreateRequest.builder()
+            .unitId(unitId)
+            .userId(userId)
+            .startDate(startDate)
+            .endDate(endDate)
+            .build();
+    }
+}
@@ -0,0 +1,69 @@
+package com.lukianchykov.bookingsystem.service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UnitAvailabilityEngineTest {
+
+    private final LocalDate today = LocalDate.now();
+
+    private UnitAvailabilityEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new UnitAvailabilityEngine(730);
+    }
+
+    @Test
+    void findBookedUnitIds_EmptyBeforeFirstReload() {
+        assertThat(engine.findBookedUnitIds(today, today.plusDays(1))).isEmpty();
+    }
+
+    @Test
+    void findBookedUnitIds_ReturnsUnitsWithAnyBookedDayInRange() {
+        engine.onRangesReloaded(Map.of(
+            1L, List.of(new BookingRange(1L, today.plusDays(10), today.plusDays(12))),
+            2L, List.of(new BookingRange(2L, today.plusDays(60), today.plusDays(70))),
+            3L, List.of(new BookingRange(3L, today.minusDays(5), today.plusDays(1)))));
+
+        assertThat(engine.findBookedUnitIds(today.plusDays(12), today.plusDays(20)))
+            .hasValueSatisfying(ids -> assertThat(ids).containsExactly(1L));
+        assertThat(engine.findBookedUnitIds(today, today.plusDays(65)))
+            .hasValueSatisfying(ids -> assertThat(ids).containsExactlyInAnyOrder(1L, 2L, 3L));
+        assertThat(engine.findBookedUnitIds(today.plusDays(13), today.plusDays(59)))
+            .hasValueSatisfying(ids -> assertThat(ids).isEmpty());
+    }
+
+    @Test
+    void findBookedUnitIds_EmptyOutsideHorizon() {
+        engine.onRangesReloaded(Map.of());
+
+        assertThat(engine.findBookedUnitIds(today.minusDays(1), today.plusDays(1))).isEmpty();
+        assertThat(engine.findBookedUnitIds(today.plusDays(700), today.plusDays(730))).isEmpty();
+    }
+
+    @Test
+    void onRangesChanged_ReplacesUnitBitmap() {
+        engine.onRangesReloaded(Map.of(
+            1L, List.of(new BookingRange(1L, today.plusDays(63), today.plusDays(64)))));
+
+        BookingRange added = new BookingRange(1L, today.plusDays(200), today.plusDays(201));
+        engine.onRangesChanged(1L, added, List.of(added));
+
+        Optional<List<Long>> wordBoundary = engine.findBookedUnitIds(today.plusDays(64), today.plusDays(64));
+        Optional<List<Long>> added200 = engine.findBookedUnitIds(today.plusDays(201), today.plusDays(205));
+        assertThat(wordBoundary).hasValueSatisfying(ids -> assertThat(ids).isEmpty());
+        assertThat(added200).hasValueSatisfying(ids -> assertThat(ids).containsExactly(1L));
+
+        engine.onRangesChanged(1L, added, List.of());
+        assertThat(engine.findBookedUnitIds(today, today.plusDays(729)))
+            .hasValueSatisfying(ids -> assertThat(ids).isEmpty());
+    }
+}
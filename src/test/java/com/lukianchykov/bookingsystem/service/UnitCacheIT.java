@@ -0,0 +1,161 @@
+package com.lukianchykov.bookingsystem.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import com.lukianchykov.bookingsystem.config.BookingSystemTestConfiguration;
+import com.lukianchykov.bookingsystem.config.StatementCounter;
+import com.lukianchykov.bookingsystem.config.StatementCountingConfiguration;
+import com.lukianchykov.bookingsystem.controller.exception.UnitNotFoundException;
+import com.lukianchykov.bookingsystem.domain.AccommodationType;
+import com.lukianchykov.bookingsystem.dto.UnitCreateRequest;
+import com.lukianchykov.bookingsystem.dto.UnitResponse;
+import com.lukianchykov.bookingsystem.dto.UnitUpdateRequest;
+import com.lukianchykov.bookingsystem.dto.UserCreateRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@TestPropertySource(locations = "classpath:application.yml")
+@Import({BookingSystemTestConfiguration.class, StatementCountingConfiguration.class})
+@DirtiesContext
+class UnitCacheIT {
+
+    private static final String SELECT_UNIT = "select u1_0.id";
+
+    @Autowired
+    private UnitService unitService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void getUnit_IsServedFromTheCacheAndRefreshedAfterTheUnitChanges() {
+        Long ownerId = createOwner("unit-cache-owner@test.com");
+        Long unitId = createUnit(ownerId);
+
+        double localHits = tierGets("l1", "hit");
+        double staleHits = tierGets("stale", "hit");
+        statementCounter.reset();
+        unitService.getUnit(unitId);
+        UnitResponse cached = unitService.getUnit(unitId);
+
+        assertThat(cached.getDescription()).isEqualTo("Cached unit");
+        assertThat(statementCounter.executions(SELECT_UNIT)).isEqualTo(1);
+        assertThat(tierGets("l1", "hit")).isEqualTo(localHits + 1);
+
+        unitService.updateUnit(unitId, UnitUpdateRequest.builder()
+            .numberOfRooms(2)
+            .accommodationType(AccommodationType.FLAT)
+            .floor(3)
+            .baseCost(new BigDecimal("100.00"))
+            .description("Updated unit")
+            .ownerId(ownerId)
+            .build());
+
+        assertThat(unitService.getUnit(unitId).getDescription()).isEqualTo("Cached unit");
+        assertThat(tierGets("stale", "hit")).isEqualTo(staleHits + 1);
+        awaitDescription(unitId, "Updated unit");
+
+        unitService.deleteUnit(unitId);
+
+        awaitNotFound(unitId);
+    }
+
+    @Test
+    void getUnit_ConcurrentMissesLoadTheUnitOnce() throws Exception {
+        Long unitId = createUnit(createOwner("unit-cache-concurrent-owner@test.com"));
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            statementCounter.reset();
+            List<Future<UnitResponse>> responses = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                responses.add(executor.submit(() -> {
+                    start.await();
+                    return unitService.getUnit(unitId);
+                }));
+            }
+            start.countDown();
+
+            for (Future<UnitResponse> response : responses) {
+                assertThat(response.get(5, TimeUnit.SECONDS).getId()).isEqualTo(unitId);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(statementCounter.executions(SELECT_UNIT)).isEqualTo(1);
+    }
+
+    private Long createOwner(String email) {
+        return userService.createUser(UserCreateRequest.builder()
+            .email(email)
+            .name("Owner")
+            .build()).getId();
+    }
+
+    private Long createUnit(Long ownerId) {
+        return unitService.createUnit(UnitCreateRequest.builder()
+            .numberOfRooms(2)
+            .accommodationType(AccommodationType.FLAT)
+            .floor(3)
+            .baseCost(new BigDecimal("100.00"))
+            .description("Cached unit")
+            .ownerId(ownerId)
+            .build()).getId();
+    }
+
+    private double tierGets(String tier, String result) {
+        return meterRegistry.counter("cache.tier.gets", "cache", "units", "tier", tier, "result", result).count();
+    }
+
+    private void awaitDescription(Long unitId, String description) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!description.equals(unitService.getUnit(unitId).getDescription())) {
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            sleep();
+        }
+    }
+
+    private void awaitNotFound(Long unitId) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                unitService.getUnit(unitId);
+            } catch (UnitNotFoundException e) {
+                return;
+            }
+            sleep();
+        }
+        assertThatThrownBy(() -> unitService.getUnit(unitId)).isInstanceOf(UnitNotFoundException.class);
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(10);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
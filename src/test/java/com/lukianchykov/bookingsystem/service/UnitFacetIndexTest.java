@@ -0,0 +1,126 @@
+package com.lukianchykov.bookingsystem.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import com.lukianchykov.bookingsystem.domain.AccommodationType;
+import com.lukianchykov.bookingsystem.dto.UnitFacetsResponse;
+import com.lukianchykov.bookingsystem.dto.UnitSearchRequest;
+import com.lukianchykov.bookingsystem.repository.UnitAttributesView;
+import com.lukianchykov.bookingsystem.repository.UnitRepository;
+import com.lukianchykov.bookingsystem.utils.UnitChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UnitFacetIndexTest {
+
+    @Mock
+    private UnitRepository unitRepository;
+
+    private UnitFacetIndex unitFacetIndex;
+
+    @BeforeEach
+    void setUp() {
+        unitFacetIndex = new UnitFacetIndex(unitRepository, 5, new BigDecimal("50"));
+        when(unitRepository.findAllAttributes()).thenReturn(List.of(
+            unit(1L, 1, AccommodationType.FLAT, 2, "99.99"),
+            unit(2L, 2, AccommodationType.FLAT, 4, "115.00"),
+            unit(3L, 2, AccommodationType.HOME, 7, "149.50"),
+            unit(4L, 3, AccommodationType.APARTMENTS, 12, "230.00")));
+        unitFacetIndex.rebuild();
+    }
+
+    @Test
+    void count_WithoutFiltersCountsEveryFacet() {
+        UnitFacetsResponse facets = unitFacetIndex.count(new UnitSearchRequest(), List.of());
+
+        assertEquals(4, facets.getTotal());
+        assertEquals(Map.of(AccommodationType.HOME, 1L, AccommodationType.FLAT, 2L, AccommodationType.APARTMENTS, 1L),
+            facets.getAccommodationTypes());
+        assertEquals(Map.of(1, 1L, 2, 2L, 3, 1L), facets.getNumberOfRooms());
+        assertEquals(Map.of("0-4", 2L, "5-9", 1L, "10-14", 1L), facets.getFloorBands());
+        assertEquals(Map.of("50-100", 1L, "100-150", 2L, "200-250", 1L), facets.getPriceBuckets());
+    }
+
+    @Test
+    void count_IntersectsFiltersAndExcludesBookedUnits() {
+        UnitSearchRequest request = new UnitSearchRequest();
+        request.setNumberOfRooms(2);
+
+        UnitFacetsResponse facets = unitFacetIndex.count(request, List.of(3L));
+
+        assertEquals(1, facets.getTotal());
+        assertEquals(1L, facets.getAccommodationTypes().get(AccommodationType.FLAT));
+        assertEquals(0L, facets.getAccommodationTypes().get(AccommodationType.HOME));
+        assertEquals(Map.of(1, 0L, 2, 1L, 3, 0L), facets.getNumberOfRooms());
+    }
+
+    @Test
+    void count_CostRangeChecksUnitsInPartiallyCoveredBuckets() {
+        UnitSearchRequest request = new UnitSearchRequest();
+        request.setMinCost(new BigDecimal("100"));
+        request.setMaxCost(new BigDecimal("149.50"));
+
+        UnitFacetsResponse facets = unitFacetIndex.count(request, List.of());
+
+        assertEquals(2, facets.getTotal());
+        assertEquals(Map.of("50-100", 0L, "100-150", 2L, "200-250", 0L), facets.getPriceBuckets());
+    }
+
+    @Test
+    void handleUnitChanged_MovesUpdatedUnitsAndDropsDeletedOnes() {
+        unitFacetIndex.handleUnitChanged(new UnitChangedEvent(this, List.of(
+            new UnitChangedEvent.Change(1L, attributes(1, AccommodationType.FLAT, 2, "99.99"),
+                attributes(4, AccommodationType.HOME, 3, "99.99")),
+            new UnitChangedEvent.Change(4L, attributes(3, AccommodationType.APARTMENTS, 12, "230.00"), null),
+            new UnitChangedEvent.Change(null, null, attributes(1, AccommodationType.FLAT, 1, "10.00")))));
+
+        UnitFacetsResponse facets = unitFacetIndex.count(new UnitSearchRequest(), List.of());
+
+        assertEquals(3, facets.getTotal());
+        assertEquals(Map.of(AccommodationType.HOME, 2L, AccommodationType.FLAT, 1L), facets.getAccommodationTypes());
+        assertEquals(Map.of(2, 2L, 4, 1L), facets.getNumberOfRooms());
+        assertEquals(Map.of("0-4", 2L, "5-9", 1L), facets.getFloorBands());
+    }
+
+    private static UnitChangedEvent.Attributes attributes(int rooms, AccommodationType type, int floor, String cost) {
+        return new UnitChangedEvent.Attributes(rooms, type, floor, new BigDecimal(cost));
+    }
+
+    private static UnitAttributesView unit(Long id, int rooms, AccommodationType type, int floor, String cost) {
+        return new UnitAttributesView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Integer getNumberOfRooms() {
+                return rooms;
+            }
+
+            @Override
+            public AccommodationType getAccommodationType() {
+                return type;
+            }
+
+            @Override
+            public Integer getFloor() {
+                return floor;
+            }
+
+            @Override
+            public BigDecimal getFinalCost() {
+                return new BigDecimal(cost);
+            }
+        };
+    }
+}
@@ -0,0 +1,207 @@
+package com.lukianchykov.bookingsystem.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lukianchykov.bookingsystem.controller.exception.InvalidImportFormatException;
+import com.lukianchykov.bookingsystem.domain.AccommodationType;
+import com.lukianchykov.bookingsystem.domain.Unit;
+import com.lukianchykov.bookingsystem.dto.UnitImportResponse;
+import com.lukianchykov.bookingsystem.dto.UnitImportRowError;
+import com.lukianchykov.bookingsystem.repository.UnitRepository;
+import com.lukianchykov.bookingsystem.repository.UserRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UnitImportServiceTest {
+
+    @Mock
+    private UnitRepository unitRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private EventService eventService;
+
+    @Mock
+    private AvailableUnitsCounter availableUnitsCounter;
+
+    @Mock
+    private UnitFacetIndex unitFacetIndex;
+
+    @Mock
+    private ColumnarUnitSearch columnarUnitSearch;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final List<List<Unit>> insertedChunks = new ArrayList<>();
+
+    private UnitImportService unitImportService;
+
+    @BeforeEach
+    void setUp() {
+        unitImportService = new UnitImportService(unitRepository, userRepository, eventService,
+            availableUnitsCounter, unitFacetIndex, columnarUnitSearch, eventPublisher,
+            Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(), transactionManager, 2, 100);
+    }
+
+    @Test
+    void importUnits_Ndjson_InsertsValidRowsInChunksAndReportsRejectedOnes() {
+        stubInsert();
+        when(unitRepository.nextImportId()).thenReturn(7L);
+        when(userRepository.findExistingIds(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().filter(id -> id == 1L).toList();
+        });
+
+        UnitImportResponse response = unitImportService.importUnits(body(
+            row(2, "FLAT", 3, "100.00", "First", 1),
+            row(0, "FLAT", 3, "100.00", "No rooms", 1),
+            "{not json",
+            "",
+            row(3, "HOME", 1, "250.00", "Second", 1),
+            row(1, "APARTMENTS", 2, "80.00", "Unknown owner", 99),
+            row(4, "HOME", 0, "400.00", "Third", 1)), UnitImportService.Format.NDJSON);
+
+        assertEquals(7L, response.getImportId());
+        assertEquals(3, response.getImported());
+        assertEquals(3, response.getRejected());
+        assertFalse(response.isErrorsTruncated());
+        assertEquals(List.of(2L, 3L, 6L), response.getErrors().stream().map(UnitImportRowError::getLine).toList());
+        assertTrue(response.getErrors().get(0).getMessage().contains("numberOfRooms"));
+        assertEquals("User not found with ID: 99", response.getErrors().get(2).getMessage());
+
+        assertEquals(List.of(2, 1), insertedChunks.stream().map(List::size).toList());
+        Unit first = insertedChunks.get(0).get(0);
+        assertEquals(new BigDecimal("115.00"), first.getFinalCost());
+        assertEquals(1L, first.getOwner().getId());
+        verify(userRepository, times(2)).findExistingIds(anyCollection());
+        verify(eventService).createEvent(eq("UNITS_IMPORTED"), eq("UnitImport"), eq(response.getImportId()),
+            eq("Imported 3 units, rejected 3 rows"));
+        verify(availableUnitsCounter, times(1)).reconcile();
+        verify(unitFacetIndex, times(1)).rebuild();
+        verify(columnarUnitSearch, times(1)).rebuildOnAllNodes();
+    }
+
+    @Test
+    void importUnits_Csv_ParsesQuotedFieldsInAnyColumnOrder() {
+        stubInsert();
+        when(userRepository.findExistingIds(anyCollection())).thenReturn(List.of(1L));
+
+        UnitImportResponse response = unitImportService.importUnits(body(
+            "owner_id,description,base_cost,floor,accommodation_type,number_of_rooms",
+            "1,\"Flat, with \"\"view\"\"\",150.00,4,FLAT,2",
+            "1,Broken,abc,4,FLAT,2"), UnitImportService.Format.CSV);
+
+        assertEquals(1, response.getImported());
+        assertEquals(1, response.getRejected());
+        assertEquals(3L, response.getErrors().get(0).getLine());
+        Unit unit = insertedChunks.get(0).get(0);
+        assertEquals("Flat, with \"view\"", unit.getDescription());
+        assertEquals(AccommodationType.FLAT, unit.getAccommodationType());
+        assertEquals(4, unit.getFloor());
+    }
+
+    @Test
+    void importUnits_CsvWithUnknownColumns_ThrowsException() {
+        assertThrows(InvalidImportFormatException.class, () -> unitImportService.importUnits(
+            body("rooms,type", "2,FLAT"), UnitImportService.Format.CSV));
+
+        verify(unitRepository, never()).insertAll(anyList());
+    }
+
+    @Test
+    void importUnits_ReadFailure_KeepsCommittedChunksAndRecordsTheRunAsFailed() {
+        stubInsert();
+        when(unitRepository.nextImportId()).thenReturn(8L);
+        when(userRepository.findExistingIds(anyCollection())).thenReturn(List.of(1L));
+        InputStream failing = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Connection reset");
+            }
+        };
+
+        assertThrows(UncheckedIOException.class, () -> unitImportService.importUnits(new SequenceInputStream(
+            body(row(2, "FLAT", 3, "100.00", "First", 1), row(3, "HOME", 1, "250.00", "Second", 1),
+                row(1, "FLAT", 1, "90.00", "Third", 1) + "\n"), failing), UnitImportService.Format.NDJSON));
+
+        assertEquals(List.of(2), insertedChunks.stream().map(List::size).toList());
+        verify(eventService).createEvent("UNITS_IMPORT_FAILED", "UnitImport", 8L,
+            "Failed after importing 2 units, rejected 0 rows");
+        verify(availableUnitsCounter, times(1)).reconcile();
+        verify(columnarUnitSearch, times(1)).rebuildOnAllNodes();
+    }
+
+    @Test
+    void importUnits_ReportsOnlyFirstErrorsButCountsAll() {
+        unitImportService = new UnitImportService(unitRepository, userRepository, eventService,
+            availableUnitsCounter, unitFacetIndex, columnarUnitSearch, eventPublisher,
+            Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(), transactionManager, 2, 1);
+
+        UnitImportResponse response = unitImportService.importUnits(body("{", "{", "{"),
+            UnitImportService.Format.NDJSON);
+
+        assertEquals(3, response.getRejected());
+        assertEquals(1, response.getErrors().size());
+        assertTrue(response.isErrorsTruncated());
+        verify(eventService, never()).createEvent(anyString(), anyString(), anyLong(), anyString());
+        verify(availableUnitsCounter, never()).reconcile();
+        verify(unitFacetIndex, never()).rebuild();
+        verify(columnarUnitSearch, never()).rebuildOnAllNodes();
+    }
+
+    private void stubInsert() {
+        when(unitRepository.insertAll(anyList())).thenAnswer(invocation -> {
+            List<Unit> units = invocation.getArgument(0);
+            insertedChunks.add(List.copyOf(units));
+            return units.size();
+        });
+    }
+
+    private static String row(int rooms, String type, int floor, String baseCost, String description, long ownerId) {
+        return "{\"number_of_rooms\":" + rooms + ",\"accommodation_type\":\"" + type + "\",\"floor\":" + floor
+            + ",\"base_cost\":" + baseCost + ",\"description\":\"" + description + "\",\"owner_id\":" + ownerId + "}";
+    }
+
+    private static InputStream body(String... lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+}
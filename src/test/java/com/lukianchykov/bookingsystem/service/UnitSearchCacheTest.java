@@ -0,0 +1,122 @@
+package com.lukianchykov.bookingsystem.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import com.lukianchykov.bookingsystem.domain.AccommodationType;
+import com.lukianchykov.bookingsystem.dto.UnitSearchRequest;
+import com.lukianchykov.bookingsystem.utils.UnitChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class UnitSearchCacheTest {
+
+    private static final LocalDate JUNE_1 = LocalDate.of(2030, 6, 1);
+
+    private UnitSearchCache unitSearchCache;
+
+    @BeforeEach
+    void setUp() {
+        unitSearchCache = new UnitSearchCache(new BookingMetrics(new SimpleMeterRegistry()), 100, 60_000);
+    }
+
+    @Test
+    void key_NormalizesEquivalentRequests() {
+        UnitSearchRequest first = request(AccommodationType.FLAT, 2, JUNE_1, JUNE_1.plusDays(3));
+        first.setMinCost(new BigDecimal("100.00"));
+        first.setSortDirection("asc");
+        UnitSearchRequest second = request(AccommodationType.FLAT, 2, JUNE_1, JUNE_1.plusDays(3));
+        second.setMinCost(new BigDecimal("100"));
+        second.setSortDirection("ASC");
+        UnitSearchRequest halfDated = request(AccommodationType.FLAT, 2, JUNE_1, null);
+        UnitSearchRequest undated = request(AccommodationType.FLAT, 2, null, null);
+
+        assertEquals(UnitSearchCache.Key.of(first), UnitSearchCache.Key.of(second));
+        assertEquals(UnitSearchCache.Key.of(halfDated), UnitSearchCache.Key.of(undated));
+    }
+
+    @Test
+    void onRangesChanged_EvictsOnlySearchesWithOverlappingWindow() {
+        UnitSearchCache.Key overlapping = cache(request(null, null, JUNE_1, JUNE_1.plusDays(3)));
+        UnitSearchCache.Key later = cache(request(null, null, JUNE_1.plusDays(10), JUNE_1.plusDays(12)));
+        UnitSearchCache.Key undated = cache(request(null, null, null, null));
+
+        BookingRange booked = new BookingRange(7L, JUNE_1.plusDays(3), JUNE_1.plusDays(5));
+        unitSearchCache.onRangesChanged(7L, booked, List.of(booked));
+
+        assertNull(unitSearchCache.get(overlapping));
+        assertNotNull(unitSearchCache.get(later));
+        assertNotNull(unitSearchCache.get(undated));
+    }
+
+    @Test
+    void onRangesReloaded_EvictsOnlySearchesOverlappingRangesThatChanged() {
+        BookingRange kept = new BookingRange(7L, JUNE_1, JUNE_1.plusDays(1));
+        BookingRange dropped = new BookingRange(8L, JUNE_1.plusDays(20), JUNE_1.plusDays(21));
+        unitSearchCache.onRangesReloaded(Map.of(7L, List.of(kept), 8L, List.of(dropped)));
+
+        UnitSearchCache.Key overlappingKept = cache(request(null, null, JUNE_1, JUNE_1.plusDays(2)));
+        UnitSearchCache.Key overlappingDropped = cache(request(null, null, JUNE_1.plusDays(21), JUNE_1.plusDays(25)));
+        BookingRange added = new BookingRange(9L, JUNE_1.plusDays(40), JUNE_1.plusDays(41));
+        UnitSearchCache.Key overlappingAdded = cache(request(null, null, JUNE_1.plusDays(39), JUNE_1.plusDays(40)));
+
+        unitSearchCache.onRangesReloaded(Map.of(7L, List.of(kept), 9L, List.of(added)));
+
+        assertNotNull(unitSearchCache.get(overlappingKept));
+        assertNull(unitSearchCache.get(overlappingDropped));
+        assertNull(unitSearchCache.get(overlappingAdded));
+    }
+
+    @Test
+    void handleUnitChanged_EvictsSearchesMatchingOldOrNewAttributes() {
+        UnitSearchCache.Key flats = cache(request(AccommodationType.FLAT, null, null, null));
+        UnitSearchCache.Key houses = cache(request(AccommodationType.HOME, null, null, null));
+        UnitSearchCache.Key threeRooms = cache(request(null, 3, JUNE_1, JUNE_1.plusDays(1)));
+        UnitSearchRequest cheapRequest = request(null, null, null, null);
+        cheapRequest.setMaxCost(new BigDecimal("50"));
+        UnitSearchCache.Key cheap = cache(cheapRequest);
+
+        unitSearchCache.handleUnitChanged(new UnitChangedEvent(this, new UnitChangedEvent.Change(1L,
+            new UnitChangedEvent.Attributes(2, AccommodationType.FLAT, 1, new BigDecimal("115.00")),
+            new UnitChangedEvent.Attributes(2, AccommodationType.APARTMENTS, 1, new BigDecimal("115.00")))));
+
+        assertNull(unitSearchCache.get(flats));
+        assertNotNull(unitSearchCache.get(houses));
+        assertNotNull(unitSearchCache.get(threeRooms));
+        assertNotNull(unitSearchCache.get(cheap));
+    }
+
+    @Test
+    void put_DropsResultLoadedBeforeAnEviction() {
+        UnitSearchCache.Key key = UnitSearchCache.Key.of(request(null, null, null, null));
+        long loadedAt = unitSearchCache.generation();
+
+        unitSearchCache.handleUnitChanged(new UnitChangedEvent(this, new UnitChangedEvent.Change(1L, null,
+            new UnitChangedEvent.Attributes(1, AccommodationType.HOME, 0, BigDecimal.TEN))));
+        unitSearchCache.put(key, loadedAt, List.of(1L), 1);
+
+        assertNull(unitSearchCache.get(key));
+    }
+
+    private UnitSearchCache.Key cache(UnitSearchRequest request) {
+        UnitSearchCache.Key key = UnitSearchCache.Key.of(request);
+        unitSearchCache.put(key, unitSearchCache.generation(), List.of(1L, 2L), 2);
+        return key;
+    }
+
+    private static UnitSearchRequest request(AccommodationType type, Integer rooms, LocalDate start, LocalDate end) {
+        UnitSearchRequest request = new UnitSearchRequest();
+        request.setAccommodationType(type);
+        request.setNumberOfRooms(rooms);
+        request.setStartDate(start);
+        request.setEndDate(end);
+        return request;
+    }
+}
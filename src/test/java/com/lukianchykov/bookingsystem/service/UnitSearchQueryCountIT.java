@@ -0,0 +1,145 @@
+package com.lukianchykov.bookingsystem.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.lukianchykov.bookingsystem.config.BookingSystemTestConfiguration;
+import com.lukianchykov.bookingsystem.config.StatementCounter;
+import com.lukianchykov.bookingsystem.config.StatementCountingConfiguration;
+import com.lukianchykov.bookingsystem.domain.AccommodationType;
+import com.lukianchykov.bookingsystem.domain.Unit;
+import com.lukianchykov.bookingsystem.domain.User;
+import com.lukianchykov.bookingsystem.dto.UnitResponse;
+import com.lukianchykov.bookingsystem.dto.UnitSearchRequest;
+import com.lukianchykov.bookingsystem.dto.UnitSliceResponse;
+import com.lukianchykov.bookingsystem.repository.UnitRepository;
+import com.lukianchykov.bookingsystem.repository.UserRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@TestPropertySource(locations = "classpath:application.yml")
+@Import({BookingSystemTestConfiguration.class, StatementCountingConfiguration.class})
+@DirtiesContext
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class UnitSearchQueryCountIT {
+
+    private static final int FLOOR = 77;
+
+    private static final int UNIT_COUNT = 120;
+
+    private static final int PAGE_SIZE = 100;
+
+    @Autowired
+    private UnitService unitService;
+
+    @Autowired
+    private UnitRepository unitRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ColumnarUnitSearch columnarUnitSearch;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    private List<Unit> units;
+
+    @BeforeAll
+    void setUp() {
+        List<User> owners = new ArrayList<>();
+        for (int i = 0; i < UNIT_COUNT; i++) {
+            owners.add(User.builder()
+                .email("query-count-owner-" + i + "@test.com")
+                .name("Owner " + i)
+                .build());
+        }
+        owners = userRepository.saveAll(owners);
+
+        units = new ArrayList<>();
+        for (int i = 0; i < UNIT_COUNT; i++) {
+            units.add(Unit.builder()
+                .numberOfRooms(2)
+                .accommodationType(AccommodationType.FLAT)
+                .floor(FLOOR)
+                .baseCost(BigDecimal.valueOf(100 + i))
+                .finalCost(BigDecimal.valueOf(115 + i))
+                .description("Query count unit #" + i)
+                .owner(owners.get(i))
+                .build());
+        }
+        units = unitRepository.saveAll(units);
+        columnarUnitSearch.rebuild();
+    }
+
+    @Test
+    void testColumnarSearchPageCostsOneStatement() {
+        statementCounter.reset();
+        Page<UnitResponse> page = unitService.searchUnits(searchRequest());
+
+        assertThat(page.getContent()).hasSize(PAGE_SIZE);
+        assertThat(page.getTotalElements()).isEqualTo(UNIT_COUNT);
+        assertThat(page.getContent()).allSatisfy(unit -> assertThat(unit.getOwnerName()).startsWith("Owner "));
+        assertThat(statementCounter.total()).isEqualTo(1);
+    }
+
+    @Test
+    void testSearchPageCostsDataAndCountStatementsOnly() {
+        UnitSearchRequest request = searchRequest();
+        request.setSortBy("baseCost");
+
+        statementCounter.reset();
+        Page<UnitResponse> page = unitService.searchUnits(request);
+
+        assertThat(page.getContent()).hasSize(PAGE_SIZE);
+        assertThat(page.getTotalElements()).isEqualTo(UNIT_COUNT);
+        assertThat(page.getContent()).allSatisfy(unit -> assertThat(unit.getOwnerName()).startsWith("Owner "));
+        assertThat(statementCounter.total()).isEqualTo(2);
+        assertThat(statementCounter.executions("select u1_0.id")
+            + statementCounter.executions("select count(")).isEqualTo(2);
+    }
+
+    @Test
+    void testGetUnitCostsOneStatement() {
+        Unit unit = units.getFirst();
+
+        statementCounter.reset();
+        UnitResponse response = unitService.getUnit(unit.getId());
+
+        assertThat(response.getOwnerName()).isEqualTo("Owner 0");
+        assertThat(response.getDescription()).isEqualTo("Query count unit #0");
+        assertThat(statementCounter.total()).isEqualTo(1);
+    }
+
+    @Test
+    void testScrollPageFetchesOwnersWithUnits() {
+        UnitSearchRequest request = searchRequest();
+
+        statementCounter.reset();
+        UnitSliceResponse slice = unitService.scrollUnits(request);
+
+        assertThat(slice.getContent()).hasSize(PAGE_SIZE);
+        assertThat(slice.getContent()).allSatisfy(unit -> assertThat(unit.getOwnerName()).startsWith("Owner "));
+        assertThat(statementCounter.total()).isEqualTo(1);
+    }
+
+    private static UnitSearchRequest searchRequest() {
+        UnitSearchRequest request = new UnitSearchRequest();
+        request.setFloor(FLOOR);
+        request.setSize(PAGE_SIZE);
+        return request;
+    }
+}
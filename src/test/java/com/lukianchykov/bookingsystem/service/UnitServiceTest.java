@@ -4,6 +4,7 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 
@@ -11,11 +12,14 @@ import com.lukianchykov.bookingsystem.domain.AccommodationType;
 import com.lukianchykov.bookingsystem.domain.Unit;
 import com.lukianchykov.bookingsystem.domain.User;
 import com.lukianchykov.bookingsystem.dto.UnitCreateRequest;
+import com.lukianchykov.bookingsystem.dto.UnitFacetsResponse;
 import com.lukianchykov.bookingsystem.dto.UnitResponse;
 import com.lukianchykov.bookingsystem.dto.UnitSearchRequest;
 import com.lukianchykov.bookingsystem.mapper.UnitMapper;
 import com.lukianchykov.bookingsystem.repository.UnitRepository;
 import com.lukianchykov.bookingsystem.repository.UserRepository;
+import com.lukianchykov.bookingsystem.utils.AvailableUnitsChangedEvent;
+import com.lukianchykov.bookingsystem.utils.UnitChangedEvent;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -23,6 +27,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -33,10 +39,10 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
-import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -51,7 +57,7 @@ class UnitServiceTest {
     private UserRepository userRepository;
 
     @Mock
-    private CacheService cacheService;
+    private ApplicationEventPublisher eventPublisher;
 
     @Mock
     private UnitMapper unitMapper;
@@ -59,6 +65,18 @@ class UnitServiceTest {
     @Mock
     private EventService eventService;
 
+    @Mock
+    private UnitAvailabilityEngine unitAvailabilityEngine;
+
+    @Mock
+    private UnitSearchCache unitSearchCache;
+
+    @Mock
+    private UnitFacetIndex unitFacetIndex;
+
+    @Mock
+    private ColumnarUnitSearch columnarUnitSearch;
+
     @InjectMocks
     private UnitService unitService;
 
@@ -118,7 +136,6 @@ class UnitServiceTest {
         when(userRepository.findById(1L)).thenReturn(Optional.of(testOwner));
         when(unitRepository.save(any(Unit.class))).thenReturn(testUnit);
         when(unitMapper.toResponse(any(Unit.class))).thenReturn(testUnitResponse);
-        doNothing().when(cacheService).evictAvailableUnitsCache();
 
         UnitResponse result = unitService.createUnit(testCreateRequest);
 
@@ -133,7 +150,13 @@ class UnitServiceTest {
         assertTrue(result.getAvailable());
 
         verify(unitRepository).save(any(Unit.class));
-        verify(cacheService).evictAvailableUnitsCache();
+        verify(eventPublisher).publishEvent(argThat((ApplicationEvent event) ->
+            event instanceof AvailableUnitsChangedEvent changed
+                && changed.getTransition() == AvailableUnitsChangedEvent.Transition.UNIT_ADDED
+                && changed.getUnitIds().equals(List.of(1L))));
+        verify(eventPublisher).publishEvent(argThat((ApplicationEvent event) ->
+            event instanceof UnitChangedEvent changed
+                && changed.getChanges().equals(List.of(UnitChangedEvent.Change.created(testUnit)))));
     }
 
     @Test
@@ -146,7 +169,7 @@ class UnitServiceTest {
         assertEquals("User not found with ID: 1", exception.getMessage());
 
         verify(unitRepository, never()).save(any());
-        verify(cacheService, never()).evictAvailableUnitsCache();
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
@@ -165,13 +188,12 @@ class UnitServiceTest {
         searchRequest.setSortBy("baseCost");
         searchRequest.setSortDirection("ASC");
 
-        Page<Unit> mockPage = new PageImpl<>(Collections.singletonList(testUnit));
+        Page<UnitResponse> mockPage = new PageImpl<>(Collections.singletonList(testUnitResponse));
         when(unitRepository.findAvailableUnits(
             eq(2), eq(AccommodationType.valueOf("APARTMENTS")), eq(3),
             eq(BigDecimal.valueOf(50)), eq(BigDecimal.valueOf(150)),
             any(LocalDate.class), any(LocalDate.class), any(Pageable.class)))
             .thenReturn(mockPage);
-        when(unitMapper.toResponse(any(Unit.class))).thenReturn(testUnitResponse);
 
         Page<UnitResponse> result = unitService.searchUnits(searchRequest);
 
@@ -185,6 +207,46 @@ class UnitServiceTest {
         assertEquals(AccommodationType.APARTMENTS, unitResponse.getAccommodationType());
     }
 
+    @Test
+    void searchUnits_WithDatesCoveredByAvailabilityBitmaps_ExcludesBookedUnits() {
+
+        LocalDate startDate = LocalDate.now().plusDays(1);
+        LocalDate endDate = LocalDate.now().plusDays(3);
+        UnitSearchRequest searchRequest = new UnitSearchRequest();
+        searchRequest.setStartDate(startDate);
+        searchRequest.setEndDate(endDate);
+
+        when(unitAvailabilityEngine.findBookedUnitIds(startDate, endDate)).thenReturn(Optional.of(List.of(7L, 8L)));
+        when(unitRepository.findUnitsExcluding(
+            any(), any(), any(), any(), any(), eq(List.of(7L, 8L)), any(Pageable.class)))
+            .thenReturn(new PageImpl<>(Collections.singletonList(testUnitResponse)));
+
+        Page<UnitResponse> result = unitService.searchUnits(searchRequest);
+
+        assertEquals(1, result.getTotalElements());
+        verify(unitRepository, never()).findAvailableUnits(
+            any(), any(), any(), any(), any(), any(), any(), any(Pageable.class));
+    }
+
+    @Test
+    void searchUnits_WithDatesAndNoBookedUnits_SkipsAntiJoin() {
+
+        LocalDate startDate = LocalDate.now().plusDays(1);
+        LocalDate endDate = LocalDate.now().plusDays(3);
+        UnitSearchRequest searchRequest = new UnitSearchRequest();
+        searchRequest.setStartDate(startDate);
+        searchRequest.setEndDate(endDate);
+
+        when(unitAvailabilityEngine.findBookedUnitIds(startDate, endDate)).thenReturn(Optional.of(List.of()));
+        when(unitRepository.findAvailableUnits(
+            any(), any(), any(), any(), any(), isNull(), isNull(), any(Pageable.class)))
+            .thenReturn(new PageImpl<>(Collections.singletonList(testUnitResponse)));
+
+        Page<UnitResponse> result = unitService.searchUnits(searchRequest);
+
+        assertEquals(1, result.getTotalElements());
+    }
+
     @Test
     void searchUnits_WithNullAccommodationType() {
 
@@ -195,13 +257,11 @@ class UnitServiceTest {
         searchRequest.setSortBy("baseCost");
         searchRequest.setSortDirection("ASC");
 
-        Page<Unit> mockPage = new PageImpl<>(Collections.singletonList(testUnit));
+        Page<UnitResponse> mockPage = new PageImpl<>(Collections.singletonList(testUnitResponse));
         when(unitRepository.findAvailableUnits(
             any(), isNull(), any(), any(), any(), any(), any(), any(Pageable.class)))
             .thenReturn(mockPage);
 
-        when(unitMapper.toResponse(any(Unit.class))).thenReturn(testUnitResponse);
-
         Page<UnitResponse> result = unitService.searchUnits(searchRequest);
 
         assertNotNull(result);
@@ -218,14 +278,12 @@ class UnitServiceTest {
         searchRequest.setSortBy("baseCost");
         searchRequest.setSortDirection("DESC");
 
-        Page<Unit> mockPage = new PageImpl<>(Collections.singletonList(testUnit));
+        Page<UnitResponse> mockPage = new PageImpl<>(Collections.singletonList(testUnitResponse));
 
         when(unitRepository.findAvailableUnits(
             any(), any(), any(), any(), any(), any(), any(), any(Pageable.class)))
             .thenReturn(mockPage);
 
-        when(unitMapper.toResponse(any(Unit.class))).thenReturn(testUnitResponse);
-
         unitService.searchUnits(searchRequest);
 
         verify(unitRepository).findAvailableUnits(
@@ -233,10 +291,95 @@ class UnitServiceTest {
             argThat(pageable -> Objects.requireNonNull(pageable.getSort().getOrderFor("baseCost")).getDirection() == Sort.Direction.DESC));
     }
 
+    @Test
+    void searchUnits_CachedResult_LoadsRowsByIdWithoutRunningSearch() {
+
+        UnitSearchRequest searchRequest = new UnitSearchRequest();
+        UnitResponse second = UnitResponse.builder().id(2L).ownerName("Other Owner").available(true).build();
+        when(unitSearchCache.get(UnitSearchCache.Key.of(searchRequest)))
+            .thenReturn(new UnitSearchCache.Result(List.of(2L, 1L), 12));
+        when(unitRepository.findResponsesByIds(List.of(2L, 1L))).thenReturn(List.of(testUnitResponse, second));
+
+        Page<UnitResponse> result = unitService.searchUnits(searchRequest);
+
+        assertEquals(12, result.getTotalElements());
+        assertEquals(List.of(2L, 1L), result.map(UnitResponse::getId).getContent());
+        verify(unitRepository, never()).findAvailableUnits(
+            any(), any(), any(), any(), any(), any(), any(), any(Pageable.class));
+    }
+
+    @Test
+    void searchUnits_CachedResultWithDeletedUnit_LeavesItOutOfRowsAndTotal() {
+
+        UnitSearchRequest searchRequest = new UnitSearchRequest();
+        when(unitSearchCache.get(UnitSearchCache.Key.of(searchRequest)))
+            .thenReturn(new UnitSearchCache.Result(List.of(2L, 1L), 12));
+        when(unitRepository.findResponsesByIds(List.of(2L, 1L))).thenReturn(List.of(testUnitResponse));
+
+        Page<UnitResponse> result = unitService.searchUnits(searchRequest);
+
+        assertEquals(11, result.getTotalElements());
+        assertEquals(List.of(1L), result.map(UnitResponse::getId).getContent());
+    }
+
+    @Test
+    void searchUnits_CacheMiss_StoresPageIds() {
+
+        UnitSearchRequest searchRequest = new UnitSearchRequest();
+        when(unitSearchCache.generation()).thenReturn(5L);
+        when(unitRepository.findAvailableUnits(
+            any(), any(), any(), any(), any(), any(), any(), any(Pageable.class)))
+            .thenReturn(new PageImpl<>(Collections.singletonList(testUnitResponse)));
+
+        unitService.searchUnits(searchRequest);
+
+        verify(unitSearchCache).put(UnitSearchCache.Key.of(searchRequest), 5L, List.of(1L), 1);
+    }
+
+    @Test
+    void searchUnits_ColumnarSnapshotLoaded_LoadsScannedRowsWithoutRunningSearch() {
+
+        LocalDate startDate = LocalDate.now().plusDays(1);
+        LocalDate endDate = startDate.plusDays(2);
+        UnitSearchRequest searchRequest = new UnitSearchRequest();
+        searchRequest.setStartDate(startDate);
+        searchRequest.setEndDate(endDate);
+
+        when(columnarUnitSearch.supports(searchRequest)).thenReturn(true);
+        when(unitAvailabilityEngine.findBookedUnitIds(startDate, endDate)).thenReturn(Optional.of(List.of(3L)));
+        when(columnarUnitSearch.search(searchRequest, List.of(3L)))
+            .thenReturn(Optional.of(new UnitSearchCache.Result(List.of(1L), 11)));
+        when(unitRepository.findResponsesByIds(List.of(1L))).thenReturn(List.of(testUnitResponse));
+
+        Page<UnitResponse> result = unitService.searchUnits(searchRequest);
+
+        assertEquals(11, result.getTotalElements());
+        assertEquals(List.of(1L), result.map(UnitResponse::getId).getContent());
+        verify(unitRepository, never()).findAvailableUnits(
+            any(), any(), any(), any(), any(), any(), any(), any(Pageable.class));
+        verify(unitSearchCache, never()).put(any(), anyLong(), any(), anyLong());
+    }
+
+    @Test
+    void getFacets_FallsBackToDatabaseWhenBitmapsCannotAnswer() {
+
+        LocalDate startDate = LocalDate.now().plusYears(5);
+        LocalDate endDate = startDate.plusDays(2);
+        UnitSearchRequest searchRequest = new UnitSearchRequest();
+        searchRequest.setStartDate(startDate);
+        searchRequest.setEndDate(endDate);
+        UnitFacetsResponse facets = UnitFacetsResponse.builder().total(4).build();
+
+        when(unitAvailabilityEngine.findBookedUnitIds(startDate, endDate)).thenReturn(Optional.empty());
+        when(unitRepository.findBookedUnitIds(startDate, endDate)).thenReturn(List.of(3L));
+        when(unitFacetIndex.count(searchRequest, List.of(3L))).thenReturn(facets);
+
+        assertEquals(facets, unitService.getFacets(searchRequest));
+    }
+
     @Test
     void getUnit_Success() {
-        when(unitRepository.findById(1L)).thenReturn(Optional.of(testUnit));
-        when(unitMapper.toResponse(any(Unit.class))).thenReturn(testUnitResponse);
+        when(unitRepository.findResponseById(1L)).thenReturn(Optional.of(testUnitResponse));
 
         UnitResponse result = unitService.getUnit(1L);
 
@@ -253,7 +396,7 @@ class UnitServiceTest {
 
     @Test
     void getUnit_NotFound_ThrowsException() {
-        when(unitRepository.findById(1L)).thenReturn(Optional.empty());
+        when(unitRepository.findResponseById(1L)).thenReturn(Optional.empty());
 
         RuntimeException exception = assertThrows(RuntimeException.class,
             () -> unitService.getUnit(1L));
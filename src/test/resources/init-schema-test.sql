@@ -1,10 +1,17 @@
 DROP TABLE IF EXISTS bookings CASCADE;
 DROP TABLE IF EXISTS units CASCADE;
 DROP TABLE IF EXISTS users CASCADE;
+DROP TABLE IF EXISTS events CASCADE;
+
+CREATE SEQUENCE IF NOT EXISTS users_id_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS units_id_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS bookings_id_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS events_id_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS unit_imports_id_seq;
 
 CREATE TABLE users
 (
-    id         BIGINT AUTO_INCREMENT PRIMARY KEY,
+    id         BIGINT DEFAULT NEXT VALUE FOR users_id_seq PRIMARY KEY,
     email      VARCHAR(255) NOT NULL UNIQUE,
     name       VARCHAR(255) NOT NULL,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
@@ -12,7 +19,7 @@ CREATE TABLE users
 
 CREATE TABLE units
 (
-    id                 BIGINT AUTO_INCREMENT PRIMARY KEY,
+    id                 BIGINT DEFAULT NEXT VALUE FOR units_id_seq PRIMARY KEY,
     number_of_rooms    INTEGER        NOT NULL,
     accommodation_type VARCHAR(50)    NOT NULL CHECK (accommodation_type IN ('HOME', 'FLAT', 'APARTMENTS')),
     floor_number       INTEGER        NOT NULL,
@@ -25,7 +32,7 @@ CREATE TABLE units
 
 CREATE TABLE bookings
 (
-    id         BIGINT AUTO_INCREMENT PRIMARY KEY,
+    id         BIGINT DEFAULT NEXT VALUE FOR bookings_id_seq PRIMARY KEY,
     unit_id    BIGINT         NOT NULL,
     user_id    BIGINT         NOT NULL,
     start_date DATE           NOT NULL,
@@ -34,4 +41,14 @@ CREATE TABLE bookings
     status     VARCHAR(20)    NOT NULL CHECK (status IN ('PENDING', 'CONFIRMED', 'CANCELLED', 'EXPIRED')),
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     expires_at TIMESTAMP
-);
\ No newline at end of file
+);
+
+CREATE TABLE events
+(
+    id          BIGINT DEFAULT NEXT VALUE FOR events_id_seq PRIMARY KEY,
+    event_type  VARCHAR(100) NOT NULL,
+    entity_type VARCHAR(50)  NOT NULL,
+    entity_id   BIGINT       NOT NULL,
+    event_data  TEXT,
+    created_at  TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);